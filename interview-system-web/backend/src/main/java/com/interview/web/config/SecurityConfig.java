@@ -45,6 +45,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/questions/**").authenticated()
                 // 面试管理：只有 ADMIN 和 EXAMINER 可以操作
                 .requestMatchers("/api/interviews/**").hasAnyRole("ADMIN", "EXAMINER")
+                .requestMatchers("/api/records/**").hasAnyRole("ADMIN", "EXAMINER")
                 // 用户管理：只有 ADMIN
                 .requestMatchers("/api/users/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
@@ -0,0 +1,147 @@
+package com.interview.web.controller;
+
+import com.interview.web.service.InterviewRecordService;
+import com.interview.web.service.VoiceStorageService.CorruptedVoiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/records")
+@CrossOrigin(origins = "*")
+public class InterviewRecordController {
+    
+    private final InterviewRecordService recordService;
+    
+    @Autowired
+    public InterviewRecordController(InterviewRecordService recordService) {
+        this.recordService = recordService;
+    }
+    
+    /**
+     * 语音文件流式下载，支持 HTTP Range（浏览器拖动进度条时只读取所需区间）
+     * 文件内容经 FileChannel.transferTo 直接写入响应通道，不在堆中缓冲整个文件
+     */
+    @GetMapping("/{id}/voice")
+    public ResponseEntity<?> streamVoice(
+            @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader) {
+        
+        Optional<File> fileOpt;
+        try {
+            fileOpt = recordService.getVoiceFile(id);
+        } catch (CorruptedVoiceException e) {
+            // 不返回可能已损坏的内容
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("读取语音文件失败: " + e.getMessage());
+        }
+        if (fileOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        File file = fileOpt.get();
+        long fileSize = file.length();
+        long start = 0;
+        long end = fileSize - 1;
+        boolean partial = false;
+        
+        if (rangeHeader != null && rangeHeader.startsWith("bytes=")) {
+            long[] range = parseRange(rangeHeader.substring(6), fileSize);
+            if (range == null) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize)
+                    .build();
+            }
+            start = range[0];
+            end = range[1];
+            partial = true;
+        }
+        
+        long offset = start;
+        long length = end - start + 1;
+        StreamingResponseBody body = out -> {
+            try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = offset;
+                long limit = offset + length;
+                while (position < limit) {
+                    long transferred = in.transferTo(position, limit - position, target);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    position += transferred;
+                }
+            }
+        };
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+            .contentType(contentTypeOf(file.getName()))
+            .contentLength(length)
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (partial) {
+            builder.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + fileSize);
+        }
+        return builder.body(body);
+    }
+    
+    /**
+     * 解析单个字节区间："start-end"、"start-" 或 "-suffix"，不满足时返回 null
+     */
+    static long[] parseRange(String spec, long fileSize) {
+        int comma = spec.indexOf(',');
+        if (comma >= 0) {
+            // 多区间请求只处理第一个
+            spec = spec.substring(0, comma);
+        }
+        int dash = spec.indexOf('-');
+        if (dash < 0 || fileSize == 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, fileSize - suffix);
+                end = fileSize - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? fileSize - 1 : Math.min(Long.parseLong(last), fileSize - 1);
+            }
+            if (start >= fileSize || start > end) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private MediaType contentTypeOf(String fileName) {
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".wav")) {
+            return MediaType.parseMediaType("audio/wav");
+        } else if (lower.endsWith(".mp3")) {
+            return MediaType.parseMediaType("audio/mpeg");
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+}
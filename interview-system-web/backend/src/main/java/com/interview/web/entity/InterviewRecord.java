@@ -34,6 +34,15 @@ public class InterviewRecord {
     @Column(name = "voice_file_size")
     private Long voiceFileSize;
     
+    @Column(name = "voice_file_hash", length = 64)
+    private String voiceFileHash;
+    
+    @Column(name = "storage_tier", length = 10)
+    private String storageTier;
+    
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+    
     @Column(columnDefinition = "TEXT")
     private String notes;
     
@@ -82,6 +91,15 @@ public class InterviewRecord {
     public Long getVoiceFileSize() { return voiceFileSize; }
     public void setVoiceFileSize(Long voiceFileSize) { this.voiceFileSize = voiceFileSize; }
     
+    public String getVoiceFileHash() { return voiceFileHash; }
+    public void setVoiceFileHash(String voiceFileHash) { this.voiceFileHash = voiceFileHash; }
+    
+    public String getStorageTier() { return storageTier; }
+    public void setStorageTier(String storageTier) { this.storageTier = storageTier; }
+    
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+    
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
     
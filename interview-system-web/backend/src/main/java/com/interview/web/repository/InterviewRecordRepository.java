@@ -2,8 +2,13 @@ package com.interview.web.repository;
 
 import com.interview.web.entity.InterviewRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,4 +19,22 @@ public interface InterviewRecordRepository extends JpaRepository<InterviewRecord
     List<InterviewRecord> findByExaminerUsernameOrderByCreatedAtDesc(String examinerUsername);
     
     List<InterviewRecord> findAllByOrderByCreatedAtDesc();
+    
+    /**
+     * 录音从冷层恢复后标记为热层，并刷新访问时间（与桌面端 markVoiceRehydrated 相同）
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE interview_records SET storage_tier = 'HOT', voice_accessed_at = CURRENT_TIMESTAMP "
+            + "WHERE voice_file_hash = :hash", nativeQuery = true)
+    int markVoiceRehydrated(@Param("hash") String hash);
+    
+    /**
+     * 刷新录音的最近访问时间，上次刷新晚于 since 时不更新（与桌面端 touchVoiceAccess 相同）
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE interview_records SET voice_accessed_at = CURRENT_TIMESTAMP "
+            + "WHERE id = :id AND (voice_accessed_at IS NULL OR voice_accessed_at < :since)", nativeQuery = true)
+    int touchVoiceAccess(@Param("id") Integer id, @Param("since") LocalDateTime since);
 }
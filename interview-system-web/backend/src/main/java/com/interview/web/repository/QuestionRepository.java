@@ -15,6 +15,10 @@ public interface QuestionRepository extends JpaRepository<Question, Integer> {
     @Query("SELECT DISTINCT q.category FROM Question q WHERE q.category IS NOT NULL")
     List<String> findAllCategories();
     
-    @Query(value = "SELECT * FROM questions WHERE active = true ORDER BY RANDOM() LIMIT ?1", nativeQuery = true)
-    List<Question> findRandomQuestions(int count);
+    @Query("SELECT q.id FROM Question q WHERE q.active = true")
+    List<Integer> findActiveIds();
+    
+    // ids 为 PostgreSQL 数组字面量，如 "{1,2,3}"
+    @Query(value = "SELECT * FROM questions WHERE id = ANY(CAST(?1 AS integer[])) AND active = true", nativeQuery = true)
+    List<Question> findActiveByIdArray(String ids);
 }
@@ -2,20 +2,39 @@ package com.interview.web.service;
 
 import com.interview.web.entity.InterviewRecord;
 import com.interview.web.repository.InterviewRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class InterviewRecordService {
     
+    private static final Logger log = LoggerFactory.getLogger(InterviewRecordService.class);
+    
+    // 录音访问时间的刷新间隔：归档按天判断冷热，每条记录每天最多写一次
+    private static final Duration VOICE_TOUCH_INTERVAL = Duration.ofDays(1);
+    
     private final InterviewRecordRepository recordRepository;
+    private final VoiceStorageService voiceStorage;
+    
+    // 最近刷新过访问时间的记录：记录ID -> 刷新时刻（毫秒），间隔内的读取不再访问数据库
+    private final Map<Integer, Long> voiceTouchedAt = new ConcurrentHashMap<>();
     
     @Autowired
-    public InterviewRecordService(InterviewRecordRepository recordRepository) {
+    public InterviewRecordService(InterviewRecordRepository recordRepository, VoiceStorageService voiceStorage) {
         this.recordRepository = recordRepository;
+        this.voiceStorage = voiceStorage;
     }
     
     @Transactional(readOnly = true)
@@ -33,6 +52,61 @@ public class InterviewRecordService {
         return recordRepository.findByExaminerUsernameOrderByCreatedAtDesc(examinerUsername);
     }
     
+    @Transactional(readOnly = true)
+    public Optional<InterviewRecord> getRecord(Integer id) {
+        return recordRepository.findById(id);
+    }
+    
+    /**
+     * 获取记录对应的语音文件，已归档到冷层的录音解压回热层后返回；
+     * 记录不存在或文件缺失时返回空
+     * 
+     * @throws VoiceStorageService.CorruptedVoiceException 文件内容与记录的哈希不一致
+     */
+    public Optional<File> getVoiceFile(Integer id) throws IOException {
+        Optional<InterviewRecord> recordOpt = recordRepository.findById(id);
+        if (recordOpt.isEmpty() || recordOpt.get().getVoiceFilePath() == null) {
+            return Optional.empty();
+        }
+        InterviewRecord record = recordOpt.get();
+        
+        File voiceFile = new File(record.getVoiceFilePath());
+        if (!voiceFile.isFile()) {
+            if (record.getVoiceFileHash() == null) {
+                return Optional.empty();
+            }
+            voiceFile = voiceStorage.rehydrate(record.getVoiceFileHash(), voiceFile.getName());
+            if (voiceFile == null) {
+                return Optional.empty();
+            }
+        }
+        
+        // 内容寻址存储的文件在读取前校验完整性（旧记录没有哈希，直接返回）
+        if (record.getVoiceFileHash() != null) {
+            voiceStorage.verify(voiceFile, record.getVoiceFileHash());
+        }
+        touchVoiceAccess(id);
+        return Optional.of(voiceFile);
+    }
+    
+    /**
+     * 刷新录音的最近访问时间，避免经常播放的录音被归档任务下沉到冷层
+     * 按 VOICE_TOUCH_INTERVAL 节流，刷新失败不影响读取
+     */
+    private void touchVoiceAccess(Integer id) {
+        long now = System.currentTimeMillis();
+        Long last = voiceTouchedAt.get(id);
+        if (last != null && now - last < VOICE_TOUCH_INTERVAL.toMillis()) {
+            return;
+        }
+        voiceTouchedAt.put(id, now);
+        try {
+            recordRepository.touchVoiceAccess(id, LocalDateTime.now().minus(VOICE_TOUCH_INTERVAL));
+        } catch (RuntimeException e) {
+            log.error("刷新录音访问时间失败: {}", e.getMessage());
+        }
+    }
+    
     @Transactional
     public InterviewRecord createRecord(InterviewRecord record) {
         return recordRepository.save(record);
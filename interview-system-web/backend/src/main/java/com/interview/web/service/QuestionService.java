@@ -4,17 +4,37 @@ import com.interview.web.entity.Question;
 import com.interview.web.entity.User;
 import com.interview.web.repository.QuestionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class QuestionService {
     
     private final QuestionRepository questionRepository;
     
+    // 抽题用的启用题目 id 快照，题目变更的事务提交后失效，超过有效期也会重新加载
+    @Value("${question.extract.id-cache-seconds:300}")
+    private long idCacheSeconds;
+    private volatile int[] activeIds;
+    private volatile long activeIdsLoadedAt;
+    // 每次失效加一（由 this 保护）；加载期间发生过失效的快照不保存，避免覆盖为旧数据
+    private long activeIdsGeneration;
+    
     @Autowired
     public QuestionService(QuestionRepository questionRepository) {
         this.questionRepository = questionRepository;
@@ -34,12 +54,16 @@ public class QuestionService {
     public Question createQuestion(Question question, User creator) {
         question.setCreatedBy(creator.getUsername());
         question.setActive(true);
-        return questionRepository.save(question);
+        Question saved = questionRepository.save(question);
+        invalidateActiveIdsAfterCommit();
+        return saved;
     }
     
     @Transactional
     public Question updateQuestion(Question question) {
-        return questionRepository.save(question);
+        Question saved = questionRepository.save(question);
+        invalidateActiveIdsAfterCommit();
+        return saved;
     }
     
     @Transactional
@@ -48,6 +72,7 @@ public class QuestionService {
             .orElseThrow(() -> new RuntimeException("题目不存在"));
         question.setActive(false);
         questionRepository.save(question);
+        invalidateActiveIdsAfterCommit();
     }
     
     @Transactional(readOnly = true)
@@ -55,8 +80,106 @@ public class QuestionService {
         return questionRepository.findAllCategories();
     }
     
+    /**
+     * 随机抽题：在内存 id 快照上用 Floyd 算法抽取不重复 id，再用一条 id = ANY(...) 查询取回，
+     * 代替 ORDER BY RANDOM() 对整表排序
+     * 
+     * 快照过期（题目被其他途径停用）导致取回的题目不足时，重新加载一次快照，
+     * 从中补抽缺少的数量
+     */
     @Transactional(readOnly = true)
     public List<Question> extractRandomQuestions(int count) {
-        return questionRepository.findRandomQuestions(count);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Integer> picked = pickIds(currentActiveIds(), count, Set.of(), random);
+        List<Question> result = findActive(picked);
+        if (result.size() < picked.size()) {
+            invalidateActiveIds();
+            Set<Integer> found = result.stream().map(Question::getId).collect(Collectors.toSet());
+            result.addAll(findActive(pickIds(currentActiveIds(), count - result.size(), found, random)));
+            Collections.shuffle(result, random);
+        }
+        return result;
+    }
+    
+    /**
+     * 从 ids 中排除 excluded 后随机抽取 count 个不重复 id
+     */
+    private static List<Integer> pickIds(int[] ids, int count, Set<Integer> excluded, ThreadLocalRandom random) {
+        if (!excluded.isEmpty()) {
+            ids = Arrays.stream(ids).filter(id -> !excluded.contains(id)).toArray();
+        }
+        int k = Math.max(0, Math.min(count, ids.length));
+        
+        Set<Integer> chosen = new HashSet<>(k * 2);
+        List<Integer> picked = new ArrayList<>(k);
+        for (int j = ids.length - k; j < ids.length; j++) {
+            int t = random.nextInt(j + 1);
+            int pick = chosen.add(t) ? t : j;
+            chosen.add(pick);
+            picked.add(ids[pick]);
+        }
+        Collections.shuffle(picked, random);
+        return picked;
+    }
+    
+    /**
+     * 按 ids 的顺序取回仍处于启用状态的题目
+     */
+    private List<Question> findActive(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String literal = ids.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+        Map<Integer, Question> byId = questionRepository.findActiveByIdArray(literal).stream()
+            .collect(Collectors.toMap(Question::getId, Function.identity()));
+        List<Question> result = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Question question = byId.get(id);
+            if (question != null) {
+                result.add(question);
+            }
+        }
+        return result;
+    }
+    
+    private int[] currentActiveIds() {
+        int[] ids = activeIds;
+        if (ids == null || System.currentTimeMillis() - activeIdsLoadedAt > idCacheSeconds * 1000) {
+            long generation;
+            synchronized (this) {
+                generation = activeIdsGeneration;
+            }
+            ids = questionRepository.findActiveIds().stream().mapToInt(Integer::intValue).toArray();
+            synchronized (this) {
+                if (activeIdsGeneration == generation) {
+                    activeIdsLoadedAt = System.currentTimeMillis();
+                    activeIds = ids;
+                }
+            }
+        }
+        return ids;
+    }
+    
+    private void invalidateActiveIds() {
+        synchronized (this) {
+            activeIdsGeneration++;
+            activeIds = null;
+        }
+    }
+    
+    /**
+     * 当前事务提交后再使快照失效；提交前失效的话，并发的抽题可能在提交前重新加载到旧数据
+     */
+    private void invalidateActiveIdsAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateActiveIds();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateActiveIds();
+            }
+        });
     }
 }
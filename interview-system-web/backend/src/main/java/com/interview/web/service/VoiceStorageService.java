@@ -0,0 +1,136 @@
+package com.interview.web.service;
+
+import com.interview.storage.VoiceFiles;
+import com.interview.web.repository.InterviewRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 录音文件存储（目录布局和读取校验与桌面端共用 VoiceFiles 的实现）
+ * 
+ * 热层：<storage.voice.dir>/ab/cd/<hash>.<ext>
+ * 冷层：<storage.tier.cold-dir>/ab/cd/<hash>.<ext>.gz
+ * 
+ * 访问已归档到冷层的录音时解压回热层并校验哈希，随后把引用该内容的记录标记回 HOT；
+ * 读取前按记录的哈希校验文件内容，校验结果按 storage.voice.verify-cache-seconds 短期缓存，
+ * 过期后重新完整计算（见 VoiceFiles.Verifier）。
+ */
+@Service
+public class VoiceStorageService {
+    
+    private static final Logger log = LoggerFactory.getLogger(VoiceStorageService.class);
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final InterviewRecordRepository recordRepository;
+    private final Path hotRoot;
+    private final Path coldRoot;
+    private final VoiceFiles.Verifier verifier;
+    
+    /**
+     * 文件内容与记录的哈希不一致
+     */
+    public static class CorruptedVoiceException extends IOException {
+        private static final long serialVersionUID = 1L;
+        
+        public CorruptedVoiceException(String message) {
+            super(message);
+        }
+    }
+    
+    @Autowired
+    public VoiceStorageService(InterviewRecordRepository recordRepository,
+                               @Value("${storage.voice.dir:voice_records}") String hotDir,
+                               @Value("${storage.tier.cold-dir:voice_archive}") String coldDir,
+                               @Value("${storage.voice.verify-cache-seconds:600}") long verifyCacheSeconds) {
+        this.recordRepository = recordRepository;
+        this.hotRoot = Path.of(hotDir).toAbsolutePath();
+        this.coldRoot = Path.of(coldDir).toAbsolutePath();
+        this.verifier = new VoiceFiles.Verifier(TimeUnit.SECONDS.toMillis(verifyCacheSeconds));
+    }
+    
+    /**
+     * 从冷层恢复到热层
+     * 
+     * @param hash 内容哈希
+     * @param fileName 热层文件名（用于确定扩展名）
+     * @return 恢复后的热层文件，冷层不存在时返回 null
+     */
+    public File rehydrate(String hash, String fileName) throws IOException {
+        Path cold = VoiceFiles.shard(coldRoot, VoiceFiles.coldKey(hash, fileName));
+        if (!Files.isRegularFile(cold)) {
+            return null;
+        }
+        
+        Path tempDir = hotRoot.resolve(".tmp");
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "rehydrate-", ".part");
+        try {
+            MessageDigest digest = VoiceFiles.newDigest();
+            try (ReadableByteChannel in = Channels.newChannel(
+                         new GZIPInputStream(Files.newInputStream(cold), BUFFER_SIZE));
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                VoiceFiles.copy(in, out, digest);
+            }
+            if (!HexFormat.of().formatHex(digest.digest()).equalsIgnoreCase(hash)) {
+                throw new IOException("冷层对象校验失败: " + cold.getFileName());
+            }
+            
+            Path target = VoiceFiles.shard(hotRoot,
+                    VoiceFiles.objectName(hash, VoiceFiles.extensionOf(fileName)));
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                try {
+                    Files.move(temp, target);
+                } catch (FileAlreadyExistsException ignored) {
+                    // 并发恢复了相同内容
+                }
+            } catch (FileAlreadyExistsException ignored) {
+                // 并发恢复了相同内容
+            }
+            
+            try {
+                recordRepository.markVoiceRehydrated(hash);
+            } catch (RuntimeException e) {
+                // 标记失败时只保留热层副本，下一轮归档会重新处理
+                log.error("更新录音存储层失败: {}", e.getMessage());
+            }
+            return target.toFile();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * 读取前校验文件内容与记录的哈希是否一致（有效期内文件大小和修改时间未变时沿用上次的结果）
+     * 
+     * @throws CorruptedVoiceException 内容不一致
+     */
+    public void verify(File file, String expectedHash) throws IOException {
+        if (!verifier.verify(file.toPath(), expectedHash)) {
+            log.warn("语音文件校验失败，内容可能已损坏: {}", file.getAbsolutePath());
+            throw new CorruptedVoiceException("语音文件校验失败，内容可能已损坏");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.interview.web.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 录音播放接口的 Range 请求头解析
+ */
+class InterviewRecordControllerTest {
+    
+    @Test
+    void parsesClosedRange() {
+        assertArrayEquals(new long[] { 0, 499 }, InterviewRecordController.parseRange("0-499", 1000));
+        assertArrayEquals(new long[] { 500, 500 }, InterviewRecordController.parseRange(" 500 - 500 ", 1000));
+    }
+    
+    @Test
+    void parsesOpenEndedRange() {
+        assertArrayEquals(new long[] { 900, 999 }, InterviewRecordController.parseRange("900-", 1000));
+    }
+    
+    @Test
+    void parsesSuffixRange() {
+        assertArrayEquals(new long[] { 800, 999 }, InterviewRecordController.parseRange("-200", 1000));
+        // 后缀超过文件大小时返回整个文件
+        assertArrayEquals(new long[] { 0, 999 }, InterviewRecordController.parseRange("-5000", 1000));
+    }
+    
+    @Test
+    void clampsEndToFileSize() {
+        assertArrayEquals(new long[] { 100, 999 }, InterviewRecordController.parseRange("100-99999", 1000));
+    }
+    
+    @Test
+    void usesFirstOfMultipleRanges() {
+        assertArrayEquals(new long[] { 0, 9 }, InterviewRecordController.parseRange("0-9,20-29", 1000));
+    }
+    
+    @Test
+    void rejectsUnsatisfiableRanges() {
+        assertNull(InterviewRecordController.parseRange("1000-", 1000));
+        assertNull(InterviewRecordController.parseRange("500-100", 1000));
+        assertNull(InterviewRecordController.parseRange("-0", 1000));
+        assertNull(InterviewRecordController.parseRange("0-10", 0));
+    }
+    
+    @Test
+    void rejectsMalformedRanges() {
+        assertNull(InterviewRecordController.parseRange("abc", 1000));
+        assertNull(InterviewRecordController.parseRange("a-b", 1000));
+        assertNull(InterviewRecordController.parseRange("-", 1000));
+        assertNull(InterviewRecordController.parseRange("1.5-2", 1000));
+    }
+}
@@ -3,23 +3,41 @@ package com.interview;
 import com.interview.config.AppConfig;
 import com.interview.config.DatabaseConfig;
 import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.dao.InterviewRecordDao;
+import com.interview.db.DbExecutor;
+import com.interview.db.QueryStats;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+import com.interview.metrics.MetricsExporter;
+import com.interview.metrics.MetricsRegistry;
 import com.interview.service.AuthService;
+import com.interview.service.QuestionService;
+import com.interview.startup.StartupOrchestrator;
+import com.interview.storage.VoiceStore;
+import com.interview.storage.VoiceTierManager;
 import com.interview.util.DatabaseConnection;
-import com.interview.util.DatabaseInitializer;
 import com.interview.view.LoginView;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 
-import java.sql.SQLException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletionException;
 
 /**
  * JavaFX 应用入口
  */
 public class JavaFXApp extends Application {
     
+    private static final Logger log = Log.get(JavaFXApp.class);
     private static Stage primaryStage;
     private static AuthService authService;
+    private static volatile VoiceTierManager voiceTierManager;
+    private static StartupOrchestrator startup;
+    private static List<MetricsExporter> metricsExporters = List.of();
     
     @Override
     public void init() {
@@ -27,13 +45,52 @@ public class JavaFXApp extends Application {
         // 这里只解析额外的命令行参数覆盖配置
         parseArguments(getParameters().getRaw().toArray(new String[0]));
         
-        // 初始化数据库
-        if (!initializeDatabase()) {
-            System.err.println("数据库初始化失败，程序退出");
-            System.exit(1);
-        }
+        // 显示当前配置
+        AppConfig.printConfig();
+        log.info("SSL/HTTPS 连接: {}", DatabaseConfig.isSslEnabled() ? "已启用" : "未启用");
         
         authService = new AuthService();
+        
+        // 指标导出（Prometheus 本机端口、JSON 文件），未配置时不启动
+        metricsExporters = MetricsExporter.startFromConfig(MetricsRegistry.global());
+        
+        // 数据库初始化在后台执行，登录界面先显示；登录在结构迁移和默认账号就绪后开放
+        startup = new StartupOrchestrator(AppConfig.getInt("startup.threads", 4));
+        
+        // 启动录音分层归档后台任务（依赖 storage_tier 等列，迁移完成后启动）；
+        // 只在存放录音文件的那一台机器上启用
+        if (AppConfig.getBoolean("storage.tier.enabled", false)) {
+            startup.afterSchema("录音归档任务", () -> {
+                voiceTierManager = VoiceTierManager.fromConfig(new VoiceStore("voice_records"), new InterviewRecordDao());
+                voiceTierManager.start(AppConfig.getInt("storage.tier.interval.minutes", 60));
+            });
+        }
+        
+        String timelineFile = AppConfig.getString("startup.timeline.file", "logs/startup-timeline.jsonl");
+        startup.start(timelineFile.isBlank() ? null : Path.of(timelineFile), getVersion());
+    }
+    
+    @Override
+    public void stop() {
+        if (voiceTierManager != null) {
+            voiceTierManager.stop();
+        }
+        DbExecutor.shutdown();
+        QuestionService.shutdown();
+        DatabaseConnection.shutdownPool();
+        String statsFile = AppConfig.getString("db.stats.dump.file", "");
+        if (!statsFile.isBlank()) {
+            try {
+                QueryStats.dump(Path.of(statsFile));
+            } catch (Exception e) {
+                log.warn("写入 SQL 统计失败: {}", e.getMessage());
+            }
+        }
+        for (MetricsExporter exporter : metricsExporters) {
+            exporter.close();
+        }
+        // 最后写出缓冲中的日志
+        Log.shutdown();
     }
     
     @Override
@@ -48,6 +105,12 @@ public class JavaFXApp extends Application {
         showLoginView();
         
         stage.show();
+        startup.getTimeline().mark("登录界面显示");
+        
+        startup.loginReady().exceptionally(e -> {
+            Platform.runLater(() -> showStartupFailure(e));
+            return null;
+        });
     }
     
     /**
@@ -55,6 +118,7 @@ public class JavaFXApp extends Application {
      */
     public static void showLoginView() {
         LoginView loginView = new LoginView(authService);
+        loginView.waitForStartup(startup.loginReady());
         Scene scene = new Scene(loginView, 400, 500);
         
         // 加载样式表
@@ -116,7 +180,7 @@ public class JavaFXApp extends Application {
                         try {
                             DatabaseConfig.setPgPort(Integer.parseInt(args[++i]));
                         } catch (NumberFormatException e) {
-                            System.err.println("无效的端口号");
+                            log.warn("无效的端口号");
                         }
                     }
                     break;
@@ -146,40 +210,32 @@ public class JavaFXApp extends Application {
     }
     
     /**
-     * 初始化数据库
-     * 使用管理员角色创建表结构和初始数据
+     * 数据库初始化失败：打印排查提示，提示用户后退出
      */
-    private boolean initializeDatabase() {
-        try {
-            // 显示当前配置
-            AppConfig.printConfig();
-            
-            // 先测试管理员连接
-            System.out.println("正在测试管理员数据库连接...");
-            if (!DatabaseConnection.testConnection(DbUserRole.ADMIN)) {
-                System.err.println("无法连接到 PostgreSQL 数据库，请检查配置");
-                System.err.println("连接信息: " + DatabaseConfig.getCurrentUrl());
-                System.err.println("\n请检查:");
-                System.err.println("1. PostgreSQL 服务是否已启动");
-                System.err.println("2. 管理员用户名和密码是否正确");
-                System.err.println("3. 数据库 interview_system 是否存在");
-                System.err.println("4. PostgreSQL SSL 是否已配置（如启用）");
-                System.err.println("\n您可以修改 config.properties 文件来配置正确的连接信息");
-                return false;
-            }
-            
-            System.out.println("管理员数据库连接成功!");
-            
-            // 初始化数据库表结构
-            DatabaseInitializer initializer = new DatabaseInitializer();
-            initializer.initialize();
-            
-            return true;
-            
-        } catch (SQLException e) {
-            System.err.println("数据库初始化失败: " + e.getMessage());
-            return false;
-        }
+    private static void showStartupFailure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        log.error("数据库初始化失败: {}", cause.getMessage());
+        log.error("连接信息: {}", DatabaseConfig.getCurrentUrl());
+        log.error("请检查: 1. PostgreSQL 服务是否已启动 2. 管理员用户名和密码是否正确 "
+                + "3. 数据库 interview_system 是否存在 4. PostgreSQL SSL 是否已配置（如启用）");
+        log.error("您可以修改 config.properties 文件来配置正确的连接信息");
+        
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.initOwner(primaryStage);
+        alert.setTitle("数据库初始化失败");
+        alert.setHeaderText("无法连接或初始化 PostgreSQL 数据库，程序将退出");
+        alert.setContentText(cause.getMessage() + "\n\n连接信息: " + DatabaseConfig.getCurrentUrl()
+                + "\n请检查 config.properties 中的连接配置");
+        alert.showAndWait();
+        Platform.exit();
+    }
+    
+    /**
+     * 程序版本（打包时写入 MANIFEST，开发环境运行时为 dev）
+     */
+    private static String getVersion() {
+        String version = JavaFXApp.class.getPackage().getImplementationVersion();
+        return version != null ? version : "dev";
     }
     
     /**
@@ -0,0 +1,314 @@
+package com.interview.cache;
+
+import com.interview.dao.Page;
+import com.interview.dao.QuestionDao;
+import com.interview.model.Question;
+import com.interview.model.QuestionSummary;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 题目目录缓存
+ * 
+ * 启用的题目保存在不可变快照中，列表、详情、分类、计数等读取都在本地完成，读取不加锁。
+ * 本客户端的增删改和收到的变更通知以写时复制的方式生成新快照（复制 id 映射并重新排序），
+ * 正在使用旧快照的读取不受影响。对外返回的题目都是副本，调用方修改不会影响缓存。
+ * 
+ * 其他工作站（包括 Web 端）的修改由 questions 表上的触发器 NOTIFY，QuestionChangeListener
+ * 收到后按 id 重新读取这些题目；监听连接断开期间，快照超过 maxStaleSeconds 会在下次读取时整体重新加载。
+ */
+public class QuestionCatalogue {
+    
+    // 与 QuestionDao.findAll 的顺序一致：创建时间倒序，同一时间按 id 倒序（键集分页的排序键）
+    private static final Comparator<Question> ORDER = Comparator
+            .comparing(Question::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+            .thenComparing(Question::getId, Comparator.reverseOrder());
+    
+    private final QuestionDao questionDao;
+    private final long maxStaleNanos;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final Object writeLock = new Object();
+    
+    private volatile Snapshot snapshot;
+    // 快照需要整体重新加载（批量导入、错过变更通知等）
+    private volatile boolean stale;
+    // 变更监听连接是否正常，正常时快照不会因为时间过期
+    private volatile boolean live;
+    
+    public QuestionCatalogue(QuestionDao questionDao, int maxStaleSeconds) {
+        this.questionDao = questionDao;
+        this.maxStaleNanos = Math.max(1, maxStaleSeconds) * 1_000_000_000L;
+    }
+    
+    /**
+     * 当前快照，首次调用或快照失效时从数据库加载
+     */
+    public Snapshot snapshot() throws SQLException {
+        Snapshot current = snapshot;
+        if (current != null && !stale && (live || System.nanoTime() - current.loadedAt < maxStaleNanos)) {
+            return current;
+        }
+        return reload();
+    }
+    
+    /**
+     * 从数据库重新加载全部启用题目
+     */
+    public Snapshot reload() throws SQLException {
+        // 先清除标记：加载期间收到的失效会让下一次读取再加载一次
+        stale = false;
+        List<Question> questions;
+        try {
+            questions = questionDao.findAll();
+        } catch (SQLException e) {
+            stale = true;
+            throw e;
+        }
+        Snapshot next = Snapshot.of(questions);
+        synchronized (writeLock) {
+            snapshot = next;
+        }
+        for (ChangeListener listener : listeners) {
+            listener.reloaded(next);
+        }
+        return next;
+    }
+    
+    /**
+     * 标记快照失效，下次读取时整体重新加载
+     */
+    public void invalidate() {
+        stale = true;
+    }
+    
+    /**
+     * 快照加载时间早于给定时刻（System.nanoTime）时标记失效
+     */
+    void invalidateIfLoadedBefore(long nanos) {
+        Snapshot current = snapshot;
+        if (current != null && current.loadedAt < nanos) {
+            stale = true;
+        }
+    }
+    
+    /**
+     * 是否已加载过（未加载时变更通知无需处理，首次读取会取到最新数据）
+     */
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+    
+    void setLive(boolean live) {
+        this.live = live;
+    }
+    
+    public boolean isLive() {
+        return live;
+    }
+    
+    /**
+     * 新增或更新一道题目（保存副本）；已停用的题目从目录中移除
+     */
+    public void put(Question question) {
+        if (question.getId() == null) {
+            return;
+        }
+        if (question.isActive()) {
+            apply(List.of(new Question(question)), Set.of());
+        } else {
+            apply(List.of(), Set.of(question.getId()));
+        }
+    }
+    
+    public void remove(int questionId) {
+        apply(List.of(), Set.of(questionId));
+    }
+    
+    /**
+     * 按 id 从数据库重新读取题目，数据库中已不存在或已停用的从目录中移除
+     */
+    public void refresh(Collection<Integer> questionIds) throws SQLException {
+        if (snapshot == null || questionIds.isEmpty()) {
+            return;
+        }
+        int[] ids = questionIds.stream().mapToInt(Integer::intValue).toArray();
+        List<Question> found = questionDao.findByIds(ids);
+        Set<Integer> removed = new HashSet<>(questionIds);
+        for (Question question : found) {
+            removed.remove(question.getId());
+        }
+        apply(found, removed);
+    }
+    
+    private void apply(List<Question> upserted, Set<Integer> removed) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                // 尚未加载，首次读取时会取到最新数据
+                return;
+            }
+            snapshot = current.with(upserted, removed);
+        }
+        for (ChangeListener listener : listeners) {
+            listener.changed(upserted, removed);
+        }
+    }
+    
+    /**
+     * 注册变更监听（检索索引、查重索引等派生数据随目录同步）
+     */
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * 目录变更回调，在修改目录的线程中调用；传入的题目为缓存内部对象，只能读取
+     */
+    public interface ChangeListener {
+        void reloaded(Snapshot snapshot);
+        
+        void changed(List<Question> upserted, Set<Integer> removed);
+    }
+    
+    /**
+     * 不可变的目录快照
+     */
+    public static final class Snapshot {
+        private final Map<Integer, Question> byId;
+        private final List<Question> ordered;
+        private final List<String> categories;
+        private final long loadedAt;
+        
+        private Snapshot(Map<Integer, Question> byId, long loadedAt) {
+            this.byId = byId;
+            List<Question> list = new ArrayList<>(byId.values());
+            list.sort(ORDER);
+            this.ordered = Collections.unmodifiableList(list);
+            Set<String> names = new TreeSet<>();
+            for (Question question : list) {
+                if (question.getCategory() != null) {
+                    names.add(question.getCategory());
+                }
+            }
+            this.categories = List.copyOf(names);
+            this.loadedAt = loadedAt;
+        }
+        
+        static Snapshot of(Collection<Question> questions) {
+            Map<Integer, Question> byId = new HashMap<>(Math.max(16, questions.size() * 2));
+            for (Question question : questions) {
+                if (question.getId() != null && question.isActive()) {
+                    byId.put(question.getId(), question);
+                }
+            }
+            return new Snapshot(byId, System.nanoTime());
+        }
+        
+        /**
+         * 复制 id 映射并应用修改，加载时间沿用原快照
+         */
+        Snapshot with(List<Question> upserted, Set<Integer> removed) {
+            Map<Integer, Question> copy = new HashMap<>(byId);
+            for (Integer id : removed) {
+                copy.remove(id);
+            }
+            for (Question question : upserted) {
+                if (question.isActive()) {
+                    copy.put(question.getId(), question);
+                } else {
+                    copy.remove(question.getId());
+                }
+            }
+            return new Snapshot(copy, loadedAt);
+        }
+        
+        /**
+         * 按 id 取题目副本，不存在（或已停用）时返回 null
+         */
+        public Question get(int id) {
+            Question question = byId.get(id);
+            return question != null ? new Question(question) : null;
+        }
+        
+        /**
+         * 按 id 顺序取题目副本，跳过不存在的 id
+         */
+        public List<Question> getAll(int[] ids) {
+            List<Question> questions = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                Question question = byId.get(id);
+                if (question != null) {
+                    questions.add(new Question(question));
+                }
+            }
+            return questions;
+        }
+        
+        /**
+         * 全部题目的副本，按创建时间倒序
+         */
+        public List<Question> all() {
+            List<Question> questions = new ArrayList<>(ordered.size());
+            for (Question question : ordered) {
+                questions.add(new Question(question));
+            }
+            return questions;
+        }
+        
+        /**
+         * 全部题目（缓存内部对象，只能读取），用于重建派生索引
+         */
+        public List<Question> readOnlyView() {
+            return ordered;
+        }
+        
+        /**
+         * 分类名称（排序后）
+         */
+        public List<String> categories() {
+            return categories;
+        }
+        
+        public int size() {
+            return ordered.size();
+        }
+        
+        /**
+         * 按 (创建时间, id) 降序分页，游标含义与 QuestionDao.findSummaryPage 相同
+         */
+        public Page<QuestionSummary> page(Page.Cursor after, int limit) {
+            int from = 0;
+            if (after != null) {
+                Question key = new Question();
+                key.setId(after.getId());
+                key.setCreatedAt(after.getCreatedAt());
+                int index = Collections.binarySearch(ordered, key, ORDER);
+                // 游标对应的题目可能已被删除，此时从它应在的位置之后开始
+                from = index >= 0 ? index + 1 : -index - 1;
+            }
+            int to = Math.min(ordered.size(), from + limit);
+            List<QuestionSummary> items = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                items.add(QuestionSummary.of(ordered.get(i)));
+            }
+            Page.Cursor next = null;
+            if (to < ordered.size() && to > from) {
+                Question last = ordered.get(to - 1);
+                next = new Page.Cursor(last.getCreatedAt(), last.getId());
+            }
+            return new Page<>(items, next);
+        }
+    }
+}
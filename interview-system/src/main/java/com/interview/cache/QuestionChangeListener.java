@@ -0,0 +1,141 @@
+package com.interview.cache;
+
+import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+import com.interview.util.DatabaseConnection;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 监听 questions 表的变更通知，同步到题目目录
+ * 
+ * 迁移脚本 V5 在 questions 表上建了语句级触发器，每条修改题目的语句提交后 NOTIFY question_changes，
+ * 内容为逗号分隔的题目 id，一次修改超过 500 行时为 "*"。监听线程持有一个独立连接，
+ * 收到通知后合并同一批的 id 重新读取；"*" 或 id 过多时整体重新加载。
+ * 连接断开后按指数退避重连，重连后整体重新加载，弥补断开期间错过的通知。
+ */
+public class QuestionChangeListener {
+    
+    private static final Logger log = Log.get(QuestionChangeListener.class);
+    
+    public static final String CHANNEL = "question_changes";
+    
+    // 一批通知涉及的题目超过该数量时整体重新加载
+    private static final int MAX_REFRESH_IDS = 500;
+    // 等待通知的超时时间，也是停止监听的最大延迟
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+    
+    private final QuestionCatalogue catalogue;
+    private final DbUserRole dbRole;
+    
+    private volatile boolean running;
+    private Thread thread;
+    
+    public QuestionChangeListener(QuestionCatalogue catalogue, DbUserRole dbRole) {
+        this.catalogue = catalogue;
+        this.dbRole = dbRole;
+    }
+    
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "question-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * 停止监听（最多等待一个轮询周期）
+     */
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        catalogue.setLive(false);
+    }
+    
+    private void run() {
+        // 读取题目使用的数据库用户（连接按线程保存，不影响界面线程的角色）
+        DatabaseConnection.setCurrentDbRole(dbRole);
+        long backoffMs = 1000;
+        while (running) {
+            try (Connection conn = DatabaseConnection.openConnection(dbRole)) {
+                long listenedAt = System.nanoTime();
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN " + CHANNEL);
+                }
+                // 开始监听之前加载的快照可能漏掉了期间的修改
+                catalogue.invalidateIfLoadedBefore(listenedAt);
+                catalogue.setLive(true);
+                backoffMs = 1000;
+                
+                PGConnection pgConn = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConn.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        handle(notifications);
+                    }
+                }
+            } catch (SQLException e) {
+                catalogue.setLive(false);
+                if (!running) {
+                    break;
+                }
+                log.warn("题目变更监听连接断开，{} 秒后重连: {}", backoffMs / 1000, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+                backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+            }
+        }
+        catalogue.setLive(false);
+        DatabaseConnection.closeCurrentConnection();
+    }
+    
+    private void handle(PGNotification[] notifications) {
+        if (!catalogue.isLoaded()) {
+            return;
+        }
+        Set<Integer> ids = new HashSet<>();
+        boolean all = false;
+        for (PGNotification notification : notifications) {
+            String payload = notification.getParameter();
+            if (payload == null || payload.isEmpty() || "*".equals(payload)) {
+                all = true;
+                break;
+            }
+            for (String part : payload.split(",")) {
+                try {
+                    ids.add(Integer.parseInt(part.trim()));
+                } catch (NumberFormatException e) {
+                    all = true;
+                }
+            }
+        }
+        try {
+            if (all || ids.size() > MAX_REFRESH_IDS) {
+                catalogue.reload();
+            } else {
+                catalogue.refresh(ids);
+            }
+        } catch (SQLException e) {
+            // 读取失败时下次访问目录再整体加载
+            catalogue.invalidate();
+            log.error("同步题目变更失败: {}", e.getMessage());
+        }
+    }
+}
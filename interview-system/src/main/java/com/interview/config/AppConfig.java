@@ -2,10 +2,14 @@ package com.interview.config;
 
 import com.interview.config.DatabaseConfig.DbUserRole;
 import com.interview.config.SSLConfig.SSLMode;
+import com.interview.log.Log;
+import com.interview.log.Logger;
 
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -14,6 +18,7 @@ import java.util.Properties;
  */
 public class AppConfig {
     
+    private static final Logger log = Log.get(AppConfig.class);
     private static final String CONFIG_FILE = "config.properties";
     private static final Properties properties = new Properties();
     private static boolean loaded = false;
@@ -30,10 +35,12 @@ public class AppConfig {
         try (InputStream is = new FileInputStream(CONFIG_FILE)) {
             properties.load(is);
             loaded = true;
-            System.out.println("配置文件加载成功: " + CONFIG_FILE);
+            // 日志设置也在配置文件中，加载后先应用，再输出日志
+            Log.configure(properties);
+            log.info("配置文件加载成功: {}", CONFIG_FILE);
             return;
         } catch (IOException e) {
-            System.out.println("未找到外部配置文件，尝试从资源目录加载...");
+            log.info("未找到外部配置文件，尝试从资源目录加载...");
         }
         
         // 尝试从资源目录加载
@@ -41,10 +48,11 @@ public class AppConfig {
             if (is != null) {
                 properties.load(is);
                 loaded = true;
-                System.out.println("配置文件加载成功（内置）");
+                Log.configure(properties);
+                log.info("配置文件加载成功（内置）");
             }
         } catch (IOException e) {
-            System.out.println("未找到配置文件，使用默认配置");
+            log.info("未找到配置文件，使用默认配置");
         }
     }
     
@@ -108,7 +116,7 @@ public class AppConfig {
             SSLMode sslMode = SSLMode.valueOf(sslModeStr.toUpperCase().replace("-", "_"));
             DatabaseConfig.setSslMode(sslMode);
         } catch (IllegalArgumentException e) {
-            System.err.println("无效的 SSL 模式: " + sslModeStr + "，使用默认 require");
+            log.warn("无效的 SSL 模式: {}，使用默认 require", sslModeStr);
             DatabaseConfig.setSslMode(SSLMode.REQUIRE);
         }
         
@@ -142,21 +150,30 @@ public class AppConfig {
         String adminPass = getString("db.admin.password", "postgres");
         DatabaseConfig.setPgCredentials(adminUser, adminPass);
         
-        System.out.println("数据库配置已应用:");
-        System.out.println("  主机: " + host);
-        System.out.println("  端口: " + port);
-        System.out.println("  数据库: " + database);
-        System.out.println("  SSL 启用: " + sslEnabled);
-        System.out.println("  SSL 模式: " + DatabaseConfig.getSslMode().getMode());
+        // 只读副本（逗号分隔的 host[:port]，端口缺省与主库相同）
+        List<String> replicas = new ArrayList<>();
+        for (String entry : getString("db.replica.hosts", "").split(",")) {
+            String trimmed = entry.trim();
+            if (!trimmed.isEmpty()) {
+                replicas.add(trimmed.contains(":") ? trimmed : trimmed + ":" + port);
+            }
+        }
+        DatabaseConfig.setReplicaHosts(replicas);
+        DatabaseConfig.setReplicaMaxLagSeconds(getInt("db.replica.max.lag.seconds", 5));
+        
+        log.info("数据库配置已应用: 主机 {}, 端口 {}, 数据库 {}", host, port, database);
+        log.info("SSL 启用: {}, SSL 模式: {}", sslEnabled, DatabaseConfig.getSslMode().getMode());
+        if (!replicas.isEmpty()) {
+            log.info("只读副本: {}", String.join(", ", replicas));
+        }
     }
     
     /**
      * 获取指定角色的数据库配置信息
      */
     public static void printRoleConfig(DbUserRole role) {
-        System.out.println("  " + role.getDisplayName() + " (" + role.getDbUser() + "):");
-        System.out.println("    数据库用户: " + DatabaseConfig.getDbUsername(role));
-        System.out.println("    连接 URL: " + maskPassword(DatabaseConfig.getSecureUrl(role)));
+        log.info("{} ({}): 数据库用户 {}", role.getDisplayName(), role.getDbUser(), DatabaseConfig.getDbUsername(role));
+        log.info("{} 连接 URL: {}", role.getDisplayName(), maskPassword(DatabaseConfig.getSecureUrl(role)));
     }
     
     /**
@@ -171,16 +188,11 @@ public class AppConfig {
      */
     public static void printConfig() {
         loadConfig();
-        System.out.println("\n========== 当前数据库配置 ==========");
-        System.out.println("数据库主机: " + getString("db.host", "localhost"));
-        System.out.println("数据库端口: " + getInt("db.port", 5432));
-        System.out.println("数据库名: " + getString("db.name", "interview_system"));
-        System.out.println("SSL 启用: " + DatabaseConfig.isSslEnabled());
-        System.out.println("SSL 模式: " + DatabaseConfig.getSslMode().getMode());
-        System.out.println("\n角色数据库用户配置:");
+        log.info("当前数据库配置: {}:{}/{}", getString("db.host", "localhost"), getInt("db.port", 5432),
+                getString("db.name", "interview_system"));
+        log.info("SSL 启用: {}, SSL 模式: {}", DatabaseConfig.isSslEnabled(), DatabaseConfig.getSslMode().getMode());
         for (DbUserRole role : DbUserRole.values()) {
             printRoleConfig(role);
         }
-        System.out.println("==================================\n");
     }
 }
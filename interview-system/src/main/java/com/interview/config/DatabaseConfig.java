@@ -2,6 +2,8 @@ package com.interview.config;
 
 import com.interview.model.Role;
 
+import java.util.List;
+
 /**
  * 数据库配置类
  * 支持 PostgreSQL 数据库，按角色配置不同的数据库用户
@@ -23,6 +25,11 @@ public class DatabaseConfig {
     private static String pgDatabase = "interview_system";
     public static final String POSTGRESQL_DRIVER = "org.postgresql.Driver";
     
+    // 只读副本（host:port），为空表示不使用副本，所有查询都走主库
+    private static List<String> replicaHosts = List.of();
+    // 副本复制延迟超过该秒数时不再向其发送查询
+    private static int replicaMaxLagSeconds = 5;
+    
     // SSL/HTTPS 配置
     private static boolean sslEnabled = true;
     private static SSLConfig.SSLMode sslMode = SSLConfig.SSLMode.REQUIRE;
@@ -99,17 +106,31 @@ public class DatabaseConfig {
      * 获取当前数据库连接URL（基础URL，不含SSL参数）
      */
     public static String getCurrentUrl() {
+        return getUrl(pgHost, pgPort);
+    }
+    
+    /**
+     * 获取指定主机的数据库连接URL（只读副本使用与主库相同的数据库名）
+     */
+    public static String getUrl(String host, int port) {
         return String.format("jdbc:postgresql://%s:%d/%s", 
-                pgHost, pgPort, pgDatabase);
+                host, port, pgDatabase);
     }
     
     /**
      * 获取带SSL参数的数据库连接URL
      */
     public static String getSecureUrl(DbUserRole role) {
+        return getSecureUrl(role, pgHost, pgPort);
+    }
+    
+    /**
+     * 获取指定主机带SSL参数的数据库连接URL
+     */
+    public static String getSecureUrl(DbUserRole role, String host, int port) {
         StringBuilder url = new StringBuilder();
         url.append(String.format("jdbc:postgresql://%s:%d/%s?user=%s&password=%s",
-                pgHost, pgPort, pgDatabase, 
+                host, port, pgDatabase, 
                 getDbUsername(role), getDbPassword(role)));
         
         // 添加 SSL 参数
@@ -206,6 +227,25 @@ public class DatabaseConfig {
         pgDatabase = database;
     }
     
+    /**
+     * 只读副本列表（host:port）
+     */
+    public static List<String> getReplicaHosts() {
+        return replicaHosts;
+    }
+    
+    public static void setReplicaHosts(List<String> hosts) {
+        replicaHosts = List.copyOf(hosts);
+    }
+    
+    public static int getReplicaMaxLagSeconds() {
+        return replicaMaxLagSeconds;
+    }
+    
+    public static void setReplicaMaxLagSeconds(int seconds) {
+        replicaMaxLagSeconds = seconds;
+    }
+    
     /**
      * 设置管理员数据库凭据（向后兼容）
      */
@@ -16,46 +16,6 @@ import java.util.Map;
  */
 public class EvaluationScoreDao {
     
-    /**
-     * 创建评分记录表
-     */
-    public void createTable() throws SQLException {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS evaluation_scores (
-                id SERIAL PRIMARY KEY,
-                interview_record_id INTEGER NOT NULL,
-                candidate_username VARCHAR(50) NOT NULL,
-                evaluator_username VARCHAR(50),
-                score_type VARCHAR(20) NOT NULL,
-                comments TEXT,
-                reasoning TEXT,
-                suggestions TEXT,
-                scored_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                submitted BOOLEAN DEFAULT FALSE
-            )
-            """;
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        }
-        
-        // 创建维度分数表
-        String dimensionSql = """
-            CREATE TABLE IF NOT EXISTS evaluation_dimension_scores (
-                id SERIAL PRIMARY KEY,
-                evaluation_score_id INTEGER NOT NULL REFERENCES evaluation_scores(id) ON DELETE CASCADE,
-                dimension_name VARCHAR(50) NOT NULL,
-                score INTEGER NOT NULL
-            )
-            """;
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(dimensionSql);
-        }
-    }
-    
     /**
      * 插入评分记录
      */
@@ -64,7 +24,7 @@ public class EvaluationScoreDao {
             INSERT INTO evaluation_scores 
             (interview_record_id, candidate_username, evaluator_username, score_type, 
              comments, reasoning, suggestions, scored_at, submitted)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            VALUES (?, ?, ?, ?, ?, ?, ?, COALESCE(?, CURRENT_TIMESTAMP), ?)
             RETURNING id
             """;
         
@@ -134,6 +94,7 @@ public class EvaluationScoreDao {
                     scores.add(mapResultSetToScore(rs));
                 }
             }
+            loadDimensionScores(conn, scores);
         }
         return scores;
     }
@@ -145,7 +106,7 @@ public class EvaluationScoreDao {
         List<EvaluationScore> scores = new ArrayList<>();
         String sql = "SELECT * FROM evaluation_scores WHERE candidate_username = ? ORDER BY scored_at DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, candidateUsername);
@@ -155,10 +116,38 @@ public class EvaluationScoreDao {
                     scores.add(mapResultSetToScore(rs));
                 }
             }
+            loadDimensionScores(conn, scores);
         }
         return scores;
     }
     
+    /**
+     * 分页获取考生的评分，按评分时间倒序
+     * 
+     * @param after 上一页返回的游标，首页为 null
+     * @param limit 每页行数
+     */
+    public Page<EvaluationScore> findPageByCandidate(String candidateUsername, Page.Cursor after, int limit)
+            throws SQLException {
+        String sql = "SELECT * FROM evaluation_scores WHERE candidate_username = ?"
+                + Keyset.after(after, "scored_at") + Keyset.orderBy("scored_at");
+        
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, candidateUsername);
+            Keyset.bind(pstmt, 2, after, limit);
+            
+            Page<EvaluationScore> page;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                page = Keyset.read(rs, limit, this::mapResultSetToScore,
+                        score -> new Page.Cursor(score.getScoredAt(), score.getId()));
+            }
+            loadDimensionScores(conn, page.getItems());
+            return page;
+        }
+    }
+    
     /**
      * 查找特定面试记录的评委评分
      */
@@ -176,7 +165,9 @@ public class EvaluationScoreDao {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToScore(rs);
+                    EvaluationScore score = mapResultSetToScore(rs);
+                    loadDimensionScores(conn, List.of(score));
+                    return score;
                 }
             }
         }
@@ -200,7 +191,9 @@ public class EvaluationScoreDao {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToScore(rs);
+                    EvaluationScore score = mapResultSetToScore(rs);
+                    loadDimensionScores(conn, List.of(score));
+                    return score;
                 }
             }
         }
@@ -254,7 +247,7 @@ public class EvaluationScoreDao {
     }
     
     /**
-     * 将 ResultSet 映射到 EvaluationScore
+     * 将 ResultSet 映射到 EvaluationScore（不含维度分数，由 loadDimensionScores 批量加载）
      */
     private EvaluationScore mapResultSetToScore(ResultSet rs) throws SQLException {
         EvaluationScore score = new EvaluationScore();
@@ -273,25 +266,29 @@ public class EvaluationScoreDao {
             score.setScoredAt(scoredAt.toLocalDateTime());
         }
         
-        // 加载维度分数
-        loadDimensionScores(score);
-        
         return score;
     }
     
     /**
-     * 加载维度分数
+     * 批量加载维度分数：一次查询取回所有评分的维度分数
+     * 使用调用方的连接，结果集读完后再查询，不在遍历中途另开查询
      */
-    private void loadDimensionScores(EvaluationScore score) throws SQLException {
-        String sql = "SELECT * FROM evaluation_dimension_scores WHERE evaluation_score_id = ?";
+    private void loadDimensionScores(Connection conn, List<EvaluationScore> scores) throws SQLException {
+        if (scores.isEmpty()) {
+            return;
+        }
+        Map<Integer, EvaluationScore> byId = new HashMap<>();
+        for (EvaluationScore score : scores) {
+            byId.put(score.getId(), score);
+        }
+        String sql = "SELECT * FROM evaluation_dimension_scores WHERE evaluation_score_id = ANY(?)";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, score.getId());
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setArray(1, conn.createArrayOf("integer", byId.keySet().toArray()));
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
+                    EvaluationScore score = byId.get(rs.getInt("evaluation_score_id"));
                     String dimName = rs.getString("dimension_name");
                     int dimScore = rs.getInt("score");
                     try {
@@ -0,0 +1,119 @@
+package com.interview.dao;
+
+import com.interview.model.EvaluationDimension;
+import com.interview.util.DatabaseConnection;
+
+import java.io.IOException;
+import java.sql.*;
+import java.util.Locale;
+
+/**
+ * 数据导出查询
+ * 
+ * 用服务端游标逐批读取（关闭自动提交 + setFetchSize），驱动每次只缓存 fetchSize 行，
+ * 导出百万行时客户端内存占用不随行数增长。各数据集的列名与导入文件的列名保持一致（英文小写）。
+ * 配置了只读副本时导出在副本上执行，不占用主库。
+ * 导出使用独立连接，游标事务的回滚不会影响调用线程上正在进行的事务。
+ */
+public class ExportDao {
+    
+    private final int fetchSize;
+    
+    public ExportDao(int fetchSize) {
+        this.fetchSize = Math.max(1, fetchSize);
+    }
+    
+    /**
+     * 导出题目（含停用题目）
+     */
+    public long streamQuestions(RowHandler handler) throws SQLException, IOException {
+        String sql = """
+            SELECT id, title, content, answer, type, level, specialization, category,
+                   created_by, created_at, updated_at, active
+            FROM questions ORDER BY id
+            """;
+        return stream(sql, handler);
+    }
+    
+    /**
+     * 导出面试记录（不含 AI 原始响应，语音只导出文件信息）
+     */
+    public long streamInterviewRecords(RowHandler handler) throws SQLException, IOException {
+        String sql = """
+            SELECT id, candidate_username, examiner_username, interview_time, status,
+                   voice_file_name, voice_file_size, voice_file_hash, storage_tier, recording_duration,
+                   question_ids, notes, transcribed_text, refined_text, ai_analysis_result, ai_analysis_time,
+                   created_at, updated_at
+            FROM interview_records ORDER BY id
+            """;
+        return stream(sql, handler);
+    }
+    
+    /**
+     * 导出评分，维度分数按 EvaluationDimension 透视为每个维度一列（未评的维度为空）
+     */
+    public long streamEvaluationScores(RowHandler handler) throws SQLException, IOException {
+        StringBuilder pivot = new StringBuilder();
+        for (EvaluationDimension dimension : EvaluationDimension.values()) {
+            pivot.append(",\n       MAX(d.score) FILTER (WHERE d.dimension_name = '")
+                    .append(dimension.name()).append("') AS ")
+                    .append(dimension.name().toLowerCase(Locale.ROOT));
+        }
+        String sql = """
+            SELECT s.id, s.interview_record_id, s.candidate_username, s.evaluator_username, s.score_type,
+                   s.submitted, s.scored_at, s.comments, s.reasoning, s.suggestions%s
+            FROM evaluation_scores s
+            LEFT JOIN evaluation_dimension_scores d ON d.evaluation_score_id = s.id
+            GROUP BY s.id
+            ORDER BY s.id
+            """.formatted(pivot);
+        return stream(sql, handler);
+    }
+    
+    /**
+     * 执行查询并逐行回调
+     * 
+     * @return 行数
+     */
+    private long stream(String sql, RowHandler handler) throws SQLException, IOException {
+        try (Connection conn = DatabaseConnection.getDedicatedReadConnection()) {
+            // PostgreSQL 驱动只有在事务内才会使用游标分批读取
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(fetchSize);
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    String[] columns = new String[meta.getColumnCount()];
+                    for (int i = 0; i < columns.length; i++) {
+                        columns[i] = meta.getColumnLabel(i + 1);
+                    }
+                    handler.columns(columns);
+                    
+                    long count = 0;
+                    Object[] values = new Object[columns.length];
+                    while (rs.next()) {
+                        for (int i = 0; i < values.length; i++) {
+                            values[i] = rs.getObject(i + 1);
+                        }
+                        handler.row(values);
+                        count++;
+                    }
+                    return count;
+                }
+            } finally {
+                // 只读查询，结束事务释放游标
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+    
+    /**
+     * 导出行回调；values 数组会被复用，回调返回后不应再持有
+     */
+    public interface RowHandler {
+        void columns(String[] columns) throws IOException;
+        
+        void row(Object[] values) throws IOException;
+    }
+}
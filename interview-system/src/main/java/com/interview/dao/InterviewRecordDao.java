@@ -2,11 +2,16 @@ package com.interview.dao;
 
 import com.interview.model.InterviewRecord;
 import com.interview.model.InterviewRecord.InterviewStatus;
+import com.interview.model.InterviewRecordSummary;
 import com.interview.util.DatabaseConnection;
 
 import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 面试记录数据访问对象
@@ -14,40 +19,16 @@ import java.util.List;
  */
 public class InterviewRecordDao {
     
-    /**
-     * 创建面试记录表
-     */
-    public void createTable() throws SQLException {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS interview_records (
-                id SERIAL PRIMARY KEY,
-                candidate_username VARCHAR(50) NOT NULL,
-                examiner_username VARCHAR(50),
-                interview_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                status VARCHAR(20) NOT NULL DEFAULT 'SCHEDULED',
-                voice_file_path VARCHAR(500),
-                voice_file_name VARCHAR(255),
-                voice_file_size BIGINT,
-                notes TEXT,
-                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                transcribed_text TEXT,
-                refined_text TEXT,
-                ai_analysis_result TEXT,
-                ai_raw_response TEXT,
-                ai_analysis_time TIMESTAMP,
-                is_recording BOOLEAN DEFAULT FALSE,
-                recording_start_time TIMESTAMP,
-                recording_duration BIGINT,
-                question_ids TEXT
-            )
-            """;
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        }
-    }
+    // mapResultSetToRecord 读取的列：转写文本、AI 分析结果等大字段由语音识别/分析流程单独读写，
+    // 记录查询不再用 SELECT * 把它们一并传回
+    private static final String RECORD_COLUMNS = """
+            id, candidate_username, examiner_username, interview_time, status,
+            voice_file_path, voice_file_name, voice_file_size, voice_file_hash, storage_tier, archived_at,
+            notes, created_at, updated_at""";
+    
+    // 列表摘要读取的列
+    private static final String SUMMARY_COLUMNS =
+            "id, candidate_username, examiner_username, interview_time, status, voice_file_name, created_at";
     
     /**
      * 插入新面试记录
@@ -57,7 +38,7 @@ public class InterviewRecordDao {
             INSERT INTO interview_records 
             (candidate_username, examiner_username, interview_time, status, 
              voice_file_path, voice_file_name, voice_file_size, notes, created_at, updated_at)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, COALESCE(?, CURRENT_TIMESTAMP), ?)
             RETURNING id
             """;
         
@@ -92,7 +73,7 @@ public class InterviewRecordDao {
      * 根据ID查找面试记录
      */
     public InterviewRecord findById(int id) throws SQLException {
-        String sql = "SELECT * FROM interview_records WHERE id = ?";
+        String sql = "SELECT " + RECORD_COLUMNS + " FROM interview_records WHERE id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -113,9 +94,9 @@ public class InterviewRecordDao {
      */
     public List<InterviewRecord> findAll() throws SQLException {
         List<InterviewRecord> records = new ArrayList<>();
-        String sql = "SELECT * FROM interview_records ORDER BY created_at DESC";
+        String sql = "SELECT " + RECORD_COLUMNS + " FROM interview_records ORDER BY created_at DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -131,9 +112,9 @@ public class InterviewRecordDao {
      */
     public List<InterviewRecord> findByCandidate(String candidateUsername) throws SQLException {
         List<InterviewRecord> records = new ArrayList<>();
-        String sql = "SELECT * FROM interview_records WHERE candidate_username = ? ORDER BY created_at DESC";
+        String sql = "SELECT " + RECORD_COLUMNS + " FROM interview_records WHERE candidate_username = ? ORDER BY created_at DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, candidateUsername);
@@ -147,14 +128,44 @@ public class InterviewRecordDao {
         return records;
     }
     
+    /**
+     * 分页获取面试记录摘要，按创建时间倒序
+     * 只读取列表显示的列，评价、转写文本和 AI 分析结果在选中后由 findById 加载
+     * 
+     * @param candidateUsername 只查该考生的记录，为 null 时查全部
+     * @param after 上一页返回的游标，首页为 null
+     * @param limit 每页行数
+     */
+    public Page<InterviewRecordSummary> findSummaryPage(String candidateUsername, Page.Cursor after, int limit)
+            throws SQLException {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM interview_records WHERE "
+                + (candidateUsername != null ? "candidate_username = ?" : "TRUE")
+                + Keyset.after(after, "created_at") + Keyset.orderBy("created_at");
+        
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            int index = 1;
+            if (candidateUsername != null) {
+                pstmt.setString(index++, candidateUsername);
+            }
+            Keyset.bind(pstmt, index, after, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return Keyset.read(rs, limit, this::mapResultSetToSummary,
+                        r -> new Page.Cursor(r.getCreatedAt(), r.getId()));
+            }
+        }
+    }
+    
     /**
      * 根据考官用户名查找记录
      */
     public List<InterviewRecord> findByExaminer(String examinerUsername) throws SQLException {
         List<InterviewRecord> records = new ArrayList<>();
-        String sql = "SELECT * FROM interview_records WHERE examiner_username = ? ORDER BY created_at DESC";
+        String sql = "SELECT " + RECORD_COLUMNS + " FROM interview_records WHERE examiner_username = ? ORDER BY created_at DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, examinerUsername);
@@ -202,9 +213,19 @@ public class InterviewRecordDao {
      * 更新语音文件信息
      */
     public boolean updateVoiceFile(int recordId, String filePath, String fileName, long fileSize) throws SQLException {
+        return updateVoiceFile(recordId, filePath, fileName, fileSize, null);
+    }
+    
+    /**
+     * 更新语音文件信息（含内容哈希）
+     */
+    public boolean updateVoiceFile(int recordId, String filePath, String fileName, 
+                                   long fileSize, String fileHash) throws SQLException {
         String sql = """
             UPDATE interview_records 
-            SET voice_file_path = ?, voice_file_name = ?, voice_file_size = ?, updated_at = CURRENT_TIMESTAMP
+            SET voice_file_path = ?, voice_file_name = ?, voice_file_size = ?, voice_file_hash = ?,
+                storage_tier = 'HOT', archived_at = NULL, voice_accessed_at = CURRENT_TIMESTAMP,
+                updated_at = CURRENT_TIMESTAMP
             WHERE id = ?
             """;
         
@@ -214,12 +235,157 @@ public class InterviewRecordDao {
             pstmt.setString(1, filePath);
             pstmt.setString(2, fileName);
             pstmt.setLong(3, fileSize);
-            pstmt.setInt(4, recordId);
+            pstmt.setString(4, fileHash);
+            pstmt.setInt(5, recordId);
             
             return pstmt.executeUpdate() > 0;
         }
     }
     
+    /**
+     * 统计引用同一语音内容的其他记录数（去重存储删除前的引用检查）
+     */
+    public int countOtherVoiceReferences(String fileHash, int excludeRecordId) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM interview_records WHERE voice_file_hash = ? AND id <> ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, fileHash);
+            pstmt.setInt(2, excludeRecordId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * 查找可下沉到冷层的录音内容
+     * 以哈希为单位：所有引用该内容的记录最近访问时间（无访问记录时取创建时间）都早于 cutoff，
+     * 且没有记录正在录音；已标记为 COLD / MISSING 的内容不再选中
+     * 
+     * @return 哈希 -> 热层文件路径，按最早访问时间排序
+     */
+    public Map<String, String> findArchiveCandidates(LocalDateTime cutoff, int limit) throws SQLException {
+        String sql = """
+            SELECT voice_file_hash, MIN(voice_file_path) AS voice_file_path
+            FROM interview_records
+            WHERE voice_file_hash IS NOT NULL
+            GROUP BY voice_file_hash
+            HAVING BOOL_OR(storage_tier = 'HOT' OR storage_tier IS NULL)
+               AND MAX(COALESCE(voice_accessed_at, created_at)) < ?
+               AND NOT BOOL_OR(COALESCE(is_recording, FALSE))
+            ORDER BY MAX(COALESCE(voice_accessed_at, created_at))
+            LIMIT ?
+            """;
+        
+        Map<String, String> candidates = new LinkedHashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+            pstmt.setInt(2, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    candidates.put(rs.getString("voice_file_hash"), rs.getString("voice_file_path"));
+                }
+            }
+        }
+        return candidates;
+    }
+    
+    /**
+     * 将引用该内容的记录标记为冷层
+     * 再次检查访问时间，期间被访问过的内容不会被标记
+     * 
+     * @return 更新的记录数，为 0 时调用方不得删除热层副本
+     */
+    public int markVoiceArchived(String fileHash, LocalDateTime cutoff) throws SQLException {
+        String sql = """
+            UPDATE interview_records 
+            SET storage_tier = 'COLD', archived_at = CURRENT_TIMESTAMP
+            WHERE voice_file_hash = ?
+              AND NOT EXISTS (
+                  SELECT 1 FROM interview_records r
+                  WHERE r.voice_file_hash = ?
+                    AND (COALESCE(r.voice_accessed_at, r.created_at) >= ? OR COALESCE(r.is_recording, FALSE))
+              )
+            """;
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, fileHash);
+            pstmt.setString(2, fileHash);
+            pstmt.setTimestamp(3, Timestamp.valueOf(cutoff));
+            
+            return pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * 热层文件缺失且没有冷层副本的内容标记为 MISSING，归档任务不再选中
+     * （重新上传录音时 updateVoiceFile 会恢复为 HOT）
+     */
+    public int markVoiceMissing(String fileHash) throws SQLException {
+        String sql = """
+            UPDATE interview_records 
+            SET storage_tier = 'MISSING'
+            WHERE voice_file_hash = ? AND (storage_tier = 'HOT' OR storage_tier IS NULL)
+            """;
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, fileHash);
+            return pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * 录音从冷层恢复后标记为热层，并刷新访问时间
+     */
+    public int markVoiceRehydrated(String fileHash) throws SQLException {
+        String sql = """
+            UPDATE interview_records 
+            SET storage_tier = 'HOT', voice_accessed_at = CURRENT_TIMESTAMP
+            WHERE voice_file_hash = ?
+            """;
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, fileHash);
+            return pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * 刷新录音的最近访问时间（距上次刷新不足 minInterval 时不更新），归档任务据此判断冷热
+     * 
+     * @return 是否更新了访问时间
+     */
+    public boolean touchVoiceAccess(int recordId, Duration minInterval) throws SQLException {
+        String sql = """
+            UPDATE interview_records 
+            SET voice_accessed_at = CURRENT_TIMESTAMP
+            WHERE id = ? AND (voice_accessed_at IS NULL OR voice_accessed_at < ?)
+            """;
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, recordId);
+            pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now().minus(minInterval)));
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+    
     /**
      * 更新面试状态
      */
@@ -280,7 +446,7 @@ public class InterviewRecordDao {
     public int count() throws SQLException {
         String sql = "SELECT COUNT(*) FROM interview_records";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -297,7 +463,7 @@ public class InterviewRecordDao {
     public int countByCandidate(String candidateUsername) throws SQLException {
         String sql = "SELECT COUNT(*) FROM interview_records WHERE candidate_username = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, candidateUsername);
@@ -327,6 +493,13 @@ public class InterviewRecordDao {
         if (!rs.wasNull()) {
             record.setVoiceFileSize(fileSize);
         }
+        record.setVoiceFileHash(rs.getString("voice_file_hash"));
+        record.setStorageTier(rs.getString("storage_tier"));
+        
+        Timestamp archivedAt = rs.getTimestamp("archived_at");
+        if (archivedAt != null) {
+            record.setArchivedAt(archivedAt.toLocalDateTime());
+        }
         
         record.setNotes(rs.getString("notes"));
         
@@ -347,4 +520,28 @@ public class InterviewRecordDao {
         
         return record;
     }
+    
+    /**
+     * 将 ResultSet 映射到 InterviewRecordSummary 对象
+     */
+    private InterviewRecordSummary mapResultSetToSummary(ResultSet rs) throws SQLException {
+        InterviewRecordSummary summary = new InterviewRecordSummary();
+        summary.setId(rs.getInt("id"));
+        summary.setCandidateUsername(rs.getString("candidate_username"));
+        summary.setExaminerUsername(rs.getString("examiner_username"));
+        summary.setStatus(InterviewStatus.valueOf(rs.getString("status")));
+        summary.setVoiceFileName(rs.getString("voice_file_name"));
+        
+        Timestamp interviewTime = rs.getTimestamp("interview_time");
+        if (interviewTime != null) {
+            summary.setInterviewTime(interviewTime.toLocalDateTime());
+        }
+        
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            summary.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        
+        return summary;
+    }
 }
@@ -0,0 +1,66 @@
+package com.interview.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 键集分页的公共部分
+ * 
+ * 排序键为 (时间列 DESC, id DESC)，翻页条件写成行值比较 (时间列, id) < (?, ?)，
+ * 配合同序的复合索引可以直接从上一页末尾定位。时间列必须非空，否则 NULL 行会在比较中被漏掉，
+ * 因此迁移脚本 V3 把旧数据补齐并加上了 NOT NULL 约束。
+ */
+final class Keyset {
+    
+    private Keyset() {
+    }
+    
+    /**
+     * 翻页条件（以 AND 开头，首页为空串），参数由 bind 绑定
+     */
+    static String after(Page.Cursor cursor, String timeColumn) {
+        return cursor == null ? "" : " AND (" + timeColumn + ", id) < (?, ?)";
+    }
+    
+    static String orderBy(String timeColumn) {
+        return " ORDER BY " + timeColumn + " DESC, id DESC LIMIT ?";
+    }
+    
+    /**
+     * 从 index 开始绑定翻页参数和 LIMIT（多取一行用于判断是否还有下一页）
+     */
+    static void bind(PreparedStatement pstmt, int index, Page.Cursor cursor, int limit) throws SQLException {
+        if (cursor != null) {
+            pstmt.setTimestamp(index++, Timestamp.valueOf(cursor.getCreatedAt()));
+            pstmt.setInt(index++, cursor.getId());
+        }
+        pstmt.setInt(index, limit + 1);
+    }
+    
+    /**
+     * 读取结果集并生成分页结果
+     */
+    static <T> Page<T> read(ResultSet rs, int limit, RowMapper<T> mapper,
+                            Function<T, Page.Cursor> keyOf) throws SQLException {
+        List<T> items = new ArrayList<>(Math.min(limit, 1024));
+        boolean more = false;
+        while (rs.next()) {
+            if (items.size() == limit) {
+                more = true;
+                break;
+            }
+            items.add(mapper.map(rs));
+        }
+        Page.Cursor next = more ? keyOf.apply(items.get(items.size() - 1)) : null;
+        return new Page<>(items, next);
+    }
+    
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+}
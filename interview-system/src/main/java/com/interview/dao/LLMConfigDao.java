@@ -12,33 +12,6 @@ import java.util.List;
  */
 public class LLMConfigDao {
     
-    /**
-     * 创建LLM配置表
-     */
-    public void createTable() throws SQLException {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS llm_configs (
-                id SERIAL PRIMARY KEY,
-                name VARCHAR(100) NOT NULL,
-                provider VARCHAR(50) NOT NULL,
-                model_name VARCHAR(100) NOT NULL,
-                api_key VARCHAR(500) NOT NULL,
-                api_endpoint VARCHAR(500) NOT NULL,
-                is_default BOOLEAN DEFAULT FALSE,
-                enabled BOOLEAN DEFAULT TRUE,
-                timeout INTEGER DEFAULT 60,
-                params TEXT,
-                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-            )
-            """;
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        }
-    }
-    
     /**
      * 插入新配置
      */
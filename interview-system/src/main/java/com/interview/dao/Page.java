@@ -0,0 +1,66 @@
+package com.interview.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 分页结果（键集分页）
+ * 
+ * 列表按 (创建时间, id) 降序排列，下一页从上一页最后一行的键之后开始读取，
+ * 不使用 OFFSET，翻到第几页都只扫描一页的索引条目。
+ * 
+ * @param <T> 行类型
+ */
+public class Page<T> {
+    
+    private final List<T> items;
+    private final Cursor nextCursor;
+    
+    public Page(List<T> items, Cursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    /**
+     * 空页（无权限或查询失败时返回）
+     */
+    public static <T> Page<T> empty() {
+        return new Page<>(List.of(), null);
+    }
+    
+    public List<T> getItems() {
+        return items;
+    }
+    
+    /**
+     * 读取下一页使用的游标，没有更多数据时为 null
+     */
+    public Cursor getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+    
+    /**
+     * 分页游标：上一页最后一行的 (创建时间, id)
+     */
+    public static class Cursor {
+        private final LocalDateTime createdAt;
+        private final int id;
+        
+        public Cursor(LocalDateTime createdAt, int id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+        
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+        
+        public int getId() {
+            return id;
+        }
+    }
+}
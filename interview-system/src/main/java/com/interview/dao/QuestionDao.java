@@ -1,13 +1,21 @@
 package com.interview.dao;
 
+import com.interview.log.Log;
+import com.interview.log.Logger;
 import com.interview.model.Question;
+import com.interview.model.QuestionSummary;
 import com.interview.model.Question.QuestionLevel;
 import com.interview.model.Question.QuestionType;
 import com.interview.model.Question.SpecializationType;
+import com.interview.search.SearchTokenizer;
 import com.interview.util.DatabaseConnection;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -17,34 +25,80 @@ import java.util.List;
  * 等级体系：
  * - 基础等级：初级(BASIC)、中级(INTERMEDIATE)、高级(ADVANCED)
  * - 专精等级：专精三等(SPECIALIZATION_THREE)，配合 specialization 字段区分类型
+ * 
+ * 全文检索：
+ * - search_vector 列保存标题（权重 A）和正文（权重 B）的 tsvector，写入时由 SearchTokenizer 预分词，
+ *   GIN 索引支持按词项/中文二元组短语检索，ts_rank_cd 排序
+ * - 单个汉字、可能只是单词一部分的英文（"SQL" 之于 "PostgreSQL"）等无法用词项表达的关键词
+ *   走 ILIKE 子串匹配，安装了 pg_trgm 时由三元组 GIN 索引加速
+ * 
+ * 批量导入：copyInsert 走 COPY 协议，驱动连接不支持时用 batchInsert 批量 INSERT
  */
 public class QuestionDao {
     
+    private static final Logger log = Log.get(QuestionDao.class);
+    
+    // 写入 search_vector 的表达式，两个参数分别为预分词后的标题和正文
+    private static final String SEARCH_VECTOR_EXPR =
+            "setweight(to_tsvector('simple', ?), 'A') || setweight(to_tsvector('simple', ?), 'B')";
+    
+    // 列表摘要读取的列（不含 content / answer / search_vector）
+    private static final String SUMMARY_COLUMNS =
+            "id, title, type, level, specialization, category, created_by, created_at";
+    
+    // COPY 写入缓冲区大小
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+    
+    // pg_trgm 三元组索引是否可用（启动时检测）
+    private static volatile boolean trigramAvailable = false;
+    
     /**
-     * 创建题目表
+     * 检测三元组索引是否存在（由迁移脚本在 pg_trgm 可用时创建）
      */
-    public void createTable() throws SQLException {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS questions (
-                id SERIAL PRIMARY KEY,
-                title VARCHAR(255) NOT NULL,
-                content TEXT NOT NULL,
-                answer TEXT,
-                type VARCHAR(50) NOT NULL,
-                level VARCHAR(30) NOT NULL,
-                specialization VARCHAR(30) DEFAULT 'NONE',
-                category VARCHAR(100),
-                created_by VARCHAR(50),
-                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                updated_at TIMESTAMP,
-                active BOOLEAN DEFAULT TRUE
-            )
-            """;
+    public void detectTrigramIndexes() {
+        String sql = "SELECT to_regclass('idx_questions_title_trgm') IS NOT NULL";
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            trigramAvailable = rs.next() && rs.getBoolean(1);
+        } catch (SQLException e) {
+            trigramAvailable = false;
+            log.warn("检测 pg_trgm 索引失败: {}", e.getMessage());
+        }
+        if (!trigramAvailable) {
+            log.warn("pg_trgm 不可用，单字检索将使用顺序扫描");
+        }
+    }
+    
+    /**
+     * 为旧数据补建 search_vector
+     * 
+     * @return 补建的题目数
+     */
+    public int backfillSearchVectors() throws SQLException {
+        String select = "SELECT id, title, content FROM questions WHERE search_vector IS NULL";
+        String update = "UPDATE questions SET search_vector = " + SEARCH_VECTOR_EXPR + " WHERE id = ?";
         
+        int count = 0;
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(select);
+             PreparedStatement pstmt = conn.prepareStatement(update)) {
+            
+            while (rs.next()) {
+                pstmt.setString(1, SearchTokenizer.toDocumentText(rs.getString("title")));
+                pstmt.setString(2, SearchTokenizer.toDocumentText(rs.getString("content")));
+                pstmt.setInt(3, rs.getInt("id"));
+                pstmt.addBatch();
+                if (++count % 500 == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            if (count % 500 != 0) {
+                pstmt.executeBatch();
+            }
         }
+        return count;
     }
     
     /**
@@ -52,10 +106,10 @@ public class QuestionDao {
      */
     public boolean insert(Question question) throws SQLException {
         String sql = """
-            INSERT INTO questions (title, content, answer, type, level, specialization, category, created_by, created_at, updated_at, active)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            INSERT INTO questions (title, content, answer, type, level, specialization, category, created_by, created_at, updated_at, active, search_vector)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, %s)
             RETURNING id
-            """;
+            """.formatted(SEARCH_VECTOR_EXPR);
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -72,6 +126,8 @@ public class QuestionDao {
             pstmt.setTimestamp(10, question.getUpdatedAt() != null ? 
                     Timestamp.valueOf(question.getUpdatedAt()) : null);
             pstmt.setBoolean(11, question.isActive());
+            pstmt.setString(12, SearchTokenizer.toDocumentText(question.getTitle()));
+            pstmt.setString(13, SearchTokenizer.toDocumentText(question.getContent()));
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -83,6 +139,169 @@ public class QuestionDao {
         return false;
     }
     
+    /**
+     * 判断连接是否支持 COPY（PostgreSQL JDBC 驱动的原生连接）
+     */
+    public boolean supportsCopy() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return conn.isWrapperFor(PGConnection.class);
+        }
+    }
+    
+    /**
+     * 用 COPY 批量导入题目（整体一个事务）
+     * 
+     * 题目逐条编码成 COPY 文本格式，攒满缓冲区后写入，不在内存中保留整批数据；
+     * search_vector 需要服务端计算，因此先 COPY 到临时表，再用一条 INSERT ... SELECT 写入 questions。
+     * 
+     * @param questions 逐条产出的题目，可以是边解析边产出的流
+     * @return 导入的题目数
+     */
+    public int copyInsert(Iterator<Question> questions) throws SQLException {
+        String stage = """
+            CREATE TEMP TABLE question_import_stage (
+                title VARCHAR(255), content TEXT, answer TEXT, type VARCHAR(50), level VARCHAR(30),
+                specialization VARCHAR(30), category VARCHAR(100), created_by VARCHAR(50),
+                created_at TIMESTAMP, title_doc TEXT, content_doc TEXT
+            ) ON COMMIT DROP
+            """;
+        String copy = "COPY question_import_stage FROM STDIN";
+        String insert = """
+            INSERT INTO questions (title, content, answer, type, level, specialization, category, created_by, created_at, active, search_vector)
+            SELECT title, content, answer, type, level, specialization, category, created_by, created_at, TRUE,
+                   setweight(to_tsvector('simple', title_doc), 'A') || setweight(to_tsvector('simple', content_doc), 'B')
+            FROM question_import_stage
+            """;
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(stage);
+                
+                CopyIn copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(copy);
+                StringBuilder row = new StringBuilder(1024);
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int buffered = 0;
+                try {
+                    while (questions.hasNext()) {
+                        row.setLength(0);
+                        appendCopyRow(row, questions.next());
+                        byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+                        if (buffered + bytes.length > buffer.length) {
+                            copyIn.writeToCopy(buffer, 0, buffered);
+                            buffered = 0;
+                        }
+                        if (bytes.length > buffer.length) {
+                            copyIn.writeToCopy(bytes, 0, bytes.length);
+                        } else {
+                            System.arraycopy(bytes, 0, buffer, buffered, bytes.length);
+                            buffered += bytes.length;
+                        }
+                    }
+                    if (buffered > 0) {
+                        copyIn.writeToCopy(buffer, 0, buffered);
+                    }
+                    copyIn.endCopy();
+                } finally {
+                    if (copyIn.isActive()) {
+                        copyIn.cancelCopy();
+                    }
+                }
+                
+                int count = stmt.executeUpdate(insert);
+                conn.commit();
+                return count;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+    
+    /**
+     * 用批量 INSERT 导入题目（不支持 COPY 时使用，整体一个事务）
+     * 
+     * @param batchSize 每批提交给驱动的条数
+     * @return 导入的题目数
+     */
+    public int batchInsert(Iterator<Question> questions, int batchSize) throws SQLException {
+        String sql = """
+            INSERT INTO questions (title, content, answer, type, level, specialization, category, created_by, created_at, active, search_vector)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, %s)
+            """.formatted(SEARCH_VECTOR_EXPR);
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int count = 0;
+                while (questions.hasNext()) {
+                    Question question = questions.next();
+                    pstmt.setString(1, question.getTitle());
+                    pstmt.setString(2, question.getContent());
+                    pstmt.setString(3, question.getAnswer());
+                    pstmt.setString(4, question.getType().name());
+                    pstmt.setString(5, question.getLevel().name());
+                    pstmt.setString(6, question.getSpecialization() != null ? question.getSpecialization().name() : "NONE");
+                    pstmt.setString(7, question.getCategory());
+                    pstmt.setString(8, question.getCreatedBy());
+                    pstmt.setTimestamp(9, Timestamp.valueOf(question.getCreatedAt()));
+                    pstmt.setString(10, SearchTokenizer.toDocumentText(question.getTitle()));
+                    pstmt.setString(11, SearchTokenizer.toDocumentText(question.getContent()));
+                    pstmt.addBatch();
+                    if (++count % batchSize == 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+                if (count % batchSize != 0) {
+                    pstmt.executeBatch();
+                }
+                conn.commit();
+                return count;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+    
+    /**
+     * COPY 文本格式的一行：制表符分隔，\N 表示 NULL
+     */
+    private static void appendCopyRow(StringBuilder row, Question question) {
+        appendCopyField(row, question.getTitle()).append('\t');
+        appendCopyField(row, question.getContent()).append('\t');
+        appendCopyField(row, question.getAnswer()).append('\t');
+        appendCopyField(row, question.getType().name()).append('\t');
+        appendCopyField(row, question.getLevel().name()).append('\t');
+        appendCopyField(row, question.getSpecialization() != null ? question.getSpecialization().name() : "NONE").append('\t');
+        appendCopyField(row, question.getCategory()).append('\t');
+        appendCopyField(row, question.getCreatedBy()).append('\t');
+        appendCopyField(row, Timestamp.valueOf(question.getCreatedAt()).toString()).append('\t');
+        appendCopyField(row, SearchTokenizer.toDocumentText(question.getTitle())).append('\t');
+        appendCopyField(row, SearchTokenizer.toDocumentText(question.getContent())).append('\n');
+    }
+    
+    private static StringBuilder appendCopyField(StringBuilder row, String value) {
+        if (value == null) {
+            return row.append("\\N");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> row.append("\\\\");
+                case '\t' -> row.append("\\t");
+                case '\n' -> row.append("\\n");
+                case '\r' -> row.append("\\r");
+                default -> row.append(c);
+            }
+        }
+        return row;
+    }
+    
     /**
      * 根据ID查找题目
      */
@@ -121,6 +340,29 @@ public class QuestionDao {
         return questions;
     }
     
+    /**
+     * 分页获取题目摘要，按创建时间倒序
+     * 只读取列表显示的列，题目内容和参考答案在选中后由 findById 加载
+     * 
+     * @param after 上一页返回的游标，首页为 null
+     * @param limit 每页行数
+     */
+    public Page<QuestionSummary> findSummaryPage(Page.Cursor after, int limit) throws SQLException {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM questions WHERE active = TRUE"
+                + Keyset.after(after, "created_at") + Keyset.orderBy("created_at");
+        
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            Keyset.bind(pstmt, 1, after, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return Keyset.read(rs, limit, this::mapResultSetToSummary,
+                        q -> new Page.Cursor(q.getCreatedAt(), q.getId()));
+            }
+        }
+    }
+    
     /**
      * 根据等级获取题目
      */
@@ -128,7 +370,7 @@ public class QuestionDao {
         List<Question> questions = new ArrayList<>();
         String sql = "SELECT * FROM questions WHERE level = ? AND active = TRUE ORDER BY created_at DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, level.name());
@@ -149,7 +391,7 @@ public class QuestionDao {
         List<Question> questions = new ArrayList<>();
         String sql = "SELECT * FROM questions WHERE specialization = ? AND active = TRUE ORDER BY created_at DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, specialization.name());
@@ -180,7 +422,7 @@ public class QuestionDao {
                 END
             """;
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -203,7 +445,7 @@ public class QuestionDao {
             ORDER BY specialization
             """;
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -215,49 +457,102 @@ public class QuestionDao {
     }
     
     /**
-     * 根据条件搜索题目
+     * 根据条件搜索题目（按相关度排序，不限条数）
      */
     public List<Question> search(String keyword, QuestionType type, 
                                   QuestionLevel level, SpecializationType specialization,
                                   String category) throws SQLException {
+        return searchRanked(keyword, type, level, specialization, category, 0);
+    }
+    
+    /**
+     * 全文检索题目
+     * 
+     * 关键词中有可用词项表达的部分（中文二元组、确定了单词开头的英文）时走 search_vector @@ tsquery
+     * （GIN 索引），按 ts_rank_cd 排序；否则（如单个汉字、"SQL" 这类可能在单词中间的英文）
+     * 走 ILIKE 子串匹配，由 pg_trgm 索引加速，仍按英文前缀的 ts_rank_cd 排序。
+     * 两条路径都会用 ILIKE 复核每个关键词，保证结果与原来的子串语义一致（复核只作用于索引筛出的候选行），
+     * tsquery 中没有表达的片段也由这一步判定。
+     * 尚未生成 search_vector 的行通过部分索引取出，同样由 ILIKE 判定。
+     * 
+     * SQL 形状保持在有限的集合内，连接上缓存的预备语句可以复用：关键词去重后按 2 的幂补齐
+     * （重复最后一个关键词，结果不变），LIMIT 总是参数化（不限条数时传 NULL，即 LIMIT ALL）。
+     * 
+     * @param limit 最多返回条数，小于等于 0 表示不限
+     */
+    public List<Question> searchRanked(String keyword, QuestionType type, 
+                                       QuestionLevel level, SpecializationType specialization,
+                                       String category, int limit) throws SQLException {
+        try (Connection conn = DatabaseConnection.getReadConnection()) {
+            return searchRanked(conn, keyword, type, level, specialization, category, limit);
+        }
+    }
+    
+    /**
+     * 在指定连接上全文检索题目（供测试和基准测试使用）
+     */
+    public List<Question> searchRanked(Connection conn, String keyword, QuestionType type,
+                                       QuestionLevel level, SpecializationType specialization,
+                                       String category, int limit) throws SQLException {
         List<Question> questions = new ArrayList<>();
-        StringBuilder sql = new StringBuilder("SELECT * FROM questions WHERE active = TRUE");
         List<Object> params = new ArrayList<>();
+        String trimmed = keyword == null ? "" : keyword.trim();
+        String tsQuery = trimmed.isEmpty() ? null : SearchTokenizer.toTsQuery(trimmed);
+        String rankQuery = tsQuery != null || trimmed.isEmpty() ? tsQuery : SearchTokenizer.toRankQuery(trimmed);
+        
+        StringBuilder sql = new StringBuilder();
+        if (rankQuery != null) {
+            sql.append("SELECT q.*, COALESCE(ts_rank_cd(q.search_vector, query), 0) AS rank ")
+               .append("FROM questions q, to_tsquery('simple', ?) query WHERE q.active = TRUE");
+            params.add(rankQuery);
+            if (tsQuery != null) {
+                sql.append(" AND (q.search_vector @@ query OR q.search_vector IS NULL)");
+            }
+        } else {
+            sql.append("SELECT q.*, 0 AS rank FROM questions q WHERE q.active = TRUE");
+        }
         
-        if (keyword != null && !keyword.isEmpty()) {
-            sql.append(" AND (title ILIKE ? OR content ILIKE ?)");
-            params.add("%" + keyword + "%");
-            params.add("%" + keyword + "%");
+        List<String> terms = canonicalTerms(trimmed);
+        for (String term : terms) {
+            sql.append(" AND (q.title ILIKE ? OR q.content ILIKE ?)");
+            String pattern = "%" + escapeLike(term) + "%";
+            params.add(pattern);
+            params.add(pattern);
         }
         
         if (type != null) {
-            sql.append(" AND type = ?");
+            sql.append(" AND q.type = ?");
             params.add(type.name());
         }
         
         if (level != null) {
-            sql.append(" AND level = ?");
+            sql.append(" AND q.level = ?");
             params.add(level.name());
         }
         
         if (specialization != null && specialization != SpecializationType.NONE) {
-            sql.append(" AND specialization = ?");
+            sql.append(" AND q.specialization = ?");
             params.add(specialization.name());
         }
         
         if (category != null && !category.isEmpty()) {
-            sql.append(" AND category = ?");
+            sql.append(" AND q.category = ?");
             params.add(category);
         }
         
-        sql.append(" ORDER BY created_at DESC");
+        sql.append(rankQuery != null ? " ORDER BY rank DESC, q.id DESC" : " ORDER BY q.created_at DESC");
+        sql.append(" LIMIT ?");
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
             
             for (int i = 0; i < params.size(); i++) {
                 pstmt.setObject(i + 1, params.get(i));
             }
+            if (limit > 0) {
+                pstmt.setInt(params.size() + 1, limit);
+            } else {
+                pstmt.setNull(params.size() + 1, Types.INTEGER);
+            }
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -269,61 +564,106 @@ public class QuestionDao {
     }
     
     /**
-     * 随机抽取题目
-     * 
-     * @param count 抽取数量
-     * @param type 题目类型（可选）
-     * @param level 题目等级（可选）
-     * @param specialization 专精类型（可选）
-     * @param category 分类（可选）
+     * 拆分关键词并去重（ILIKE 不区分大小写），数量补齐到 2 的幂
      */
-    public List<Question> extractRandom(int count, QuestionType type, 
-                                         QuestionLevel level, SpecializationType specialization,
-                                         String category) throws SQLException {
-        List<Question> questions = new ArrayList<>();
-        StringBuilder sql = new StringBuilder("SELECT * FROM questions WHERE active = TRUE");
-        List<Object> params = new ArrayList<>();
-        
-        if (type != null) {
-            sql.append(" AND type = ?");
-            params.add(type.name());
+    static List<String> canonicalTerms(String keyword) {
+        List<String> terms = new ArrayList<>();
+        if (keyword.isEmpty()) {
+            return terms;
         }
-        
-        if (level != null) {
-            sql.append(" AND level = ?");
-            params.add(level.name());
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        for (String term : keyword.split("\\s+")) {
+            if (seen.add(term.toLowerCase(java.util.Locale.ROOT))) {
+                terms.add(term);
+            }
         }
-        
-        if (specialization != null && specialization != SpecializationType.NONE) {
-            sql.append(" AND specialization = ?");
-            params.add(specialization.name());
+        int padded = Integer.highestOneBit(terms.size());
+        if (padded < terms.size()) {
+            padded <<= 1;
         }
-        
-        if (category != null && !category.isEmpty()) {
-            sql.append(" AND category = ?");
-            params.add(category);
+        String last = terms.get(terms.size() - 1);
+        while (terms.size() < padded) {
+            terms.add(last);
         }
+        return terms;
+    }
+    
+    /**
+     * 转义 LIKE 通配符
+     */
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    /**
+     * pg_trgm 扩展是否可用
+     */
+    public static boolean isTrigramAvailable() {
+        return trigramAvailable;
+    }
+    
+    /**
+     * 遍历所有启用题目的 id 及其分层字段（不读取正文），用于抽题采样
+     */
+    public void scanActiveIds(IdRowHandler handler) throws SQLException {
+        String sql = "SELECT id, type, level, specialization, category FROM questions WHERE active = TRUE";
         
-        // PostgreSQL 使用 RANDOM() 函数
-        sql.append(" ORDER BY RANDOM() LIMIT ?");
-        params.add(count);
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.setFetchSize(10000);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    handler.accept(rs.getInt(1), rs.getString(2), rs.getString(3),
+                            rs.getString(4), rs.getString(5));
+                }
+            }
+        }
+    }
+    
+    /**
+     * 按 id 批量获取启用的题目，返回顺序与传入顺序一致（已停用或不存在的 id 会被跳过）
+     */
+    public List<Question> findByIds(int[] ids) throws SQLException {
+        List<Question> questions = new ArrayList<>(ids.length);
+        if (ids.length == 0) {
+            return questions;
+        }
+        String sql = "SELECT * FROM questions WHERE id = ANY(?) AND active = TRUE";
         
+        java.util.Map<Integer, Question> byId = new java.util.HashMap<>();
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            for (int i = 0; i < params.size(); i++) {
-                pstmt.setObject(i + 1, params.get(i));
+            Integer[] boxed = new Integer[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                boxed[i] = ids[i];
             }
+            pstmt.setArray(1, conn.createArrayOf("integer", boxed));
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    questions.add(mapResultSetToQuestion(rs));
+                    Question question = mapResultSetToQuestion(rs);
+                    byId.put(question.getId(), question);
                 }
             }
         }
+        for (int id : ids) {
+            Question question = byId.get(id);
+            if (question != null) {
+                questions.add(question);
+            }
+        }
         return questions;
     }
     
+    /**
+     * scanActiveIds 的行回调
+     */
+    @FunctionalInterface
+    public interface IdRowHandler {
+        void accept(int id, String type, String level, String specialization, String category);
+    }
+    
     /**
      * 更新题目
      */
@@ -331,9 +671,10 @@ public class QuestionDao {
         String sql = """
             UPDATE questions 
             SET title = ?, content = ?, answer = ?, type = ?, level = ?, 
-                specialization = ?, category = ?, updated_at = CURRENT_TIMESTAMP, active = ?
+                specialization = ?, category = ?, updated_at = CURRENT_TIMESTAMP, active = ?,
+                search_vector = %s
             WHERE id = ?
-            """;
+            """.formatted(SEARCH_VECTOR_EXPR);
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -346,7 +687,9 @@ public class QuestionDao {
             pstmt.setString(6, question.getSpecialization() != null ? question.getSpecialization().name() : "NONE");
             pstmt.setString(7, question.getCategory());
             pstmt.setBoolean(8, question.isActive());
-            pstmt.setInt(9, question.getId());
+            pstmt.setString(9, SearchTokenizer.toDocumentText(question.getTitle()));
+            pstmt.setString(10, SearchTokenizer.toDocumentText(question.getContent()));
+            pstmt.setInt(11, question.getId());
             
             return pstmt.executeUpdate() > 0;
         }
@@ -387,7 +730,7 @@ public class QuestionDao {
         List<String> categories = new ArrayList<>();
         String sql = "SELECT DISTINCT category FROM questions WHERE active = TRUE AND category IS NOT NULL";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -404,7 +747,7 @@ public class QuestionDao {
     public int count() throws SQLException {
         String sql = "SELECT COUNT(*) FROM questions WHERE active = TRUE";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -422,7 +765,7 @@ public class QuestionDao {
         java.util.Map<QuestionLevel, Integer> counts = new java.util.HashMap<>();
         String sql = "SELECT level, COUNT(*) FROM questions WHERE active = TRUE GROUP BY level";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -448,34 +791,9 @@ public class QuestionDao {
         question.setContent(rs.getString("content"));
         question.setAnswer(rs.getString("answer"));
         
-        String typeStr = rs.getString("type");
-        if (typeStr != null) {
-            try {
-                question.setType(QuestionType.valueOf(typeStr));
-            } catch (IllegalArgumentException e) {
-                // 如果类型不存在，设为 OTHER
-                question.setType(QuestionType.OTHER);
-            }
-        }
-        
-        String levelStr = rs.getString("level");
-        if (levelStr != null) {
-            try {
-                question.setLevel(QuestionLevel.valueOf(levelStr));
-            } catch (IllegalArgumentException e) {
-                // 如果等级不存在，设为 BASIC
-                question.setLevel(QuestionLevel.BASIC);
-            }
-        }
-        
-        String specStr = rs.getString("specialization");
-        if (specStr != null) {
-            try {
-                question.setSpecialization(SpecializationType.valueOf(specStr));
-            } catch (IllegalArgumentException e) {
-                question.setSpecialization(SpecializationType.NONE);
-            }
-        }
+        question.setType(parseType(rs.getString("type")));
+        question.setLevel(parseLevel(rs.getString("level")));
+        question.setSpecialization(parseSpecialization(rs.getString("specialization")));
         
         question.setCategory(rs.getString("category"));
         question.setCreatedBy(rs.getString("created_by"));
@@ -493,4 +811,60 @@ public class QuestionDao {
         
         return question;
     }
+    
+    /**
+     * 将 ResultSet 映射到 QuestionSummary 对象
+     */
+    private QuestionSummary mapResultSetToSummary(ResultSet rs) throws SQLException {
+        QuestionSummary summary = new QuestionSummary();
+        summary.setId(rs.getInt("id"));
+        summary.setTitle(rs.getString("title"));
+        summary.setType(parseType(rs.getString("type")));
+        summary.setLevel(parseLevel(rs.getString("level")));
+        summary.setSpecialization(parseSpecialization(rs.getString("specialization")));
+        summary.setCategory(rs.getString("category"));
+        summary.setCreatedBy(rs.getString("created_by"));
+        
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            summary.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        
+        return summary;
+    }
+    
+    private static QuestionType parseType(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return QuestionType.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            // 如果类型不存在，设为 OTHER
+            return QuestionType.OTHER;
+        }
+    }
+    
+    private static QuestionLevel parseLevel(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return QuestionLevel.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            // 如果等级不存在，设为 BASIC
+            return QuestionLevel.BASIC;
+        }
+    }
+    
+    private static SpecializationType parseSpecialization(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return SpecializationType.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return SpecializationType.NONE;
+        }
+    }
 }
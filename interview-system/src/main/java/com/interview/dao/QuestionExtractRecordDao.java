@@ -0,0 +1,215 @@
+package com.interview.dao;
+
+import com.interview.model.QuestionExtractRecord;
+import com.interview.util.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 题目抽取记录数据访问对象
+ * 题目 id 列表以 INTEGER[] 保存，按考生查询历史题目时直接在数据库中展开；
+ * question_exposure 按题目累计被抽取次数，随抽取记录批量更新
+ */
+public class QuestionExtractRecordDao {
+    
+    /**
+     * 插入抽取记录
+     */
+    public boolean insert(QuestionExtractRecord record) throws SQLException {
+        return insertBatch(List.of(record)) == 1;
+    }
+    
+    /**
+     * 批量插入抽取记录，并在同一事务中累加题目曝光次数
+     * 
+     * 记录用一次 JDBC 批处理写入；曝光次数把所有记录的题目 id 拼成一个数组，
+     * 用一条 unnest + GROUP BY + ON CONFLICT 语句完成，不随题目数增加语句数。
+     * 
+     * @return 插入的记录数，插入后记录的 id 会被回填
+     */
+    public int insertBatch(List<QuestionExtractRecord> records) throws SQLException {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        String insertSql = """
+            INSERT INTO question_extract_records
+            (extracted_by, candidate_username, extract_time, question_count, filter_criteria, question_ids, notes)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+        String exposureSql = """
+            INSERT INTO question_exposure (question_id, exposure_count, last_exposed)
+            SELECT t.id, COUNT(*), ? FROM unnest(?) AS t(id) GROUP BY t.id
+            ON CONFLICT (question_id) DO UPDATE
+            SET exposure_count = question_exposure.exposure_count + EXCLUDED.exposure_count,
+                last_exposed = GREATEST(question_exposure.last_exposed, EXCLUDED.last_exposed)
+            """;
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement exposure = conn.prepareStatement(exposureSql)) {
+                
+                List<Integer> allIds = new ArrayList<>();
+                LocalDateTime latest = null;
+                for (QuestionExtractRecord record : records) {
+                    if (record.getExtractTime() == null) {
+                        record.setExtractTime(LocalDateTime.now());
+                    }
+                    pstmt.setString(1, record.getExtractedBy());
+                    pstmt.setString(2, record.getCandidateUsername());
+                    pstmt.setTimestamp(3, Timestamp.valueOf(record.getExtractTime()));
+                    pstmt.setObject(4, record.getQuestionCount(), Types.INTEGER);
+                    pstmt.setString(5, record.getFilterCriteria());
+                    pstmt.setArray(6, toSqlArray(conn, record.getQuestionIds()));
+                    pstmt.setString(7, record.getNotes());
+                    pstmt.addBatch();
+                    
+                    if (record.getQuestionIds() != null) {
+                        allIds.addAll(record.getQuestionIds());
+                    }
+                    if (latest == null || record.getExtractTime().isAfter(latest)) {
+                        latest = record.getExtractTime();
+                    }
+                }
+                pstmt.executeBatch();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    for (int i = 0; i < records.size() && keys.next(); i++) {
+                        records.get(i).setId(keys.getInt("id"));
+                    }
+                }
+                
+                if (!allIds.isEmpty()) {
+                    exposure.setTimestamp(1, Timestamp.valueOf(latest));
+                    exposure.setArray(2, toSqlArray(conn, allIds));
+                    exposure.executeUpdate();
+                }
+                conn.commit();
+                return records.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+    
+    /**
+     * 逐条读取题目曝光次数（只读两列，不构造对象）
+     */
+    public void scanExposureCounts(ExposureHandler handler) throws SQLException {
+        String sql = "SELECT question_id, exposure_count FROM question_exposure";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.setFetchSize(5000);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    handler.accept(rs.getInt(1), rs.getLong(2));
+                }
+            }
+        }
+    }
+    
+    /**
+     * 查询考生自某时间起见过的题目：抽取记录中面向该考生的题目，以及该考生面试记录关联的题目
+     */
+    public Set<Integer> findSeenQuestionIds(String candidateUsername, LocalDateTime since) throws SQLException {
+        String sql = """
+            SELECT unnest(question_ids) FROM question_extract_records
+            WHERE candidate_username = ? AND extract_time >= ?
+            UNION
+            SELECT CAST(TRIM(t.id) AS INTEGER) FROM interview_records r,
+                   unnest(string_to_array(r.question_ids, ',')) AS t(id)
+            WHERE r.candidate_username = ? AND r.interview_time >= ? AND TRIM(t.id) ~ '^[0-9]+$'
+            """;
+        
+        Set<Integer> ids = new HashSet<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            Timestamp from = Timestamp.valueOf(since);
+            pstmt.setString(1, candidateUsername);
+            pstmt.setTimestamp(2, from);
+            pstmt.setString(3, candidateUsername);
+            pstmt.setTimestamp(4, from);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    if (!rs.wasNull()) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+    
+    /**
+     * 获取某考生的抽取记录（按时间倒序）
+     */
+    public List<QuestionExtractRecord> findByCandidate(String candidateUsername) throws SQLException {
+        List<QuestionExtractRecord> records = new ArrayList<>();
+        String sql = "SELECT * FROM question_extract_records WHERE candidate_username = ? ORDER BY extract_time DESC";
+        
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, candidateUsername);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    records.add(mapResultSetToRecord(rs));
+                }
+            }
+        }
+        return records;
+    }
+    
+    private static Array toSqlArray(Connection conn, List<Integer> ids) throws SQLException {
+        if (ids == null) {
+            return null;
+        }
+        return conn.createArrayOf("integer", ids.toArray(new Integer[0]));
+    }
+    
+    /**
+     * 将 ResultSet 映射到 QuestionExtractRecord 对象
+     */
+    private QuestionExtractRecord mapResultSetToRecord(ResultSet rs) throws SQLException {
+        QuestionExtractRecord record = new QuestionExtractRecord();
+        record.setId(rs.getInt("id"));
+        record.setExtractedBy(rs.getString("extracted_by"));
+        record.setCandidateUsername(rs.getString("candidate_username"));
+        Timestamp time = rs.getTimestamp("extract_time");
+        record.setExtractTime(time != null ? time.toLocalDateTime() : null);
+        int count = rs.getInt("question_count");
+        record.setQuestionCount(rs.wasNull() ? null : count);
+        record.setFilterCriteria(rs.getString("filter_criteria"));
+        record.setNotes(rs.getString("notes"));
+        
+        Array array = rs.getArray("question_ids");
+        List<Integer> ids = new ArrayList<>();
+        if (array != null) {
+            for (Integer id : (Integer[]) array.getArray()) {
+                ids.add(id);
+            }
+        }
+        record.setQuestionIds(ids);
+        return record;
+    }
+    
+    /**
+     * 曝光次数回调
+     */
+    @FunctionalInterface
+    public interface ExposureHandler {
+        void accept(int questionId, long exposureCount);
+    }
+}
@@ -6,7 +6,10 @@ import com.interview.util.DatabaseConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 用户数据访问对象
@@ -14,30 +17,6 @@ import java.util.List;
  */
 public class UserDao {
     
-    /**
-     * 创建用户表
-     */
-    public void createTable() throws SQLException {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS users (
-                id SERIAL PRIMARY KEY,
-                username VARCHAR(50) UNIQUE NOT NULL,
-                password_hash VARCHAR(255) NOT NULL,
-                real_name VARCHAR(100),
-                email VARCHAR(100),
-                role VARCHAR(20) NOT NULL,
-                active BOOLEAN DEFAULT TRUE,
-                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                last_login TIMESTAMP
-            )
-            """;
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        }
-    }
-    
     /**
      * 插入新用户
      */
@@ -116,7 +95,7 @@ public class UserDao {
         List<User> users = new ArrayList<>();
         String sql = "SELECT * FROM users ORDER BY created_at DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -127,6 +106,28 @@ public class UserDao {
         return users;
     }
     
+    /**
+     * 分页获取用户，按创建时间倒序
+     * 
+     * @param after 上一页返回的游标，首页为 null
+     * @param limit 每页行数
+     */
+    public Page<User> findPage(Page.Cursor after, int limit) throws SQLException {
+        String sql = "SELECT * FROM users WHERE TRUE"
+                + Keyset.after(after, "created_at") + Keyset.orderBy("created_at");
+        
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            Keyset.bind(pstmt, 1, after, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return Keyset.read(rs, limit, this::mapResultSetToUser,
+                        u -> new Page.Cursor(u.getCreatedAt(), u.getId()));
+            }
+        }
+    }
+    
     /**
      * 更新用户信息
      */
@@ -214,6 +215,27 @@ public class UserDao {
         return false;
     }
     
+    /**
+     * 一次查询给定用户名中已存在的用户名
+     */
+    public Set<String> findExistingUsernames(Collection<String> usernames) throws SQLException {
+        String sql = "SELECT username FROM users WHERE username = ANY(?)";
+        
+        Set<String> existing = new HashSet<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setArray(1, conn.createArrayOf("varchar", usernames.toArray()));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1));
+                }
+            }
+        }
+        return existing;
+    }
+    
     /**
      * 将 ResultSet 映射到 User 对象
      */
@@ -0,0 +1,247 @@
+package com.interview.db;
+
+import com.interview.config.AppConfig;
+import com.interview.config.DatabaseConfig.DbUserRole;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按数据库角色划分的连接池
+ * 
+ * DAO 仍然按 try (Connection conn = DatabaseConnection.getConnection()) 使用连接，
+ * 关闭时物理连接回到池中，下一次查询复用同一个物理连接及其上的语句缓存和服务端预备语句，
+ * 不再每次查询都建立 TCP/SSL 连接、认证，PostgreSQL 也不必重新解析和规划 SQL。
+ * 
+ * 每个角色最多保留 maxIdle 个空闲连接，借出数量不限（与原来每次新建连接的行为一致）。
+ * 空闲超过 validateAfterSeconds 的连接借出前先检测是否可用，失效的直接丢弃重新建立。
+ * 
+ * 配置（config.properties）：
+ * - db.pool.enabled：是否启用连接池，关闭时每次新建物理连接
+ * - db.pool.max.idle：每个角色保留的空闲连接数
+ * - db.pool.validate.idle.seconds：空闲多久后借出前检测
+ * - db.statement.cache.size：每个连接缓存的 PreparedStatement 数，0 表示不缓存
+ */
+public class ConnectionPool {
+    
+    /**
+     * 建立物理连接的方式（由 DatabaseConnection 提供，便于按角色取用户名和 SSL 设置）
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open(DbUserRole role) throws SQLException;
+    }
+    
+    private static volatile ConnectionPool instance;
+    
+    private final ConnectionFactory factory;
+    private final int maxIdle;
+    private final long validateAfterNanos;
+    private final int statementCacheSize;
+    private final Map<DbUserRole, ArrayDeque<PooledConnection>> idle = new EnumMap<>(DbUserRole.class);
+    private volatile boolean enabled;
+    private boolean shutdown;
+    // 最近一次写操作的时间（System.nanoTime），hasWritten 为 false 时无意义
+    private volatile long lastWriteNanos;
+    private volatile boolean hasWritten;
+    
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    
+    public ConnectionPool(ConnectionFactory factory, boolean enabled, int maxIdle, int validateAfterSeconds,
+                          int statementCacheSize) {
+        this.factory = factory;
+        this.enabled = enabled;
+        this.maxIdle = Math.max(0, maxIdle);
+        this.validateAfterNanos = Math.max(0, validateAfterSeconds) * 1_000_000_000L;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        for (DbUserRole role : DbUserRole.values()) {
+            idle.put(role, new ArrayDeque<>());
+        }
+    }
+    
+    /**
+     * 全局连接池，首次使用时按配置创建
+     */
+    public static ConnectionPool getInstance(ConnectionFactory factory) {
+        ConnectionPool pool = instance;
+        if (pool == null) {
+            synchronized (ConnectionPool.class) {
+                pool = instance;
+                if (pool == null) {
+                    pool = new ConnectionPool(factory,
+                            AppConfig.getBoolean("db.pool.enabled", true),
+                            AppConfig.getInt("db.pool.max.idle", 4),
+                            AppConfig.getInt("db.pool.validate.idle.seconds", 30),
+                            AppConfig.getInt("db.statement.cache.size", 64));
+                    instance = pool;
+                }
+            }
+        }
+        return pool;
+    }
+    
+    /**
+     * 替换全局连接池（基准测试对比不同配置时使用），原连接池的空闲连接被关闭
+     */
+    public static void install(ConnectionPool pool) {
+        ConnectionPool previous;
+        synchronized (ConnectionPool.class) {
+            previous = instance;
+            instance = pool;
+        }
+        if (previous != null && previous != pool) {
+            previous.shutdown();
+        }
+    }
+    
+    /**
+     * 全局连接池（尚未创建时返回 null）
+     */
+    public static ConnectionPool current() {
+        return instance;
+    }
+    
+    /**
+     * 借出一个连接，调用方关闭即归还
+     */
+    public Connection borrow(DbUserRole role) throws SQLException {
+        if (!enabled) {
+            // 仍然包装为逻辑连接（不缓存语句，归还时关闭），执行统计不受连接池开关影响
+            opened.incrementAndGet();
+            return new PooledConnection(this, role, factory.open(role), 0).lease();
+        }
+        while (true) {
+            PooledConnection pooled;
+            synchronized (this) {
+                pooled = idle.get(role).pollFirst();
+            }
+            if (pooled == null) {
+                break;
+            }
+            if (isUsable(pooled)) {
+                reused.incrementAndGet();
+                return pooled.lease();
+            }
+            discarded.incrementAndGet();
+            pooled.closePhysical();
+        }
+        opened.incrementAndGet();
+        return new PooledConnection(this, role, factory.open(role), statementCacheSize).lease();
+    }
+    
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.nanoTime() - pooled.getReleasedAt() < validateAfterNanos) {
+            return true;
+        }
+        try {
+            return pooled.getPhysical().isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * 逻辑连接关闭时调用：连接状态正常且空闲数未满时放回池中，否则关闭
+     */
+    void release(PooledConnection pooled) {
+        if (pooled.reset()) {
+            synchronized (this) {
+                ArrayDeque<PooledConnection> connections = idle.get(pooled.getRole());
+                if (!shutdown && enabled && connections.size() < maxIdle) {
+                    // 后进先出：最近用过的连接最可能仍然有效，语句缓存也最热
+                    connections.addFirst(pooled);
+                    return;
+                }
+            }
+        } else {
+            discarded.incrementAndGet();
+        }
+        pooled.closePhysical();
+    }
+    
+    /**
+     * 借出的连接执行了写语句或提交了写事务
+     */
+    void markWrite() {
+        lastWriteNanos = System.nanoTime();
+        hasWritten = true;
+    }
+    
+    /**
+     * 距最近一次写操作的纳秒数，从未写入时为 Long.MAX_VALUE
+     */
+    public long nanosSinceLastWrite() {
+        return hasWritten ? System.nanoTime() - lastWriteNanos : Long.MAX_VALUE;
+    }
+    
+    /**
+     * 启用或停用连接池（停用时关闭全部空闲连接）
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            closeIdle();
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * 关闭全部空闲连接（借出中的连接归还时关闭）
+     */
+    public void closeIdle() {
+        ArrayDeque<PooledConnection> closing = new ArrayDeque<>();
+        synchronized (this) {
+            for (ArrayDeque<PooledConnection> connections : idle.values()) {
+                closing.addAll(connections);
+                connections.clear();
+            }
+        }
+        for (PooledConnection pooled : closing) {
+            pooled.closePhysical();
+        }
+    }
+    
+    /**
+     * 应用退出时调用：关闭空闲连接，之后归还的连接直接关闭
+     */
+    public void shutdown() {
+        synchronized (this) {
+            shutdown = true;
+        }
+        closeIdle();
+    }
+    
+    public synchronized int idleCount(DbUserRole role) {
+        return idle.get(role).size();
+    }
+    
+    /**
+     * 新建的物理连接数
+     */
+    public long getOpened() {
+        return opened.get();
+    }
+    
+    /**
+     * 复用池中连接的次数
+     */
+    public long getReused() {
+        return reused.get();
+    }
+    
+    /**
+     * 因失效或重置失败而丢弃的连接数
+     */
+    public long getDiscarded() {
+        return discarded.get();
+    }
+}
@@ -0,0 +1,179 @@
+package com.interview.db;
+
+import com.interview.config.AppConfig;
+import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.metrics.MetricsRegistry;
+import com.interview.util.DatabaseConnection;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据库查询的异步执行器
+ * 
+ * 界面事件处理中不再直接调用 DAO / 服务，而是通过 supply / run 提交到后台，
+ * 得到 CompletableFuture，再由 view.FxAsync 把结果交回 JavaFX 线程更新界面。
+ * 
+ * - 运行在 Java 21 及以上且 db.async.virtual.enabled 为 true 时，每个任务一个虚拟线程，
+ *   查询阻塞时不占用平台线程；Java 17 上（或关闭该选项时）使用 db.async.max.concurrent 个守护线程的线程池
+ * - 同时执行的任务数不超过 db.async.max.concurrent，大量小查询同时提交时排队，
+ *   不会一次借出同样多的数据库连接
+ * - 任务使用提交线程当时的数据库角色（DatabaseConnection 的角色和连接按线程保存），
+ *   结束后关闭本线程的连接（归还连接池）
+ */
+public final class DbExecutor {
+    
+    private static final AtomicLong submitted = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicInteger active = new AtomicInteger();
+    
+    private static volatile ExecutorService executor;
+    private static volatile Semaphore permits;
+    private static volatile boolean virtualThreads;
+    
+    static {
+        MetricsRegistry.global().gauge("db_async_active", "正在执行的后台查询数", active::get);
+        MetricsRegistry.global().gauge("db_async_submitted", "已提交的后台查询数", submitted::get);
+    }
+    
+    private DbExecutor() {
+    }
+    
+    /**
+     * 在后台执行查询，返回其结果；异常（含 SQLException）使返回的 future 异常完成
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> task) {
+        DbUserRole role = DatabaseConnection.getCurrentDbRole();
+        submitted.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> execute(role, task), executor());
+    }
+    
+    /**
+     * 在后台执行没有返回值的数据库操作
+     */
+    public static CompletableFuture<Void> run(Runnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+    
+    private static <T> T execute(DbUserRole role, Callable<T> task) {
+        Semaphore limit = permits;
+        try {
+            limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("后台查询已取消");
+        }
+        active.incrementAndGet();
+        DatabaseConnection.setCurrentDbRole(role);
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            throw e;
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            throw new CompletionException(e);
+        } finally {
+            DatabaseConnection.closeCurrentConnection();
+            active.decrementAndGet();
+            limit.release();
+        }
+    }
+    
+    private static ExecutorService executor() {
+        ExecutorService current = executor;
+        if (current == null) {
+            synchronized (DbExecutor.class) {
+                current = executor;
+                if (current == null) {
+                    int maxConcurrent = Math.max(1, AppConfig.getInt("db.async.max.concurrent", 8));
+                    permits = new Semaphore(maxConcurrent);
+                    current = createExecutor(maxConcurrent);
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    private static ExecutorService createExecutor(int maxConcurrent) {
+        if (AppConfig.getBoolean("db.async.virtual.enabled", true)) {
+            try {
+                // 项目以 Java 17 编译，通过反射使用 Java 21 的虚拟线程
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                ExecutorService virtual = (ExecutorService) factory.invoke(null);
+                virtualThreads = true;
+                return virtual;
+            } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+                // Java 17 没有该方法；Java 19/20 未开启预览特性时调用失败
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrent, maxConcurrent,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "db-async-" + counter.incrementAndGet());
+                    // 查询卡住时不阻止程序退出
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        virtualThreads = false;
+        return pool;
+    }
+    
+    /**
+     * 应用退出时调用：不再接受新任务，正在执行的查询继续完成
+     */
+    public static void shutdown() {
+        ExecutorService current;
+        synchronized (DbExecutor.class) {
+            current = executor;
+            executor = null;
+        }
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+    
+    /**
+     * 是否使用虚拟线程（执行器尚未创建时为 false）
+     */
+    public static boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+    
+    /**
+     * 已提交的任务数
+     */
+    public static long getSubmitted() {
+        return submitted.get();
+    }
+    
+    /**
+     * 异常结束的任务数
+     */
+    public static long getFailed() {
+        return failed.get();
+    }
+    
+    /**
+     * 正在执行（已取得执行许可）的任务数
+     */
+    public static int getActive() {
+        return active.get();
+    }
+}
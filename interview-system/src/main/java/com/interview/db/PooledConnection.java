@@ -0,0 +1,540 @@
+package com.interview.db;
+
+import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.jfr.DaoQueryEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 连接池中的一个物理连接及其语句缓存
+ * 
+ * 每次借出时生成一个逻辑连接（Connection 代理）交给调用方：
+ * - close() 不关闭物理连接，而是回滚未提交的事务，恢复自动提交、只读和隔离级别后归还连接池
+ * - prepareStatement(sql) / prepareStatement(sql, autoGeneratedKeys) 从语句缓存取，
+ *   返回的语句代理在 close() 时回到缓存
+ * - 其他方法直接转发给物理连接；出现连接类错误（SQLState 08xxx）时物理连接在归还时丢弃
+ * - 执行写语句（executeUpdate / executeBatch，或 SQL 不是只读查询，见 isReadOnlySql）和提交时通知连接池，
+ *   只读查询路由据此让刚写入的客户端继续读主库
+ * - 每次执行计时并计入 QueryStats，结果集包装后统计读取的行数和数据量
+ * 
+ * 调用方忘记关闭的语句在逻辑连接关闭时一并关闭，不会带到下一个借用者。
+ */
+class PooledConnection {
+    
+    // 只读查询的起始关键字，以及出现后按写语句处理的关键字（FOR UPDATE 中的 UPDATE 也在其中）
+    private static final Set<String> READ_STATEMENTS = Set.of("SELECT", "SHOW", "VALUES", "WITH", "TABLE");
+    private static final Set<String> WRITE_KEYWORDS = Set.of("INSERT", "UPDATE", "DELETE", "MERGE", "INTO");
+    
+    private final ConnectionPool pool;
+    private final DbUserRole role;
+    private final Connection physical;
+    private final StatementCache statements;
+    private long releasedAt = System.nanoTime();
+    private volatile boolean broken;
+    // 借用者修改过的会话属性及修改前的值，归还时恢复（未修改时不访问数据库）
+    private Boolean defaultReadOnly;
+    private int defaultIsolation = -1;
+    
+    PooledConnection(ConnectionPool pool, DbUserRole role, Connection physical, int statementCacheSize) {
+        this.pool = pool;
+        this.role = role;
+        this.physical = physical;
+        this.statements = statementCacheSize > 0 ? new StatementCache(physical, statementCacheSize) : null;
+    }
+    
+    DbUserRole getRole() {
+        return role;
+    }
+    
+    Connection getPhysical() {
+        return physical;
+    }
+    
+    long getReleasedAt() {
+        return releasedAt;
+    }
+    
+    boolean isBroken() {
+        return broken;
+    }
+    
+    /**
+     * 生成交给调用方的逻辑连接
+     */
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new Lease());
+    }
+    
+    /**
+     * 恢复到可以交给下一个借用者的状态，失败时返回 false
+     */
+    boolean reset() {
+        if (broken) {
+            return false;
+        }
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (defaultReadOnly != null) {
+                physical.setReadOnly(defaultReadOnly);
+                defaultReadOnly = null;
+            }
+            if (defaultIsolation >= 0) {
+                physical.setTransactionIsolation(defaultIsolation);
+                defaultIsolation = -1;
+            }
+            physical.clearWarnings();
+            releasedAt = System.nanoTime();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * 关闭物理连接及缓存的语句
+     */
+    void closePhysical() {
+        if (statements != null) {
+            statements.close();
+        }
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            // 连接已断开，忽略
+        }
+    }
+    
+    private void checkBroken(Throwable e) {
+        if (e instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+            broken = true;
+        }
+    }
+    
+    private static Throwable unwrap(InvocationTargetException e) {
+        return e.getCause() != null ? e.getCause() : e;
+    }
+    
+    /**
+     * 借用者第一次修改只读或隔离级别前记下原值
+     */
+    private void rememberSessionState(String method) throws SQLException {
+        if ("setReadOnly".equals(method) && defaultReadOnly == null) {
+            defaultReadOnly = physical.isReadOnly();
+        } else if ("setTransactionIsolation".equals(method) && defaultIsolation < 0) {
+            defaultIsolation = physical.getTransactionIsolation();
+        }
+    }
+    
+    /**
+     * 是否为只读语句；无法判断的按写语句处理
+     * 
+     * 以 SELECT / SHOW / VALUES / WITH 开头，且不含修改数据或加锁的子句：
+     * - WITH ... INSERT / UPDATE / DELETE / MERGE（修改数据的 CTE，可带 RETURNING）
+     * - SELECT ... FOR UPDATE / FOR NO KEY UPDATE / FOR SHARE / FOR KEY SHARE（加行锁，只能在主库执行）
+     * - SELECT ... INTO（建表）
+     * 字符串常量、带引号的标识符和注释中的关键字不计入；未加引号的同名列按写语句处理。
+     */
+    static boolean isReadOnlySql(String sql) {
+        int length = sql.length();
+        boolean first = true;
+        String previous = null;
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"') {
+                // 字符串常量或带引号的标识符，成对的引号是转义
+                i++;
+                while (i < length && (sql.charAt(i) != c || (i + 1 < length && sql.charAt(i + 1) == c))) {
+                    i += sql.charAt(i) == c ? 2 : 1;
+                }
+                i++;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_'
+                        || sql.charAt(i) == '$')) {
+                    i++;
+                }
+                String word = sql.substring(start, i).toUpperCase(Locale.ROOT);
+                if (first) {
+                    if (!READ_STATEMENTS.contains(word)) {
+                        return false;
+                    }
+                    first = false;
+                } else if (WRITE_KEYWORDS.contains(word)
+                        || ("SHARE".equals(word) && ("FOR".equals(previous) || "KEY".equals(previous)))) {
+                    return false;
+                }
+                previous = word;
+            } else if (first && !Character.isWhitespace(c) && c != '(') {
+                return false;
+            } else {
+                i++;
+            }
+        }
+        return !first;
+    }
+    
+    /**
+     * 一次借用对应的逻辑连接
+     */
+    private class Lease implements InvocationHandler {
+        
+        private boolean closed;
+        // 本次借用中是否执行过写语句
+        private boolean wrote;
+        // 本次借用中尚未关闭的语句
+        private final List<Statement> open = new ArrayList<>();
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    release();
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + role + "]" + (closed ? " (closed)" : "");
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("连接已关闭", "08003");
+            }
+            rememberSessionState(name);
+            if (statements != null && "prepareStatement".equals(name) && isCacheable(args)) {
+                int autoGeneratedKeys = args.length > 1 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return cachedStatement((Connection) proxy, (String) args[0], autoGeneratedKeys);
+            }
+            try {
+                Object result = method.invoke(physical, args);
+                if (result instanceof Statement statement) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                    Statement handle = (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                            new Class<?>[] { method.getReturnType() },
+                            new TrackedStatement((Connection) proxy, sql, statement, null));
+                    track(handle);
+                    return handle;
+                }
+                if (wrote && ("commit".equals(name) || "setAutoCommit".equals(name))) {
+                    // 事务提交时再记一次，副本延迟从提交时刻算起
+                    pool.markWrite();
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = unwrap(e);
+                checkBroken(cause);
+                throw cause;
+            }
+        }
+        
+        /**
+         * 语句执行后记录写操作
+         */
+        private void noteExecution(String method, Object[] args, String preparedSql) {
+            if (!method.startsWith("execute")) {
+                return;
+            }
+            boolean write;
+            if (method.contains("Update") || method.contains("Batch")) {
+                write = true;
+            } else {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                write = sql == null || !isReadOnlySql(sql);
+            }
+            if (write) {
+                wrote = true;
+                pool.markWrite();
+            }
+        }
+        
+        private boolean isCacheable(Object[] args) {
+            return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+        }
+        
+        private PreparedStatement cachedStatement(Connection proxy, String sql, int autoGeneratedKeys)
+                throws SQLException {
+            String key = StatementCache.key(sql, autoGeneratedKeys);
+            PreparedStatement statement;
+            try {
+                statement = statements.take(key, sql, autoGeneratedKeys);
+            } catch (SQLException e) {
+                checkBroken(e);
+                throw e;
+            }
+            PreparedStatement handle = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class },
+                    new TrackedStatement(proxy, sql, statement, key));
+            track(handle);
+            return handle;
+        }
+        
+        /**
+         * 记录借出的语句；长时间持有的连接上定期清理已关闭的语句
+         */
+        private void track(Statement statement) {
+            if (open.size() >= 32) {
+                open.removeIf(s -> {
+                    try {
+                        return s.isClosed();
+                    } catch (SQLException e) {
+                        return true;
+                    }
+                });
+            }
+            open.add(statement);
+        }
+        
+        private void release() {
+            if (closed) {
+                return;
+            }
+            for (Statement statement : new ArrayList<>(open)) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // 连接随后按状态归还或丢弃
+                }
+            }
+            open.clear();
+            closed = true;
+            pool.release(PooledConnection.this);
+        }
+        
+        /**
+         * 借出语句的代理：记录写操作和执行统计；缓存语句（cacheKey 不为空）close() 时回到语句缓存
+         */
+        private class TrackedStatement implements InvocationHandler {
+            
+            private final Connection connection;
+            private final String sql;
+            private final Statement statement;
+            private final String cacheKey;
+            private boolean closed;
+            // 已设置的参数（只用于慢查询日志中的类型描述），setNull 记为 QueryStats.NULL
+            private Object[] params;
+            private int paramCount;
+            // 最近一次执行的语句统计，getResultSet 返回的结果集计入其中
+            private QueryStats.Shape lastShape;
+            
+            TrackedStatement(Connection connection, String sql, Statement statement, String cacheKey) {
+                this.connection = connection;
+                this.sql = sql;
+                this.statement = statement;
+                this.cacheKey = cacheKey;
+            }
+            
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!closed) {
+                            closed = true;
+                            open.remove(proxy);
+                            if (cacheKey == null || broken) {
+                                statement.close();
+                            } else {
+                                statements.give(cacheKey, (PreparedStatement) statement);
+                            }
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed;
+                    case "getConnection":
+                        return connection;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                if (closed) {
+                    throw new SQLException("语句已关闭");
+                }
+                String name = method.getName();
+                boolean execute = name.startsWith("execute");
+                boolean timed = execute && QueryStats.isEnabled();
+                long start = timed ? System.nanoTime() : 0;
+                DaoQueryEvent event = execute ? new DaoQueryEvent() : null;
+                if (event != null) {
+                    event.begin();
+                }
+                try {
+                    Object result = method.invoke(statement, args);
+                    if (event != null) {
+                        commitEvent(event, args, false);
+                    }
+                    noteExecution(name, args, sql);
+                    if (timed) {
+                        return recordExecution(proxy, name, args, System.nanoTime() - start, false, result);
+                    }
+                    if (QueryStats.isEnabled()) {
+                        trackParameter(name, args);
+                        if (result instanceof ResultSet rs && lastShape != null && "getResultSet".equals(name)) {
+                            return countingResultSet(proxy, rs, lastShape);
+                        }
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    if (event != null) {
+                        commitEvent(event, args, true);
+                    }
+                    Throwable cause = unwrap(e);
+                    checkBroken(cause);
+                    if (timed) {
+                        recordExecution(proxy, name, args, System.nanoTime() - start, true, null);
+                    }
+                    throw cause;
+                }
+            }
+            
+            /**
+             * 提交 JFR 查询事件；没有在记录该事件时只做一次判断
+             */
+            private void commitEvent(DaoQueryEvent event, Object[] args, boolean failed) {
+                event.end();
+                if (!event.shouldCommit()) {
+                    return;
+                }
+                String text = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+                if (text != null) {
+                    QueryStats.describe(event, text);
+                }
+                event.failed = failed;
+                event.commit();
+            }
+            
+            /**
+             * 记录一次执行，返回的结果集包装为计数结果集
+             */
+            private Object recordExecution(Object proxy, String method, Object[] args, long nanos, boolean failed,
+                                           Object result) {
+                String adHoc = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                String text = adHoc != null ? adHoc : sql;
+                if (text == null) {
+                    // 普通语句的 executeBatch 没有单一 SQL，不计入
+                    return result;
+                }
+                QueryStats.Shape shape = QueryStats.shape(text);
+                lastShape = shape;
+                Object[] described;
+                if (method.contains("Batch")) {
+                    described = null;
+                } else if (adHoc == null && params != null) {
+                    described = Arrays.copyOf(params, paramCount);
+                } else {
+                    described = new Object[0];
+                }
+                QueryStats.record(shape, nanos, failed, described);
+                return result instanceof ResultSet rs ? countingResultSet(proxy, rs, shape) : result;
+            }
+            
+            /**
+             * 记录 setXxx(index, value) 设置的参数；clearParameters 时清空
+             */
+            private void trackParameter(String method, Object[] args) {
+                if ("clearParameters".equals(method)) {
+                    params = null;
+                    paramCount = 0;
+                    return;
+                }
+                if (!method.startsWith("set") || args == null || args.length < 2
+                        || !(args[0] instanceof Integer index) || index < 1) {
+                    return;
+                }
+                if (params == null) {
+                    params = new Object[Math.max(4, index)];
+                } else if (params.length < index) {
+                    params = Arrays.copyOf(params, Math.max(params.length * 2, index));
+                }
+                params[index - 1] = method.startsWith("setNull") ? QueryStats.NULL : args[1];
+                paramCount = Math.max(paramCount, index);
+            }
+            
+            private ResultSet countingResultSet(Object statementProxy, ResultSet rs, QueryStats.Shape shape) {
+                return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                        new Class<?>[] { ResultSet.class }, new CountingResultSet(statementProxy, rs, shape));
+            }
+        }
+        
+        /**
+         * 结果集代理：统计遍历到的行数和读取的列值大小
+         */
+        private class CountingResultSet implements InvocationHandler {
+            
+            private final Object statement;
+            private final ResultSet resultSet;
+            private final QueryStats.Shape shape;
+            
+            CountingResultSet(Object statement, ResultSet resultSet, QueryStats.Shape shape) {
+                this.statement = statement;
+                this.resultSet = resultSet;
+                this.shape = shape;
+            }
+            
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                switch (name) {
+                    case "getStatement":
+                        return statement;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                try {
+                    Object result = method.invoke(resultSet, args);
+                    if ("next".equals(name)) {
+                        if (Boolean.TRUE.equals(result)) {
+                            shape.addRow();
+                        }
+                    } else if (args != null && name.startsWith("get")) {
+                        // 带参数的 getXxx 都是按列取值
+                        shape.addBytes(QueryStats.estimateBytes(result));
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    Throwable cause = unwrap(e);
+                    checkBroken(cause);
+                    throw cause;
+                }
+            }
+        }
+    }
+}
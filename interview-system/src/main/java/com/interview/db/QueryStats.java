@@ -0,0 +1,477 @@
+package com.interview.db;
+
+import com.interview.config.AppConfig;
+import com.interview.jfr.DaoQueryEvent;
+import com.interview.log.Level;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+import com.interview.metrics.Counter;
+import com.interview.metrics.LatencyHistogram;
+import com.interview.metrics.MetricsRegistry;
+import com.interview.metrics.Timer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL 执行统计与慢查询日志
+ * 
+ * 连接池借出的语句（PooledConnection）每次执行都记录到这里，按语句形状汇总：
+ * 字符串、数字常量替换为 ?，连续的 ?, ?, ... 合并，空白压缩，同一形状不同参数的执行计入同一条统计。
+ * 每个形状记录执行次数、失败次数、耗时直方图、返回行数和估算的返回数据量，
+ * 以及首次执行它的 DAO 方法（如 QuestionDao.searchRanked），便于按证据决定给哪些查询加索引。
+ * 
+ * 耗时和失败次数同时按 DAO 方法计入全局指标（db_query_seconds / db_query_errors_total）。
+ * 
+ * 耗时超过 db.slow.query.ms 的执行记入 WARN 日志并保留最近 100 条；
+ * 日志只包含参数类型和长度，不包含参数值（密码哈希、考生信息等不会出现在日志中）。
+ * 
+ * 配置：
+ * - db.stats.enabled：是否统计（关闭后语句不再计时，结果集不再包装）
+ * - db.slow.query.ms：慢查询阈值（毫秒）
+ * - db.stats.max.shapes：最多统计的语句形状数，超出后计入“其他语句”
+ */
+public final class QueryStats {
+    
+    private static final Logger log = Log.get(QueryStats.class);
+    private static final int MAX_SLOW_QUERIES = 100;
+    private static final String OTHER = "(其他语句)";
+    
+    /**
+     * setNull 设置的参数
+     */
+    static final Object NULL = new Object();
+    
+    private static volatile boolean enabled = AppConfig.getBoolean("db.stats.enabled", true);
+    private static final long slowNanos = AppConfig.getInt("db.slow.query.ms", 200) * 1_000_000L;
+    private static final int maxShapes = Math.max(1, AppConfig.getInt("db.stats.max.shapes", 500));
+    
+    // 形状 -> 统计
+    private static final ConcurrentHashMap<String, Shape> shapes = new ConcurrentHashMap<>();
+    // 原始 SQL -> 统计，DAO 的 SQL 常量只需归一化一次
+    private static final ConcurrentHashMap<String, Shape> bySql = new ConcurrentHashMap<>();
+    private static final ArrayDeque<SlowQuery> slowQueries = new ArrayDeque<>();
+    
+    static {
+        MetricsRegistry metrics = MetricsRegistry.global();
+        metrics.gauge("db_statement_cache_hit_ratio", "PreparedStatement 缓存命中率", StatementCache::getHitRate);
+        metrics.gauge("db_pool_connections_opened", "新建的物理连接数",
+                () -> ConnectionPool.current() == null ? 0 : ConnectionPool.current().getOpened());
+        metrics.gauge("db_pool_connections_reused", "复用池中连接的次数",
+                () -> ConnectionPool.current() == null ? 0 : ConnectionPool.current().getReused());
+    }
+    
+    private QueryStats() {
+    }
+    
+    /**
+     * 一种语句形状的统计
+     */
+    public static class Shape {
+        private final String sql;
+        private final String source;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        // 同一 DAO 方法的多条语句共用一个全局计时器
+        private final Timer timer;
+        private final Counter errorCounter;
+        
+        Shape(String sql, String source) {
+            this.sql = sql;
+            this.source = source;
+            this.timer = MetricsRegistry.global().timer("db_query_seconds", "DAO 语句执行耗时", "source", source);
+            this.errorCounter = MetricsRegistry.global().counter("db_query_errors_total", "DAO 语句执行失败次数",
+                    "source", source);
+        }
+        
+        void addRow() {
+            rows.increment();
+        }
+        
+        void addBytes(long n) {
+            bytes.add(n);
+        }
+        
+        public String getSql() {
+            return sql;
+        }
+        
+        /**
+         * 首次执行该语句的 DAO 方法
+         */
+        public String getSource() {
+            return source;
+        }
+        
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+        
+        public long getErrors() {
+            return errors.sum();
+        }
+        
+        /**
+         * 读取的结果行数（调用方遍历到的行）
+         */
+        public long getRows() {
+            return rows.sum();
+        }
+        
+        /**
+         * 读取的列值估算字节数（文本按 UTF-8 计）
+         */
+        public long getBytes() {
+            return bytes.sum();
+        }
+        
+        JSONObject toJson() {
+            LatencyHistogram h = latency;
+            return new JSONObject()
+                    .put("source", source)
+                    .put("sql", sql)
+                    .put("count", h.getCount())
+                    .put("errors", getErrors())
+                    .put("totalMs", round(h.getTotalMillis()))
+                    .put("meanMs", round(h.getMeanMillis()))
+                    .put("p50Ms", round(h.percentileMillis(0.50)))
+                    .put("p95Ms", round(h.percentileMillis(0.95)))
+                    .put("p99Ms", round(h.percentileMillis(0.99)))
+                    .put("maxMs", round(h.getMaxMillis()))
+                    .put("rows", getRows())
+                    .put("bytes", getBytes());
+        }
+    }
+    
+    /**
+     * 一次慢查询
+     */
+    public static class SlowQuery {
+        private final LocalDateTime time;
+        private final double millis;
+        private final String source;
+        private final String sql;
+        private final String params;
+        
+        SlowQuery(LocalDateTime time, double millis, String source, String sql, String params) {
+            this.time = time;
+            this.millis = millis;
+            this.source = source;
+            this.sql = sql;
+            this.params = params;
+        }
+        
+        public LocalDateTime getTime() {
+            return time;
+        }
+        
+        public double getMillis() {
+            return millis;
+        }
+        
+        public String getSource() {
+            return source;
+        }
+        
+        public String getSql() {
+            return sql;
+        }
+        
+        /**
+         * 参数类型描述，如 "[String(12), Integer, null]"，不含参数值
+         */
+        public String getParams() {
+            return params;
+        }
+    }
+    
+    public static boolean isEnabled() {
+        return enabled;
+    }
+    
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+    
+    /**
+     * 取 SQL 对应的统计，首次出现时归一化并记录调用它的 DAO 方法
+     */
+    static Shape shape(String sql) {
+        Shape shape = bySql.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        String normalized = normalize(sql);
+        shape = shapes.get(normalized);
+        if (shape == null) {
+            if (shapes.size() >= maxShapes) {
+                shape = shapes.computeIfAbsent(OTHER, k -> new Shape(OTHER, "-"));
+            } else {
+                String source = callerSource();
+                shape = shapes.computeIfAbsent(normalized, k -> new Shape(k, source));
+            }
+        }
+        // 拼接了常量的动态 SQL 每次文本都不同，原始 SQL 缓存同样限量
+        if (bySql.size() < maxShapes * 4) {
+            bySql.putIfAbsent(sql, shape);
+        }
+        return shape;
+    }
+    
+    /**
+     * 填写 JFR 事件的来源和语句形状；统计开启时取已有的形状，不重复归一化，
+     * 统计关闭时不登记形状（只在 JFR 记录该事件时调用）
+     */
+    static void describe(DaoQueryEvent event, String sql) {
+        Shape shape = enabled ? shape(sql) : null;
+        if (shape != null && !OTHER.equals(shape.sql)) {
+            event.sql = shape.sql;
+            event.source = shape.source;
+        } else {
+            event.sql = normalize(sql);
+            event.source = callerSource();
+        }
+    }
+    
+    /**
+     * 记录一次执行；超过阈值时写慢查询日志
+     * 
+     * @param params 参数值（只用于描述类型），批量执行时为 null
+     */
+    static void record(Shape shape, long nanos, boolean failed, Object[] params) {
+        shape.latency.recordNanos(nanos);
+        shape.timer.record(nanos);
+        if (failed) {
+            shape.errors.increment();
+            shape.errorCounter.increment();
+        }
+        if (nanos >= slowNanos) {
+            SlowQuery slow = new SlowQuery(LocalDateTime.now(), nanos / 1e6, shape.source, shape.sql,
+                    describeParams(params));
+            synchronized (slowQueries) {
+                if (slowQueries.size() >= MAX_SLOW_QUERIES) {
+                    slowQueries.pollFirst();
+                }
+                slowQueries.addLast(slow);
+            }
+            log.log(Level.WARN, "慢查询 {} ms [{}] {} 参数: {}{}", Math.round(slow.millis * 10) / 10.0, slow.source,
+                    slow.sql, slow.params, failed ? "（执行失败）" : "");
+        }
+    }
+    
+    /**
+     * 语句形状：常量替换为 ?，IN 列表等连续占位符合并为 ?...，空白压缩
+     */
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int n = sql.length();
+        int i = 0;
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < n && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0) {
+                    out.append(' ');
+                }
+                continue;
+            }
+            if (c == '\'') {
+                // 字符串常量，'' 为转义的单引号
+                i++;
+                while (i < n) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < n && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+                continue;
+            }
+            boolean identifierBefore = out.length() > 0 && isIdentifierChar(out.charAt(out.length() - 1));
+            if (Character.isDigit(c) && !identifierBefore) {
+                while (i < n && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+                continue;
+            }
+            out.append(c);
+            i++;
+        }
+        int end = out.length();
+        while (end > 0 && (out.charAt(end - 1) == ' ' || out.charAt(end - 1) == ';')) {
+            end--;
+        }
+        out.setLength(end);
+        return out.toString().replaceAll("\\?(?: ?, ?\\?)+", "?...");
+    }
+    
+    private static boolean isIdentifierChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+    
+    /**
+     * 调用栈中第一个 DAO 方法，如 QuestionDao.findSummaryPage；不是从 DAO 调用时取第一个业务类方法
+     */
+    private static String callerSource() {
+        return StackWalker.getInstance().walk(frames -> {
+            String fallback = null;
+            Iterator<StackWalker.StackFrame> it = frames.iterator();
+            while (it.hasNext()) {
+                StackWalker.StackFrame frame = it.next();
+                String className = frame.getClassName();
+                if (!className.startsWith("com.interview.")) {
+                    continue;
+                }
+                String label = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                if (className.startsWith("com.interview.dao.")) {
+                    return label;
+                }
+                if (fallback == null && !className.startsWith("com.interview.db.")) {
+                    fallback = label;
+                }
+            }
+            return fallback != null ? fallback : "-";
+        });
+    }
+    
+    /**
+     * 参数类型描述，不含参数值
+     */
+    static String describeParams(Object[] params) {
+        if (params == null) {
+            return "(批量)";
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < params.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            Object value = params[i];
+            if (value == null || value == NULL) {
+                sb.append("null");
+            } else if (value instanceof String s) {
+                sb.append("String(").append(s.length()).append(')');
+            } else {
+                sb.append(value.getClass().getSimpleName());
+            }
+        }
+        return sb.append(']').toString();
+    }
+    
+    /**
+     * 列值的估算字节数：文本按 UTF-8，数值和时间按 8 字节
+     */
+    static long estimateBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String s) {
+            long bytes = 0;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                bytes += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+            }
+            return bytes;
+        }
+        if (value instanceof byte[] array) {
+            return array.length;
+        }
+        return 8;
+    }
+    
+    /**
+     * 全部语句统计，按总耗时降序
+     */
+    public static List<Shape> getShapes() {
+        List<Shape> list = new ArrayList<>(shapes.values());
+        list.sort(Comparator.comparingDouble((Shape s) -> s.latency.getTotalMillis()).reversed());
+        return list;
+    }
+    
+    /**
+     * 最近的慢查询，最新的在前
+     */
+    public static List<SlowQuery> getSlowQueries() {
+        List<SlowQuery> list;
+        synchronized (slowQueries) {
+            list = new ArrayList<>(slowQueries);
+        }
+        Collections.reverse(list);
+        return list;
+    }
+    
+    public static double getSlowThresholdMillis() {
+        return slowNanos / 1e6;
+    }
+    
+    /**
+     * 清空统计
+     */
+    public static void reset() {
+        shapes.clear();
+        bySql.clear();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+    
+    public static JSONObject toJson() {
+        JSONArray statements = new JSONArray();
+        for (Shape shape : getShapes()) {
+            statements.put(shape.toJson());
+        }
+        JSONArray slow = new JSONArray();
+        for (SlowQuery query : getSlowQueries()) {
+            slow.put(new JSONObject()
+                    .put("time", query.time.toString())
+                    .put("ms", round(query.millis))
+                    .put("source", query.source)
+                    .put("sql", query.sql)
+                    .put("params", query.params));
+        }
+        return new JSONObject()
+                .put("generatedAt", LocalDateTime.now().toString())
+                .put("slowThresholdMs", getSlowThresholdMillis())
+                .put("statementCacheHitRate", round(StatementCache.getHitRate()))
+                .put("statements", statements)
+                .put("slowQueries", slow);
+    }
+    
+    /**
+     * 把统计写入 JSON 文件（覆盖）
+     */
+    public static void dump(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, toJson().toString(2), StandardCharsets.UTF_8);
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,194 @@
+package com.interview.db;
+
+import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 只读查询的副本路由
+ * 
+ * 浏览、检索、报表、导出等只读 DAO 方法通过 DatabaseConnection.getReadConnection 取连接，
+ * 由本类决定发往哪个只读副本，不满足条件时返回 null 由调用方使用主库：
+ * - 读己之写：本客户端在 stickySeconds 内执行过写操作（由主库连接池记录）时读主库，
+ *   刚提交的成绩、刚修改的题目不会因为副本尚未回放而“消失”
+ * - 延迟感知：每个副本最多每 checkIntervalSeconds 检测一次复制延迟，
+ *   延迟超过 maxLagSeconds 或无法连接的副本暂停使用，下次检测恢复后再启用
+ * - 多个可用副本之间轮询
+ * 
+ * 延迟检测与取连接在调用线程中进行，不启动后台线程。
+ */
+public class ReplicaRouter {
+    
+    private static final Logger log = Log.get(ReplicaRouter.class);
+    
+    // 副本已回放到接收位置时延迟为 0（主库空闲时 pg_last_xact_replay_timestamp 不再更新，不能直接相减）
+    private static final String LAG_SQL = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+    
+    private final ConnectionPool primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final long checkIntervalNanos;
+    private final long stickyNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final AtomicLong stickyReads = new AtomicLong();
+    
+    /**
+     * @param primary          主库连接池（用于判断本客户端最近是否写入）
+     * @param replicaPools     各副本的连接池，与 names 一一对应
+     * @param names            副本名称（host:port），用于日志
+     * @param maxLagSeconds    允许的最大复制延迟
+     * @param checkIntervalSeconds 延迟检测间隔
+     * @param stickySeconds    写入后继续读主库的时间，不小于 maxLagSeconds
+     */
+    public ReplicaRouter(ConnectionPool primary, List<ConnectionPool> replicaPools, List<String> names,
+                         int maxLagSeconds, int checkIntervalSeconds, int stickySeconds) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>();
+        for (int i = 0; i < replicaPools.size(); i++) {
+            replicas.add(new Replica(names.get(i), replicaPools.get(i)));
+        }
+        this.maxLagSeconds = Math.max(0, maxLagSeconds);
+        this.checkIntervalNanos = Math.max(1, checkIntervalSeconds) * 1_000_000_000L;
+        // 副本延迟不超过 maxLag，写入后等待同样长的时间即可在副本上读到
+        this.stickyNanos = Math.max(stickySeconds, maxLagSeconds) * 1_000_000_000L;
+    }
+    
+    /**
+     * 为只读查询取一个副本连接，应使用主库时返回 null
+     */
+    public Connection route(DbUserRole role) {
+        // 连接池关闭时主库连接同样经过 PooledConnection 包装，写操作照常记录
+        if (primary.nanosSinceLastWrite() < stickyNanos) {
+            stickyReads.incrementAndGet();
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.isUsable(role)) {
+                continue;
+            }
+            try {
+                Connection conn = replica.pool.borrow(role);
+                replicaReads.incrementAndGet();
+                return conn;
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        primaryReads.incrementAndGet();
+        return null;
+    }
+    
+    /**
+     * 关闭各副本的空闲连接
+     */
+    public void shutdown() {
+        for (Replica replica : replicas) {
+            replica.pool.shutdown();
+        }
+    }
+    
+    public long getReplicaReads() {
+        return replicaReads.get();
+    }
+    
+    /**
+     * 因副本不可用或延迟过大而回到主库的只读查询数
+     */
+    public long getPrimaryReads() {
+        return primaryReads.get();
+    }
+    
+    /**
+     * 因本客户端刚写入而留在主库的只读查询数
+     */
+    public long getStickyReads() {
+        return stickyReads.get();
+    }
+    
+    /**
+     * 各副本状态，如 "replica1:5432 延迟 0.3s"
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        for (Replica replica : replicas) {
+            lines.add(replica.name + (replica.checkedAt == 0 ? " 未检测"
+                    : replica.up ? String.format(" 延迟 %.1fs", replica.lagSeconds) : " 不可用"));
+        }
+        return lines;
+    }
+    
+    private class Replica {
+        private final String name;
+        private final ConnectionPool pool;
+        private volatile boolean up;
+        private volatile double lagSeconds;
+        // 上次检测时间（System.nanoTime），0 表示尚未检测
+        private volatile long checkedAt;
+        
+        Replica(String name, ConnectionPool pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+        
+        /**
+         * 检测结果过期时重新检测（同一时刻只有一个线程检测，其他线程沿用上次结果）
+         */
+        boolean isUsable(DbUserRole role) {
+            long now = System.nanoTime();
+            if (checkedAt == 0 || now - checkedAt >= checkIntervalNanos) {
+                synchronized (this) {
+                    if (checkedAt == 0 || System.nanoTime() - checkedAt >= checkIntervalNanos) {
+                        check(role);
+                    }
+                }
+            }
+            return up && lagSeconds <= maxLagSeconds;
+        }
+        
+        private void check(DbUserRole role) {
+            boolean wasUsable = checkedAt == 0 || (up && lagSeconds <= maxLagSeconds);
+            try (Connection conn = pool.borrow(role);
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(LAG_SQL)) {
+                rs.next();
+                lagSeconds = rs.getDouble(1);
+                up = true;
+            } catch (SQLException e) {
+                up = false;
+                if (wasUsable) {
+                    log.warn("只读副本 {} 不可用，查询改走主库: {}", name, e.getMessage());
+                }
+            }
+            checkedAt = System.nanoTime();
+            if (up && lagSeconds > maxLagSeconds && wasUsable) {
+                log.warn("只读副本 {} 复制延迟 {} 秒，暂停使用", name, Math.round(lagSeconds * 10) / 10.0);
+            }
+        }
+        
+        void markDown(SQLException e) {
+            up = false;
+            checkedAt = System.nanoTime();
+            log.warn("只读副本 {} 连接失败，查询改走主库: {}", name, e.getMessage());
+        }
+    }
+}
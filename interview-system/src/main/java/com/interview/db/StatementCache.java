@@ -0,0 +1,158 @@
+package com.interview.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单个物理连接上的 PreparedStatement 缓存，按 SQL 文本（及是否返回自增键）索引
+ * 
+ * DAO 关闭语句时语句回到缓存（清空参数、批处理和 fetchSize 等设置），
+ * 下次相同 SQL 直接复用同一个驱动语句对象。驱动对同一语句对象执行达到 prepareThreshold 次后
+ * 改用服务端命名语句，此后只发送 Bind/Execute，PostgreSQL 不再解析，满足条件时复用通用计划。
+ * 
+ * 同一 SQL 在同一连接上可以同时借出多个（如遍历结果集时再次执行同一查询），空闲的按最近使用顺序保留，
+ * 超过容量时关闭最久未用的语句。缓存只由持有连接的线程访问，不加锁；命中统计为全局计数。
+ */
+public class StatementCache {
+    
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+    
+    private final Connection connection;
+    private final int capacity;
+    // 按访问顺序排列，最久未用的在前
+    private final LinkedHashMap<String, ArrayDeque<PreparedStatement>> idle = new LinkedHashMap<>(16, 0.75f, true);
+    private int idleCount;
+    
+    /**
+     * @param connection 物理连接
+     * @param capacity   最多保留的空闲语句数
+     */
+    public StatementCache(Connection connection, int capacity) {
+        this.connection = connection;
+        this.capacity = Math.max(1, capacity);
+    }
+    
+    /**
+     * 缓存键：SQL 文本，需要返回自增键的语句单独缓存
+     */
+    static String key(String sql, int autoGeneratedKeys) {
+        return autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : "S:" + sql;
+    }
+    
+    /**
+     * 取一个空闲语句，没有时在物理连接上新建
+     */
+    PreparedStatement take(String key, String sql, int autoGeneratedKeys) throws SQLException {
+        ArrayDeque<PreparedStatement> statements = idle.get(key);
+        if (statements != null && !statements.isEmpty()) {
+            idleCount--;
+            hits.incrementAndGet();
+            PreparedStatement statement = statements.pop();
+            if (statements.isEmpty()) {
+                idle.remove(key);
+            }
+            return statement;
+        }
+        misses.incrementAndGet();
+        return autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS
+                ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(sql);
+    }
+    
+    /**
+     * 归还语句：重置后放回缓存，重置失败的语句直接关闭
+     */
+    void give(String key, PreparedStatement statement) {
+        try {
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+            statement.setFetchSize(0);
+            statement.setMaxRows(0);
+            statement.setQueryTimeout(0);
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+        idle.computeIfAbsent(key, k -> new ArrayDeque<>()).push(statement);
+        idleCount++;
+        while (idleCount > capacity) {
+            evictEldest();
+        }
+    }
+    
+    private void evictEldest() {
+        Iterator<Map.Entry<String, ArrayDeque<PreparedStatement>>> it = idle.entrySet().iterator();
+        Map.Entry<String, ArrayDeque<PreparedStatement>> eldest = it.next();
+        closeQuietly(eldest.getValue().pollLast());
+        idleCount--;
+        evictions.incrementAndGet();
+        if (eldest.getValue().isEmpty()) {
+            it.remove();
+        }
+    }
+    
+    public int size() {
+        return idleCount;
+    }
+    
+    /**
+     * 关闭全部空闲语句（物理连接关闭前调用）
+     */
+    void close() {
+        for (ArrayDeque<PreparedStatement> statements : idle.values()) {
+            for (PreparedStatement statement : statements) {
+                closeQuietly(statement);
+            }
+        }
+        idle.clear();
+        idleCount = 0;
+    }
+    
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // 连接已断开时关闭语句也会失败，忽略
+        }
+    }
+    
+    public static long getHits() {
+        return hits.get();
+    }
+    
+    public static long getMisses() {
+        return misses.get();
+    }
+    
+    public static long getEvictions() {
+        return evictions.get();
+    }
+    
+    /**
+     * 命中率（0~1），尚无请求时为 0
+     */
+    public static double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+    
+    /**
+     * 清零统计（基准测试分阶段统计时使用）
+     */
+    public static void resetStats() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+}
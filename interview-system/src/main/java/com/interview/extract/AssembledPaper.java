@@ -0,0 +1,52 @@
+package com.interview.extract;
+
+import com.interview.model.Question;
+import com.interview.model.QuestionExtractRecord;
+
+import java.util.List;
+
+/**
+ * 组卷结果
+ */
+public class AssembledPaper {
+    
+    private final boolean success;
+    private final String message;
+    private final List<Question> questions;
+    private final QuestionExtractRecord record;
+    
+    private AssembledPaper(boolean success, String message, List<Question> questions,
+                           QuestionExtractRecord record) {
+        this.success = success;
+        this.message = message;
+        this.questions = questions;
+        this.record = record;
+    }
+    
+    public static AssembledPaper success(List<Question> questions, QuestionExtractRecord record, String message) {
+        return new AssembledPaper(true, message, questions, record);
+    }
+    
+    public static AssembledPaper failure(String message) {
+        return new AssembledPaper(false, message, List.of(), null);
+    }
+    
+    public boolean isSuccess() {
+        return success;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public List<Question> getQuestions() {
+        return questions;
+    }
+    
+    /**
+     * 保存的抽取记录，保存失败时为 null
+     */
+    public QuestionExtractRecord getRecord() {
+        return record;
+    }
+}
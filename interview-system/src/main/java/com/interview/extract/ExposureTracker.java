@@ -0,0 +1,285 @@
+package com.interview.extract;
+
+import com.interview.config.AppConfig;
+import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.dao.QuestionExtractRecordDao;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+import com.interview.model.QuestionExtractRecord;
+import com.interview.util.DatabaseConnection;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 题目曝光统计
+ * 
+ * 抽取记录先进入内存缓冲，攒够 batchSize 条或定时任务触发时用一次批量写入落库
+ * （QuestionExtractRecordDao.insertBatch，记录与曝光次数在同一事务中更新）。
+ * 
+ * 曝光次数在首次使用时从 question_exposure 整表加载到按题目 id 下标的数组，
+ * 之后每次抽取只在内存中累加，抽题时按次数计算接受概率，不产生逐题查询：
+ * 次数不超过参考值（已曝光题目的平均次数）的题目总是接受，超过的按
+ * ((1 + 参考值) / (1 + 次数))^alpha 降低被抽中的概率。alpha 为 0 时等同于均匀抽取。
+ * 
+ * 缓冲的记录带有抽题时线程的数据库角色（登录用户的角色），写入时按角色分组，
+ * 每组使用对应角色的连接，后台定时任务不使用管理员账号。
+ */
+public class ExposureTracker {
+    
+    private static final Logger log = Log.get(ExposureTracker.class);
+    
+    // 写入失败时最多保留的缓冲记录数（按批次计），超出后丢弃最旧的记录
+    private static final int MAX_PENDING_BATCHES = 10;
+    
+    private final QuestionExtractRecordDao recordDao;
+    private final double alpha;
+    private final int batchSize;
+    
+    private final List<PendingRecord> pending = new ArrayList<>();
+    private int[] counts;
+    private long totalExposure;
+    private int exposedQuestions;
+    
+    private ScheduledExecutorService scheduler;
+    
+    /**
+     * 缓冲中的抽取记录及写入时使用的数据库角色
+     */
+    private record PendingRecord(QuestionExtractRecord record, DbUserRole dbRole) {
+    }
+    
+    public ExposureTracker(QuestionExtractRecordDao recordDao, double alpha, int batchSize) {
+        this.recordDao = recordDao;
+        this.alpha = alpha;
+        this.batchSize = Math.max(1, batchSize);
+    }
+    
+    /**
+     * 按 config.properties 中的 extract.exposure.* 配置创建
+     */
+    public static ExposureTracker fromConfig(QuestionExtractRecordDao recordDao) {
+        double alpha = AppConfig.getBoolean("extract.exposure.enabled", true)
+                ? Double.parseDouble(AppConfig.getString("extract.exposure.alpha", "1.0")) : 0;
+        return new ExposureTracker(recordDao, alpha, AppConfig.getInt("extract.record.batch.size", 20));
+    }
+    
+    /**
+     * 启动定时落库任务
+     * 
+     * @param intervalSeconds 两次写入的间隔（秒）
+     */
+    public synchronized void start(long intervalSeconds) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "extract-record-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            // 每组记录按各自的角色写入（连接按线程保存，不影响界面线程的连接）
+            try {
+                flushQuietly();
+            } finally {
+                DatabaseConnection.closeCurrentConnection();
+            }
+        }, intervalSeconds, Math.max(1, intervalSeconds), TimeUnit.SECONDS);
+    }
+    
+    /**
+     * 停止定时任务，并写入剩余的缓冲记录
+     */
+    public void stop() {
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdown();
+                scheduler = null;
+            }
+        }
+        flushQuietly();
+    }
+    
+    /**
+     * 记录一次抽取（缓冲写入），曝光次数立即在内存中生效
+     * 写入时使用当前线程的数据库角色
+     */
+    public void record(QuestionExtractRecord record) {
+        boolean full;
+        synchronized (this) {
+            pending.add(new PendingRecord(record, DatabaseConnection.getCurrentDbRole()));
+            countExposure(record);
+            full = pending.size() >= batchSize;
+        }
+        if (full) {
+            flushQuietly();
+        }
+    }
+    
+    /**
+     * 记录一次抽取并立即落库（连同缓冲中的记录），写入后 record 的 id 被回填
+     */
+    public void recordNow(QuestionExtractRecord record) throws SQLException {
+        synchronized (this) {
+            pending.add(new PendingRecord(record, DatabaseConnection.getCurrentDbRole()));
+            countExposure(record);
+        }
+        flush();
+    }
+    
+    /**
+     * 写入缓冲中的记录（按角色分组，每组一次批量写入），失败时未写入的记录留在缓冲中等待下次写入
+     */
+    public void flush() throws SQLException {
+        Map<DbUserRole, List<PendingRecord>> groups = new EnumMap<>(DbUserRole.class);
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            for (PendingRecord entry : pending) {
+                groups.computeIfAbsent(entry.dbRole(), role -> new ArrayList<>()).add(entry);
+            }
+            pending.clear();
+        }
+        List<PendingRecord> failed = new ArrayList<>();
+        SQLException error = null;
+        for (Map.Entry<DbUserRole, List<PendingRecord>> group : groups.entrySet()) {
+            if (error != null) {
+                failed.addAll(group.getValue());
+                continue;
+            }
+            try {
+                insertAs(group.getKey(), group.getValue());
+            } catch (SQLException e) {
+                failed.addAll(group.getValue());
+                error = e;
+            }
+        }
+        if (error != null) {
+            synchronized (this) {
+                pending.addAll(0, failed);
+                int overflow = pending.size() - batchSize * MAX_PENDING_BATCHES;
+                if (overflow > 0) {
+                    pending.subList(0, overflow).clear();
+                    log.warn("抽取记录缓冲已满，丢弃 {} 条最早的记录", overflow);
+                }
+            }
+            throw error;
+        }
+    }
+    
+    /**
+     * 用指定角色的连接写入一组记录；与当前线程的角色不同时临时切换，写入后恢复
+     */
+    private void insertAs(DbUserRole dbRole, List<PendingRecord> entries) throws SQLException {
+        List<QuestionExtractRecord> batch = new ArrayList<>(entries.size());
+        for (PendingRecord entry : entries) {
+            batch.add(entry.record());
+        }
+        DbUserRole previous = DatabaseConnection.getCurrentDbRole();
+        if (previous == dbRole) {
+            recordDao.insertBatch(batch);
+            return;
+        }
+        DatabaseConnection.setCurrentDbRole(dbRole);
+        try {
+            recordDao.insertBatch(batch);
+        } finally {
+            DatabaseConnection.setCurrentDbRole(previous);
+        }
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException e) {
+            log.error("保存抽取记录失败: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 抽中该题后是否保留的概率，(0, 1]
+     */
+    public double acceptance(int questionId) {
+        if (alpha <= 0) {
+            return 1.0;
+        }
+        synchronized (this) {
+            ensureLoaded();
+            int count = questionId >= 0 && questionId < counts.length ? counts[questionId] : 0;
+            double reference = exposedQuestions == 0 ? 0 : (double) totalExposure / exposedQuestions;
+            if (count <= reference) {
+                return 1.0;
+            }
+            return Math.pow((1 + reference) / (1 + count), alpha);
+        }
+    }
+    
+    /**
+     * 题目被抽取的次数（含尚未落库的记录）
+     */
+    public synchronized int exposureCount(int questionId) {
+        ensureLoaded();
+        return questionId >= 0 && questionId < counts.length ? counts[questionId] : 0;
+    }
+    
+    /**
+     * 丢弃内存中的曝光次数，下次使用时重新从数据库加载
+     */
+    public synchronized void reload() {
+        counts = null;
+    }
+    
+    private void ensureLoaded() {
+        if (counts != null) {
+            return;
+        }
+        counts = new int[1024];
+        totalExposure = 0;
+        exposedQuestions = 0;
+        try {
+            recordDao.scanExposureCounts((id, count) -> add(id, (int) Math.min(count, Integer.MAX_VALUE)));
+        } catch (SQLException e) {
+            // 统计不可用时按均匀抽取处理
+            log.error("加载题目曝光次数失败: {}", e.getMessage());
+        }
+        // 尚未落库的记录
+        for (PendingRecord entry : pending) {
+            countExposure(entry.record());
+        }
+    }
+    
+    private void countExposure(QuestionExtractRecord record) {
+        if (counts == null || record.getQuestionIds() == null) {
+            // 尚未加载，加载时会连同缓冲记录一起统计
+            return;
+        }
+        for (Integer id : record.getQuestionIds()) {
+            if (id != null) {
+                add(id, 1);
+            }
+        }
+    }
+    
+    private void add(int id, int delta) {
+        if (id < 0 || delta <= 0) {
+            return;
+        }
+        if (id >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(id + 1, counts.length * 2));
+        }
+        if (counts[id] == 0) {
+            exposedQuestions++;
+        }
+        counts[id] = (int) Math.min((long) counts[id] + delta, Integer.MAX_VALUE);
+        totalExposure += delta;
+    }
+}
@@ -0,0 +1,253 @@
+package com.interview.extract;
+
+import com.interview.extract.PaperSpec.Quota;
+import com.interview.extract.QuestionSampler.Snapshot;
+import com.interview.extract.QuestionSampler.StratumKey;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * 按规则组卷
+ * 
+ * 在 QuestionSampler 的分层 id 快照上求解，不访问数据库：
+ * 1. 每个待抽题位（配额展开后的每一道题）对应若干可选分层（类型/等级/专精/分类），
+ *    分层容量为排除考生见过的题目后剩余的题数（被排除的题目通过快照的反查表按分层计数）；
+ * 2. 按可选分层最少的题位优先，深度优先为每个题位选定分层：
+ *    分类数未达标时优先选尚未覆盖的分类，同组内按剩余容量加权随机，使各题被抽中的机会接近均等；
+ *    已选分类数 + 剩余题位数不足 minCategories 时剪枝回溯；
+ * 3. 分层确定后，在每个分层内抽取不重复题目（设置了曝光统计时偏向曝光较少的题目）。
+ * 
+ * 不同配额可能命中同一分层（如 "初级" 与 "初级·技术"），分层容量在配额间共享，不会抽到重复题目。
+ */
+public class PaperAssembler {
+    
+    // 回溯步数上限，超过说明规则几乎无解，直接报告失败
+    private static final int MAX_STEPS = 200_000;
+    
+    private final QuestionSampler sampler;
+    
+    public PaperAssembler(QuestionSampler sampler) {
+        this.sampler = sampler;
+    }
+    
+    /**
+     * 组卷
+     * 
+     * @param excluded 需要排除的题目 id（如考生见过的题目）
+     * @return 按配额顺序排列的题目 id
+     * @throws PaperAssemblyException 规则无法满足时，消息说明原因
+     */
+    public int[] assemble(PaperSpec spec, Set<Integer> excluded) throws SQLException, PaperAssemblyException {
+        return assemble(sampler.snapshot(), spec, excluded, sampler.acceptance(), ThreadLocalRandom.current());
+    }
+    
+    /**
+     * @param acceptance 题目 id -> 保留概率，null 表示分层内均匀抽取
+     */
+    static int[] assemble(Snapshot snapshot, PaperSpec spec, Set<Integer> excluded,
+                          IntToDoubleFunction acceptance, RandomGenerator random) throws PaperAssemblyException {
+        List<Quota> quotas = spec.getQuotas();
+        if (quotas.isEmpty()) {
+            throw new PaperAssemblyException("请至少设置一条题目配额");
+        }
+        
+        // 被排除的题目按分层计数（排除集合通常只有几十道，不必逐个分层过滤 id 数组）
+        Map<StratumKey, Integer> excludedCounts = new HashMap<>();
+        for (int id : excluded) {
+            StratumKey key = snapshot.stratumOf(id);
+            if (key != null) {
+                excludedCounts.merge(key, 1, Integer::sum);
+            }
+        }
+        
+        // 可用分层：至少被一条配额命中，且排除后仍有题目
+        List<StratumKey> keys = new ArrayList<>();
+        List<int[]> pools = new ArrayList<>();
+        List<Integer> capacities = new ArrayList<>();
+        for (Map.Entry<StratumKey, int[]> e : snapshot.strata.entrySet()) {
+            boolean wanted = false;
+            for (Quota quota : quotas) {
+                wanted |= quota.matches(e.getKey());
+            }
+            int capacity = e.getValue().length - excludedCounts.getOrDefault(e.getKey(), 0);
+            if (wanted && capacity > 0) {
+                keys.add(e.getKey());
+                pools.add(e.getValue());
+                capacities.add(capacity);
+            }
+        }
+        
+        // 每条配额的可选分层，并先做容量检查，给出明确的失败原因
+        int[][] choices = new int[quotas.size()][];
+        Set<String> reachableCategories = new HashSet<>();
+        for (int q = 0; q < quotas.size(); q++) {
+            Quota quota = quotas.get(q);
+            List<Integer> matching = new ArrayList<>();
+            int capacity = 0;
+            for (int s = 0; s < keys.size(); s++) {
+                if (quota.matches(keys.get(s))) {
+                    matching.add(s);
+                    capacity += capacities.get(s);
+                    if (keys.get(s).category != null) {
+                        reachableCategories.add(keys.get(s).category);
+                    }
+                }
+            }
+            if (capacity < quota.getCount()) {
+                throw new PaperAssemblyException(String.format("%s：可用题目不足（需要 %d 道，可用 %d 道）",
+                        quota.describe(), quota.getCount(), capacity));
+            }
+            choices[q] = matching.stream().mapToInt(Integer::intValue).toArray();
+        }
+        int total = spec.getTotalCount();
+        if (spec.getMinCategories() > Math.min(total, reachableCategories.size())) {
+            throw new PaperAssemblyException(String.format("无法覆盖 %d 个分类（共 %d 道题，可用分类 %d 个）",
+                    spec.getMinCategories(), total, reachableCategories.size()));
+        }
+        
+        // 展开题位，可选分层少的配额优先
+        Integer[] order = new Integer[quotas.size()];
+        for (int q = 0; q < order.length; q++) {
+            order[q] = q;
+        }
+        Arrays.sort(order, Comparator.comparingInt(q -> choices[q].length));
+        int[] positionQuota = new int[total];
+        int p = 0;
+        for (int q : order) {
+            for (int i = 0; i < quotas.get(q).getCount(); i++) {
+                positionQuota[p++] = q;
+            }
+        }
+        
+        Search search = new Search(keys, capacities, choices, positionQuota, spec.getMinCategories(), random);
+        if (!search.solve(0)) {
+            throw new PaperAssemblyException(search.steps > MAX_STEPS
+                    ? "规则过于严格，未能在限定步数内找到满足条件的组合"
+                    : "没有满足全部条件的题目组合，请放宽分类覆盖或配额");
+        }
+        
+        // 每个分层内抽取不重复题目，再按配额顺序排列
+        int[] used = search.used;
+        int[][] drawn = new int[keys.size()][];
+        int[] cursor = new int[keys.size()];
+        for (int s = 0; s < keys.size(); s++) {
+            if (used[s] > 0) {
+                // 只有实际抽到的分层才需要剔除被排除的题目
+                int[] pool = capacities.get(s) == pools.get(s).length ? pools.get(s)
+                        : Arrays.stream(pools.get(s)).filter(id -> !excluded.contains(id)).toArray();
+                int[] positions = QuestionSampler.draw(pool.length, used[s], i -> pool[i], acceptance, random);
+                drawn[s] = new int[used[s]];
+                for (int i = 0; i < used[s]; i++) {
+                    drawn[s][i] = pool[positions[i]];
+                }
+            }
+        }
+        List<List<Integer>> byQuota = new ArrayList<>();
+        for (int q = 0; q < quotas.size(); q++) {
+            byQuota.add(new ArrayList<>());
+        }
+        for (int pos = 0; pos < total; pos++) {
+            int s = search.assignment[pos];
+            byQuota.get(positionQuota[pos]).add(drawn[s][cursor[s]++]);
+        }
+        return byQuota.stream().flatMap(List::stream).mapToInt(Integer::intValue).toArray();
+    }
+    
+    /**
+     * 题位 -> 分层 的回溯搜索
+     */
+    private static final class Search {
+        final List<StratumKey> keys;
+        final List<Integer> capacities;
+        final int[][] choices;
+        final int[] positionQuota;
+        final int minCategories;
+        final RandomGenerator random;
+        
+        final int[] assignment;
+        final int[] used;
+        final Map<String, Integer> categoryCounts = new HashMap<>();
+        int steps;
+        
+        Search(List<StratumKey> keys, List<Integer> capacities, int[][] choices, int[] positionQuota,
+               int minCategories, RandomGenerator random) {
+            this.keys = keys;
+            this.capacities = capacities;
+            this.choices = choices;
+            this.positionQuota = positionQuota;
+            this.minCategories = minCategories;
+            this.random = random;
+            this.assignment = new int[positionQuota.length];
+            this.used = new int[keys.size()];
+        }
+        
+        boolean solve(int position) {
+            int remaining = positionQuota.length - position;
+            if (categoryCounts.size() + remaining < minCategories) {
+                return false;
+            }
+            if (remaining == 0) {
+                return true;
+            }
+            if (++steps > MAX_STEPS) {
+                return false;
+            }
+            
+            for (int s : orderedChoices(choices[positionQuota[position]])) {
+                String category = keys.get(s).category;
+                used[s]++;
+                if (category != null) {
+                    categoryCounts.merge(category, 1, Integer::sum);
+                }
+                assignment[position] = s;
+                if (solve(position + 1)) {
+                    return true;
+                }
+                used[s]--;
+                if (category != null && categoryCounts.merge(category, -1, Integer::sum) == 0) {
+                    categoryCounts.remove(category);
+                }
+                if (steps > MAX_STEPS) {
+                    return false;
+                }
+            }
+            return false;
+        }
+        
+        /**
+         * 候选分层排序：分类未达标时未覆盖的分类在前；同组内按剩余容量加权随机（Efraimidis-Spirakis 键）
+         */
+        private int[] orderedChoices(int[] candidates) {
+            boolean needCategories = categoryCounts.size() < minCategories;
+            List<double[]> ranked = new ArrayList<>(candidates.length);
+            for (int s : candidates) {
+                int left = capacities.get(s) - used[s];
+                if (left <= 0) {
+                    continue;
+                }
+                String category = keys.get(s).category;
+                boolean fresh = category != null && !categoryCounts.containsKey(category);
+                double group = needCategories && fresh ? 1 : 0;
+                double key = Math.pow(random.nextDouble(), 1.0 / left);
+                ranked.add(new double[] { s, group, key });
+            }
+            ranked.sort((a, b) -> a[1] != b[1] ? Double.compare(b[1], a[1]) : Double.compare(b[2], a[2]));
+            int[] result = new int[ranked.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = (int) ranked.get(i)[0];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.interview.extract;
+
+/**
+ * 组卷规则无法满足
+ * 消息为面向用户的中文说明
+ */
+public class PaperAssemblyException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public PaperAssemblyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,187 @@
+package com.interview.extract;
+
+import com.interview.extract.QuestionSampler.StratumKey;
+import com.interview.model.Question.QuestionLevel;
+import com.interview.model.Question.QuestionType;
+import com.interview.model.Question.SpecializationType;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 组卷规则
+ * 
+ * 由若干配额组成（如 "初级 2 道"、"专精三等·算法 1 道"），另可要求覆盖的最少分类数，
+ * 以及排除考生在最近若干天内见过的题目。
+ */
+public class PaperSpec {
+    
+    private final List<Quota> quotas = new ArrayList<>();
+    private int minCategories;
+    private int excludeSeenDays = 365;
+    
+    /**
+     * 添加一条配额
+     * 
+     * @param level 题目等级（必填）
+     * @param specialization 专精类型，仅专精等级使用，null 或 NONE 表示不限
+     * @param count 题目数量
+     */
+    public PaperSpec addQuota(QuestionLevel level, SpecializationType specialization, int count) {
+        return addQuota(new Quota(level, specialization, null, null, count));
+    }
+    
+    public PaperSpec addQuota(Quota quota) {
+        if (quota.getCount() > 0) {
+            quotas.add(quota);
+        }
+        return this;
+    }
+    
+    public List<Quota> getQuotas() {
+        return Collections.unmodifiableList(quotas);
+    }
+    
+    public int getTotalCount() {
+        int total = 0;
+        for (Quota quota : quotas) {
+            total += quota.getCount();
+        }
+        return total;
+    }
+    
+    public int getMinCategories() {
+        return minCategories;
+    }
+    
+    public void setMinCategories(int minCategories) {
+        this.minCategories = minCategories;
+    }
+    
+    public int getExcludeSeenDays() {
+        return excludeSeenDays;
+    }
+    
+    /**
+     * 排除考生最近多少天内见过的题目，0 表示不排除
+     */
+    public void setExcludeSeenDays(int excludeSeenDays) {
+        this.excludeSeenDays = excludeSeenDays;
+    }
+    
+    /**
+     * 规则的 JSON 表示，保存到抽取记录的 filter_criteria
+     */
+    public String toJson() {
+        JSONArray array = new JSONArray();
+        for (Quota quota : quotas) {
+            JSONObject json = new JSONObject();
+            json.put("level", quota.getLevel().name());
+            if (quota.getSpecialization() != null) {
+                json.put("specialization", quota.getSpecialization().name());
+            }
+            if (quota.getType() != null) {
+                json.put("type", quota.getType().name());
+            }
+            if (quota.getCategory() != null) {
+                json.put("category", quota.getCategory());
+            }
+            json.put("count", quota.getCount());
+            array.put(json);
+        }
+        JSONObject json = new JSONObject();
+        json.put("mode", "paper");
+        json.put("quotas", array);
+        json.put("minCategories", minCategories);
+        json.put("excludeSeenDays", excludeSeenDays);
+        return json.toString();
+    }
+    
+    /**
+     * 规则的中文描述
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (Quota quota : quotas) {
+            if (sb.length() > 0) {
+                sb.append("，");
+            }
+            sb.append(quota.describe());
+        }
+        if (minCategories > 0) {
+            sb.append("；至少覆盖 ").append(minCategories).append(" 个分类");
+        }
+        if (excludeSeenDays > 0) {
+            sb.append("；排除考生 ").append(excludeSeenDays).append(" 天内见过的题目");
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * 一条配额：满足条件的题目抽取 count 道
+     */
+    public static class Quota {
+        private final QuestionLevel level;
+        private final SpecializationType specialization;
+        private final QuestionType type;
+        private final String category;
+        private final int count;
+        
+        /**
+         * @param type 题目类型，null 表示不限
+         * @param category 分类，null 表示不限
+         */
+        public Quota(QuestionLevel level, SpecializationType specialization, QuestionType type,
+                     String category, int count) {
+            this.level = level;
+            this.specialization = specialization == SpecializationType.NONE ? null : specialization;
+            this.type = type;
+            this.category = category == null || category.isEmpty() ? null : category;
+            this.count = count;
+        }
+        
+        public QuestionLevel getLevel() {
+            return level;
+        }
+        
+        public SpecializationType getSpecialization() {
+            return specialization;
+        }
+        
+        public QuestionType getType() {
+            return type;
+        }
+        
+        public String getCategory() {
+            return category;
+        }
+        
+        public int getCount() {
+            return count;
+        }
+        
+        boolean matches(StratumKey key) {
+            return level.name().equals(key.level)
+                    && (specialization == null || specialization.name().equals(key.specialization))
+                    && (type == null || type.name().equals(key.type))
+                    && (category == null || category.equals(key.category));
+        }
+        
+        String describe() {
+            StringBuilder sb = new StringBuilder(level.getDisplayName());
+            if (specialization != null) {
+                sb.append("·").append(specialization.getDisplayName());
+            }
+            if (type != null) {
+                sb.append("·").append(type.getDisplayName());
+            }
+            if (category != null) {
+                sb.append("·").append(category);
+            }
+            return sb.append(" ").append(count).append(" 道").toString();
+        }
+    }
+}
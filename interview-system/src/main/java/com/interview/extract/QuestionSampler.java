@@ -0,0 +1,370 @@
+package com.interview.extract;
+
+import com.interview.dao.QuestionDao;
+import com.interview.model.Question;
+import com.interview.model.Question.QuestionLevel;
+import com.interview.model.Question.QuestionType;
+import com.interview.model.Question.SpecializationType;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.random.RandomGenerator;
+
+/**
+ * 随机抽题采样器
+ * 
+ * 原先用 ORDER BY RANDOM() LIMIT k 抽题，每次都要对筛选后的整张表排序。
+ * 这里在内存中按 (类型, 等级, 专精, 分类) 分层保存启用题目的 id 数组，
+ * 抽题时先把满足条件的分层拼成一个逻辑序列，用 Floyd 算法抽取 k 个不重复位置，
+ * 再用一条 id = ANY(?) 查询取回题目，耗时只与 k 和分层数有关，与题库规模无关。
+ * 
+ * id 快照在题目增删改后失效（invalidate），下次抽题时重新加载；
+ * 为了感知其他客户端的修改，快照超过 refreshSeconds 也会重新加载。
+ * 
+ * 设置了 ExposureTracker 时按曝光次数做拒绝采样：均匀抽出的候选按接受概率保留，
+ * 曝光较少的题目更容易被抽中；接受概率全部在内存中计算。
+ */
+public class QuestionSampler {
+    
+    private final QuestionDao questionDao;
+    private final long refreshNanos;
+    private volatile Snapshot snapshot;
+    private volatile ExposureTracker exposureTracker;
+    
+    // 拒绝采样每抽出一道题最多尝试的次数，超过后剩余题目改为均匀抽取
+    private static final int MAX_ATTEMPTS_PER_PICK = 64;
+    
+    public QuestionSampler(QuestionDao questionDao, int refreshSeconds) {
+        this.questionDao = questionDao;
+        this.refreshNanos = refreshSeconds * 1_000_000_000L;
+    }
+    
+    /**
+     * 设置曝光统计，之后的抽题偏向曝光较少的题目；null 表示均匀抽取
+     */
+    public void setExposureTracker(ExposureTracker exposureTracker) {
+        this.exposureTracker = exposureTracker;
+    }
+    
+    /**
+     * 当前的接受概率函数（题目 id -> 保留概率），未设置曝光统计时为 null
+     */
+    IntToDoubleFunction acceptance() {
+        ExposureTracker tracker = exposureTracker;
+        return tracker != null ? tracker::acceptance : null;
+    }
+    
+    /**
+     * 题目有变更，下次抽题前重新加载 id 快照
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+    
+    /**
+     * 随机抽取不重复的题目
+     * 
+     * @param count 抽取数量，满足条件的题目不足时全部返回（顺序随机）
+     */
+    public List<Question> sample(int count, QuestionType type, QuestionLevel level,
+                                 SpecializationType specialization, String category) throws SQLException {
+        return sample(count, type, level, specialization, category, ThreadLocalRandom.current());
+    }
+    
+    public List<Question> sample(int count, QuestionType type, QuestionLevel level,
+                                 SpecializationType specialization, String category,
+                                 RandomGenerator random) throws SQLException {
+        StratumFilter filter = new StratumFilter(type, level, specialization, category);
+        IntToDoubleFunction acceptance = acceptance();
+        int[] ids = sampleIds(currentSnapshot(), filter, count, acceptance, random);
+        List<Question> questions = questionDao.findByIds(ids);
+        if (questions.size() < ids.length) {
+            // 快照中有已被其他客户端删除的题目，刷新后重抽一次
+            invalidate();
+            ids = sampleIds(currentSnapshot(), filter, count, acceptance, random);
+            questions = questionDao.findByIds(ids);
+        }
+        return questions;
+    }
+    
+    /**
+     * 满足条件的题目数
+     */
+    public int countMatching(QuestionType type, QuestionLevel level,
+                             SpecializationType specialization, String category) throws SQLException {
+        StratumFilter filter = new StratumFilter(type, level, specialization, category);
+        int total = 0;
+        for (Map.Entry<StratumKey, int[]> e : currentSnapshot().strata.entrySet()) {
+            if (filter.matches(e.getKey())) {
+                total += e.getValue().length;
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * 当前 id 快照（组卷等在快照上直接求解）
+     */
+    Snapshot snapshot() throws SQLException {
+        return currentSnapshot();
+    }
+    
+    private Snapshot currentSnapshot() throws SQLException {
+        Snapshot current = snapshot;
+        if (current == null || System.nanoTime() - current.loadedAt > refreshNanos) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null || System.nanoTime() - current.loadedAt > refreshNanos) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    private Snapshot load() throws SQLException {
+        Map<StratumKey, IntList> building = new HashMap<>();
+        questionDao.scanActiveIds((id, type, level, specialization, category) ->
+                building.computeIfAbsent(new StratumKey(type, level, specialization, category), k -> new IntList())
+                        .add(id));
+        Map<StratumKey, int[]> strata = new HashMap<>(building.size() * 2);
+        for (Map.Entry<StratumKey, IntList> e : building.entrySet()) {
+            strata.put(e.getKey(), e.getValue().toArray());
+        }
+        return new Snapshot(strata, System.nanoTime());
+    }
+    
+    /**
+     * 在满足条件的分层上抽取 count 个不重复 id
+     * 
+     * @param acceptance 题目 id -> 保留概率，null 表示均匀抽取
+     */
+    static int[] sampleIds(Snapshot snapshot, StratumFilter filter, int count,
+                           IntToDoubleFunction acceptance, RandomGenerator random) {
+        List<int[]> pools = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<StratumKey, int[]> e : snapshot.strata.entrySet()) {
+            if (filter.matches(e.getKey())) {
+                pools.add(e.getValue());
+                total += e.getValue().length;
+            }
+        }
+        int k = Math.min(count, total);
+        
+        // 逻辑位置 -> 所在分层的 id
+        int[] offsets = new int[pools.size() + 1];
+        for (int i = 0; i < pools.size(); i++) {
+            offsets[i + 1] = offsets[i] + pools.get(i).length;
+        }
+        IntUnaryOperator idAt = pos -> {
+            // 分层都非空，偏移严格递增
+            int pool = Arrays.binarySearch(offsets, pos);
+            pool = pool >= 0 ? pool : -pool - 2;
+            return pools.get(pool)[pos - offsets[pool]];
+        };
+        int[] positions = draw(total, k, idAt, acceptance, random);
+        int[] ids = new int[k];
+        for (int i = 0; i < k; i++) {
+            ids[i] = idAt.applyAsInt(positions[i]);
+        }
+        return ids;
+    }
+    
+    /**
+     * 从 [0, n) 中抽取 k 个不重复位置
+     * 
+     * acceptance 为 null 时用 Floyd 算法均匀抽取；否则逐个均匀抽出候选位置，
+     * 按对应题目的接受概率决定是否保留（等价于按权重依次不放回抽取）。
+     * 尝试次数用尽时（题目曝光普遍偏高或剩余可选题目很少），剩余位置改为均匀抽取。
+     */
+    static int[] draw(int n, int k, IntUnaryOperator idAt, IntToDoubleFunction acceptance,
+                      RandomGenerator random) {
+        if (acceptance == null || k == 0 || k >= n) {
+            return floyd(n, k, random);
+        }
+        Set<Integer> chosen = new HashSet<>(k * 2);
+        int[] result = new int[k];
+        int size = 0;
+        long attempts = (long) k * MAX_ATTEMPTS_PER_PICK;
+        while (size < k && attempts-- > 0) {
+            int pos = random.nextInt(n);
+            if (chosen.contains(pos)) {
+                continue;
+            }
+            if (random.nextDouble() < acceptance.applyAsDouble(idAt.applyAsInt(pos))) {
+                chosen.add(pos);
+                result[size++] = pos;
+            }
+        }
+        if (size < k) {
+            // 多抽 size 个，去掉已选中的位置后至少还剩 k - size 个
+            for (int pos : floyd(n, Math.min(n, k + size), random)) {
+                if (size == k) {
+                    break;
+                }
+                if (chosen.add(pos)) {
+                    result[size++] = pos;
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Floyd 算法：从 [0, n) 中等概率抽取 k 个不重复整数，结果再做一次洗牌使顺序也随机
+     */
+    static int[] floyd(int n, int k, RandomGenerator random) {
+        Set<Integer> chosen = new HashSet<>(k * 2);
+        int[] result = new int[k];
+        int size = 0;
+        for (int j = n - k; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            int pick = chosen.add(t) ? t : j;
+            if (pick == j) {
+                chosen.add(j);
+            }
+            result[size++] = pick;
+        }
+        for (int i = k - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = result[i];
+            result[i] = result[j];
+            result[j] = tmp;
+        }
+        return result;
+    }
+    
+    static final class Snapshot {
+        final Map<StratumKey, int[]> strata;
+        final long loadedAt;
+        
+        // id -> 分层 的反查表（按需构建）：高 32 位为 id，低 32 位为 keys 下标
+        private List<StratumKey> keys;
+        private long[] reverse;
+        
+        Snapshot(Map<StratumKey, int[]> strata, long loadedAt) {
+            this.strata = strata;
+            this.loadedAt = loadedAt;
+        }
+        
+        /**
+         * 题目所在分层，不在快照中时返回 null
+         */
+        synchronized StratumKey stratumOf(int id) {
+            if (reverse == null) {
+                keys = new ArrayList<>(strata.keySet());
+                int total = 0;
+                for (int[] ids : strata.values()) {
+                    total += ids.length;
+                }
+                reverse = new long[total];
+                int n = 0;
+                for (int k = 0; k < keys.size(); k++) {
+                    for (int value : strata.get(keys.get(k))) {
+                        reverse[n++] = ((long) value << 32) | k;
+                    }
+                }
+                Arrays.sort(reverse);
+            }
+            int lo = 0;
+            int hi = reverse.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int midId = (int) (reverse[mid] >> 32);
+                if (midId < id) {
+                    lo = mid + 1;
+                } else if (midId > id) {
+                    hi = mid - 1;
+                } else {
+                    return keys.get((int) reverse[mid]);
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * 分层键，取数据库中的原始字符串
+     */
+    static final class StratumKey {
+        final String type;
+        final String level;
+        final String specialization;
+        final String category;
+        
+        StratumKey(String type, String level, String specialization, String category) {
+            this.type = type;
+            this.level = level;
+            this.specialization = specialization;
+            this.category = category;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof StratumKey)) {
+                return false;
+            }
+            StratumKey other = (StratumKey) o;
+            return Objects.equals(type, other.type) && Objects.equals(level, other.level)
+                    && Objects.equals(specialization, other.specialization)
+                    && Objects.equals(category, other.category);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, level, specialization, category);
+        }
+    }
+    
+    /**
+     * 抽题条件，null 表示不限（与原 SQL 条件拼接规则一致）
+     */
+    static final class StratumFilter {
+        private final String type;
+        private final String level;
+        private final String specialization;
+        private final String category;
+        
+        StratumFilter(QuestionType type, QuestionLevel level, SpecializationType specialization, String category) {
+            this.type = type != null ? type.name() : null;
+            this.level = level != null ? level.name() : null;
+            this.specialization = specialization != null && specialization != SpecializationType.NONE
+                    ? specialization.name() : null;
+            this.category = category != null && !category.isEmpty() ? category : null;
+        }
+        
+        boolean matches(StratumKey key) {
+            return (type == null || type.equals(key.type))
+                    && (level == null || level.equals(key.level))
+                    && (specialization == null || specialization.equals(key.specialization))
+                    && (category == null || category.equals(key.category));
+        }
+    }
+    
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.interview.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一段录音的语音识别（含文本精修）
+ */
+@Name("com.interview.AsrSegment")
+@Label("语音识别")
+@Description("识别一段录音并精修文本")
+@Category({ "面试系统", "面试流程" })
+@StackTrace(false)
+public class AsrSegmentEvent extends jdk.jfr.Event {
+    
+    @Label("面试记录 ID")
+    public int recordId;
+    
+    @Label("音频数据量")
+    @DataAmount
+    public long audioBytes;
+    
+    @Label("识别文本长度")
+    public int rawChars;
+    
+    @Label("精修后文本长度")
+    public int refinedChars;
+}
@@ -0,0 +1,29 @@
+package com.interview.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次 SQL 执行（由连接池借出的语句提交，覆盖所有 DAO）
+ */
+@Name("com.interview.DaoQuery")
+@Label("DAO 查询")
+@Description("执行一条 SQL 语句（不含读取结果集的时间）")
+@Category({ "面试系统", "数据库" })
+@StackTrace(false)
+public class DaoQueryEvent extends jdk.jfr.Event {
+    
+    @Label("来源")
+    @Description("发起查询的 DAO 方法，如 QuestionDao.searchRanked")
+    public String source;
+    
+    @Label("SQL")
+    @Description("语句形状：常量替换为 ?，不含参数值")
+    public String sql;
+    
+    @Label("失败")
+    public boolean failed;
+}
@@ -0,0 +1,37 @@
+package com.interview.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次大模型 API 调用（事件持续时间即调用耗时）
+ */
+@Name("com.interview.LlmRequest")
+@Label("大模型请求")
+@Description("调用大模型 API，持续时间为发送请求到收到完整响应")
+@Category({ "面试系统", "面试流程" })
+@StackTrace(false)
+public class LlmRequestEvent extends jdk.jfr.Event {
+    
+    @Label("提供商")
+    public String provider;
+    
+    @Label("模型")
+    public String model;
+    
+    @Label("请求数据量")
+    @DataAmount
+    public long requestBytes;
+    
+    @Label("响应数据量")
+    @DataAmount
+    public long responseBytes;
+    
+    @Label("状态")
+    @Description("HTTP 状态码；未收到响应时为 exception")
+    public String status;
+}
@@ -0,0 +1,33 @@
+package com.interview.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次录音（从麦克风开始采集到停止），由录音线程提交
+ */
+@Name("com.interview.Recording")
+@Label("录音")
+@Description("从麦克风开始采集到停止录音")
+@Category({ "面试系统", "面试流程" })
+@StackTrace(false)
+public class RecordingEvent extends jdk.jfr.Event {
+    
+    @Label("文件")
+    public String file;
+    
+    @Label("音频数据量")
+    @DataAmount
+    public long audioBytes;
+    
+    @Label("缓冲区写满次数")
+    @Description("读取不及时导致麦克风缓冲区写满的次数，大于 0 时音频可能丢失")
+    public int overruns;
+    
+    @Label("失败")
+    public boolean failed;
+}
@@ -0,0 +1,28 @@
+package com.interview.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次评测报告或 AI 分析结果的计算
+ */
+@Name("com.interview.Report")
+@Label("报告计算")
+@Description("汇总评分生成评测报告，或根据面试文本生成 AI 分析结果")
+@Category({ "面试系统", "面试流程" })
+@StackTrace(false)
+public class ReportEvent extends jdk.jfr.Event {
+    
+    @Label("类型")
+    public String kind;
+    
+    @Label("面试记录 ID")
+    public int recordId;
+    
+    @Label("已生成")
+    @Description("false 表示缺少评分或分析失败，没有生成结果")
+    public boolean generated;
+}
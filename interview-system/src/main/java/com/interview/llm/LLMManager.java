@@ -1,5 +1,10 @@
 package com.interview.llm;
 
+import com.interview.jfr.LlmRequestEvent;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+import com.interview.metrics.Counter;
+import com.interview.metrics.MetricsRegistry;
 import com.interview.model.*;
 import com.interview.service.LLMConfigService;
 
@@ -18,6 +23,12 @@ import java.util.List;
  */
 public class LLMManager {
     
+    private static final Logger log = Log.get(LLMManager.class);
+    private static final Counter SENT_BYTES = MetricsRegistry.global().counter(
+            "llm_request_bytes_total", "发送给大模型 API 的请求体字节数");
+    private static final Counter RECEIVED_BYTES = MetricsRegistry.global().counter(
+            "llm_response_bytes_total", "大模型 API 返回的响应体字节数");
+    
     private final LLMConfigService configService;
     private final HttpClient httpClient;
     private LLMConfig currentConfig;
@@ -91,21 +102,23 @@ public class LLMManager {
      */
     public String callLLMAPI(String prompt) {
         if (currentConfig == null) {
-            System.err.println("[LLMManager] 未配置LLM，请先配置API参数");
+            log.warn("未配置LLM，请先配置API参数");
             return null;
         }
         
-        System.out.println("[LLMManager] 调用API: " + currentConfig.getApiEndpoint());
-        System.out.println("[LLMManager] 使用模型: " + currentConfig.getModelName());
-        
+        long start = System.nanoTime();
+        LlmRequestEvent event = new LlmRequestEvent();
+        event.begin();
+        // 耗时按 HTTP 状态码分别统计，未收到响应时为 exception
+        String status = "exception";
         try {
             // 构建请求体
             String requestBody = buildRequestBody(prompt);
-            System.out.println("[LLMManager] 请求体大小: " + requestBody.length() + " 字符");
             
             // 构建HTTP请求
             String apiUrl = buildApiUrl(currentConfig.getApiEndpoint());
-            System.out.println("[LLMManager] 完整API URL: " + apiUrl);
+            log.debug("调用API: {}，模型: {}，请求体 {} 字符", apiUrl, currentConfig.getModelName(),
+                    requestBody.length());
             
             HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
                 .uri(URI.create(apiUrl))
@@ -121,29 +134,50 @@ public class LLMManager {
                 .build();
             
             // 发送请求
+            event.requestBytes = requestBody.getBytes(StandardCharsets.UTF_8).length;
+            SENT_BYTES.add(event.requestBytes);
             HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            event.end();
+            status = String.valueOf(response.statusCode());
+            event.responseBytes = response.body().getBytes(StandardCharsets.UTF_8).length;
+            RECEIVED_BYTES.add(event.responseBytes);
             
             // 处理响应
             if (response.statusCode() == 200) {
                 String responseBody = response.body();
-                System.out.println("[LLMManager] API调用成功，响应大小: " + responseBody.length() + " 字符");
+                log.info("API调用成功，模型: {}，响应 {} 字符，耗时 {} ms", currentConfig.getModelName(),
+                        responseBody.length(), (System.nanoTime() - start) / 1_000_000);
                 String result = parseResponse(responseBody);
                 if (result != null) {
                     return result;
                 } else {
-                    System.err.println("[LLMManager] 解析响应失败，原始响应: " + responseBody.substring(0, Math.min(500, responseBody.length())));
+                    log.warn("解析响应失败，响应 {} 字符", responseBody.length());
+                    if (log.isDebugEnabled()) {
+                        log.debug("原始响应: {}", responseBody.substring(0, Math.min(500, responseBody.length())));
+                    }
                     return null;
                 }
             } else {
-                System.err.println("[LLMManager] API调用失败，状态码: " + response.statusCode());
-                System.err.println("[LLMManager] 响应: " + response.body());
+                log.warn("API调用失败，状态码: {}", response.statusCode());
+                if (log.isDebugEnabled()) {
+                    log.debug("响应: {}", response.body());
+                }
                 return null;
             }
             
         } catch (Exception e) {
-            System.err.println("[LLMManager] API调用异常: " + e.getMessage());
-            e.printStackTrace();
+            log.error("API调用异常: {}", e.getMessage());
+            log.debug("API调用异常堆栈", e);
             return null;
+        } finally {
+            MetricsRegistry.global().timer("llm_request_seconds", "大模型 API 调用耗时（按 HTTP 状态码）",
+                    "status", status).recordSince(start);
+            if (event.shouldCommit()) {
+                event.provider = currentConfig.getProvider() != null ? currentConfig.getProvider().name() : null;
+                event.model = currentConfig.getModelName();
+                event.status = status;
+                event.commit();
+            }
         }
     }
     
@@ -252,44 +286,46 @@ public class LLMManager {
      */
     private String parseResponse(String responseBody) {
         try {
-            System.out.println("[LLMManager] 开始解析响应...");
+            log.debug("开始解析响应...");
             
             // 检查是否有错误
             if (responseBody.contains("\"error\"")) {
                 String errorMsg = extractJsonValue(responseBody, "message");
-                System.err.println("[LLMManager] API返回错误: " + errorMsg);
+                log.warn("API返回错误: {}", errorMsg);
                 return null;
             }
             
             // 解析标准OpenAI格式 - 提取choices[0].message
             if (responseBody.contains("\"choices\"")) {
-                System.out.println("[LLMManager] 检测到 choices 字段");
+                log.debug("检测到 choices 字段");
                 
                 // 提取第一个 choice
                 String firstChoice = extractFirstChoice(responseBody);
                 if (firstChoice == null) {
-                    System.err.println("[LLMManager] 无法提取 choice");
+                    log.warn("无法提取 choice");
                     return null;
                 }
                 
-                System.out.println("[LLMManager] 提取到 choice: " + firstChoice.substring(0, Math.min(200, firstChoice.length())) + "...");
+                if (log.isDebugEnabled()) {
+                    log.debug("提取到 choice: {}...", firstChoice.substring(0, Math.min(200, firstChoice.length())));
+                }
                 
                 // 检查message或delta
                 String content = null;
                 
                 if (firstChoice.contains("\"message\"")) {
                     String messageObj = extractJsonObject(firstChoice, "message");
-                    System.out.println("[LLMManager] 提取到 message 对象");
+                    log.debug("提取到 message 对象");
                     
                     // 首先尝试提取 content
                     content = extractJsonValue(messageObj, "content");
                     
                     // DeepSeek-R1/Reasoner 模型可能返回 reasoning_content 而不是 content
                     if (content == null || content.trim().isEmpty()) {
-                        System.out.println("[LLMManager] content 为空，尝试提取 reasoning_content");
+                        log.debug("content 为空，尝试提取 reasoning_content");
                         String reasoningContent = extractJsonValue(messageObj, "reasoning_content");
                         if (reasoningContent != null && !reasoningContent.trim().isEmpty()) {
-                            System.out.println("[LLMManager] 使用 reasoning_content (DeepSeek Reasoner)");
+                            log.debug("使用 reasoning_content (DeepSeek Reasoner)");
                             content = reasoningContent;
                         }
                     }
@@ -299,22 +335,22 @@ public class LLMManager {
                 }
                 
                 if (content != null && !content.trim().isEmpty()) {
-                    System.out.println("[LLMManager] 成功提取内容，长度: " + content.length());
+                    log.debug("成功提取内容，长度: {}", content.length());
                     return content;
                 } else {
-                    System.err.println("[LLMManager] 提取到的内容为空");
+                    log.warn("提取到的内容为空");
                 }
             } else {
-                System.err.println("[LLMManager] 响应中未找到 choices 字段");
+                log.warn("响应中未找到 choices 字段");
             }
             
             // 如果解析失败，返回原始响应
-            System.err.println("[LLMManager] 无法解析响应格式");
+            log.warn("无法解析响应格式");
             return null;
             
         } catch (Exception e) {
-            System.err.println("[LLMManager] 解析响应异常: " + e.getMessage());
-            e.printStackTrace();
+            log.error("解析响应异常: {}", e.getMessage());
+            log.debug("解析响应异常堆栈", e);
             return null;
         }
     }
@@ -600,7 +636,7 @@ public class LLMManager {
         String response = callLLMAPI(prompt);
         
         if (response == null) {
-            System.err.println("[LLMManager] API调用失败，无法生成分析");
+            log.warn("API调用失败，无法生成分析");
             return null;
         }
         
@@ -647,17 +683,19 @@ public class LLMManager {
      */
     private InterviewAnalysisResult parseAnalysisResult(String response) {
         try {
-            System.out.println("[LLMManager] 开始解析分析结果，响应长度: " + response.length());
+            log.debug("开始解析分析结果，响应长度: {}", response.length());
             
             // 提取JSON部分
             String jsonStr = extractJson(response);
             if (jsonStr == null) {
-                System.err.println("[LLMManager] 无法从响应中提取JSON");
+                log.warn("无法从响应中提取JSON");
                 // 尝试直接解析整个响应
                 jsonStr = response.trim();
             }
             
-            System.out.println("[LLMManager] 提取到的JSON: " + jsonStr.substring(0, Math.min(500, jsonStr.length())) + "...");
+            if (log.isDebugEnabled()) {
+                log.debug("提取到的JSON: {}...", jsonStr.substring(0, Math.min(500, jsonStr.length())));
+            }
             
             InterviewAnalysisResult result = new InterviewAnalysisResult();
             
@@ -665,7 +703,7 @@ public class LLMManager {
             if (jsonStr.contains("\"scores\"")) {
                 String scoresObj = extractJsonObject(jsonStr, "scores");
                 if (scoresObj != null) {
-                    System.out.println("[LLMManager] 解析到 scores 对象");
+                    log.debug("解析到 scores 对象");
                     for (EvaluationDimension dim : EvaluationDimension.values()) {
                         String dimKey = "\"" + dim.name() + "\"";
                         if (scoresObj.contains(dimKey)) {
@@ -678,9 +716,9 @@ public class LLMManager {
                                     try {
                                         double score = Double.parseDouble(scoreStr);
                                         result.setDimensionScore(dim, score);
-                                        System.out.println("[LLMManager] 设置维度分数: " + dim.getDisplayName() + " = " + score);
+                                        log.debug("设置维度分数: {} = {}", dim.getDisplayName(), score);
                                     } catch (NumberFormatException e) {
-                                        System.err.println("[LLMManager] 解析分数失败: " + scoreStr);
+                                        log.warn("解析分数失败: {}", scoreStr);
                                     }
                                 }
                                 if (comment != null) {
@@ -709,12 +747,12 @@ public class LLMManager {
                 result.setSuggestions(extractJsonArray(jsonStr, "suggestions"));
             }
             
-            System.out.println("[LLMManager] 解析完成，总分: " + result.calculateTotalScore());
+            log.info("分析结果解析完成，总分: {}", result.calculateTotalScore());
             return result;
             
         } catch (Exception e) {
-            System.err.println("[LLMManager] 解析分析结果异常: " + e.getMessage());
-            e.printStackTrace();
+            log.error("解析分析结果异常: {}", e.getMessage());
+            log.debug("解析分析结果异常堆栈", e);
             return null;
         }
     }
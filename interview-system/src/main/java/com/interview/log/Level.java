@@ -0,0 +1,26 @@
+package com.interview.log;
+
+/**
+ * 日志级别，从低到高；logger 只输出不低于其阈值的日志，OFF 表示全部关闭
+ */
+public enum Level {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+    
+    /**
+     * 解析配置中的级别名称（不区分大小写），无法识别时返回默认值
+     */
+    public static Level parse(String name, Level defaultLevel) {
+        if (name == null || name.isBlank()) {
+            return defaultLevel;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+}
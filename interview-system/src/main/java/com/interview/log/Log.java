@@ -0,0 +1,181 @@
+package com.interview.log;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步结构化日志（取代各处直接调用 System.out / System.err）
+ * 
+ * - 各类在静态字段中取得 Logger：private static final Logger log = Log.get(Xxx.class)
+ * - 记录线程只判断级别、把模板和参数放入定长环形缓冲（log.queue.size），不格式化、不做控制台 I/O；
+ *   缓冲满时丢弃并计数，从不阻塞调用方
+ * - 后台守护线程 log-writer 批量格式化并写出：DEBUG / INFO 到标准输出，WARN / ERROR 到标准错误，
+ *   可同时写入 log.file；log.format=json 时每行一个 JSON 对象（含模板和参数，便于按模板汇总）
+ * - 级别由 log.level 设置，log.level.<类名或包名> 单独设置某个类或包，如 log.level.LLMManager=DEBUG
+ * 
+ * 配置由 AppConfig 加载配置文件后调用 configure 传入；此前使用默认设置（INFO，输出到控制台）。
+ * 程序退出前调用 shutdown 写出缓冲中剩余的日志（另有关闭钩子兜底）。
+ */
+public final class Log {
+    
+    private static final ConcurrentHashMap<String, Logger> loggers = new ConcurrentHashMap<>();
+    private static final AtomicLong dropped = new AtomicLong();
+    
+    private static volatile Level rootLevel = Level.INFO;
+    private static volatile Map<String, Level> levelOverrides = Map.of();
+    private static volatile LogWriter.Settings settings = LogWriter.Settings.defaults();
+    private static volatile boolean async = true;
+    private static volatile int queueSize = 8192;
+    private static volatile LogWriter writer;
+    private static volatile boolean shutdown;
+    
+    private Log() {
+    }
+    
+    public static Logger get(Class<?> type) {
+        return get(type.getName());
+    }
+    
+    public static Logger get(String name) {
+        Logger logger = loggers.get(name);
+        if (logger == null) {
+            logger = loggers.computeIfAbsent(name, n -> new Logger(n, levelFor(n)));
+        }
+        return logger;
+    }
+    
+    /**
+     * 读取 log.* 配置；已创建的 logger 立即按新级别生效
+     */
+    public static synchronized void configure(Properties properties) {
+        rootLevel = Level.parse(properties.getProperty("log.level"), Level.INFO);
+        Map<String, Level> overrides = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith("log.level.")) {
+                overrides.put(key.substring("log.level.".length()),
+                        Level.parse(properties.getProperty(key), rootLevel));
+            }
+        }
+        levelOverrides = overrides;
+        for (Logger logger : loggers.values()) {
+            logger.setLevel(levelFor(logger.getName()));
+        }
+        
+        async = Boolean.parseBoolean(properties.getProperty("log.async", "true").trim());
+        try {
+            queueSize = Math.max(64, Integer.parseInt(properties.getProperty("log.queue.size", "8192").trim()));
+        } catch (NumberFormatException e) {
+            queueSize = 8192;
+        }
+        LogWriter.Settings old = settings;
+        settings = new LogWriter.Settings(
+                Boolean.parseBoolean(properties.getProperty("log.console", "true").trim()),
+                properties.getProperty("log.file", "").trim(),
+                "json".equalsIgnoreCase(properties.getProperty("log.format", "text").trim()));
+        LogWriter current = writer;
+        if (current != null) {
+            // 由后台线程在两批日志之间切换并关闭原来的日志文件
+            current.setSettings(settings);
+        } else {
+            old.close();
+        }
+    }
+    
+    /**
+     * 单独设置某个类或包（或 "" 表示全部）的级别，用于运行时调整和基准测试
+     */
+    public static synchronized void setLevel(String name, Level level) {
+        if (name.isEmpty()) {
+            rootLevel = level;
+        } else {
+            Map<String, Level> overrides = new HashMap<>(levelOverrides);
+            overrides.put(name, level);
+            levelOverrides = overrides;
+        }
+        for (Logger logger : loggers.values()) {
+            logger.setLevel(levelFor(logger.getName()));
+        }
+    }
+    
+    /**
+     * 依次查找完整类名、简单类名、各级包名的单独设置，都没有时使用 log.level
+     */
+    private static Level levelFor(String name) {
+        Map<String, Level> overrides = levelOverrides;
+        if (overrides.isEmpty()) {
+            return rootLevel;
+        }
+        Level level = overrides.get(name);
+        if (level == null) {
+            level = overrides.get(name.substring(name.lastIndexOf('.') + 1));
+        }
+        for (int dot = name.lastIndexOf('.'); level == null && dot > 0; dot = name.lastIndexOf('.', dot - 1)) {
+            level = overrides.get(name.substring(0, dot));
+        }
+        return level != null ? level : rootLevel;
+    }
+    
+    static void dispatch(Logger logger, Level level, String template, Object[] args) {
+        LogWriter current = async && !shutdown ? writer() : null;
+        if (current != null && current.isFull()) {
+            // 缓冲已满时不再创建日志对象
+            dropped.incrementAndGet();
+            return;
+        }
+        LogEvent event = new LogEvent(System.currentTimeMillis(), level, logger.getName(),
+                Thread.currentThread().getName(), template, args);
+        if (current == null) {
+            LogWriter.writeDirect(event, settings);
+        } else if (!current.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+    
+    private static LogWriter writer() {
+        LogWriter current = writer;
+        if (current == null) {
+            synchronized (Log.class) {
+                current = writer;
+                if (current == null && !shutdown) {
+                    current = new LogWriter(queueSize, settings, dropped);
+                    current.start();
+                    Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-flush"));
+                    writer = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * 等待此前记录的日志全部写出（最多约 2 秒）
+     */
+    public static void flush() {
+        LogWriter current = writer;
+        if (current != null) {
+            current.flush(2000);
+        }
+    }
+    
+    /**
+     * 写出剩余日志并停止后台线程；之后的日志同步写出
+     */
+    public static synchronized void shutdown() {
+        shutdown = true;
+        LogWriter current = writer;
+        if (current != null) {
+            current.stop(2000);
+            writer = null;
+        }
+    }
+    
+    /**
+     * 因缓冲已满被丢弃的日志数
+     */
+    public static long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,89 @@
+package com.interview.log;
+
+/**
+ * 一条日志
+ * 
+ * 记录线程只保存模板和参数的引用，不拼接字符串；
+ * 由后台输出线程在写出时按 {} 占位符格式化（见 format），因此参数应为之后不再修改的值（字符串、数字等）。
+ */
+public final class LogEvent {
+    
+    private final long timestamp;
+    private final Level level;
+    private final String logger;
+    private final String thread;
+    private final String template;
+    private final Object[] args;
+    
+    LogEvent(long timestamp, Level level, String logger, String thread, String template, Object[] args) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.logger = logger;
+        this.thread = thread;
+        this.template = template;
+        this.args = args;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public Level getLevel() {
+        return level;
+    }
+    
+    public String getLogger() {
+        return logger;
+    }
+    
+    public String getThread() {
+        return thread;
+    }
+    
+    public String getTemplate() {
+        return template;
+    }
+    
+    public Object[] getArgs() {
+        return args;
+    }
+    
+    /**
+     * 最后一个参数是异常且没有对应的占位符时返回该异常，否则为 null
+     */
+    public Throwable getThrowable() {
+        if (args == null || args.length == 0 || !(args[args.length - 1] instanceof Throwable throwable)) {
+            return null;
+        }
+        return placeholders() < args.length ? throwable : null;
+    }
+    
+    private int placeholders() {
+        int count = 0;
+        for (int at = template.indexOf("{}"); at >= 0; at = template.indexOf("{}", at + 2)) {
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * 依次用参数替换模板中的 {}；参数多于占位符时多余的参数不输出
+     */
+    public String format() {
+        if (args == null || args.length == 0) {
+            return template;
+        }
+        StringBuilder sb = new StringBuilder(template.length() + 16 * args.length);
+        int from = 0;
+        int argIndex = 0;
+        while (argIndex < args.length) {
+            int at = template.indexOf("{}", from);
+            if (at < 0) {
+                break;
+            }
+            sb.append(template, from, at).append(args[argIndex++]);
+            from = at + 2;
+        }
+        return sb.append(template, from, template.length()).toString();
+    }
+}
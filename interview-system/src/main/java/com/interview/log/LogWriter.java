@@ -0,0 +1,306 @@
+package com.interview.log;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 日志输出线程
+ * 
+ * 从环形缓冲中取出日志，格式化后按输出流分批写出，缓冲取空时才 flush，
+ * 因此一批日志只有一次控制台 / 文件写入。没有日志时休眠，记录线程写入后唤醒。
+ */
+final class LogWriter implements Runnable {
+    
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+    // 缓冲一直取不空时，攒到该长度也写出一次控制台
+    private static final int MAX_PENDING_CHARS = 64 * 1024;
+    
+    private final RingBuffer ring;
+    private final AtomicLong dropped;
+    private final Thread thread;
+    private final StringBuilder pending = new StringBuilder(8192);
+    
+    private volatile Settings settings;
+    private volatile boolean waiting;
+    private volatile boolean running = true;
+    // 已写出并 flush 的日志数
+    private volatile long written;
+    private long reportedDrops;
+    private PrintStream pendingStream;
+    
+    LogWriter(int capacity, Settings settings, AtomicLong dropped) {
+        this.ring = new RingBuffer(capacity);
+        this.settings = settings;
+        this.dropped = dropped;
+        this.thread = new Thread(this, "log-writer");
+        this.thread.setDaemon(true);
+    }
+    
+    void start() {
+        thread.start();
+    }
+    
+    void setSettings(Settings settings) {
+        this.settings = settings;
+        LockSupport.unpark(thread);
+    }
+    
+    boolean isFull() {
+        return ring.isFull();
+    }
+    
+    boolean offer(LogEvent event) {
+        if (!ring.offer(event)) {
+            return false;
+        }
+        if (waiting) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+    
+    @Override
+    public void run() {
+        Settings current = settings;
+        while (running || !ring.isEmpty()) {
+            if (settings != current) {
+                // 重新配置后，之后取出的日志按新设置写出
+                endBatch(current);
+                current.close();
+                current = settings;
+            }
+            LogEvent event = ring.poll();
+            if (event != null) {
+                write(event, current);
+                continue;
+            }
+            reportDrops(current);
+            endBatch(current);
+            written = ring.getHead();
+            waiting = true;
+            if (ring.isEmpty() && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            waiting = false;
+        }
+        endBatch(current);
+        written = ring.getHead();
+        current.close();
+    }
+    
+    private void write(LogEvent event, Settings current) {
+        String line;
+        try {
+            line = format(event, current.json);
+        } catch (RuntimeException e) {
+            // 参数的 toString 出错时仍输出模板
+            line = event.getTemplate() + " (格式化失败: " + e + ")" + System.lineSeparator();
+        }
+        if (current.console) {
+            PrintStream stream = event.getLevel().compareTo(Level.WARN) >= 0 ? System.err : System.out;
+            if (stream != pendingStream) {
+                flushConsole();
+                pendingStream = stream;
+            }
+            pending.append(line);
+            if (pending.length() >= MAX_PENDING_CHARS) {
+                flushConsole();
+            }
+        }
+        current.append(line);
+    }
+    
+    private void reportDrops(Settings current) {
+        long total = dropped.get();
+        if (total > reportedDrops) {
+            write(new LogEvent(System.currentTimeMillis(), Level.WARN, Log.class.getName(),
+                    thread.getName(), "日志缓冲已满，丢弃 {} 条日志（累计 {} 条）",
+                    new Object[] { total - reportedDrops, total }), current);
+            reportedDrops = total;
+        }
+    }
+    
+    private void endBatch(Settings current) {
+        flushConsole();
+        current.flush();
+    }
+    
+    private void flushConsole() {
+        if (pendingStream != null && pending.length() > 0) {
+            pendingStream.print(pending);
+            pendingStream.flush();
+        }
+        pending.setLength(0);
+    }
+    
+    /**
+     * 等待当前已记录的日志写出
+     */
+    void flush(long timeoutMillis) {
+        long target = ring.getTail();
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        LockSupport.unpark(thread);
+        while (written < target && thread.isAlive() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(1_000_000L);
+        }
+    }
+    
+    void stop(long timeoutMillis) {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * 不经过缓冲直接写出（log.async=false 或已 shutdown 时）
+     */
+    static void writeDirect(LogEvent event, Settings settings) {
+        String line = format(event, settings.json);
+        synchronized (settings) {
+            if (settings.console) {
+                (event.getLevel().compareTo(Level.WARN) >= 0 ? System.err : System.out).print(line);
+            }
+            settings.append(line);
+            settings.flush();
+        }
+    }
+    
+    static String format(LogEvent event, boolean json) {
+        Throwable throwable = event.getThrowable();
+        if (json) {
+            // 手工拼接以固定字段顺序（JSONObject 不保证顺序），字符串由 JSONObject.quote 转义
+            StringBuilder sb = new StringBuilder(160)
+                    .append("{\"ts\":\"").append(Instant.ofEpochMilli(event.getTimestamp())).append('"')
+                    .append(",\"level\":\"").append(event.getLevel().name()).append('"')
+                    .append(",\"logger\":").append(JSONObject.quote(event.getLogger()))
+                    .append(",\"thread\":").append(JSONObject.quote(event.getThread()))
+                    .append(",\"msg\":").append(JSONObject.quote(event.format()))
+                    .append(",\"template\":").append(JSONObject.quote(event.getTemplate()));
+            Object[] args = event.getArgs();
+            // 作为堆栈输出的异常不再列入参数
+            int argCount = args == null ? 0 : throwable != null ? args.length - 1 : args.length;
+            if (argCount > 0) {
+                sb.append(",\"args\":[");
+                for (int i = 0; i < argCount; i++) {
+                    Object arg = args[i];
+                    sb.append(i == 0 ? "" : ",");
+                    if (arg == null || arg instanceof Boolean
+                            || arg instanceof Number && Double.isFinite(((Number) arg).doubleValue())) {
+                        sb.append(arg);
+                    } else {
+                        sb.append(JSONObject.quote(String.valueOf(arg)));
+                    }
+                }
+                sb.append(']');
+            }
+            if (throwable != null) {
+                sb.append(",\"error\":").append(JSONObject.quote(stackTrace(throwable)));
+            }
+            return sb.append('}').append(System.lineSeparator()).toString();
+        }
+        String logger = event.getLogger();
+        StringBuilder sb = new StringBuilder(96)
+                .append(TIME_FORMAT.format(Instant.ofEpochMilli(event.getTimestamp())))
+                .append(' ').append(event.getLevel().name());
+        if (event.getLevel().name().length() == 4) {
+            sb.append(' ');
+        }
+        sb.append(" [").append(event.getThread()).append("] ")
+                .append(logger, logger.lastIndexOf('.') + 1, logger.length())
+                .append(" - ").append(event.format()).append(System.lineSeparator());
+        if (throwable != null) {
+            sb.append(stackTrace(throwable));
+        }
+        return sb.toString();
+    }
+    
+    private static String stackTrace(Throwable throwable) {
+        StringWriter out = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(out));
+        return out.toString();
+    }
+    
+    /**
+     * 输出目标：是否写控制台、日志文件（按需打开，追加写入）、是否为 JSON 格式
+     */
+    static final class Settings {
+        
+        final boolean console;
+        final String file;
+        final boolean json;
+        private Writer fileWriter;
+        private boolean fileFailed;
+        
+        Settings(boolean console, String file, boolean json) {
+            this.console = console;
+            this.file = file == null ? "" : file;
+            this.json = json;
+        }
+        
+        static Settings defaults() {
+            return new Settings(true, "", false);
+        }
+        
+        void append(String line) {
+            if (file.isEmpty() || fileFailed) {
+                return;
+            }
+            try {
+                if (fileWriter == null) {
+                    Path path = Path.of(file);
+                    if (path.getParent() != null) {
+                        Files.createDirectories(path.getParent());
+                    }
+                    fileWriter = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                fileWriter.write(line);
+            } catch (IOException e) {
+                // 日志文件不可写时只提示一次，之后仅输出到控制台
+                fileFailed = true;
+                System.err.println("写入日志文件失败 (" + file + "): " + e.getMessage());
+            }
+        }
+        
+        void flush() {
+            if (fileWriter != null) {
+                try {
+                    fileWriter.flush();
+                } catch (IOException e) {
+                    fileFailed = true;
+                }
+            }
+        }
+        
+        void close() {
+            if (fileWriter != null) {
+                try {
+                    fileWriter.close();
+                } catch (IOException ignored) {
+                    // 关闭失败不影响程序退出
+                }
+                fileWriter = null;
+            }
+        }
+    }
+}
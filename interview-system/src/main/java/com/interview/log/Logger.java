@@ -0,0 +1,155 @@
+package com.interview.log;
+
+/**
+ * 按类取得的日志记录器，见 Log.get
+ * 
+ * 模板中的 {} 依次由参数替换，最后一个参数是异常且没有对应的占位符时输出其堆栈。
+ * 级别判断在拼接消息之前完成：未启用的级别只做一次字段比较就返回，
+ * 1~3 个参数的重载也不创建参数数组。参数本身计算代价较高时（截取响应、序列化对象等），
+ * 或在热点循环中传入 int / long 等基本类型（调用前就会装箱）时，先用 isDebugEnabled 等方法判断。
+ */
+public final class Logger {
+    
+    private final String name;
+    private final String shortName;
+    private volatile int threshold;
+    
+    Logger(String name, Level level) {
+        this.name = name;
+        this.shortName = name.substring(name.lastIndexOf('.') + 1);
+        this.threshold = level.ordinal();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    String getShortName() {
+        return shortName;
+    }
+    
+    public Level getLevel() {
+        return Level.values()[threshold];
+    }
+    
+    void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+    
+    public boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+    
+    public boolean isDebugEnabled() {
+        return threshold <= 0;
+    }
+    
+    public boolean isInfoEnabled() {
+        return threshold <= 1;
+    }
+    
+    public void debug(String message) {
+        if (threshold <= 0) {
+            Log.dispatch(this, Level.DEBUG, message, null);
+        }
+    }
+    
+    public void debug(String template, Object arg) {
+        if (threshold <= 0) {
+            Log.dispatch(this, Level.DEBUG, template, new Object[] { arg });
+        }
+    }
+    
+    public void debug(String template, Object arg1, Object arg2) {
+        if (threshold <= 0) {
+            Log.dispatch(this, Level.DEBUG, template, new Object[] { arg1, arg2 });
+        }
+    }
+    
+    public void debug(String template, Object arg1, Object arg2, Object arg3) {
+        if (threshold <= 0) {
+            Log.dispatch(this, Level.DEBUG, template, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+    
+    public void info(String message) {
+        if (threshold <= 1) {
+            Log.dispatch(this, Level.INFO, message, null);
+        }
+    }
+    
+    public void info(String template, Object arg) {
+        if (threshold <= 1) {
+            Log.dispatch(this, Level.INFO, template, new Object[] { arg });
+        }
+    }
+    
+    public void info(String template, Object arg1, Object arg2) {
+        if (threshold <= 1) {
+            Log.dispatch(this, Level.INFO, template, new Object[] { arg1, arg2 });
+        }
+    }
+    
+    public void info(String template, Object arg1, Object arg2, Object arg3) {
+        if (threshold <= 1) {
+            Log.dispatch(this, Level.INFO, template, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+    
+    public void warn(String message) {
+        if (threshold <= 2) {
+            Log.dispatch(this, Level.WARN, message, null);
+        }
+    }
+    
+    public void warn(String template, Object arg) {
+        if (threshold <= 2) {
+            Log.dispatch(this, Level.WARN, template, new Object[] { arg });
+        }
+    }
+    
+    public void warn(String template, Object arg1, Object arg2) {
+        if (threshold <= 2) {
+            Log.dispatch(this, Level.WARN, template, new Object[] { arg1, arg2 });
+        }
+    }
+    
+    public void warn(String template, Object arg1, Object arg2, Object arg3) {
+        if (threshold <= 2) {
+            Log.dispatch(this, Level.WARN, template, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+    
+    public void error(String message) {
+        if (threshold <= 3) {
+            Log.dispatch(this, Level.ERROR, message, null);
+        }
+    }
+    
+    public void error(String template, Object arg) {
+        if (threshold <= 3) {
+            Log.dispatch(this, Level.ERROR, template, new Object[] { arg });
+        }
+    }
+    
+    public void error(String template, Object arg1, Object arg2) {
+        if (threshold <= 3) {
+            Log.dispatch(this, Level.ERROR, template, new Object[] { arg1, arg2 });
+        }
+    }
+    
+    public void error(String template, Object arg1, Object arg2, Object arg3) {
+        if (threshold <= 3) {
+            Log.dispatch(this, Level.ERROR, template, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+    
+    /**
+     * 任意级别、任意个参数
+     */
+    public void log(Level level, String template, Object... args) {
+        if (level != Level.OFF && level.ordinal() >= threshold) {
+            Log.dispatch(this, level, template, args);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.interview.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 定长环形缓冲（多个记录线程写入，一个输出线程读取）
+ * 
+ * 每个槽位带一个序号：槽位空闲时等于下一个可写入的位置，写入完成后等于位置 + 1，
+ * 读取后推进一圈（加上容量）。记录线程只做一次 CAS 抢位置，不加锁；缓冲满时 offer 立即返回 false，
+ * 记录线程从不等待输出线程。
+ */
+final class RingBuffer {
+    
+    private final int mask;
+    private final AtomicReferenceArray<LogEvent> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // 只由输出线程修改
+    private volatile long head;
+    
+    /**
+     * @param capacity 容量，向上取整为 2 的幂
+     */
+    RingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        slots = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    /**
+     * 写入一条日志；缓冲已满时返回 false
+     */
+    boolean offer(LogEvent event) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, event);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // diff > 0：该位置已被其他线程抢到，重新读取 tail
+        }
+    }
+    
+    /**
+     * 取出最早的一条日志；没有已写完的日志时返回 null（只能由输出线程调用）
+     */
+    LogEvent poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        LogEvent event = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.set(index, position + mask + 1);
+        head = position + 1;
+        return event;
+    }
+    
+    /**
+     * 是否已满（读取时的近似值，可由任意线程调用）
+     */
+    boolean isFull() {
+        long position = tail.get();
+        return sequences.get((int) position & mask) < position;
+    }
+    
+    /**
+     * 是否没有可读取的日志（只能由输出线程调用）
+     */
+    boolean isEmpty() {
+        long position = head;
+        return sequences.get((int) position & mask) != position + 1;
+    }
+    
+    /**
+     * 已分配的写入位置数（包括正在写入的）
+     */
+    long getTail() {
+        return tail.get();
+    }
+    
+    /**
+     * 已取出的日志数
+     */
+    long getHead() {
+        return head;
+    }
+    
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,28 @@
+package com.interview.metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 只增不减的计数器（LongAdder，多线程累加时无竞争）
+ */
+public class Counter extends Meter {
+    
+    private final LongAdder value = new LongAdder();
+    
+    Counter(String name, String help, Map<String, String> labels) {
+        super(name, help, labels);
+    }
+    
+    public void increment() {
+        value.increment();
+    }
+    
+    public void add(long n) {
+        value.add(n);
+    }
+    
+    public long get() {
+        return value.sum();
+    }
+}
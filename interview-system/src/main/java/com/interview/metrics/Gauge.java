@@ -0,0 +1,25 @@
+package com.interview.metrics;
+
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * 瞬时值：导出时调用 supplier 读取（如活动录音数、连接池空闲连接数），记录路径上没有任何开销
+ */
+public class Gauge extends Meter {
+    
+    private final DoubleSupplier supplier;
+    
+    Gauge(String name, String help, Map<String, String> labels, DoubleSupplier supplier) {
+        super(name, help, labels);
+        this.supplier = supplier;
+    }
+    
+    public double get() {
+        try {
+            return supplier.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.interview.metrics;
+
+import com.interview.log.Log;
+import com.interview.log.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定期把全部指标写入 JSON 文件（先写临时文件再替换，读取方不会读到半个文件）
+ */
+public class JsonFileExporter implements MetricsExporter {
+    
+    private static final Logger log = Log.get(JsonFileExporter.class);
+    
+    private final MetricsRegistry registry;
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+    
+    public JsonFileExporter(MetricsRegistry registry, Path file, int intervalSeconds) {
+        this.registry = registry;
+        this.file = file;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-json");
+            t.setDaemon(true);
+            return t;
+        });
+        int interval = Math.max(1, intervalSeconds);
+        scheduler.scheduleWithFixedDelay(this::write, interval, interval, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * 立即写一次
+     */
+    public void write() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, registry.toJson().toString(2), StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("写入指标文件失败: {}", e.getMessage());
+        }
+    }
+    
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        write();
+    }
+}
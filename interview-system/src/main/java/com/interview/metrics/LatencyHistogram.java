@@ -0,0 +1,116 @@
+package com.interview.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 延迟直方图（对数-线性分桶，与 HdrHistogram 的思路相同）
+ * 
+ * 以微秒计：0~63 微秒每微秒一个桶，此后每个 2 的幂区间再均分为 32 个桶，
+ * 任意值所在桶的宽度不超过该值的 1/32，百分位误差约 3%，最大可记录约 12 天。
+ * 桶数固定（约 1.2K 个 long），记录时只做几次原子累加，不加锁、不分配内存，可在多个线程中同时记录。
+ */
+public class LatencyHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // 最高有效位不超过 2^39（即小于 2^40 微秒，约 12 天），更大的值计入最后一个桶
+    private static final int MAX_EXPONENT = 39;
+    private static final int BUCKETS = 2 * SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+    
+    /**
+     * 记录一次耗时（纳秒）
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(indexOf(micros));
+        count.increment();
+        sumMicros.add(micros);
+        long max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+            max = maxMicros.get();
+        }
+    }
+    
+    static int indexOf(long micros) {
+        if (micros < 2 * SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return 2 * SUB_BUCKETS + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + sub;
+    }
+    
+    /**
+     * 桶内最大值（微秒）
+     */
+    static long upperBound(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - 2 * SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        int sub = (index - 2 * SUB_BUCKETS) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : sumMicros.sum() / 1000.0 / n;
+    }
+    
+    public double getTotalMillis() {
+        return sumMicros.sum() / 1000.0;
+    }
+    
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+    
+    /**
+     * 百分位耗时（毫秒），如 percentileMillis(0.95)；没有记录时为 0
+     */
+    public double percentileMillis(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros.get()) / 1000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+    
+    /**
+     * 清零（与并发记录之间不保证原子性，仅用于统计重新开始）
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sumMicros.reset();
+        maxMicros.set(0);
+    }
+}
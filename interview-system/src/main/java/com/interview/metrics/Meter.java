@@ -0,0 +1,49 @@
+package com.interview.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 指标基类：名称、说明和标签
+ * 
+ * 名称按 Prometheus 习惯使用小写加下划线，计数器以 _total 结尾、耗时以 _seconds 结尾；
+ * 同名指标可以有多组标签（如按 HTTP 状态码区分的请求耗时），每组标签是一个独立的指标对象。
+ */
+public abstract class Meter {
+    
+    private final String name;
+    private final String help;
+    private final Map<String, String> labels;
+    
+    Meter(String name, String help, Map<String, String> labels) {
+        this.name = name;
+        this.help = help;
+        this.labels = labels;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getHelp() {
+        return help;
+    }
+    
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+    
+    /**
+     * 标签键值对（key1, value1, key2, value2...）转为有序映射
+     */
+    static Map<String, String> labelMap(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("标签必须成对出现: " + String.join(",", labels));
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < labels.length; i += 2) {
+            map.put(labels[i], labels[i + 1]);
+        }
+        return map;
+    }
+}
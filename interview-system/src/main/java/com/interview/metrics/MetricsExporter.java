@@ -0,0 +1,46 @@
+package com.interview.metrics;
+
+import com.interview.config.AppConfig;
+import com.interview.log.Log;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 指标导出方式（后台读取注册表，不影响记录路径）
+ * 
+ * 配置（config.properties）：
+ * - metrics.prometheus.port：在 127.0.0.1 的该端口提供 /metrics（Prometheus 文本格式），0 表示不启动
+ * - metrics.json.file / metrics.json.interval.seconds：定期把全部指标写入 JSON 文件，文件为空表示不写
+ */
+public interface MetricsExporter {
+    
+    /**
+     * 停止导出（JSON 文件导出会在停止前再写一次）
+     */
+    void close();
+    
+    /**
+     * 按配置启动导出，启动失败的导出方式只打印错误
+     */
+    static List<MetricsExporter> startFromConfig(MetricsRegistry registry) {
+        List<MetricsExporter> exporters = new ArrayList<>();
+        int port = AppConfig.getInt("metrics.prometheus.port", 0);
+        if (port > 0) {
+            try {
+                exporters.add(new PrometheusExporter(registry, port));
+                Log.get(MetricsExporter.class).info("指标导出: http://127.0.0.1:{}/metrics", port);
+            } catch (IOException e) {
+                Log.get(MetricsExporter.class).error("启动 Prometheus 指标端口 {} 失败: {}", port, e.getMessage());
+            }
+        }
+        String file = AppConfig.getString("metrics.json.file", "");
+        if (!file.isBlank()) {
+            exporters.add(new JsonFileExporter(registry, Path.of(file),
+                    AppConfig.getInt("metrics.json.interval.seconds", 60)));
+        }
+        return exporters;
+    }
+}
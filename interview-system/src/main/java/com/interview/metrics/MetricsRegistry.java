@@ -0,0 +1,189 @@
+package com.interview.metrics;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 进程内指标注册表（录音、语音识别、大模型、数据库等子系统共用）
+ * 
+ * 各子系统在静态字段中取得计数器 / 计时器并直接累加，记录路径上只有 LongAdder 累加和直方图自增，
+ * 不加锁、不查表；同名同标签的指标只创建一次，可以在多处取用。
+ * 导出（Prometheus 文本、JSON 文件）由 MetricsExporter 在后台读取，见 MetricsExporter.startFromConfig。
+ */
+public class MetricsRegistry {
+    
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+    
+    private final ConcurrentHashMap<String, Meter> meters = new ConcurrentHashMap<>();
+    
+    /**
+     * 全局注册表
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+    
+    /**
+     * 取得（首次调用时创建）计数器
+     * 
+     * @param labels 标签键值对，如 "status", "200"
+     */
+    public Counter counter(String name, String help, String... labels) {
+        Map<String, String> labelMap = Meter.labelMap(labels);
+        return register(Counter.class, key(name, labelMap), () -> new Counter(name, help, labelMap));
+    }
+    
+    /**
+     * 取得（首次调用时创建）计时器
+     */
+    public Timer timer(String name, String help, String... labels) {
+        Map<String, String> labelMap = Meter.labelMap(labels);
+        return register(Timer.class, key(name, labelMap), () -> new Timer(name, help, labelMap));
+    }
+    
+    /**
+     * 登记瞬时值；同名同标签已存在时保留原来的
+     */
+    public Gauge gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        Map<String, String> labelMap = Meter.labelMap(labels);
+        return register(Gauge.class, key(name, labelMap), () -> new Gauge(name, help, labelMap, supplier));
+    }
+    
+    private <T extends Meter> T register(Class<T> type, String key, Supplier<T> factory) {
+        Meter meter = meters.get(key);
+        if (meter == null) {
+            meter = meters.computeIfAbsent(key, k -> factory.get());
+        }
+        if (!type.isInstance(meter)) {
+            throw new IllegalArgumentException("指标 " + key + " 已登记为 " + meter.getClass().getSimpleName());
+        }
+        return type.cast(meter);
+    }
+    
+    private static String key(String name, Map<String, String> labels) {
+        return labels.isEmpty() ? name : name + labels;
+    }
+    
+    /**
+     * 全部指标，按名称排序（同名指标相邻，便于按名称输出说明）
+     */
+    public List<Meter> getMeters() {
+        List<Meter> list = new ArrayList<>(meters.values());
+        list.sort(Comparator.comparing(Meter::getName).thenComparing(m -> m.getLabels().toString()));
+        return list;
+    }
+    
+    /**
+     * 当前值的 JSON 快照，计时器输出次数、总耗时和百分位（秒）
+     */
+    public JSONObject toJson() {
+        JSONArray array = new JSONArray();
+        for (Meter meter : getMeters()) {
+            JSONObject json = new JSONObject()
+                    .put("name", meter.getName())
+                    .put("labels", new JSONObject(meter.getLabels()));
+            if (meter instanceof Counter counter) {
+                json.put("type", "counter").put("value", counter.get());
+            } else if (meter instanceof Gauge gauge) {
+                double value = gauge.get();
+                json.put("type", "gauge").put("value", Double.isNaN(value) ? JSONObject.NULL : value);
+            } else if (meter instanceof Timer timer) {
+                LatencyHistogram h = timer.getHistogram();
+                json.put("type", "timer")
+                        .put("count", h.getCount())
+                        .put("sumSeconds", seconds(h.getTotalMillis()))
+                        .put("p50Seconds", seconds(h.percentileMillis(0.50)))
+                        .put("p95Seconds", seconds(h.percentileMillis(0.95)))
+                        .put("p99Seconds", seconds(h.percentileMillis(0.99)))
+                        .put("maxSeconds", seconds(h.getMaxMillis()));
+            }
+            array.put(json);
+        }
+        return new JSONObject()
+                .put("generatedAt", LocalDateTime.now().toString())
+                .put("meters", array);
+    }
+    
+    /**
+     * Prometheus 文本格式（0.0.4）；计时器输出为 summary（分位数、_sum、_count，单位秒）
+     */
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        String lastName = null;
+        for (Meter meter : getMeters()) {
+            String name = meter.getName();
+            if (!name.equals(lastName)) {
+                String type = meter instanceof Counter ? "counter" : meter instanceof Gauge ? "gauge" : "summary";
+                sb.append("# HELP ").append(name).append(' ').append(escapeHelp(meter.getHelp())).append('\n');
+                sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+                lastName = name;
+            }
+            if (meter instanceof Counter counter) {
+                sample(sb, name, meter.getLabels(), null, counter.get());
+            } else if (meter instanceof Gauge gauge) {
+                sample(sb, name, meter.getLabels(), null, gauge.get());
+            } else if (meter instanceof Timer timer) {
+                LatencyHistogram h = timer.getHistogram();
+                for (double q : new double[] { 0.5, 0.95, 0.99 }) {
+                    sample(sb, name, meter.getLabels(), String.valueOf(q), seconds(h.percentileMillis(q)));
+                }
+                sample(sb, name + "_sum", meter.getLabels(), null, seconds(h.getTotalMillis()));
+                sample(sb, name + "_count", meter.getLabels(), null, h.getCount());
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * 毫秒转秒，保留到微秒（直方图精度为微秒，避免输出 0.0010069999999999999 这样的浮点尾数）
+     */
+    private static double seconds(double millis) {
+        return Math.round(millis * 1000) / 1e6;
+    }
+    
+    private static void sample(StringBuilder sb, String name, Map<String, String> labels, String quantile,
+                               double value) {
+        sb.append(name);
+        if (!labels.isEmpty() || quantile != null) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<String, String> label : labels.entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append(label.getKey()).append("=\"").append(escapeLabel(label.getValue())).append('"');
+                first = false;
+            }
+            if (quantile != null) {
+                sb.append(first ? "" : ",").append("quantile=\"").append(quantile).append('"');
+            }
+            sb.append('}');
+        }
+        sb.append(' ');
+        if (Double.isNaN(value)) {
+            sb.append("NaN");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            sb.append((long) value);
+        } else {
+            sb.append(value);
+        }
+        sb.append('\n');
+    }
+    
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+    
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
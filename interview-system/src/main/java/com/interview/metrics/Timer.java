@@ -0,0 +1,37 @@
+package com.interview.metrics;
+
+import java.util.Map;
+
+/**
+ * 耗时统计：次数、总耗时和百分位（LatencyHistogram）
+ * 
+ * 用法：
+ * <pre>
+ * long start = System.nanoTime();
+ * ...
+ * timer.recordSince(start);
+ * </pre>
+ */
+public class Timer extends Meter {
+    
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    
+    Timer(String name, String help, Map<String, String> labels) {
+        super(name, help, labels);
+    }
+    
+    public void record(long nanos) {
+        histogram.recordNanos(nanos);
+    }
+    
+    /**
+     * 记录从 start（System.nanoTime）到现在的耗时
+     */
+    public void recordSince(long start) {
+        histogram.recordNanos(System.nanoTime() - start);
+    }
+    
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+}
@@ -0,0 +1,79 @@
+package com.interview.migration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 一个版本化的迁移脚本（classpath 下 db/migration/ 中的 SQL 文件）
+ * 
+ * 校验和按统一换行符后的脚本原文计算（占位符替换之前），
+ * 已执行的脚本内容一旦变化，启动时会被 SchemaMigrator 拒绝。
+ */
+public class Migration {
+    
+    static final String LOCATION = "db/migration/";
+    
+    private final int version;
+    private final String description;
+    private final String script;
+    
+    private String sql;
+    private String checksum;
+    
+    public Migration(int version, String description, String script) {
+        this.version = version;
+        this.description = description;
+        this.script = script;
+    }
+    
+    public int getVersion() {
+        return version;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public String getScript() {
+        return script;
+    }
+    
+    /**
+     * 脚本内容（首次调用时从 classpath 读取）
+     */
+    public synchronized String getSql() throws IOException {
+        if (sql == null) {
+            try (InputStream is = Migration.class.getClassLoader().getResourceAsStream(LOCATION + script)) {
+                if (is == null) {
+                    throw new IOException("找不到迁移脚本: " + LOCATION + script);
+                }
+                sql = new String(is.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+            }
+        }
+        return sql;
+    }
+    
+    /**
+     * 脚本内容的 SHA-256（十六进制）
+     */
+    public synchronized String getChecksum() throws IOException {
+        if (checksum == null) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                checksum = HexFormat.of().formatHex(digest.digest(getSql().getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return checksum;
+    }
+    
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+}
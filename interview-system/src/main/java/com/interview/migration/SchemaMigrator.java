@@ -0,0 +1,220 @@
+package com.interview.migration;
+
+import com.interview.log.Log;
+import com.interview.log.Logger;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 版本化数据库迁移
+ * 
+ * 已执行的脚本记录在 schema_version 表中（版本号、校验和、执行时间）。启动时先读这张表：
+ * 所有脚本都已执行且校验和一致时直接返回，不执行任何 DDL；否则按版本号顺序执行未执行的脚本，
+ * 每个脚本与它的 schema_version 记录在同一个事务中提交，失败时整体回滚。
+ * 多个实例同时启动时用事务级咨询锁串行化，拿到锁后再确认一次版本是否已被其他实例执行。
+ * 
+ * 全部迁移在调用方传入的一个连接上完成。新增表结构变更时在 db/migration/ 下添加新版本脚本并登记到
+ * MIGRATIONS，已发布的脚本不能再修改。
+ */
+public class SchemaMigrator {
+    
+    private static final Logger log = Log.get(SchemaMigrator.class);
+    
+    /**
+     * 按版本号排列的迁移脚本
+     */
+    public static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "兼容旧版 database.sql 建的表", "V1__reconcile_legacy_schema.sql"),
+            new Migration(2, "基线表结构", "V2__baseline.sql"),
+            new Migration(3, "热点查询索引", "V3__query_indexes.sql"),
+            new Migration(4, "数据库角色权限", "V4__role_grants.sql"),
+            new Migration(5, "题目变更通知", "V5__question_change_notify.sql"));
+    
+    // pg_advisory_xact_lock 的锁键（任意固定值，只要不与其他咨询锁冲突）
+    private static final long LOCK_KEY = 0x5343_4845_4D41L;
+    
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(\\w+)}");
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    
+    private final List<Migration> migrations;
+    private final Map<String, String> placeholders;
+    
+    /**
+     * @param placeholders 脚本中 ${name} 占位符的取值（目前只用于数据库角色名，必须是普通标识符）
+     */
+    public SchemaMigrator(Map<String, String> placeholders) {
+        this(MIGRATIONS, placeholders);
+    }
+    
+    SchemaMigrator(List<Migration> migrations, Map<String, String> placeholders) {
+        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+            if (entry.getValue() == null || !IDENTIFIER.matcher(entry.getValue()).matches()) {
+                throw new IllegalArgumentException("迁移占位符 " + entry.getKey() + " 的取值不是合法标识符: "
+                        + entry.getValue());
+            }
+        }
+        this.migrations = migrations;
+        this.placeholders = new HashMap<>(placeholders);
+    }
+    
+    /**
+     * 把数据库结构迁移到最新版本
+     * 
+     * @return 本次执行的脚本数，0 表示结构已是最新（没有执行任何 DDL）
+     * @throws SQLException 已执行的脚本被修改、或脚本执行失败
+     */
+    public int migrate(Connection conn) throws SQLException {
+        List<Migration> pending = findPending(conn);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description VARCHAR(200) NOT NULL,
+                    script VARCHAR(200) NOT NULL,
+                    checksum CHAR(64) NOT NULL,
+                    installed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    execution_ms INTEGER NOT NULL
+                )
+                """);
+        }
+        
+        int count = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            conn.setAutoCommit(false);
+            for (Migration migration : pending) {
+                if (apply(conn, migration)) {
+                    count++;
+                }
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return count;
+    }
+    
+    /**
+     * 读取已执行的版本并校验，返回未执行的脚本（按版本号升序）
+     */
+    private List<Migration> findPending(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT to_regclass('schema_version') IS NOT NULL")) {
+                rs.next();
+                if (rs.getBoolean(1)) {
+                    try (ResultSet versions = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+                        while (versions.next()) {
+                            applied.put(versions.getInt("version"), versions.getString("checksum"));
+                        }
+                    }
+                }
+            }
+        }
+        
+        List<Migration> pending = new ArrayList<>();
+        int latest = 0;
+        for (Migration migration : migrations) {
+            latest = Math.max(latest, migration.getVersion());
+            String checksum = applied.get(migration.getVersion());
+            if (checksum == null) {
+                pending.add(migration);
+            } else if (!checksum.trim().equals(checksumOf(migration))) {
+                throw new SQLException("迁移脚本 " + migration.getScript() + " 在执行后被修改（校验和不一致），"
+                        + "请恢复原脚本并把改动写成新版本");
+            }
+        }
+        for (int version : applied.keySet()) {
+            if (version > latest) {
+                log.warn("数据库结构版本 V{} 高于当前程序支持的 V{}，可能需要升级程序", version, latest);
+            }
+        }
+        return pending;
+    }
+    
+    /**
+     * 在一个事务中执行脚本并登记版本
+     * 
+     * @return false 表示等待锁期间已被其他实例执行
+     */
+    private boolean apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+            if (isApplied(conn, migration.getVersion())) {
+                conn.commit();
+                return false;
+            }
+            
+            stmt.execute(resolvePlaceholders(migration.getSql()));
+            
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            String sql = """
+                INSERT INTO schema_version (version, description, script, checksum, execution_ms)
+                VALUES (?, ?, ?, ?, ?)
+                """;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, migration.getVersion());
+                pstmt.setString(2, migration.getDescription());
+                pstmt.setString(3, migration.getScript());
+                pstmt.setString(4, migration.getChecksum());
+                pstmt.setInt(5, (int) Math.min(Integer.MAX_VALUE, elapsedMs));
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+            log.info("数据库迁移完成: {}（{} ms）", migration, elapsedMs);
+            return true;
+        } catch (SQLException | IOException | RuntimeException e) {
+            conn.rollback();
+            throw new SQLException("数据库迁移 " + migration + " 失败: " + e.getMessage(), e);
+        }
+    }
+    
+    private boolean isApplied(Connection conn, int version) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM schema_version WHERE version = ?")) {
+            pstmt.setInt(1, version);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    /**
+     * 替换 ${name} 占位符，未提供取值的占位符视为错误
+     */
+    String resolvePlaceholders(String sql) {
+        Matcher matcher = PLACEHOLDER.matcher(sql);
+        StringBuilder sb = new StringBuilder(sql.length());
+        while (matcher.find()) {
+            String value = placeholders.get(matcher.group(1));
+            if (value == null) {
+                throw new IllegalArgumentException("迁移脚本占位符 ${" + matcher.group(1) + "} 没有取值");
+            }
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+    
+    private static String checksumOf(Migration migration) throws SQLException {
+        try {
+            return migration.getChecksum();
+        } catch (IOException e) {
+            throw new SQLException(e.getMessage(), e);
+        }
+    }
+}
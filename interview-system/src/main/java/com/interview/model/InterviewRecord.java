@@ -16,6 +16,9 @@ public class InterviewRecord {
     private String voiceFilePath;        // 语音文件路径
     private String voiceFileName;        // 语音文件名
     private Long voiceFileSize;          // 语音文件大小（字节）
+    private String voiceFileHash;        // 语音文件 SHA-256（内容寻址存储的键）
+    private String storageTier;          // 存储层：HOT（本地）/ COLD（已压缩归档）/ MISSING（文件缺失）
+    private LocalDateTime archivedAt;    // 归档时间
     private String notes;                // 备注/面试评价
     private LocalDateTime createdAt;     // 创建时间
     private LocalDateTime updatedAt;     // 更新时间
@@ -133,6 +136,37 @@ public class InterviewRecord {
         this.voiceFileSize = voiceFileSize;
     }
     
+    public String getVoiceFileHash() {
+        return voiceFileHash;
+    }
+    
+    public void setVoiceFileHash(String voiceFileHash) {
+        this.voiceFileHash = voiceFileHash;
+    }
+    
+    public String getStorageTier() {
+        return storageTier;
+    }
+    
+    public void setStorageTier(String storageTier) {
+        this.storageTier = storageTier;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+    
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+    
+    /**
+     * 录音是否已归档到冷层
+     */
+    public boolean isArchived() {
+        return "COLD".equals(storageTier);
+    }
+    
     public String getNotes() {
         return notes;
     }
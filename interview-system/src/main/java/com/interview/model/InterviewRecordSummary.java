@@ -0,0 +1,90 @@
+package com.interview.model;
+
+import com.interview.model.InterviewRecord.InterviewStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 面试记录摘要
+ * 列表只显示考生、状态等字段，不携带评价、转写文本和 AI 分析结果，选中后再按 id 加载完整记录
+ */
+public class InterviewRecordSummary {
+    
+    private Integer id;                  // 记录ID
+    private String candidateUsername;    // 考生用户名
+    private String examinerUsername;     // 考官用户名（可为空）
+    private LocalDateTime interviewTime; // 面试时间
+    private InterviewStatus status;      // 面试状态
+    private String voiceFileName;        // 语音文件名
+    private LocalDateTime createdAt;     // 创建时间
+    
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public String getCandidateUsername() {
+        return candidateUsername;
+    }
+    
+    public void setCandidateUsername(String candidateUsername) {
+        this.candidateUsername = candidateUsername;
+    }
+    
+    public String getExaminerUsername() {
+        return examinerUsername;
+    }
+    
+    public void setExaminerUsername(String examinerUsername) {
+        this.examinerUsername = examinerUsername;
+    }
+    
+    public LocalDateTime getInterviewTime() {
+        return interviewTime;
+    }
+    
+    public void setInterviewTime(LocalDateTime interviewTime) {
+        this.interviewTime = interviewTime;
+    }
+    
+    public InterviewStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(InterviewStatus status) {
+        this.status = status;
+    }
+    
+    public String getVoiceFileName() {
+        return voiceFileName;
+    }
+    
+    public void setVoiceFileName(String voiceFileName) {
+        this.voiceFileName = voiceFileName;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    /**
+     * 获取状态显示名称
+     */
+    public String getStatusDisplayName() {
+        return status != null ? status.getDisplayName() : "";
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("InterviewRecordSummary{id=%d, candidate='%s', status=%s}", 
+                id, candidateUsername, status);
+    }
+}
@@ -178,6 +178,28 @@ public class Question implements Serializable {
         this.category = category;
     }
     
+    /**
+     * 复制构造方法（题目缓存对外返回副本，调用方修改不影响缓存）
+     */
+    public Question(Question other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.content = other.content;
+        this.answer = other.answer;
+        this.type = other.type;
+        this.level = other.level;
+        this.specialization = other.specialization;
+        this.category = other.category;
+        this.createdBy = other.createdBy;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.active = other.active;
+        this.evaluationDimensions = other.evaluationDimensions != null
+                ? new java.util.ArrayList<>(other.evaluationDimensions) : new java.util.ArrayList<>();
+        this.designIntent = other.designIntent;
+        this.scoringCriteria = other.scoringCriteria;
+    }
+    
     // Getters and Setters
     public Integer getId() {
         return id;
@@ -11,6 +11,7 @@ public class QuestionExtractRecord {
     
     private Integer id;              // 记录ID
     private String extractedBy;      // 抽取者用户名
+    private String candidateUsername; // 面向的考生用户名（组卷时填写，可为空）
     private LocalDateTime extractTime; // 抽取时间
     private Integer questionCount;   // 抽取题目数量
     private String filterCriteria;   // 筛选条件（JSON格式）
@@ -48,6 +49,14 @@ public class QuestionExtractRecord {
         this.extractedBy = extractedBy;
     }
     
+    public String getCandidateUsername() {
+        return candidateUsername;
+    }
+    
+    public void setCandidateUsername(String candidateUsername) {
+        this.candidateUsername = candidateUsername;
+    }
+    
     public LocalDateTime getExtractTime() {
         return extractTime;
     }
@@ -0,0 +1,132 @@
+package com.interview.model;
+
+import com.interview.model.Question.QuestionLevel;
+import com.interview.model.Question.QuestionType;
+import com.interview.model.Question.SpecializationType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 题目摘要
+ * 列表只显示标题和分类信息，不携带题目内容和参考答案，选中后再按 id 加载完整题目
+ */
+public class QuestionSummary {
+    
+    private Integer id;              // 题目ID
+    private String title;            // 题目标题/简述
+    private QuestionType type;       // 题目类型
+    private QuestionLevel level;     // 题目等级
+    private SpecializationType specialization; // 专精类型
+    private String category;         // 分类/标签
+    private String createdBy;        // 创建者用户名
+    private LocalDateTime createdAt; // 创建时间
+    
+    public QuestionSummary() {
+    }
+    
+    /**
+     * 从完整题目生成摘要（检索结果与分页列表共用同一张表格）
+     */
+    public static QuestionSummary of(Question question) {
+        QuestionSummary summary = new QuestionSummary();
+        summary.setId(question.getId());
+        summary.setTitle(question.getTitle());
+        summary.setType(question.getType());
+        summary.setLevel(question.getLevel());
+        summary.setSpecialization(question.getSpecialization());
+        summary.setCategory(question.getCategory());
+        summary.setCreatedBy(question.getCreatedBy());
+        summary.setCreatedAt(question.getCreatedAt());
+        return summary;
+    }
+    
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return String.format("QuestionSummary{id=%d, title='%s', type=%s, level=%s}", 
+                id, title, type, level);
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public QuestionType getType() {
+        return type;
+    }
+    
+    public void setType(QuestionType type) {
+        this.type = type;
+    }
+    
+    public QuestionLevel getLevel() {
+        return level;
+    }
+    
+    public void setLevel(QuestionLevel level) {
+        this.level = level;
+    }
+    
+    public SpecializationType getSpecialization() {
+        return specialization;
+    }
+    
+    public void setSpecialization(SpecializationType specialization) {
+        this.specialization = specialization;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    /**
+     * 获取类型显示名称
+     */
+    public String getTypeDisplayName() {
+        return type != null ? type.getDisplayName() : "";
+    }
+    
+    /**
+     * 获取等级显示名称
+     */
+    public String getLevelDisplayName() {
+        if (level == null) return "";
+        if (level.isSpecialization() && specialization != null && specialization != SpecializationType.NONE) {
+            return level.getDisplayName() + " - " + specialization.getDisplayName();
+        }
+        return level.getDisplayName();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("QuestionSummary{id=%d, title='%s', type=%s, level=%s}", 
+                id, title, type, level);
+    }
+}
@@ -0,0 +1,94 @@
+package com.interview.search;
+
+import java.util.Arrays;
+
+/**
+ * 基于已解码数组的迭代器，用于前缀扩展后多个倒排表的合并结果
+ */
+final class ArrayDocIterator implements DocIterator {
+    
+    private final int[] docs;
+    private final int[] tfs;
+    private final int size;
+    private int index = -1;
+    
+    ArrayDocIterator(int[] docs, int[] tfs, int size) {
+        this.docs = docs;
+        this.tfs = tfs;
+        this.size = size;
+    }
+    
+    /**
+     * 合并多个倒排表（同一文档的词频相加）
+     */
+    static ArrayDocIterator union(Iterable<PostingList> lists) {
+        int total = 0;
+        for (PostingList list : lists) {
+            total += list.size();
+        }
+        long[] packed = new long[total];
+        int n = 0;
+        for (PostingList list : lists) {
+            PostingList.Cursor cursor = list.cursor();
+            while (cursor.next()) {
+                packed[n++] = ((long) cursor.doc() << 32) | cursor.tf();
+            }
+        }
+        Arrays.sort(packed);
+        
+        int[] docs = new int[total];
+        int[] tfs = new int[total];
+        int size = 0;
+        for (long p : packed) {
+            int doc = (int) (p >>> 32);
+            int tf = (int) p;
+            if (size > 0 && docs[size - 1] == doc) {
+                tfs[size - 1] += tf;
+            } else {
+                docs[size] = doc;
+                tfs[size] = tf;
+                size++;
+            }
+        }
+        return new ArrayDocIterator(docs, tfs, size);
+    }
+    
+    @Override
+    public int doc() {
+        if (index < 0) {
+            return -1;
+        }
+        return index < size ? docs[index] : NO_MORE_DOCS;
+    }
+    
+    @Override
+    public int tf() {
+        return tfs[index];
+    }
+    
+    @Override
+    public int cost() {
+        return size;
+    }
+    
+    @Override
+    public boolean next() {
+        index++;
+        return index < size;
+    }
+    
+    @Override
+    public boolean advance(int target) {
+        if (index >= 0 && doc() >= target) {
+            return index < size;
+        }
+        int from = Math.max(index + 1, 0);
+        if (from >= size) {
+            index = size;
+            return false;
+        }
+        int pos = Arrays.binarySearch(docs, from, size, target);
+        index = pos >= 0 ? pos : -pos - 1;
+        return index < size;
+    }
+}
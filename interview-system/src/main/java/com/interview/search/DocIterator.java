@@ -0,0 +1,38 @@
+package com.interview.search;
+
+/**
+ * 按文档号升序遍历的倒排迭代器
+ */
+interface DocIterator {
+    
+    int NO_MORE_DOCS = Integer.MAX_VALUE;
+    
+    /**
+     * 当前文档号，尚未开始时为 -1，遍历结束后为 NO_MORE_DOCS
+     */
+    int doc();
+    
+    /**
+     * 当前文档中的（加权）词频
+     */
+    int tf();
+    
+    /**
+     * 倒排项数，用于决定求交集的顺序
+     */
+    int cost();
+    
+    /**
+     * 移动到下一篇文档
+     * 
+     * @return 已经没有文档时返回 false
+     */
+    boolean next();
+    
+    /**
+     * 移动到第一篇文档号不小于 target 的文档（当前文档已满足时不移动）
+     * 
+     * @return 已经没有文档时返回 false
+     */
+    boolean advance(int target);
+}
@@ -0,0 +1,512 @@
+package com.interview.search;
+
+import com.interview.model.Question;
+import com.interview.model.Question.QuestionLevel;
+import com.interview.model.Question.QuestionType;
+import com.interview.model.Question.SpecializationType;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * 进程内题库倒排索引
+ * 
+ * 对标题、正文、参考答案建索引，供题目浏览界面边输入边检索，不再每次访问数据库：
+ * - 分词：英文/数字按单词，中文按二元组，另外为每个汉字建单字词项，单字查询也能走索引
+ * - 英文查询：关键词里的英文可能是某个单词的一部分，左侧紧挨着标点或汉字的按前缀匹配词典，
+ *   其余（如用 "map" 查 "HashMap"、"sql" 查 "PostgreSQL"）通过词典的三元组索引找出包含该片段的单词
+ * - 倒排表：差值 + 变长整数压缩，带块级跳表（见 PostingList）
+ * - 过滤：类型/等级/专精/分类作为不参与打分的内部词项，与关键词一起求交集
+ * - 打分：BM25，标题词频按 3 倍计
+ * - 增量更新：题目使用内部文档号，新增/修改一律追加新文档号，旧文档号只打删除标记；
+ *   删除标记超过四分之一时整体重建，倒排表始终只走追加路径
+ * 
+ * 命中结果与 ILIKE 子串匹配保持一致：多个二元组组成的词在候选阶段只保证都出现，
+ * 最后再用原文校验一次相邻关系。
+ */
+public class InMemoryQuestionIndex {
+    
+    private static final int TITLE_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    
+    // 内部词项以 \0 开头，不会与分词结果冲突，也不会被前缀扩展命中
+    private static final String ALL_TERM = "\0all";
+    private static final String TYPE_TERM = "\0type:";
+    private static final String LEVEL_TERM = "\0level:";
+    private static final String SPEC_TERM = "\0spec:";
+    private static final String CATEGORY_TERM = "\0category:";
+    
+    // 词典三元组索引的片段长度
+    private static final int GRAM = 3;
+    
+    // 删除标记达到该数量且超过文档总数四分之一时重建
+    private static final int COMPACT_MIN_DELETED = 256;
+    
+    private final Map<String, PostingList> terms = new HashMap<>();
+    // 英文/数字词项单独排序保存，用于前缀扩展
+    private final TreeSet<String> latinTerms = new TreeSet<>();
+    // 英文/数字词项的三元组 -> 包含该三元组的词项，用于单词中间的片段
+    private final Map<String, List<String>> latinGrams = new HashMap<>();
+    // 内部文档号 -> 题目，已删除的位置为 null
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<Integer, Integer> docNumbers = new HashMap<>();
+    private int deleted;
+    private long totalLength;
+    
+    /**
+     * 用全部题目重建索引
+     */
+    public synchronized void rebuild(Collection<Question> questions) {
+        terms.clear();
+        latinTerms.clear();
+        latinGrams.clear();
+        docs.clear();
+        docNumbers.clear();
+        deleted = 0;
+        totalLength = 0;
+        
+        questions.stream()
+                .filter(q -> q.getId() != null && q.isActive())
+                .sorted(Comparator.comparing(Question::getId))
+                .forEach(this::append);
+    }
+    
+    /**
+     * 新增或更新一道题目；已停用的题目会被移出索引
+     */
+    public synchronized void put(Question question) {
+        if (question.getId() == null) {
+            return;
+        }
+        markDeleted(question.getId());
+        if (question.isActive()) {
+            append(question);
+        }
+        compactIfNeeded();
+    }
+    
+    /**
+     * 移除一道题目
+     */
+    public synchronized void remove(int questionId) {
+        markDeleted(questionId);
+        compactIfNeeded();
+    }
+    
+    private void append(Question question) {
+        int docNumber = docs.size();
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        Doc doc = new Doc(question, termFrequencies);
+        docs.add(doc);
+        docNumbers.put(question.getId(), docNumber);
+        totalLength += doc.length;
+        for (Map.Entry<String, Integer> e : termFrequencies.entrySet()) {
+            PostingList list = terms.get(e.getKey());
+            if (list == null) {
+                list = new PostingList();
+                terms.put(e.getKey(), list);
+                if (!isInternalOrCjk(e.getKey())) {
+                    addLatinTerm(e.getKey());
+                }
+            }
+            list.append(docNumber, e.getValue());
+        }
+    }
+    
+    private void addLatinTerm(String term) {
+        latinTerms.add(term);
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            List<String> list = latinGrams.computeIfAbsent(term.substring(i, i + GRAM), k -> new ArrayList<>(2));
+            // 同一个三元组在单词里重复出现时只登记一次（新词项总是追加在末尾）
+            if (list.isEmpty() || !list.get(list.size() - 1).equals(term)) {
+                list.add(term);
+            }
+        }
+    }
+    
+    private void markDeleted(int questionId) {
+        Integer docNumber = docNumbers.remove(questionId);
+        if (docNumber != null) {
+            totalLength -= docs.get(docNumber).length;
+            docs.set(docNumber, null);
+            deleted++;
+        }
+    }
+    
+    private void compactIfNeeded() {
+        if (deleted >= COMPACT_MIN_DELETED && deleted * 4 > docs.size()) {
+            List<Question> live = new ArrayList<>(docNumbers.size());
+            for (Doc doc : docs) {
+                if (doc != null) {
+                    live.add(doc.question);
+                }
+            }
+            rebuild(live);
+        }
+    }
+    
+    /**
+     * 检索题目，有关键词时按 BM25 相关度降序，否则按创建时间倒序
+     * 
+     * @param limit 最多返回条数，小于等于 0 表示不限
+     */
+    public synchronized List<Question> search(String keyword, QuestionType type, QuestionLevel level,
+                                              SpecializationType specialization, String category, int limit) {
+        String needle = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        String[] phrases = needle.isEmpty() ? new String[0] : needle.split("\\s+");
+        
+        List<DocIterator> required = new ArrayList<>();
+        List<DocIterator> scoring = new ArrayList<>();
+        for (Map.Entry<String, TermMatch> clause : queryClauses(phrases).entrySet()) {
+            DocIterator it = switch (clause.getValue()) {
+                case EXACT -> exactIterator(clause.getKey());
+                case PREFIX -> prefixIterator(clause.getKey());
+                case INFIX -> infixIterator(clause.getKey());
+            };
+            if (it == null) {
+                return List.of();
+            }
+            required.add(it);
+            scoring.add(it);
+        }
+        boolean verify = false;
+        for (String phrase : phrases) {
+            verify |= needsVerification(phrase);
+        }
+        
+        addFilter(required, type != null ? TYPE_TERM + type.name() : null);
+        addFilter(required, level != null ? LEVEL_TERM + level.name() : null);
+        addFilter(required, specialization != null && specialization != SpecializationType.NONE
+                ? SPEC_TERM + specialization.name() : null);
+        addFilter(required, category != null && !category.isEmpty() ? CATEGORY_TERM + category : null);
+        if (required.contains(null)) {
+            return List.of();
+        }
+        if (required.isEmpty()) {
+            PostingList all = terms.get(ALL_TERM);
+            if (all == null) {
+                return List.of();
+            }
+            required.add(all.cursor());
+        }
+        
+        // 文档频率包含尚未清理的已删除文档，对打分影响很小
+        int liveCount = docNumbers.size();
+        double[] idf = new double[scoring.size()];
+        for (int i = 0; i < idf.length; i++) {
+            int df = Math.min(scoring.get(i).cost(), liveCount);
+            idf[i] = Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+        }
+        double avgLength = liveCount == 0 ? 1 : (double) totalLength / liveCount;
+        
+        int capacity = limit > 0 ? limit : Integer.MAX_VALUE;
+        PriorityQueue<Hit> top = new PriorityQueue<>(Hit.WORST_FIRST);
+        required.sort(Comparator.comparingInt(DocIterator::cost));
+        DocIterator lead = required.get(0);
+        if (!lead.next()) {
+            return List.of();
+        }
+        int docId = lead.doc();
+        while (true) {
+            // 以最短的倒排表为主，其余倒排表跳到同一文档号；任一表跳过头说明主表需要追上
+            boolean match = true;
+            for (int i = 1; i < required.size(); i++) {
+                DocIterator other = required.get(i);
+                if (!other.advance(docId)) {
+                    return collect(top);
+                }
+                if (other.doc() > docId) {
+                    if (!lead.advance(other.doc())) {
+                        return collect(top);
+                    }
+                    docId = lead.doc();
+                    match = false;
+                    break;
+                }
+            }
+            if (!match) {
+                continue;
+            }
+            
+            Doc doc = docs.get(docId);
+            if (doc != null) {
+                double score = 0;
+                double norm = K1 * (1 - B + B * doc.length / avgLength);
+                for (int i = 0; i < idf.length; i++) {
+                    int tf = scoring.get(i).tf();
+                    score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                }
+                // 先打分，进不了前 limit 名的文档不必再做子串校验
+                Hit hit = new Hit(doc, score);
+                boolean full = top.size() >= capacity;
+                if ((!full || Hit.WORST_FIRST.compare(hit, top.peek()) > 0)
+                        && (!verify || doc.containsAll(phrases))) {
+                    if (full) {
+                        top.poll();
+                    }
+                    top.add(hit);
+                }
+            }
+            if (!lead.next()) {
+                return collect(top);
+            }
+            docId = lead.doc();
+        }
+    }
+    
+    public synchronized int size() {
+        return docNumbers.size();
+    }
+    
+    /**
+     * 词项数（含内部过滤词项）
+     */
+    public synchronized int termCount() {
+        return terms.size();
+    }
+    
+    /**
+     * 倒排表占用的字节数（估算）
+     */
+    public synchronized long postingBytes() {
+        long bytes = 0;
+        for (PostingList list : terms.values()) {
+            bytes += list.memoryBytes();
+        }
+        return bytes;
+    }
+    
+    /**
+     * 把关键词拆成必须命中的子句：词项 -> 匹配方式
+     * 中文按二元组、单个汉字按单字词项精确匹配；英文/数字词在关键词开头时可能是某个单词的一部分，
+     * 按包含匹配，前面紧挨着标点或汉字时一定是单词开头，按前缀匹配（边输入边检索时词往往不完整）。
+     * 同一词项出现多次时取最严格的匹配方式（前缀匹配蕴含包含匹配）。
+     */
+    private static Map<String, TermMatch> queryClauses(String[] phrases) {
+        Map<String, TermMatch> clauses = new LinkedHashMap<>();
+        for (String phrase : phrases) {
+            boolean first = true;
+            for (List<String> group : SearchTokenizer.tokenizeGroups(phrase)) {
+                TermMatch match;
+                if (SearchTokenizer.isCjk(group.get(0).charAt(0))) {
+                    match = TermMatch.EXACT;
+                } else {
+                    match = first && SearchTokenizer.isWordChar(phrase.charAt(0)) ? TermMatch.INFIX : TermMatch.PREFIX;
+                }
+                for (String token : group) {
+                    clauses.merge(token, match, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+                }
+                first = false;
+            }
+        }
+        return clauses;
+    }
+    
+    /**
+     * 单个词项的倒排表只能保证"出现"，以下情况还需要用原文校验子串：
+     * 中文词由多个二元组组成（需要相邻）、一个关键词包含多个片段或标点（如 "c++"、"b+树"）
+     */
+    private static boolean needsVerification(String phrase) {
+        if (SearchTokenizer.tokenize(phrase).size() != 1) {
+            return true;
+        }
+        for (int i = 0; i < phrase.length(); i++) {
+            if (!Character.isLetterOrDigit(phrase.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private DocIterator exactIterator(String term) {
+        PostingList list = terms.get(term);
+        return list == null ? null : list.cursor();
+    }
+    
+    private DocIterator prefixIterator(String prefix) {
+        List<PostingList> lists = new ArrayList<>();
+        for (String term : latinTerms.subSet(prefix, true, prefix + Character.MAX_VALUE, false)) {
+            lists.add(terms.get(term));
+        }
+        if (lists.isEmpty()) {
+            return null;
+        }
+        if (lists.size() == 1) {
+            return lists.get(0).cursor();
+        }
+        return ArrayDocIterator.union(lists);
+    }
+    
+    /**
+     * 包含指定片段的所有英文/数字词项的倒排表并集
+     * 片段不短于三个字符时先用词典的三元组索引缩小范围，否则逐个检查词典
+     */
+    private DocIterator infixIterator(String fragment) {
+        Iterable<String> candidates = latinTerms;
+        if (fragment.length() >= GRAM) {
+            List<String> shortest = null;
+            for (int i = 0; i + GRAM <= fragment.length(); i++) {
+                List<String> list = latinGrams.get(fragment.substring(i, i + GRAM));
+                if (list == null) {
+                    return null;
+                }
+                if (shortest == null || list.size() < shortest.size()) {
+                    shortest = list;
+                }
+            }
+            candidates = shortest;
+        }
+        List<PostingList> lists = new ArrayList<>();
+        for (String term : candidates) {
+            if (term.contains(fragment)) {
+                lists.add(terms.get(term));
+            }
+        }
+        if (lists.isEmpty()) {
+            return null;
+        }
+        if (lists.size() == 1) {
+            return lists.get(0).cursor();
+        }
+        return ArrayDocIterator.union(lists);
+    }
+    
+    private static boolean isInternalOrCjk(String term) {
+        char first = term.charAt(0);
+        return first == '\0' || SearchTokenizer.isCjk(first);
+    }
+    
+    private void addFilter(List<DocIterator> required, String term) {
+        if (term != null) {
+            required.add(exactIterator(term));
+        }
+    }
+    
+    private static List<Question> collect(PriorityQueue<Hit> top) {
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(Hit.WORST_FIRST.reversed());
+        List<Question> result = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            result.add(hit.doc.question);
+        }
+        return result;
+    }
+    
+    /**
+     * 已索引的题目：保留小写原文用于子串校验
+     */
+    private static final class Doc {
+        final Question question;
+        final String title;
+        final String content;
+        final String answer;
+        final int length;
+        final long createdKey;
+        
+        /**
+         * @param termFrequencies 输出参数，写入该题目的（加权）词频
+         */
+        Doc(Question q, Map<String, Integer> termFrequencies) {
+            this.question = q;
+            this.createdKey = q.getCreatedAt() == null ? Long.MIN_VALUE
+                    : q.getCreatedAt().toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + q.getCreatedAt().getNano();
+            this.title = lower(q.getTitle());
+            this.content = lower(q.getContent());
+            this.answer = lower(q.getAnswer());
+            
+            int len = addField(termFrequencies, q.getTitle(), TITLE_WEIGHT);
+            len += addField(termFrequencies, q.getContent(), 1);
+            len += addField(termFrequencies, q.getAnswer(), 1);
+            this.length = Math.max(1, len);
+            
+            termFrequencies.put(ALL_TERM, 1);
+            if (q.getType() != null) {
+                termFrequencies.put(TYPE_TERM + q.getType().name(), 1);
+            }
+            if (q.getLevel() != null) {
+                termFrequencies.put(LEVEL_TERM + q.getLevel().name(), 1);
+            }
+            if (q.getSpecialization() != null) {
+                termFrequencies.put(SPEC_TERM + q.getSpecialization().name(), 1);
+            }
+            if (q.getCategory() != null && !q.getCategory().isEmpty()) {
+                termFrequencies.put(CATEGORY_TERM + q.getCategory(), 1);
+            }
+        }
+        
+        /**
+         * 统计字段词频，返回加权后的词数
+         */
+        private static int addField(Map<String, Integer> termFrequencies, String text, int weight) {
+            if (text == null) {
+                return 0;
+            }
+            int len = 0;
+            for (String token : SearchTokenizer.tokenize(text)) {
+                // 单个汉字由下面的单字词项统一处理，避免重复计数
+                if (token.length() == 1 && SearchTokenizer.isCjk(token.charAt(0))) {
+                    continue;
+                }
+                termFrequencies.merge(token, weight, Integer::sum);
+                len += weight;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (SearchTokenizer.isCjk(c)) {
+                    termFrequencies.merge(String.valueOf(c), weight, Integer::sum);
+                }
+            }
+            return len;
+        }
+        
+        boolean containsAll(String[] phrases) {
+            for (String phrase : phrases) {
+                if (!title.contains(phrase) && !content.contains(phrase) && !answer.contains(phrase)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private static String lower(String s) {
+            return s == null ? "" : s.toLowerCase(Locale.ROOT);
+        }
+    }
+    
+    /**
+     * 查询词项的匹配方式，越靠前越严格
+     */
+    private enum TermMatch {
+        EXACT, PREFIX, INFIX
+    }
+    
+    private static final class Hit {
+        // 相关度低者在前（小顶堆堆顶为最差结果）；相同时创建时间早者在前
+        static final Comparator<Hit> WORST_FIRST = (a, b) -> {
+            int cmp = Double.compare(a.score, b.score);
+            if (cmp != 0) {
+                return cmp;
+            }
+            cmp = Long.compare(a.doc.createdKey, b.doc.createdKey);
+            return cmp != 0 ? cmp : Integer.compare(a.doc.question.getId(), b.doc.question.getId());
+        };
+        
+        final Doc doc;
+        final double score;
+        
+        Hit(Doc doc, double score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.interview.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash 签名
+ * 
+ * 文本先用 SearchTokenizer 分词（中文二元组、英文单词），相邻 SHINGLE_SIZE 个词组成一个片段（shingle），
+ * 片段哈希后经过 numHashes 个 "乘法-移位" 哈希函数，每个函数取最小值组成签名。
+ * 两个签名相同位置取值相同的比例是两段文本片段集合 Jaccard 相似度的无偏估计。
+ * 
+ * 哈希函数参数由固定种子生成，同一进程内和不同进程间签名可以直接比较。
+ */
+final class MinHash {
+    
+    static final int SHINGLE_SIZE = 2;
+    private static final long SEED = 0x5EED_D0C5L;
+    
+    private final long[] multipliers;
+    private final long[] addends;
+    
+    MinHash(int numHashes) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        multipliers = new long[numHashes];
+        addends = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            addends[i] = random.nextLong();
+        }
+    }
+    
+    int size() {
+        return multipliers.length;
+    }
+    
+    /**
+     * 计算文本的签名；没有任何片段的文本（空文本或全是标点）返回 null
+     */
+    int[] signature(CharSequence text) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[multipliers.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, tokens.size() - SHINGLE_SIZE + 1);
+        for (int start = 0; start < shingles; start++) {
+            long h = 0;
+            for (int j = start; j < Math.min(tokens.size(), start + SHINGLE_SIZE); j++) {
+                h = h * 31 + tokens.get(j).hashCode();
+            }
+            h = mix(h);
+            for (int i = 0; i < multipliers.length; i++) {
+                // 乘法-移位哈希取高 31 位，保证非负
+                int value = (int) ((multipliers[i] * h + addends[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+    
+    /**
+     * 两个签名估计的 Jaccard 相似度
+     */
+    static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / a.length;
+    }
+    
+    private static long mix(long h) {
+        // SplitMix64 终结函数，打散相近的片段哈希
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
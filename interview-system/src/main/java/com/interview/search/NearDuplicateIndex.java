@@ -0,0 +1,262 @@
+package com.interview.search;
+
+import com.interview.model.Question;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 近似重复题目索引（MinHash + LSH）
+ * 
+ * 每道题目的标题与正文计算 BANDS * ROWS 个 MinHash 值，签名切成 BANDS 段，
+ * 每段哈希后放入对应的桶；只要有一段完全相同就成为候选，再用完整签名估计相似度确认。
+ * 相似度为 s 的两道题成为候选的概率是 1 - (1 - s^ROWS)^BANDS，
+ * 取 10 段 * 6 行时阈值约为 0.68：s = 0.8 时约 95%，s = 0.9 时接近 100%，s = 0.5 时约 15%。
+ * 
+ * 查询只访问 BANDS 个桶，与题库规模基本无关；新增/修改/删除按题目增量维护。
+ */
+public class NearDuplicateIndex {
+    
+    static final int BANDS = 10;
+    static final int ROWS = 6;
+    
+    private final MinHash minHash = new MinHash(BANDS * ROWS);
+    private final double threshold;
+    
+    // 题目 id -> 签名
+    private final Map<Integer, int[]> signatures = new HashMap<>();
+    // (段号, 段哈希) -> 题目 id 列表
+    private final Map<Long, List<Integer>> buckets = new HashMap<>();
+    
+    /**
+     * @param threshold 判定为近似重复的最低相似度（0~1）
+     */
+    public NearDuplicateIndex(double threshold) {
+        this.threshold = threshold;
+    }
+    
+    public double getThreshold() {
+        return threshold;
+    }
+    
+    /**
+     * 用全部题目重建索引
+     */
+    public synchronized void rebuild(Collection<Question> questions) {
+        signatures.clear();
+        buckets.clear();
+        for (Question question : questions) {
+            if (question.getId() != null && question.isActive()) {
+                add(question.getId(), minHash.signature(textOf(question)));
+            }
+        }
+    }
+    
+    /**
+     * 新增或更新一道题目；已停用的题目会被移出索引
+     */
+    public synchronized void put(Question question) {
+        if (question.getId() == null) {
+            return;
+        }
+        remove(question.getId());
+        if (question.isActive()) {
+            add(question.getId(), minHash.signature(textOf(question)));
+        }
+    }
+    
+    public synchronized void remove(int questionId) {
+        int[] signature = signatures.remove(questionId);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(signature, band);
+            List<Integer> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(Integer.valueOf(questionId));
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+    
+    public synchronized int size() {
+        return signatures.size();
+    }
+    
+    /**
+     * 查找与给定题目近似重复的已有题目（不含自身），按相似度降序
+     */
+    public List<Match> findSimilar(Question question, int limit) {
+        int[] signature = minHash.signature(textOf(question));
+        if (signature == null) {
+            return List.of();
+        }
+        List<Match> matches = new ArrayList<>();
+        synchronized (this) {
+            Set<Integer> seen = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                List<Integer> bucket = buckets.get(bandKey(signature, band));
+                if (bucket == null) {
+                    continue;
+                }
+                for (int id : bucket) {
+                    if ((question.getId() == null || id != question.getId()) && seen.add(id)) {
+                        double similarity = MinHash.similarity(signature, signatures.get(id));
+                        if (similarity >= threshold) {
+                            matches.add(new Match(id, similarity));
+                        }
+                    }
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::getSimilarity).reversed());
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+    
+    /**
+     * 全库查重：把相互近似重复的题目合并成组（并查集），组内按 id 升序，组按大小降序
+     */
+    public synchronized List<DuplicateGroup> findGroups() {
+        Map<Integer, Integer> parent = new HashMap<>();
+        Map<Integer, Double> maxSimilarity = new HashMap<>();
+        Set<Long> checked = new HashSet<>();
+        for (List<Integer> bucket : buckets.values()) {
+            for (int i = 0; i < bucket.size(); i++) {
+                for (int j = i + 1; j < bucket.size(); j++) {
+                    int a = Math.min(bucket.get(i), bucket.get(j));
+                    int b = Math.max(bucket.get(i), bucket.get(j));
+                    // 同一对题目可能在多个段里相遇，只比较一次
+                    if (!checked.add(((long) a << 32) | (b & 0xFFFFFFFFL))) {
+                        continue;
+                    }
+                    double similarity = MinHash.similarity(signatures.get(a), signatures.get(b));
+                    if (similarity >= threshold) {
+                        union(parent, a, b);
+                        maxSimilarity.merge(a, similarity, Math::max);
+                        maxSimilarity.merge(b, similarity, Math::max);
+                    }
+                }
+            }
+        }
+        
+        Map<Integer, List<Integer>> members = new HashMap<>();
+        for (int id : parent.keySet()) {
+            members.computeIfAbsent(find(parent, id), k -> new ArrayList<>()).add(id);
+        }
+        List<DuplicateGroup> groups = new ArrayList<>();
+        for (List<Integer> ids : members.values()) {
+            ids.sort(Integer::compare);
+            double max = 0;
+            for (int id : ids) {
+                max = Math.max(max, maxSimilarity.getOrDefault(id, 0.0));
+            }
+            groups.add(new DuplicateGroup(ids, max));
+        }
+        groups.sort(Comparator.comparingInt((DuplicateGroup g) -> g.getQuestionIds().size()).reversed()
+                .thenComparing(g -> g.getQuestionIds().get(0)));
+        return groups;
+    }
+    
+    private void add(int id, int[] signature) {
+        if (signature == null) {
+            return;
+        }
+        signatures.put(id, signature);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(signature, band), k -> new ArrayList<>(2)).add(id);
+        }
+    }
+    
+    private static long bandKey(int[] signature, int band) {
+        long h = 1;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            h = h * 31 + signature[i];
+        }
+        // 高位放段号，避免不同段的相同取值落进同一个桶
+        return ((long) band << 56) ^ (h * 0x9E3779B97F4A7C15L >>> 8);
+    }
+    
+    private static String textOf(Question question) {
+        String title = question.getTitle() != null ? question.getTitle() : "";
+        String content = question.getContent() != null ? question.getContent() : "";
+        return title + "\n" + content;
+    }
+    
+    private static int find(Map<Integer, Integer> parent, int id) {
+        int root = id;
+        while (parent.getOrDefault(root, root) != root) {
+            root = parent.get(root);
+        }
+        // 路径压缩
+        while (id != root) {
+            int next = parent.get(id);
+            parent.put(id, root);
+            id = next;
+        }
+        return root;
+    }
+    
+    private static void union(Map<Integer, Integer> parent, int a, int b) {
+        parent.putIfAbsent(a, a);
+        parent.putIfAbsent(b, b);
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra != rb) {
+            parent.put(Math.max(ra, rb), Math.min(ra, rb));
+        }
+    }
+    
+    /**
+     * 近似重复的已有题目
+     */
+    public static class Match {
+        private final int questionId;
+        private final double similarity;
+        
+        Match(int questionId, double similarity) {
+            this.questionId = questionId;
+            this.similarity = similarity;
+        }
+        
+        public int getQuestionId() {
+            return questionId;
+        }
+        
+        /**
+         * 估计的 Jaccard 相似度（0~1）
+         */
+        public double getSimilarity() {
+            return similarity;
+        }
+    }
+    
+    /**
+     * 一组相互近似重复的题目
+     */
+    public static class DuplicateGroup {
+        private final List<Integer> questionIds;
+        private final double maxSimilarity;
+        
+        DuplicateGroup(List<Integer> questionIds, double maxSimilarity) {
+            this.questionIds = questionIds;
+            this.maxSimilarity = maxSimilarity;
+        }
+        
+        public List<Integer> getQuestionIds() {
+            return questionIds;
+        }
+        
+        public double getMaxSimilarity() {
+            return maxSimilarity;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.interview.search;
+
+import java.util.Arrays;
+
+/**
+ * 压缩倒排表
+ * 
+ * 按文档号升序保存 (文档号, 词频)，文档号存与前一项的差值，两者都用变长整数编码，
+ * 常见题库中每个倒排项只占 2~3 字节。每 BLOCK 项记录一个跳表点（前一项文档号 + 字节偏移），
+ * 求交集时可以按块跳过，不必逐项解码。
+ * 
+ * 只支持按文档号递增追加；删除和更新由 InMemoryQuestionIndex 用删除标记 + 定期重建处理。
+ * 非线程安全，由 InMemoryQuestionIndex 统一加锁。
+ */
+final class PostingList {
+    
+    static final int BLOCK = 64;
+    
+    private byte[] data = new byte[8];
+    private int length;
+    private int count;
+    private int lastDoc = -1;
+    
+    // 第 i 块第一项之前的文档号（解码基准）与该块的起始字节偏移
+    private int[] skipBases = new int[2];
+    private int[] skipOffsets = new int[2];
+    
+    int size() {
+        return count;
+    }
+    
+    /**
+     * 追加倒排项，文档号必须大于已有的最大文档号
+     */
+    void append(int doc, int tf) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("文档号必须递增: " + doc + " <= " + lastDoc);
+        }
+        if (count % BLOCK == 0) {
+            int block = count / BLOCK;
+            if (block == skipBases.length) {
+                skipBases = Arrays.copyOf(skipBases, block * 2);
+                skipOffsets = Arrays.copyOf(skipOffsets, block * 2);
+            }
+            skipBases[block] = lastDoc;
+            skipOffsets[block] = length;
+        }
+        writeVarInt(doc - lastDoc);
+        writeVarInt(tf);
+        lastDoc = doc;
+        count++;
+    }
+    
+    Cursor cursor() {
+        return new Cursor();
+    }
+    
+    int memoryBytes() {
+        return data.length + skipBases.length * 8;
+    }
+    
+    private void writeVarInt(int value) {
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+    
+    /**
+     * 倒排表游标
+     */
+    final class Cursor implements DocIterator {
+        
+        private int position;
+        private int index;
+        private int doc = -1;
+        private int tf;
+        
+        @Override
+        public int doc() {
+            return doc;
+        }
+        
+        @Override
+        public int tf() {
+            return tf;
+        }
+        
+        @Override
+        public int cost() {
+            return count;
+        }
+        
+        @Override
+        public boolean next() {
+            if (index >= count) {
+                doc = NO_MORE_DOCS;
+                return false;
+            }
+            doc += readVarInt();
+            tf = readVarInt();
+            index++;
+            return true;
+        }
+        
+        @Override
+        public boolean advance(int target) {
+            if (doc >= target) {
+                return doc != NO_MORE_DOCS;
+            }
+            // 找到最后一个基准小于 target 的块，且不能回退
+            int currentBlock = index / BLOCK;
+            int lo = currentBlock + 1;
+            int hi = (count - 1) / BLOCK;
+            int block = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (skipBases[mid] < target) {
+                    block = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            if (block >= 0) {
+                position = skipOffsets[block];
+                doc = skipBases[block];
+                index = block * BLOCK;
+            }
+            while (next()) {
+                if (doc >= target) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
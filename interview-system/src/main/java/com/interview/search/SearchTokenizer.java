@@ -0,0 +1,170 @@
+package com.interview.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 题库检索分词器
+ * 
+ * PostgreSQL 的 'simple' 配置按空白和标点切词，连续的中文会被当成一个整词，无法按子串检索。
+ * 这里在写入前自行分词：
+ * - 英文/数字：按连续字母数字切分并转小写（"HashMap" -> "hashmap"）
+ * - 中文：连续汉字按二元组切分（"数据库" -> "数据" "据库"），单个汉字保留为单字
+ * 
+ * 分词结果以空格连接后交给 to_tsvector('simple', ...)，相邻二元组位置连续，
+ * 查询时用短语运算符 <-> 连接，中文子串可以直接走 GIN 索引。
+ * 英文词项是整个单词，关键词里的英文可能只是某个单词的一部分（"SQL" 之于 "PostgreSQL"），
+ * 这类片段不能用词项过滤，见 toTsQuery；调用方需要再做一次子串校验才能得到与子串匹配一致的结果。
+ * 内存索引使用同一套分词。
+ */
+public final class SearchTokenizer {
+    
+    private SearchTokenizer() {
+    }
+    
+    /**
+     * 分词（文档和查询使用同一规则）
+     */
+    public static List<String> tokenize(CharSequence text) {
+        List<String> tokens = new ArrayList<>();
+        for (List<String> group : tokenizeGroups(text)) {
+            tokens.addAll(group);
+        }
+        return tokens;
+    }
+    
+    /**
+     * 按连续片段分组的分词结果，同一组内的词在原文中相邻（用于构造短语查询）
+     */
+    public static List<List<String>> tokenizeGroups(CharSequence text) {
+        List<List<String>> groups = new ArrayList<>();
+        if (text == null) {
+            return groups;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isCjk(c)) {
+                int start = i;
+                while (i < length && isCjk(text.charAt(i))) {
+                    i++;
+                }
+                groups.add(cjkBigrams(text, start, i));
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < length && isWordChar(text.charAt(i))) {
+                    i++;
+                }
+                groups.add(List.of(text.subSequence(start, i).toString().toLowerCase(Locale.ROOT)));
+            } else {
+                i++;
+            }
+        }
+        return groups;
+    }
+    
+    /**
+     * 生成写入 to_tsvector('simple', ?) 的文本
+     */
+    public static String toDocumentText(CharSequence text) {
+        return String.join(" ", tokenize(text));
+    }
+    
+    /**
+     * 生成 to_tsquery('simple', ?) 过滤条件：中文组内用 <-> 连接（短语），各部分之间用 & 连接
+     * 
+     * 关键词按空白拆成多个子串分别匹配，英文词只有紧挨着标点或汉字的一侧才能确定是单词边界：
+     * - 两侧都有边界（"哈希map表" 中的 "map"）：整词匹配
+     * - 只有左侧有边界（"哈希map"、"#sql"）：前缀匹配 word:*
+     * - 左侧没有边界（"SQL" 可能是 "PostgreSQL" 的一部分，"Java基础" 中的 "java" 同理）：
+     *   无法用词项表达，不写入过滤条件
+     * 单个汉字在文档中只会出现在二元组里，同样不写入。未写入的部分由调用方的子串匹配判定。
+     * 
+     * @return 没有可用于过滤的部分时返回 null，调用方应改用子串匹配
+     */
+    public static String toTsQuery(CharSequence keyword) {
+        return buildTsQuery(keyword, false);
+    }
+    
+    /**
+     * 生成只用于排序的 to_tsquery：与 toTsQuery 相同，但左侧没有边界的英文片段也按前缀写入，
+     * 整词或前缀命中的题目排在只在单词中间命中的题目前面
+     * 
+     * @return 没有可排序的部分（如只有单个汉字）时返回 null
+     */
+    public static String toRankQuery(CharSequence keyword) {
+        return buildTsQuery(keyword, true);
+    }
+    
+    private static String buildTsQuery(CharSequence keyword, boolean rankOnly) {
+        if (keyword == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        int length = keyword.length();
+        int i = 0;
+        while (i < length) {
+            char c = keyword.charAt(i);
+            int start = i;
+            String part = null;
+            if (isCjk(c)) {
+                while (i < length && isCjk(keyword.charAt(i))) {
+                    i++;
+                }
+                if (i - start > 1) {
+                    List<String> bigrams = cjkBigrams(keyword, start, i);
+                    part = bigrams.size() > 1 ? "(" + String.join(" <-> ", bigrams) + ")" : bigrams.get(0);
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                while (i < length && isWordChar(keyword.charAt(i))) {
+                    i++;
+                }
+                String word = keyword.subSequence(start, i).toString().toLowerCase(Locale.ROOT);
+                // 相邻的非空白字符必然不是字母数字，文档在同一位置也会断词
+                boolean leftBound = start > 0 && !Character.isWhitespace(keyword.charAt(start - 1));
+                boolean rightBound = i < length && !Character.isWhitespace(keyword.charAt(i));
+                if (leftBound && rightBound) {
+                    part = word;
+                } else if (leftBound || rankOnly) {
+                    part = word + ":*";
+                }
+            } else {
+                i++;
+            }
+            if (part != null) {
+                if (sb.length() > 0) {
+                    sb.append(" & ");
+                }
+                sb.append(part);
+            }
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+    
+    private static List<String> cjkBigrams(CharSequence text, int start, int end) {
+        if (end - start == 1) {
+            return List.of(String.valueOf(text.charAt(start)));
+        }
+        List<String> bigrams = new ArrayList<>(end - start - 1);
+        for (int i = start; i + 1 < end; i++) {
+            bigrams.add(text.subSequence(i, i + 2).toString());
+        }
+        return bigrams;
+    }
+    
+    /**
+     * 是否为英文/数字词的组成字符（字母数字但不是汉字）
+     */
+    public static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) && !isCjk(c);
+    }
+    
+    /**
+     * 是否为中日韩统一表意文字
+     */
+    public static boolean isCjk(char c) {
+        return (c >= '一' && c <= '鿿') || (c >= '㐀' && c <= '䶿') || (c >= '豈' && c <= '﫿');
+    }
+}
@@ -2,6 +2,8 @@ package com.interview.service;
 
 import com.interview.config.DatabaseConfig.DbUserRole;
 import com.interview.dao.UserDao;
+import com.interview.log.Log;
+import com.interview.log.Logger;
 import com.interview.model.Permission;
 import com.interview.model.Role;
 import com.interview.model.User;
@@ -17,6 +19,8 @@ import java.sql.SQLException;
  */
 public class AuthService {
     
+    private static final Logger log = Log.get(AuthService.class);
+    
     private final UserDao userDao;
     private User currentUser;  // 当前登录用户
     
@@ -122,7 +126,7 @@ public class AuthService {
             DbUserRole dbRole = DbUserRole.fromAppRole(user.getRole());
             DatabaseConnection.setCurrentDbRole(dbRole);
             
-            System.out.println("用户 " + username + " 登录成功，使用数据库角色: " + dbRole.getDisplayName());
+            log.info("用户 {} 登录成功，使用数据库角色: {}", username, dbRole.getDisplayName());
             
             return "登录成功";
             
@@ -137,7 +141,7 @@ public class AuthService {
      */
     public void logout() {
         if (currentUser != null) {
-            System.out.println("用户 " + currentUser.getUsername() + " 登出");
+            log.info("用户 {} 登出", currentUser.getUsername());
         }
         this.currentUser = null;
         // 关闭当前连接并清除角色设置
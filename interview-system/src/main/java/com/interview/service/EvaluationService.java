@@ -1,6 +1,13 @@
 package com.interview.service;
 
+import com.interview.config.AppConfig;
 import com.interview.dao.EvaluationScoreDao;
+import com.interview.dao.Page;
+import com.interview.jfr.ReportEvent;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+import com.interview.metrics.MetricsRegistry;
+import com.interview.metrics.Timer;
 import com.interview.model.*;
 
 import java.sql.SQLException;
@@ -13,6 +20,11 @@ import java.util.Map;
  */
 public class EvaluationService {
     
+    private static final Logger log = Log.get(EvaluationService.class);
+    
+    private static final Timer REPORT_TIMER = MetricsRegistry.global().timer(
+            "report_generate_seconds", "评测报告生成耗时（读取评分并汇总）");
+    
     private final EvaluationScoreDao scoreDao;
     private final AIAnalysisService aiService;
     private final AuthService authService;
@@ -87,7 +99,7 @@ public class EvaluationService {
      */
     public boolean saveScore(InterviewRecord record, Map<EvaluationDimension, Double> scores, String comments, String reasoning) {
         if (record == null) {
-            System.err.println("[EvaluationService] 面试记录为空，无法保存评分");
+            log.warn("面试记录为空，无法保存评分");
             return false;
         }
         
@@ -144,11 +156,25 @@ public class EvaluationService {
         try {
             return scoreDao.findByInterviewRecordId(interviewRecordId);
         } catch (SQLException e) {
-            System.err.println("获取评分失败: " + e.getMessage());
+            log.error("获取评分失败: {}", e.getMessage());
             return List.of();
         }
     }
     
+    /**
+     * 分页获取考生的评分，按评分时间倒序，每页行数由 list.page.size 配置
+     * 
+     * @param after 上一页返回的游标，首页为 null
+     */
+    public Page<EvaluationScore> getScorePageByCandidate(String candidateUsername, Page.Cursor after) {
+        try {
+            return scoreDao.findPageByCandidate(candidateUsername, after, AppConfig.getInt("list.page.size", 100));
+        } catch (SQLException e) {
+            log.error("获取评分失败: {}", e.getMessage());
+            return Page.empty();
+        }
+    }
+    
     /**
      * 获取面试记录的评委评分
      */
@@ -156,7 +182,7 @@ public class EvaluationService {
         try {
             return scoreDao.findHumanScoreByInterview(interviewRecordId);
         } catch (SQLException e) {
-            System.err.println("获取评委评分失败: " + e.getMessage());
+            log.error("获取评委评分失败: {}", e.getMessage());
             return null;
         }
     }
@@ -168,7 +194,7 @@ public class EvaluationService {
         try {
             return scoreDao.findAIScoreByInterview(interviewRecordId);
         } catch (SQLException e) {
-            System.err.println("获取AI评分失败: " + e.getMessage());
+            log.error("获取AI评分失败: {}", e.getMessage());
             return null;
         }
     }
@@ -177,15 +203,30 @@ public class EvaluationService {
      * 生成综合评测报告
      */
     public EvaluationReport generateReport(int interviewRecordId, InterviewRecord record) {
-        EvaluationScore humanScore = getHumanScore(interviewRecordId);
-        EvaluationScore aiScore = getAIScore(interviewRecordId);
-        
-        // 至少需要一种评分
-        if (humanScore == null && aiScore == null) {
-            return null;
+        long start = System.nanoTime();
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        EvaluationReport report = null;
+        try {
+            EvaluationScore humanScore = getHumanScore(interviewRecordId);
+            EvaluationScore aiScore = getAIScore(interviewRecordId);
+            
+            // 至少需要一种评分
+            if (humanScore == null && aiScore == null) {
+                return null;
+            }
+            
+            report = aiService.generateReport(humanScore, aiScore, record);
+            return report;
+        } finally {
+            REPORT_TIMER.recordSince(start);
+            if (event.shouldCommit()) {
+                event.kind = "评测报告";
+                event.recordId = interviewRecordId;
+                event.generated = report != null;
+                event.commit();
+            }
         }
-        
-        return aiService.generateReport(humanScore, aiScore, record);
     }
     
     /**
@@ -0,0 +1,62 @@
+package com.interview.service;
+
+import com.interview.config.AppConfig;
+import com.interview.dao.ExportDao;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+import com.interview.transfer.DataExporter;
+import com.interview.transfer.ExportDataset;
+import com.interview.transfer.ExportFormat;
+import com.interview.transfer.ExportResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.function.LongConsumer;
+
+/**
+ * 数据导出服务类
+ * 题目需要 QUESTION_READ 权限，面试记录和评分需要 VIEW_RECORDS 权限
+ */
+public class ExportService {
+    
+    private static final Logger log = Log.get(ExportService.class);
+    
+    private final AuthService authService;
+    private final ExportDao exportDao;
+    
+    public ExportService(AuthService authService) {
+        this.authService = authService;
+        this.exportDao = new ExportDao(AppConfig.getInt("export.fetch.size", 1000));
+    }
+    
+    /**
+     * 当前用户是否可以导出该数据集
+     */
+    public boolean canExport(ExportDataset dataset) {
+        return authService.hasPermission(dataset.getRequiredPermission());
+    }
+    
+    /**
+     * 导出数据集到文件（耗时操作，应在后台线程调用）
+     * 
+     * @param progress 进度回调（已导出行数），可为 null
+     * @return 导出结果摘要
+     */
+    public String export(ExportDataset dataset, ExportFormat format, File file, LongConsumer progress) {
+        if (!canExport(dataset)) {
+            return "权限不足，无法导出" + dataset.getDisplayName();
+        }
+        
+        DataExporter exporter = new DataExporter(exportDao);
+        exporter.setBufferSize(AppConfig.getInt("export.buffer.kb", 256) * 1024);
+        exporter.setProgressListener(progress);
+        try {
+            ExportResult result = exporter.export(dataset, format, file.toPath());
+            return result.describe();
+        } catch (IOException | SQLException e) {
+            log.error("导出{}失败: {}", dataset.getDisplayName(), e.getMessage());
+            return "导出失败: " + e.getMessage();
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.interview.service;
 
+import com.interview.jfr.AsrSegmentEvent;
+import com.interview.jfr.ReportEvent;
+import com.interview.log.Log;
+import com.interview.log.Logger;
 import com.interview.model.*;
 import com.interview.util.AudioRecorder;
+import com.interview.util.TextRefiner;
 import org.json.JSONObject;
 
 import java.io.File;
@@ -15,10 +20,13 @@ import java.util.concurrent.CompletableFuture;
  */
 public class InterviewControlService {
     
+    private static final Logger log = Log.get(InterviewControlService.class);
+    
     private final InterviewRecordService recordService;
     private final EvaluationService evaluationService;
     private final LLMManager llmManager;
     private final AudioRecorder audioRecorder;
+    private final TextRefiner textRefiner;
     
     private InterviewRecord currentRecord;
     private File currentAudioFile;
@@ -28,6 +36,7 @@ public class InterviewControlService {
         this.evaluationService = new EvaluationService(authService);
         this.llmManager = new LLMManager();
         this.audioRecorder = new AudioRecorder();
+        this.textRefiner = TextRefiner.fromConfig();
     }
     
     /**
@@ -131,6 +140,8 @@ public class InterviewControlService {
         CompletableFuture.runAsync(() -> {
             try {
                 // 步骤1: 语音识别
+                AsrSegmentEvent asrEvent = new AsrSegmentEvent();
+                asrEvent.begin();
                 callback.onStatusUpdate("正在进行语音识别...");
                 String transcribedText = simulateSpeechRecognition();
                 currentRecord.setTranscribedText(transcribedText);
@@ -139,10 +150,25 @@ public class InterviewControlService {
                 callback.onStatusUpdate("正在精修文本...");
                 String refinedText = refineText(transcribedText);
                 currentRecord.setRefinedText(refinedText);
+                if (asrEvent.shouldCommit()) {
+                    asrEvent.recordId = recordIdOf(currentRecord);
+                    asrEvent.audioBytes = currentAudioFile != null ? currentAudioFile.length() : 0;
+                    asrEvent.rawChars = transcribedText.length();
+                    asrEvent.refinedChars = refinedText.length();
+                    asrEvent.commit();
+                }
                 
                 // 步骤3: AI分析
                 callback.onStatusUpdate("正在进行AI分析...");
+                ReportEvent reportEvent = new ReportEvent();
+                reportEvent.begin();
                 String aiResult = performAIAnalysis(refinedText);
+                if (reportEvent.shouldCommit()) {
+                    reportEvent.kind = "AI 分析";
+                    reportEvent.recordId = recordIdOf(currentRecord);
+                    reportEvent.generated = aiResult != null;
+                    reportEvent.commit();
+                }
                 currentRecord.setAiAnalysisResult(aiResult);
                 currentRecord.setAiAnalysisTime(LocalDateTime.now());
                 
@@ -154,6 +180,13 @@ public class InterviewControlService {
         });
     }
     
+    /**
+     * 面试记录 ID，尚未保存时为 0
+     */
+    private static int recordIdOf(InterviewRecord record) {
+        return record.getId() != null ? record.getId() : 0;
+    }
+    
     /**
      * 模拟语音识别（实际应调用语音识别API）
      */
@@ -169,14 +202,10 @@ public class InterviewControlService {
     
     /**
      * 文本精修
+     * 一次扫描去除语气词并折叠口吃式重复，词典可在 config.properties 中扩展
      */
     private String refineText(String rawText) {
-        // TODO: 调用文本精修服务或本地处理
-        // 去除语气词、修正语法等
-        return rawText.replace("嗯", "")
-                     .replace("啊", "")
-                     .replace("那个", "")
-                     .trim();
+        return textRefiner.refine(rawText);
     }
     
     /**
@@ -231,7 +260,7 @@ public class InterviewControlService {
             // evaluationService.saveAIScore(aiScore);
             
         } catch (Exception e) {
-            System.err.println("保存AI评分失败: " + e.getMessage());
+            log.error("保存AI评分失败: {}", e.getMessage());
         }
     }
     
@@ -1,15 +1,31 @@
 package com.interview.service;
 
+import com.interview.config.AppConfig;
 import com.interview.dao.InterviewRecordDao;
+import com.interview.dao.Page;
+import com.interview.log.Log;
+import com.interview.log.Logger;
 import com.interview.model.InterviewRecord;
 import com.interview.model.InterviewRecord.InterviewStatus;
+import com.interview.model.InterviewRecordSummary;
 import com.interview.model.Permission;
 import com.interview.model.Role;
 import com.interview.model.User;
+import com.interview.storage.VoiceStore;
+import com.interview.storage.VoiceTierManager;
+import com.interview.storage.WaveformIndex;
+import com.interview.storage.WaveformIndexer;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 
 /**
  * 面试记录服务类
@@ -17,15 +33,27 @@ import java.util.List;
  */
 public class InterviewRecordService {
     
+    private static final Logger log = Log.get(InterviewRecordService.class);
+    
     private final InterviewRecordDao recordDao;
     private final AuthService authService;
+    private final VoiceStore voiceStore;
+    private final VoiceTierManager tierManager;
     
     // 语音文件存储目录
     private static final String VOICE_STORAGE_DIR = "voice_records";
     
+    // 录音访问时间的刷新间隔：归档按天判断冷热，每条记录每天最多写一次
+    private static final Duration VOICE_TOUCH_INTERVAL = Duration.ofDays(1);
+    
+    // 本进程内最近刷新过访问时间的记录：记录ID -> 刷新时刻（毫秒），间隔内的读取不再访问数据库
+    private static final Map<Integer, Long> VOICE_TOUCHED_AT = new ConcurrentHashMap<>();
+    
     public InterviewRecordService(AuthService authService) {
         this.recordDao = new InterviewRecordDao();
         this.authService = authService;
+        this.voiceStore = new VoiceStore(VOICE_STORAGE_DIR);
+        this.tierManager = VoiceTierManager.fromConfig(voiceStore, recordDao);
         
         // 确保存储目录存在
         createStorageDirectory();
@@ -96,11 +124,86 @@ public class InterviewRecordService {
         try {
             return recordDao.findAll();
         } catch (SQLException e) {
-            System.err.println("获取面试记录失败: " + e.getMessage());
+            log.error("获取面试记录失败: {}", e.getMessage());
             return List.of();
         }
     }
     
+    /**
+     * 分页获取所有面试记录摘要，按创建时间倒序，每页行数由 list.page.size 配置
+     * 完整记录用 getRecordDetail 按需加载
+     * 需要 VIEW_RECORDS 权限
+     * 
+     * @param after 上一页返回的游标，首页为 null
+     */
+    public Page<InterviewRecordSummary> getRecordPage(Page.Cursor after) {
+        if (!authService.hasPermission(Permission.VIEW_RECORDS)) {
+            return Page.empty();
+        }
+        
+        try {
+            return recordDao.findSummaryPage(null, after, AppConfig.getInt("list.page.size", 100));
+        } catch (SQLException e) {
+            log.error("获取面试记录失败: {}", e.getMessage());
+            return Page.empty();
+        }
+    }
+    
+    /**
+     * 分页获取当前考生的面试记录摘要
+     * 需要 VIEW_OWN_RECORDS 权限
+     * 
+     * @param after 上一页返回的游标，首页为 null
+     */
+    public Page<InterviewRecordSummary> getMyRecordPage(Page.Cursor after) {
+        if (!authService.hasPermission(Permission.VIEW_OWN_RECORDS)) {
+            return Page.empty();
+        }
+        
+        User currentUser = authService.getCurrentUser();
+        if (currentUser == null) {
+            return Page.empty();
+        }
+        
+        try {
+            return recordDao.findSummaryPage(currentUser.getUsername(), after, AppConfig.getInt("list.page.size", 100));
+        } catch (SQLException e) {
+            log.error("获取面试记录失败: {}", e.getMessage());
+            return Page.empty();
+        }
+    }
+    
+    /**
+     * 获取完整的面试记录（列表选中时加载）
+     * 需要 VIEW_RECORDS 权限，考生只能查看自己的记录
+     * 
+     * @return 记录，无权限或不存在时返回 null
+     */
+    public InterviewRecord getRecordDetail(int recordId) {
+        User currentUser = authService.getCurrentUser();
+        if (currentUser == null) {
+            return null;
+        }
+        
+        try {
+            InterviewRecord record = recordDao.findById(recordId);
+            if (record == null) {
+                return null;
+            }
+            if (authService.hasPermission(Permission.VIEW_RECORDS)) {
+                return record;
+            }
+            if (authService.hasPermission(Permission.VIEW_OWN_RECORDS)
+                    && currentUser.getUsername().equals(record.getCandidateUsername())) {
+                return record;
+            }
+            return null;
+        } catch (SQLException e) {
+            log.error("获取面试记录失败: {}", e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * 获取当前考生的面试记录
      * 需要 VIEW_OWN_RECORDS 权限
@@ -118,7 +221,7 @@ public class InterviewRecordService {
         try {
             return recordDao.findByCandidate(currentUser.getUsername());
         } catch (SQLException e) {
-            System.err.println("获取面试记录失败: " + e.getMessage());
+            log.error("获取面试记录失败: {}", e.getMessage());
             return List.of();
         }
     }
@@ -135,7 +238,7 @@ public class InterviewRecordService {
         try {
             return recordDao.findByCandidate(candidateUsername);
         } catch (SQLException e) {
-            System.err.println("获取面试记录失败: " + e.getMessage());
+            log.error("获取面试记录失败: {}", e.getMessage());
             return List.of();
         }
     }
@@ -233,36 +336,37 @@ public class InterviewRecordService {
                 return "只能上传语音到自己的面试记录";
             }
             
-            // 生成存储文件名: candidate_recordId_timestamp.ext
+            // 边复制边计算 SHA-256，按内容寻址存储，相同内容只保存一份
             String originalName = sourceFile.getName();
-            String extension = "";
-            int dotIndex = originalName.lastIndexOf('.');
-            if (dotIndex > 0) {
-                extension = originalName.substring(dotIndex);
-            }
+            VoiceStore.StoredVoice stored = voiceStore.store(sourceFile);
             
-            String storageFileName = String.format("%s_%d_%d%s",
-                    record.getCandidateUsername(),
-                    recordId,
-                    System.currentTimeMillis(),
-                    extension);
-            
-            File destFile = new File(VOICE_STORAGE_DIR, storageFileName);
-            
-            // 复制文件到存储目录
-            java.nio.file.Files.copy(
-                sourceFile.toPath(),
-                destFile.toPath(),
-                java.nio.file.StandardCopyOption.REPLACE_EXISTING
-            );
+            // 登记引用与其他记录释放同一内容互斥
+            boolean updated;
+            Lock lock = VoiceStore.lockFor(stored.getHash());
+            lock.lock();
+            try {
+                if (!stored.getFile().exists()) {
+                    // 去重命中的文件在登记前被释放（最后一个引用被删除或重新上传），重新存入
+                    stored = voiceStore.store(sourceFile);
+                }
+                File destFile = stored.getFile();
+                
+                // 更新数据库记录（大小取实际写入的字节数）
+                updated = recordDao.updateVoiceFile(recordId, destFile.getAbsolutePath(),
+                                                    originalName, stored.getSize(), stored.getHash());
+                // 删除新写入且无人引用的文件
+                if (!updated && !stored.isDeduplicated()
+                        && recordDao.countOtherVoiceReferences(stored.getHash(), recordId) == 0) {
+                    voiceStore.delete(destFile);
+                }
+            } finally {
+                lock.unlock();
+            }
             
-            // 更新数据库记录
-            if (recordDao.updateVoiceFile(recordId, destFile.getAbsolutePath(), 
-                                           originalName, destFile.length())) {
-                return "语音文件上传成功";
+            if (updated) {
+                releasePreviousVoiceFile(record, stored.getHash());
+                return stored.isDeduplicated() ? "语音文件上传成功（内容已存在，已去重）" : "语音文件上传成功";
             } else {
-                // 删除已复制的文件
-                destFile.delete();
                 return "语音文件保存失败";
             }
             
@@ -271,6 +375,43 @@ public class InterviewRecordService {
         }
     }
     
+    /**
+     * 重新上传后释放旧的语音文件（无其他记录引用时才删除）
+     */
+    private void releasePreviousVoiceFile(InterviewRecord previous, String newHash) {
+        if (previous.getVoiceFilePath() == null || newHash.equals(previous.getVoiceFileHash())) {
+            return;
+        }
+        try {
+            releaseVoiceFile(new File(previous.getVoiceFilePath()), previous.getVoiceFileHash(), previous.getId());
+        } catch (SQLException | IOException e) {
+            log.error("清理旧语音文件失败: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 没有其他记录引用该内容时删除热层文件和冷层副本
+     * 检查与删除在内容哈希的锁内完成，同一内容的并发上传会在登记前发现文件已删除并重新存入
+     * 
+     * @param hash 内容哈希，旧记录没有哈希时直接删除
+     */
+    private void releaseVoiceFile(File file, String hash, int recordId) throws SQLException, IOException {
+        if (hash == null) {
+            voiceStore.delete(file);
+            return;
+        }
+        Lock lock = VoiceStore.lockFor(hash);
+        lock.lock();
+        try {
+            if (recordDao.countOtherVoiceReferences(hash, recordId) == 0) {
+                voiceStore.delete(file);
+                tierManager.deleteCold(hash, file.getName());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
     /**
      * 获取语音文件
      * 
@@ -279,39 +420,155 @@ public class InterviewRecordService {
      */
     public File getVoiceFile(int recordId) {
         try {
-            InterviewRecord record = recordDao.findById(recordId);
-            if (record == null || record.getVoiceFilePath() == null) {
+            InterviewRecord record = findVoiceRecord(recordId);
+            if (record == null) {
                 return null;
             }
             
-            // 检查权限
-            User currentUser = authService.getCurrentUser();
-            if (currentUser == null) {
-                return null;
+            File voiceFile = new File(record.getVoiceFilePath());
+            if (!voiceFile.exists()) {
+                // 已归档到冷层的录音解压回热层后再返回
+                if (record.getVoiceFileHash() == null) {
+                    return null;
+                }
+                voiceFile = tierManager.rehydrate(record.getVoiceFileHash(), voiceFile.getName());
+                if (voiceFile == null) {
+                    return null;
+                }
             }
             
-            // 考生只能访问自己的语音
-            if (currentUser.getRole() == Role.CANDIDATE && 
-                !currentUser.getUsername().equals(record.getCandidateUsername())) {
+            // 内容寻址存储的文件在读取前校验完整性（旧记录没有哈希，直接返回）
+            if (record.getVoiceFileHash() != null 
+                    && !voiceStore.verify(voiceFile, record.getVoiceFileHash())) {
+                log.warn("语音文件校验失败，内容可能已损坏: {}", voiceFile.getAbsolutePath());
                 return null;
             }
-            
-            // 其他角色可以查看所有记录
-            if (!authService.hasPermission(Permission.VIEW_RECORDS) && 
-                !authService.hasPermission(Permission.VIEW_OWN_RECORDS)) {
+            touchVoiceAccess(recordId);
+            return voiceFile;
+        
+        } catch (SQLException | IOException e) {
+            log.error("获取语音文件失败: {}", e.getMessage());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * 获取录音波形索引
+     * 优先读取旁路文件（冷层录音也保留了索引，无需恢复）；缺失时从热层 WAV 补建
+     * 
+     * @param recordId 面试记录ID
+     * @return 波形索引，无权限、非 WAV 或录音不可用时返回 null
+     */
+    public WaveformIndex getWaveform(int recordId) {
+        try {
+            InterviewRecord record = findVoiceRecord(recordId);
+            if (record == null) {
                 return null;
             }
             
             File voiceFile = new File(record.getVoiceFilePath());
-            if (voiceFile.exists()) {
-                return voiceFile;
+            WaveformIndex index = WaveformIndex.read(WaveformIndex.sidecarFor(voiceFile));
+            if (index != null || !voiceFile.exists()) {
+                return index;
             }
             
+            new WaveformIndexer(null).ensureIndexed(voiceFile);
+            return WaveformIndex.read(WaveformIndex.sidecarFor(voiceFile));
+        } catch (SQLException | IOException e) {
+            log.error("获取波形索引失败: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+    
+    /**
+     * 刷新录音的最近访问时间，避免经常播放的录音被归档任务下沉到冷层
+     * 按 VOICE_TOUCH_INTERVAL 节流，刷新失败不影响读取
+     */
+    private void touchVoiceAccess(int recordId) {
+        long now = System.currentTimeMillis();
+        Long last = VOICE_TOUCHED_AT.get(recordId);
+        if (last != null && now - last < VOICE_TOUCH_INTERVAL.toMillis()) {
+            return;
+        }
+        VOICE_TOUCHED_AT.put(recordId, now);
+        try {
+            recordDao.touchVoiceAccess(recordId, VOICE_TOUCH_INTERVAL);
         } catch (SQLException e) {
-            System.err.println("获取语音文件失败: " + e.getMessage());
+            log.error("刷新录音访问时间失败: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 查找有语音文件且当前用户有权访问的记录
+     * 考生只能访问自己的语音，其他角色需要 VIEW_RECORDS 或 VIEW_OWN_RECORDS 权限
+     */
+    private InterviewRecord findVoiceRecord(int recordId) throws SQLException {
+        InterviewRecord record = recordDao.findById(recordId);
+        if (record == null || record.getVoiceFilePath() == null) {
+            return null;
         }
         
-        return null;
+        User currentUser = authService.getCurrentUser();
+        if (currentUser == null) {
+            return null;
+        }
+        
+        if (currentUser.getRole() == Role.CANDIDATE && 
+            !currentUser.getUsername().equals(record.getCandidateUsername())) {
+            return null;
+        }
+        
+        if (!authService.hasPermission(Permission.VIEW_RECORDS) && 
+            !authService.hasPermission(Permission.VIEW_OWN_RECORDS)) {
+            return null;
+        }
+        return record;
+    }
+    
+    /**
+     * 导出语音片段用于播放（只读取指定时间区间，不复制整个录音）
+     * 
+     * @param recordId 面试记录ID
+     * @param startSeconds 起始秒
+     * @param durationSeconds 时长（秒）
+     * @return 可直接播放的临时 WAV 文件，无权限或文件不存在时返回 null
+     */
+    public File exportVoiceSegment(int recordId, double startSeconds, double durationSeconds) {
+        File voiceFile = getVoiceFile(recordId);
+        if (voiceFile == null) {
+            return null;
+        }
+        
+        try {
+            File segment = File.createTempFile("voice_" + recordId + "_", ".wav");
+            segment.deleteOnExit();
+            try (FileChannel out = FileChannel.open(segment.toPath(), StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                voiceStore.exportSegment(voiceFile, startSeconds, durationSeconds, out);
+            }
+            return segment;
+        } catch (IOException e) {
+            log.error("导出语音片段失败: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 获取语音时长（秒），只读取 WAV 头
+     */
+    public double getVoiceDurationSeconds(int recordId) {
+        File voiceFile = getVoiceFile(recordId);
+        if (voiceFile == null) {
+            return 0;
+        }
+        try {
+            return voiceStore.readWavInfo(voiceFile).getDurationSeconds();
+        } catch (IOException e) {
+            return 0;
+        }
     }
     
     /**
@@ -329,11 +586,12 @@ public class InterviewRecordService {
                 return "面试记录不存在";
             }
             
-            // 删除关联的语音文件
+            // 删除关联的语音文件（去重存储的内容仍被其他记录引用时保留）
             if (record.getVoiceFilePath() != null) {
-                File voiceFile = new File(record.getVoiceFilePath());
-                if (voiceFile.exists()) {
-                    voiceFile.delete();
+                try {
+                    releaseVoiceFile(new File(record.getVoiceFilePath()), record.getVoiceFileHash(), recordId);
+                } catch (IOException e) {
+                    log.error("删除语音文件失败: {}", e.getMessage());
                 }
             }
             
@@ -1,6 +1,8 @@
 package com.interview.service;
 
 import com.interview.dao.LLMConfigDao;
+import com.interview.log.Log;
+import com.interview.log.Logger;
 import com.interview.model.LLMConfig;
 
 import java.sql.SQLException;
@@ -12,6 +14,8 @@ import java.util.List;
  */
 public class LLMConfigService {
     
+    private static final Logger log = Log.get(LLMConfigService.class);
+    
     private final LLMConfigDao configDao;
     private LLMConfig currentConfig;
     
@@ -28,7 +32,7 @@ public class LLMConfigService {
         try {
             currentConfig = configDao.findDefault();
         } catch (SQLException e) {
-            System.err.println("加载默认配置失败: " + e.getMessage());
+            log.error("加载默认配置失败: {}", e.getMessage());
         }
     }
     
@@ -39,7 +43,7 @@ public class LLMConfigService {
         try {
             return configDao.findAll();
         } catch (SQLException e) {
-            System.err.println("获取配置列表失败: " + e.getMessage());
+            log.error("获取配置列表失败: {}", e.getMessage());
             return List.of();
         }
     }
@@ -168,7 +172,7 @@ public class LLMConfigService {
                 currentConfig = config;
             }
         } catch (SQLException e) {
-            System.err.println("切换配置失败: " + e.getMessage());
+            log.error("切换配置失败: {}", e.getMessage());
         }
     }
     
@@ -179,7 +183,7 @@ public class LLMConfigService {
         try {
             return configDao.findById(id);
         } catch (SQLException e) {
-            System.err.println("获取配置失败: " + e.getMessage());
+            log.error("获取配置失败: {}", e.getMessage());
             return null;
         }
     }
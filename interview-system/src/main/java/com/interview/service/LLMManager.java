@@ -1,5 +1,7 @@
 package com.interview.service;
 
+import com.interview.log.Log;
+import com.interview.log.Logger;
 import com.interview.model.EvaluationDimension;
 import com.interview.model.InterviewRecord;
 import com.interview.model.LLMConfig;
@@ -21,6 +23,8 @@ import java.util.*;
  */
 public class LLMManager {
     
+    private static final Logger log = Log.get(LLMManager.class);
+    
     private static final String CONFIG_FILE = "llm_configs.dat";
     private static final String AES_KEY = "InterviewSystem!"; // 16字节密钥
     
@@ -286,7 +290,7 @@ public class LLMManager {
                 new FileOutputStream(CONFIG_FILE))) {
             oos.writeObject(configs);
         } catch (IOException e) {
-            System.err.println("保存LLM配置失败: " + e.getMessage());
+            log.error("保存LLM配置失败: {}", e.getMessage());
         }
     }
     
@@ -304,7 +308,7 @@ public class LLMManager {
                 new FileInputStream(file))) {
             configs = (List<LLMConfig>) ois.readObject();
         } catch (Exception e) {
-            System.err.println("加载LLM配置失败: " + e.getMessage());
+            log.error("加载LLM配置失败: {}", e.getMessage());
             configs = new ArrayList<>();
         }
     }
@@ -1,14 +1,45 @@
 package com.interview.service;
 
+import com.interview.cache.QuestionCatalogue;
+import com.interview.cache.QuestionChangeListener;
+import com.interview.config.AppConfig;
+import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.dao.Page;
 import com.interview.dao.QuestionDao;
+import com.interview.dao.QuestionExtractRecordDao;
+import com.interview.extract.AssembledPaper;
+import com.interview.extract.ExposureTracker;
+import com.interview.extract.PaperAssembler;
+import com.interview.extract.PaperAssemblyException;
+import com.interview.extract.PaperSpec;
+import com.interview.extract.QuestionSampler;
+import com.interview.log.Log;
+import com.interview.log.Logger;
 import com.interview.model.Permission;
 import com.interview.model.Question;
+import com.interview.model.QuestionExtractRecord;
+import com.interview.model.QuestionSummary;
+import com.interview.model.User;
 import com.interview.model.Question.QuestionLevel;
 import com.interview.model.Question.SpecializationType;
 import com.interview.model.Question.QuestionType;
+import com.interview.search.InMemoryQuestionIndex;
+import com.interview.search.NearDuplicateIndex;
+import com.interview.search.NearDuplicateIndex.DuplicateGroup;
+import com.interview.search.NearDuplicateIndex.Match;
+import com.interview.transfer.ImportResult;
+import com.interview.transfer.QuestionImporter;
+import com.interview.util.DatabaseConnection;
+import org.json.JSONObject;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.function.LongConsumer;
 
 /**
  * 题目服务类
@@ -16,12 +47,83 @@ import java.util.List;
  */
 public class QuestionService {
     
+    private static final Logger log = Log.get(QuestionService.class);
+    
     private final QuestionDao questionDao;
+    private final QuestionExtractRecordDao extractRecordDao;
     private final AuthService authService;
     
+    // 检索后端：memory（进程内倒排索引，边输入边检索）或 database（PostgreSQL 全文检索）
+    private final boolean memorySearch;
+    private final int maxSearchResults;
+    
+    // 题目目录缓存：列表、详情、分类、计数在本地读取，其他工作站的修改通过变更通知同步
+    private static volatile QuestionCatalogue catalogue;
+    private static volatile QuestionChangeListener changeListener;
+    
+    // 进程内索引首次检索时从题目目录加载，之后随目录变更增量更新
+    private static final InMemoryQuestionIndex memoryIndex = new InMemoryQuestionIndex();
+    private static volatile boolean memoryIndexLoaded = false;
+    
+    // 近似重复检测索引（MinHash + LSH），首次使用时从题目目录加载，之后随目录变更增量更新
+    private static volatile NearDuplicateIndex duplicateIndex;
+    private static volatile boolean duplicateIndexLoaded = false;
+    
+    // 抽题采样器（按分层保存题目 id），题目变更后失效
+    private static volatile QuestionSampler sampler;
+    
+    // 抽取记录缓冲写入与题目曝光统计，抽题偏向曝光较少的题目
+    private static volatile ExposureTracker exposureTracker;
+    
     public QuestionService(AuthService authService) {
         this.questionDao = new QuestionDao();
+        this.extractRecordDao = new QuestionExtractRecordDao();
         this.authService = authService;
+        this.memorySearch = "memory".equalsIgnoreCase(AppConfig.getString("search.backend", "memory"));
+        this.maxSearchResults = AppConfig.getInt("search.max.results", 500);
+        synchronized (QuestionService.class) {
+            if (catalogue == null) {
+                catalogue = new QuestionCatalogue(questionDao, AppConfig.getInt("catalogue.max.stale.seconds", 30));
+                catalogue.addListener(new DerivedIndexUpdater());
+                if (AppConfig.getBoolean("catalogue.listen.enabled", true)) {
+                    // LISTEN 不需要表权限，监听连接使用登录用户的数据库角色
+                    changeListener = new QuestionChangeListener(catalogue, currentDbRole(authService));
+                    changeListener.start();
+                }
+            }
+            if (duplicateIndex == null) {
+                duplicateIndex = new NearDuplicateIndex(
+                        Double.parseDouble(AppConfig.getString("dedupe.similarity.threshold", "0.8")));
+            }
+            if (sampler == null) {
+                sampler = new QuestionSampler(questionDao, AppConfig.getInt("extract.sampler.refresh.seconds", 300));
+                exposureTracker = ExposureTracker.fromConfig(extractRecordDao);
+                exposureTracker.start(AppConfig.getInt("extract.record.flush.seconds", 10));
+                sampler.setExposureTracker(exposureTracker);
+            }
+        }
+    }
+    
+    /**
+     * 当前登录用户对应的数据库角色，未登录时使用当前线程的角色
+     */
+    private static DbUserRole currentDbRole(AuthService authService) {
+        User user = authService.getCurrentUser();
+        return user != null ? DbUserRole.fromAppRole(user.getRole()) : DatabaseConnection.getCurrentDbRole();
+    }
+    
+    /**
+     * 写入缓冲中的抽取记录并停止后台任务（应用退出时调用）
+     */
+    public static void shutdown() {
+        QuestionChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.stop();
+        }
+        ExposureTracker tracker = exposureTracker;
+        if (tracker != null) {
+            tracker.stop();
+        }
     }
     
     /**
@@ -52,7 +154,10 @@ public class QuestionService {
         
         try {
             if (questionDao.insert(question)) {
-                return "题目创建成功";
+                // 先查重再加入目录，避免与自身比对
+                String duplicates = checkDuplicates(question);
+                catalogue.put(question);
+                return duplicates.isEmpty() ? "题目创建成功" : "题目创建成功（疑似重复：" + duplicates + "）";
             } else {
                 return "题目创建失败";
             }
@@ -82,6 +187,7 @@ public class QuestionService {
             }
             
             if (questionDao.update(question)) {
+                catalogue.put(question);
                 return "题目更新成功";
             } else {
                 return "题目更新失败";
@@ -108,6 +214,7 @@ public class QuestionService {
             }
             
             if (questionDao.delete(questionId)) {
+                catalogue.remove(questionId);
                 return "题目删除成功";
             } else {
                 return "题目删除失败";
@@ -127,13 +234,118 @@ public class QuestionService {
         }
         
         try {
-            return questionDao.findAll();
+            return catalogue.snapshot().all();
         } catch (SQLException e) {
-            System.err.println("获取题目列表失败: " + e.getMessage());
+            log.error("获取题目列表失败: {}", e.getMessage());
             return List.of();
         }
     }
     
+    /**
+     * 分页获取题目摘要，按创建时间倒序，每页行数由 list.page.size 配置
+     * 完整题目（内容、答案）用 getQuestionById 按需加载
+     * 需要 QUESTION_READ 权限
+     * 
+     * @param after 上一页返回的游标，首页为 null
+     */
+    public Page<QuestionSummary> getQuestionPage(Page.Cursor after) {
+        if (!authService.hasPermission(Permission.QUESTION_READ)) {
+            return Page.empty();
+        }
+        
+        try {
+            return catalogue.snapshot().page(after, AppConfig.getInt("list.page.size", 100));
+        } catch (SQLException e) {
+            log.error("获取题目列表失败: {}", e.getMessage());
+            return Page.empty();
+        }
+    }
+    
+    /**
+     * 从 CSV / JSON Lines 文件批量导入题目
+     * 需要 QUESTION_CREATE 权限
+     * 
+     * 被拒绝的行写入同目录下的 "<文件名>.errors.<扩展名>"
+     * 
+     * @param progress 进度回调（已读取行数），可为 null
+     * @return 导入结果摘要
+     */
+    public String importQuestions(File file, LongConsumer progress) {
+        if (!authService.hasPermission(Permission.QUESTION_CREATE)) {
+            return "权限不足，无法导入题目";
+        }
+        
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        Path errorFile = file.toPath().resolveSibling(dot > 0
+                ? name.substring(0, dot) + ".errors" + name.substring(dot) : name + ".errors");
+        
+        QuestionImporter importer = new QuestionImporter(questionDao);
+        importer.setUseCopy(AppConfig.getBoolean("import.use.copy", true));
+        importer.setBatchSize(AppConfig.getInt("import.batch.size", 1000));
+        importer.setProgressListener(progress);
+        try {
+            ImportResult result = importer.importFile(file.toPath(), errorFile,
+                    authService.getCurrentUser().getUsername());
+            if (result.getImported() > 0) {
+                // 导入量大，题目目录和派生索引下次使用时整体重新加载
+                catalogue.invalidate();
+                memoryIndexLoaded = false;
+                duplicateIndexLoaded = false;
+                sampler.invalidate();
+            }
+            return result.describe();
+        } catch (IOException | SQLException e) {
+            log.error("导入题目失败: {}", e.getMessage());
+            return "导入失败: " + e.getMessage();
+        }
+    }
+    
+    /**
+     * 全库查重：用题目目录重建查重索引，返回相互近似重复的题目组
+     * 需要 QUESTION_UPDATE 权限
+     */
+    public List<DuplicateGroup> findDuplicateGroups() {
+        if (!authService.hasPermission(Permission.QUESTION_UPDATE)) {
+            return List.of();
+        }
+        
+        try {
+            synchronized (QuestionService.class) {
+                duplicateIndex.rebuild(catalogue.snapshot().readOnlyView());
+                duplicateIndexLoaded = true;
+            }
+            return duplicateIndex.findGroups();
+        } catch (SQLException e) {
+            log.error("题目查重失败: {}", e.getMessage());
+            return List.of();
+        }
+    }
+    
+    /**
+     * 新题目与已有题目比对，返回疑似重复题目的描述（无重复时为空串）
+     * 新题目随后加入题目目录时同步进查重索引
+     */
+    private String checkDuplicates(Question question) {
+        try {
+            ensureDuplicateIndex();
+        } catch (SQLException e) {
+            // 查重只是提示，加载失败不影响创建
+            log.error("加载查重索引失败: {}", e.getMessage());
+            return "";
+        }
+        List<Match> matches = duplicateIndex.findSimilar(question, 3);
+        StringBuilder sb = new StringBuilder();
+        for (Match match : matches) {
+            if (sb.length() > 0) {
+                sb.append("、");
+            }
+            sb.append("#").append(match.getQuestionId())
+                    .append(" 相似度 ").append(Math.round(match.getSimilarity() * 100)).append("%");
+        }
+        return sb.toString();
+    }
+    
     /**
      * 根据ID获取题目
      * 需要 QUESTION_READ 权限
@@ -144,15 +356,15 @@ public class QuestionService {
         }
         
         try {
-            return questionDao.findById(id);
+            return catalogue.snapshot().get(id);
         } catch (SQLException e) {
-            System.err.println("获取题目失败: " + e.getMessage());
+            log.error("获取题目失败: {}", e.getMessage());
             return null;
         }
     }
     
     /**
-     * 搜索题目
+     * 搜索题目，有关键词时按相关度排序
      * 需要 QUESTION_READ 权限
      */
     public List<Question> searchQuestions(String keyword, QuestionType type, 
@@ -162,13 +374,26 @@ public class QuestionService {
         }
         
         try {
-            return questionDao.search(keyword, type, level, null, category);
+            if (memorySearch) {
+                ensureMemoryIndex();
+                // 索引保存的是目录内部对象，返回副本
+                return memoryIndex.search(keyword, type, level, null, category, maxSearchResults)
+                        .stream().map(Question::new).toList();
+            }
+            return questionDao.searchRanked(keyword, type, level, null, category, maxSearchResults);
         } catch (SQLException e) {
-            System.err.println("搜索题目失败: " + e.getMessage());
+            log.error("搜索题目失败: {}", e.getMessage());
             return List.of();
         }
     }
     
+    /**
+     * 检索是否在本地完成（可以边输入边检索，不访问数据库）
+     */
+    public boolean isInstantSearch() {
+        return memorySearch;
+    }
+    
     /**
      * 随机抽取题目
      * 需要 QUESTION_EXTRACT 权限
@@ -182,23 +407,96 @@ public class QuestionService {
     public List<Question> extractQuestions(int count, QuestionType type, 
                                            QuestionLevel level, String category) {
         if (!authService.hasPermission(Permission.QUESTION_EXTRACT)) {
-            System.err.println("权限不足，无法抽取题目");
+            log.warn("权限不足，无法抽取题目");
             return List.of();
         }
         
         if (count <= 0 || count > 100) {
-            System.err.println("抽取数量无效，必须在1-100之间");
+            log.warn("抽取数量无效，必须在1-100之间");
             return List.of();
         }
         
         try {
-            return questionDao.extractRandom(count, type, level, null, category);
+            List<Question> questions = sampler.sample(count, type, level, null, category);
+            if (!questions.isEmpty()) {
+                JSONObject criteria = new JSONObject();
+                criteria.put("mode", "random");
+                criteria.put("count", count);
+                if (type != null) {
+                    criteria.put("type", type.name());
+                }
+                if (level != null) {
+                    criteria.put("level", level.name());
+                }
+                if (category != null) {
+                    criteria.put("category", category);
+                }
+                exposureTracker.record(new QuestionExtractRecord(
+                        authService.getCurrentUser().getUsername(), questions.size(), criteria.toString(),
+                        questions.stream().map(Question::getId).toList()));
+            }
+            return questions;
         } catch (SQLException e) {
-            System.err.println("抽取题目失败: " + e.getMessage());
+            log.error("抽取题目失败: {}", e.getMessage());
             return List.of();
         }
     }
     
+    /**
+     * 按规则组卷并保存抽取记录
+     * 需要 QUESTION_EXTRACT 权限
+     * 
+     * @param spec 组卷规则
+     * @param candidateUsername 考生用户名（可为空；填写时排除该考生近期见过的题目）
+     */
+    public AssembledPaper assemblePaper(PaperSpec spec, String candidateUsername) {
+        if (!authService.hasPermission(Permission.QUESTION_EXTRACT)) {
+            return AssembledPaper.failure("权限不足，无法组卷");
+        }
+        if (spec.getTotalCount() <= 0 || spec.getTotalCount() > 100) {
+            return AssembledPaper.failure("组卷题目总数必须在1-100之间");
+        }
+        String candidate = candidateUsername == null || candidateUsername.isBlank() ? null : candidateUsername.trim();
+        
+        try {
+            Set<Integer> seen = candidate != null && spec.getExcludeSeenDays() > 0
+                    ? extractRecordDao.findSeenQuestionIds(candidate,
+                            LocalDateTime.now().minusDays(spec.getExcludeSeenDays()))
+                    : Set.of();
+            
+            PaperAssembler assembler = new PaperAssembler(sampler);
+            int[] ids = assembler.assemble(spec, seen);
+            List<Question> questions = catalogue.snapshot().getAll(ids);
+            if (questions.size() < ids.length) {
+                // 采样器中有已被其他客户端删除的题目，刷新后重新求解一次
+                sampler.invalidate();
+                ids = assembler.assemble(spec, seen);
+                questions = catalogue.snapshot().getAll(ids);
+            }
+            
+            QuestionExtractRecord record = new QuestionExtractRecord(
+                    authService.getCurrentUser().getUsername(), questions.size(), spec.toJson(),
+                    questions.stream().map(Question::getId).toList());
+            record.setCandidateUsername(candidate);
+            record.setNotes(spec.describe());
+            try {
+                exposureTracker.recordNow(record);
+            } catch (SQLException e) {
+                // 记录保存失败不影响本次组卷结果，记录留在缓冲中稍后重试
+                log.error("保存抽取记录失败: {}", e.getMessage());
+                record = null;
+            }
+            String message = seen.isEmpty() ? "组卷成功"
+                    : "组卷成功（已排除考生近期见过的 " + seen.size() + " 道题）";
+            return AssembledPaper.success(questions, record, message);
+        } catch (PaperAssemblyException e) {
+            return AssembledPaper.failure("组卷失败: " + e.getMessage());
+        } catch (SQLException e) {
+            log.error("组卷失败: {}", e.getMessage());
+            return AssembledPaper.failure("组卷失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 获取所有分类
      * 需要 QUESTION_READ 权限
@@ -209,9 +507,9 @@ public class QuestionService {
         }
         
         try {
-            return questionDao.findAllCategories();
+            return catalogue.snapshot().categories();
         } catch (SQLException e) {
-            System.err.println("获取分类列表失败: " + e.getMessage());
+            log.error("获取分类列表失败: {}", e.getMessage());
             return List.of();
         }
     }
@@ -226,10 +524,83 @@ public class QuestionService {
         }
         
         try {
-            return questionDao.count();
+            return catalogue.snapshot().size();
         } catch (SQLException e) {
-            System.err.println("统计题目数量失败: " + e.getMessage());
+            log.error("统计题目数量失败: {}", e.getMessage());
             return 0;
         }
     }
+    
+    /**
+     * 检索索引未加载时从题目目录加载
+     */
+    private void ensureMemoryIndex() throws SQLException {
+        if (memoryIndexLoaded) {
+            return;
+        }
+        synchronized (QuestionService.class) {
+            if (!memoryIndexLoaded) {
+                memoryIndex.rebuild(catalogue.snapshot().readOnlyView());
+                memoryIndexLoaded = true;
+            }
+        }
+    }
+    
+    /**
+     * 查重索引未加载时从题目目录加载
+     */
+    private void ensureDuplicateIndex() throws SQLException {
+        if (duplicateIndexLoaded) {
+            return;
+        }
+        synchronized (QuestionService.class) {
+            if (!duplicateIndexLoaded) {
+                duplicateIndex.rebuild(catalogue.snapshot().readOnlyView());
+                duplicateIndexLoaded = true;
+            }
+        }
+    }
+    
+    /**
+     * 题目目录变更时同步已加载的检索索引、查重索引，并让抽题采样器失效
+     * 与索引的首次加载使用同一把锁，加载期间的变更不会丢失
+     */
+    private static class DerivedIndexUpdater implements QuestionCatalogue.ChangeListener {
+        
+        @Override
+        public void reloaded(QuestionCatalogue.Snapshot snapshot) {
+            synchronized (QuestionService.class) {
+                if (memoryIndexLoaded) {
+                    memoryIndex.rebuild(snapshot.readOnlyView());
+                }
+                if (duplicateIndexLoaded) {
+                    duplicateIndex.rebuild(snapshot.readOnlyView());
+                }
+            }
+            sampler.invalidate();
+        }
+        
+        @Override
+        public void changed(List<Question> upserted, Set<Integer> removed) {
+            synchronized (QuestionService.class) {
+                for (Integer id : removed) {
+                    if (memoryIndexLoaded) {
+                        memoryIndex.remove(id);
+                    }
+                    if (duplicateIndexLoaded) {
+                        duplicateIndex.remove(id);
+                    }
+                }
+                for (Question question : upserted) {
+                    if (memoryIndexLoaded) {
+                        memoryIndex.put(question);
+                    }
+                    if (duplicateIndexLoaded) {
+                        duplicateIndex.put(question);
+                    }
+                }
+            }
+            sampler.invalidate();
+        }
+    }
 }
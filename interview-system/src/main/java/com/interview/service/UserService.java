@@ -1,6 +1,10 @@
 package com.interview.service;
 
+import com.interview.config.AppConfig;
+import com.interview.dao.Page;
 import com.interview.dao.UserDao;
+import com.interview.log.Log;
+import com.interview.log.Logger;
 import com.interview.model.Permission;
 import com.interview.model.Role;
 import com.interview.model.User;
@@ -14,6 +18,8 @@ import java.util.List;
  */
 public class UserService {
     
+    private static final Logger log = Log.get(UserService.class);
+    
     private final UserDao userDao;
     private final AuthService authService;
     
@@ -34,11 +40,30 @@ public class UserService {
         try {
             return userDao.findAll();
         } catch (SQLException e) {
-            System.err.println("获取用户列表失败: " + e.getMessage());
+            log.error("获取用户列表失败: {}", e.getMessage());
             return List.of();
         }
     }
     
+    /**
+     * 分页获取用户，按创建时间倒序，每页行数由 list.page.size 配置
+     * 需要 USER_MANAGE 权限
+     * 
+     * @param after 上一页返回的游标，首页为 null
+     */
+    public Page<User> getUserPage(Page.Cursor after) {
+        if (!authService.hasPermission(Permission.USER_MANAGE)) {
+            return Page.empty();
+        }
+        
+        try {
+            return userDao.findPage(after, AppConfig.getInt("list.page.size", 100));
+        } catch (SQLException e) {
+            log.error("获取用户列表失败: {}", e.getMessage());
+            return Page.empty();
+        }
+    }
+    
     /**
      * 根据ID获取用户
      * 需要 USER_MANAGE 权限
@@ -51,7 +76,7 @@ public class UserService {
         try {
             return userDao.findById(id);
         } catch (SQLException e) {
-            System.err.println("获取用户失败: " + e.getMessage());
+            log.error("获取用户失败: {}", e.getMessage());
             return null;
         }
     }
@@ -0,0 +1,189 @@
+package com.interview.startup;
+
+import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+import com.interview.util.DatabaseConnection;
+import com.interview.util.DatabaseInitializer;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 应用启动编排
+ * 
+ * 登录界面先显示，数据库相关步骤在后台线程池中执行：
+ * - 关键路径：连接数据库 -> 结构迁移（同一个连接），之后才能查询用户表
+ * - 登录前完成：默认账号检查（只有首次启动需要计算 BCrypt 哈希，在单独的线程池中并行计算，
+ *   不排在连接测试等后台步骤之后）
+ * - 纯后台：全文检索准备、默认大模型配置、其余角色的连接测试、afterSchema 登记的任务
+ * 
+ * 每个步骤的耗时记录在 StartupTimeline 中，全部结束后打印并追加到时间线文件。
+ * 后台线程使用管理员数据库用户，步骤结束后关闭本线程的连接。
+ */
+public class StartupOrchestrator {
+    
+    private static final Logger log = Log.get(StartupOrchestrator.class);
+    
+    private final StartupTimeline timeline = new StartupTimeline();
+    private final DatabaseInitializer initializer = new DatabaseInitializer();
+    private final ExecutorService executor;
+    // 默认账号的 BCrypt 哈希专用，线程按需创建
+    private final ExecutorService hashExecutor;
+    private final List<NamedStep> afterSchemaSteps = new ArrayList<>();
+    
+    private CompletableFuture<Void> schemaReady;
+    private CompletableFuture<Void> loginReady;
+    private CompletableFuture<Void> finished;
+    
+    public StartupOrchestrator(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(2, threads), r -> {
+            Thread t = new Thread(r, "startup-" + counter.incrementAndGet());
+            // 连接测试卡住时不阻止程序退出
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger hashCounter = new AtomicInteger();
+        this.hashExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread t = new Thread(r, "startup-hash-" + hashCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+    
+    public StartupTimeline getTimeline() {
+        return timeline;
+    }
+    
+    /**
+     * 登记一个在结构迁移完成后执行的后台步骤（需在 start 之前调用）
+     */
+    public void afterSchema(String name, StartupTimeline.Step step) {
+        afterSchemaSteps.add(new NamedStep(name, step));
+    }
+    
+    /**
+     * 开始执行启动步骤，立即返回
+     * 
+     * @param timelineFile 时间线文件（null 表示不写文件）
+     * @param version      写入时间线的程序版本
+     */
+    public synchronized void start(Path timelineFile, String version) {
+        if (schemaReady != null) {
+            return;
+        }
+        List<CompletableFuture<Void>> all = new ArrayList<>();
+        
+        // 关键路径最先提交；迁移与连接在同一线程，直接使用上一步打开的连接
+        schemaReady = CompletableFuture.runAsync(() -> {
+            step("连接数据库", () -> DatabaseConnection.getConnection(DbUserRole.ADMIN), false);
+            step("结构迁移", initializer::migrateSchema, true);
+        }, executor);
+        all.add(schemaReady);
+        
+        // 连接测试不依赖表结构，和迁移同时进行；管理员连接由关键路径验证
+        for (DbUserRole role : DbUserRole.values()) {
+            if (role != DbUserRole.ADMIN) {
+                all.add(submit("连接测试-" + role.getDbUser(), () -> {
+                    if (!DatabaseConnection.testConnection(role)) {
+                        throw new IllegalStateException(role.getDisplayName() + "角色无法连接数据库");
+                    }
+                }));
+            }
+        }
+        
+        CompletableFuture<Void> accounts = schemaReady.thenComposeAsync(
+                v -> submit("默认账号", () -> initializer.createSampleAccounts(hashExecutor)), executor);
+        all.add(accounts);
+        loginReady = CompletableFuture.allOf(schemaReady, accounts);
+        loginReady.thenRun(() -> timeline.mark("可以登录"));
+        
+        all.add(schemaReady.thenComposeAsync(v -> submit("全文检索准备", initializer::prepareSearch), executor));
+        all.add(schemaReady.thenComposeAsync(v -> submit("默认大模型配置", initializer::createDefaultLLMConfig), executor));
+        for (NamedStep step : afterSchemaSteps) {
+            all.add(schemaReady.thenComposeAsync(v -> submit(step.name, step.step), executor));
+        }
+        
+        finished = CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0]))
+                .handle((v, e) -> {
+                    timeline.mark("后台任务完成");
+                    log.info("{}", timeline.summary());
+                    if (timelineFile != null) {
+                        try {
+                            timeline.appendTo(timelineFile, version);
+                        } catch (Exception ex) {
+                            log.error("写入启动时间线失败: {}", ex.getMessage());
+                        }
+                    }
+                    executor.shutdown();
+                    hashExecutor.shutdown();
+                    return null;
+                });
+    }
+    
+    /**
+     * 结构迁移完成（失败时异常完成）
+     */
+    public CompletableFuture<Void> schemaReady() {
+        return schemaReady;
+    }
+    
+    /**
+     * 可以登录：结构迁移完成且默认账号已就绪
+     */
+    public CompletableFuture<Void> loginReady() {
+        return loginReady;
+    }
+    
+    /**
+     * 全部启动步骤结束（无论成功与否）
+     */
+    public CompletableFuture<Void> finished() {
+        return finished;
+    }
+    
+    /**
+     * 在线程池中执行一个步骤，结束后关闭本线程的数据库连接
+     */
+    private CompletableFuture<Void> submit(String name, StartupTimeline.Step step) {
+        return CompletableFuture.runAsync(() -> step(name, step, true), executor);
+    }
+    
+    /**
+     * 以管理员角色执行并计时，异常包装为 CompletionException
+     * 
+     * @param closeConnection 是否在结束后关闭本线程的连接（后续步骤需要复用时传 false）
+     */
+    private void step(String name, StartupTimeline.Step step, boolean closeConnection) {
+        DatabaseConnection.setCurrentDbRole(DbUserRole.ADMIN);
+        boolean failed = true;
+        try {
+            timeline.run(name, step);
+            failed = false;
+        } catch (Exception e) {
+            log.error("启动步骤失败 [{}]: {}", name, e.getMessage());
+            throw new CompletionException(e);
+        } finally {
+            if (closeConnection || failed) {
+                DatabaseConnection.closeCurrentConnection();
+            }
+        }
+    }
+    
+    private static class NamedStep {
+        private final String name;
+        private final StartupTimeline.Step step;
+        
+        NamedStep(String name, StartupTimeline.Step step) {
+            this.name = name;
+            this.step = step;
+        }
+    }
+}
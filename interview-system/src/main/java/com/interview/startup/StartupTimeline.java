@@ -0,0 +1,165 @@
+package com.interview.startup;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * 启动时间线
+ * 
+ * 记录每个启动阶段的开始时间（相对 JVM 启动）、耗时、执行线程和结果，
+ * 全部阶段结束后打印汇总，并以一行 JSON 追加到时间线文件，便于对比不同版本的启动耗时。
+ */
+public class StartupTimeline {
+    
+    private final long originNanos = System.nanoTime();
+    // 计时起点之前 JVM 已运行的时间（类加载、读取配置等）
+    private final long jvmUptimeAtOriginMs = ManagementFactory.getRuntimeMXBean().getUptime();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    
+    private final List<Phase> phases = new ArrayList<>();
+    private final List<Mark> marks = new ArrayList<>();
+    
+    /**
+     * 执行一个阶段并记录耗时（异常原样抛出，阶段记为失败）
+     */
+    public <T> T time(String name, Callable<T> step) throws Exception {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            T result = step.call();
+            ok = true;
+            return result;
+        } finally {
+            record(name, start, System.nanoTime(), ok);
+        }
+    }
+    
+    /**
+     * 执行一个没有返回值的阶段
+     */
+    public void run(String name, Step step) throws Exception {
+        time(name, () -> {
+            step.run();
+            return null;
+        });
+    }
+    
+    /**
+     * 记录一个时间点（如登录界面显示、可以登录）
+     */
+    public synchronized void mark(String name) {
+        marks.add(new Mark(name, offsetMs(System.nanoTime())));
+    }
+    
+    private synchronized void record(String name, long startNanos, long endNanos, boolean ok) {
+        phases.add(new Phase(name, Thread.currentThread().getName(),
+                offsetMs(startNanos), (endNanos - startNanos) / 1_000_000.0, ok));
+    }
+    
+    private double offsetMs(long nanos) {
+        return jvmUptimeAtOriginMs + (nanos - originNanos) / 1_000_000.0;
+    }
+    
+    /**
+     * 汇总文本（按开始时间排序，时间均相对 JVM 启动）
+     */
+    public synchronized String summary() {
+        StringBuilder sb = new StringBuilder("========== 启动时间线（相对 JVM 启动，毫秒） ==========\n");
+        sb.append(String.format("  %8.1f  计时开始%n", (double) jvmUptimeAtOriginMs));
+        List<Phase> sorted = new ArrayList<>(phases);
+        sorted.sort(Comparator.comparingDouble(p -> p.startMs));
+        for (Phase phase : sorted) {
+            sb.append(String.format("  %8.1f  %-16s %8.1f ms  [%s]%s%n", phase.startMs, phase.name,
+                    phase.durationMs, phase.thread, phase.ok ? "" : "  失败"));
+        }
+        for (Mark mark : marks) {
+            sb.append(String.format("  %8.1f  ▶ %s%n", mark.atMs, mark.name));
+        }
+        return sb.append("=====================================================").toString();
+    }
+    
+    /**
+     * 以一行 JSON 追加到文件
+     */
+    public synchronized void appendTo(Path file, String version) throws IOException {
+        JSONObject json = new JSONObject();
+        json.put("startedAt", startedAt.toString());
+        json.put("version", version);
+        json.put("jvmUptimeAtOriginMs", jvmUptimeAtOriginMs);
+        JSONObject markJson = new JSONObject();
+        for (Mark mark : marks) {
+            markJson.put(mark.name, round(mark.atMs));
+        }
+        json.put("marks", markJson);
+        JSONArray phaseJson = new JSONArray();
+        for (Phase phase : phases) {
+            phaseJson.put(new JSONObject()
+                    .put("name", phase.name)
+                    .put("thread", phase.thread)
+                    .put("startMs", round(phase.startMs))
+                    .put("durationMs", round(phase.durationMs))
+                    .put("ok", phase.ok));
+        }
+        json.put("phases", phaseJson);
+        
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(json.toString());
+            writer.write('\n');
+        }
+    }
+    
+    private static double round(double ms) {
+        return Math.round(ms * 10) / 10.0;
+    }
+    
+    /**
+     * 没有返回值的启动阶段
+     */
+    public interface Step {
+        void run() throws Exception;
+    }
+    
+    private static class Phase {
+        private final String name;
+        private final String thread;
+        private final double startMs;
+        private final double durationMs;
+        private final boolean ok;
+        
+        Phase(String name, String thread, double startMs, double durationMs, boolean ok) {
+            this.name = name;
+            this.thread = thread;
+            this.startMs = startMs;
+            this.durationMs = durationMs;
+            this.ok = ok;
+        }
+    }
+    
+    private static class Mark {
+        private final String name;
+        private final double atMs;
+        
+        Mark(String name, double atMs) {
+            this.name = name;
+            this.atMs = atMs;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.interview.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 冷存储适配器
+ * 
+ * 归档后的录音以压缩对象的形式保存在冷存储中，按键（内容哈希）读写。
+ * 默认实现为本地归档目录（FileSystemColdStore），
+ * 接入对象存储（S3/OSS/MinIO 等）时实现本接口即可，上层分层逻辑不变。
+ */
+public interface ColdStore {
+    
+    /**
+     * 对象是否存在
+     */
+    boolean exists(String key) throws IOException;
+    
+    /**
+     * 上传对象（source 为已压缩的本地临时文件，调用方负责清理）
+     */
+    void put(String key, Path source) throws IOException;
+    
+    /**
+     * 打开对象读取流
+     */
+    InputStream open(String key) throws IOException;
+    
+    /**
+     * 删除对象，不存在时返回 false
+     */
+    boolean delete(String key) throws IOException;
+    
+    /**
+     * 存储位置描述（用于日志和界面显示）
+     */
+    String describe();
+}
@@ -0,0 +1,68 @@
+package com.interview.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 基于本地目录的冷存储
+ * 
+ * 可指向大容量磁盘、NAS 挂载目录等；目录结构与热存储相同，按键的前四位分两级存放。
+ * 也作为对象存储适配器的本地替身，便于在没有对象存储的环境中运行分层任务。
+ */
+public class FileSystemColdStore implements ColdStore {
+    
+    private final Path root;
+    
+    public FileSystemColdStore(String rootDir) {
+        this(Path.of(rootDir));
+    }
+    
+    public FileSystemColdStore(Path root) {
+        this.root = root.toAbsolutePath();
+    }
+    
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(pathOf(key));
+    }
+    
+    @Override
+    public void put(String key, Path source) throws IOException {
+        Path target = pathOf(key);
+        Files.createDirectories(target.getParent());
+        // 先复制到同目录临时文件再改名，避免中断时留下不完整的对象
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+        Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(pathOf(key));
+    }
+    
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(pathOf(key));
+    }
+    
+    @Override
+    public String describe() {
+        return root.toString();
+    }
+    
+    private Path pathOf(String key) {
+        if (key.length() < 4 || key.contains("/") || key.contains("\\") || key.contains("..")) {
+            throw new IllegalArgumentException("无效的对象键: " + key);
+        }
+        return VoiceFiles.shard(root, key);
+    }
+}
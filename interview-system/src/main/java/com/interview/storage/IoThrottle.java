@@ -0,0 +1,47 @@
+package com.interview.storage;
+
+/**
+ * 简单的 I/O 限速器
+ * 
+ * 后台任务每读写一块数据调用一次 acquire，累计字节数超过速率预算时休眠补足，
+ * 使长期平均吞吐不超过设定值，避免和实时录音争抢磁盘带宽。
+ */
+public class IoThrottle {
+    
+    private final long bytesPerSecond;
+    private long windowStart;
+    private long windowBytes;
+    
+    /**
+     * @param bytesPerSecond 每秒允许的字节数，小于等于 0 表示不限速
+     */
+    public IoThrottle(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        this.windowStart = System.nanoTime();
+    }
+    
+    /**
+     * 登记本次处理的字节数，必要时阻塞
+     */
+    public void acquire(long bytes) throws InterruptedException {
+        if (bytesPerSecond <= 0) {
+            return;
+        }
+        windowBytes += bytes;
+        long expectedNanos = windowBytes * 1_000_000_000L / bytesPerSecond;
+        long elapsed = System.nanoTime() - windowStart;
+        if (expectedNanos > elapsed) {
+            long sleepNanos = expectedNanos - elapsed;
+            Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+        }
+        // 每秒重置窗口，空闲后不会积累出一段不限速的突发
+        if (elapsed > 1_000_000_000L) {
+            windowStart = System.nanoTime();
+            windowBytes = 0;
+        }
+    }
+    
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+}
@@ -0,0 +1,324 @@
+package com.interview.storage;
+
+import com.interview.config.AppConfig;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 语音文件内容寻址存储
+ * 
+ * 文件按 SHA-256 存放在两级分片目录下：<root>/ab/cd/<hash>.<ext>（布局见 VoiceFiles，与 Web 端共用）
+ * - 写入时边复制边计算摘要（源文件只读一遍），先写临时文件再原子移动到目标位置
+ * - 相同内容只保存一份（去重），由数据库中的 voice_file_hash 记录引用关系
+ * - 读取时校验摘要，防止文件被篡改或损坏；校验结果按 voice.verify.cache.seconds 短期缓存，
+ *   过期后重新完整计算（见 VoiceFiles.Verifier）
+ * 
+ * 两级 256 路分片使单个目录下的文件数保持在几十到几百个，
+ * 数万个录音文件时目录查找依然很快。
+ * 
+ * 导出和播放使用 FileChannel.transferFrom/transferTo，由内核直接在页缓存间复制，
+ * 不经过 Java 堆；播放/下载支持按字节区间或按时间区间读取，无需加载整个文件。
+ * 
+ * 删除前要确认没有其他记录引用同一内容，"确认无引用 -> 删除" 与 "去重命中 -> 登记引用"
+ * 需要在 lockFor(hash) 返回的锁内完成，否则删除可能落在去重命中与登记之间。
+ */
+public class VoiceStore {
+    
+    private static final Logger log = Log.get(VoiceStore.class);
+    
+    private static final String TEMP_DIR = ".tmp";
+    private static final int LOCK_STRIPES = 64;
+    
+    // 按内容哈希分段的锁，进程内所有实例共用
+    private static final Lock[] HASH_LOCKS = new Lock[LOCK_STRIPES];
+    
+    static {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            HASH_LOCKS[i] = new ReentrantLock();
+        }
+    }
+    
+    private final Path root;
+    private final VoiceFiles.Verifier verifier;
+    
+    public VoiceStore(String rootDir) {
+        this(Path.of(rootDir));
+    }
+    
+    public VoiceStore(Path root) {
+        this(root, TimeUnit.SECONDS.toMillis(AppConfig.getInt("voice.verify.cache.seconds", 600)));
+    }
+    
+    /**
+     * @param verifyCacheMillis 读取校验结果的有效期（毫秒），0 表示每次读取都完整校验
+     */
+    public VoiceStore(Path root, long verifyCacheMillis) {
+        this.root = root.toAbsolutePath();
+        this.verifier = new VoiceFiles.Verifier(verifyCacheMillis);
+    }
+    
+    /**
+     * 存储结果
+     */
+    public static class StoredVoice {
+        private final String hash;
+        private final long size;
+        private final File file;
+        private final boolean deduplicated;
+        
+        public StoredVoice(String hash, long size, File file, boolean deduplicated) {
+            this.hash = hash;
+            this.size = size;
+            this.file = file;
+            this.deduplicated = deduplicated;
+        }
+        
+        public String getHash() { return hash; }
+        public long getSize() { return size; }
+        public File getFile() { return file; }
+        public boolean isDeduplicated() { return deduplicated; }
+    }
+    
+    /**
+     * 存储语音文件
+     * 
+     * @param source 源文件
+     * @return 存储结果（哈希、实际写入字节数、存储位置、是否命中已有内容）
+     */
+    public StoredVoice store(File source) throws IOException {
+        String extension = extensionOf(source.getName());
+        Path tempDir = root.resolve(TEMP_DIR);
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "ingest-", ".part");
+        
+        try {
+            MessageDigest digest = newDigest();
+            long size;
+            try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                size = VoiceFiles.copy(in, out, digest);
+            }
+            
+            String hash = HexFormat.of().formatHex(digest.digest());
+            StoredVoice stored = commit(temp, hash, size, extension);
+            copySidecar(source, stored.getFile());
+            return stored;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * 将已写入临时文件的内容移动到内容寻址位置
+     */
+    StoredVoice commit(Path temp, String hash, long size, String extension) throws IOException {
+        Path target = pathFor(hash, extension);
+        if (Files.exists(target) && Files.size(target) == size) {
+            return new StoredVoice(hash, size, target.toFile(), true);
+        }
+        
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(temp, target);
+            } catch (FileAlreadyExistsException ignored) {
+                // 并发写入了相同内容
+                return new StoredVoice(hash, size, target.toFile(), true);
+            }
+        } catch (FileAlreadyExistsException e) {
+            return new StoredVoice(hash, size, target.toFile(), true);
+        }
+        return new StoredVoice(hash, size, target.toFile(), false);
+    }
+    
+    /**
+     * 读取前校验文件内容与记录的哈希是否一致（有效期内文件大小和修改时间未变时沿用上次的结果）
+     * 
+     * @param file 存储的文件
+     * @param expectedHash 数据库记录的哈希
+     * @return 校验通过返回 true
+     */
+    public boolean verify(File file, String expectedHash) throws IOException {
+        return verifier.verify(file.toPath(), expectedHash);
+    }
+    
+    /**
+     * 导出整个文件到指定位置（零拷贝）
+     */
+    public long export(File stored, File destination) throws IOException {
+        try (FileChannel in = FileChannel.open(stored.toPath(), StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(destination.toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return transferFully(in, out);
+        }
+    }
+    
+    /**
+     * 导出整个文件到任意通道（如网络连接）
+     */
+    public long export(File stored, WritableByteChannel target) throws IOException {
+        try (FileChannel in = FileChannel.open(stored.toPath(), StandardOpenOption.READ)) {
+            return transferRange(in, 0, in.size(), target);
+        }
+    }
+    
+    /**
+     * 读取字节区间（对应 HTTP Range 请求）
+     * 
+     * @param offset 起始字节
+     * @param length 字节数，超出文件末尾时自动截断
+     * @return 实际写出的字节数
+     */
+    public long readRange(File stored, long offset, long length, WritableByteChannel target) throws IOException {
+        try (FileChannel in = FileChannel.open(stored.toPath(), StandardOpenOption.READ)) {
+            long end = Math.min(in.size(), offset + length);
+            return transferRange(in, offset, Math.max(0, end - offset), target);
+        }
+    }
+    
+    /**
+     * 导出 WAV 录音的时间片段（附带新的 WAV 头，可直接播放）
+     * 
+     * @param startSeconds 起始秒
+     * @param durationSeconds 时长（秒）
+     * @return 写出的字节数（含 44 字节头）
+     */
+    public long exportSegment(File wavFile, double startSeconds, double durationSeconds,
+                              WritableByteChannel target) throws IOException {
+        try (FileChannel in = FileChannel.open(wavFile.toPath(), StandardOpenOption.READ)) {
+            WavInfo info = WavInfo.read(in);
+            long[] range = info.byteRange(startSeconds, durationSeconds);
+            ByteBuffer header = info.headerFor(range[1]);
+            long written = 0;
+            while (header.hasRemaining()) {
+                written += target.write(header);
+            }
+            return written + transferRange(in, range[0], range[1], target);
+        }
+    }
+    
+    /**
+     * 读取 WAV 头信息
+     */
+    public WavInfo readWavInfo(File wavFile) throws IOException {
+        try (FileChannel in = FileChannel.open(wavFile.toPath(), StandardOpenOption.READ)) {
+            return WavInfo.read(in);
+        }
+    }
+    
+    /**
+     * 整个通道复制到文件通道（transferFrom 在多数平台上由内核完成）
+     */
+    private static long transferFully(FileChannel in, FileChannel out) throws IOException {
+        long size = in.size();
+        long position = 0;
+        while (position < size) {
+            long transferred = out.transferFrom(in, position, size - position);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+        }
+        return position;
+    }
+    
+    private static long transferRange(FileChannel in, long offset, long length,
+                                      WritableByteChannel target) throws IOException {
+        long position = offset;
+        long end = offset + length;
+        while (position < end) {
+            long transferred = in.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+        }
+        return position - offset;
+    }
+    
+    /**
+     * 内容哈希对应的锁（按哈希分段，不同内容可能共用一把锁，持有时不要再获取其他哈希的锁）
+     */
+    public static Lock lockFor(String hash) {
+        return HASH_LOCKS[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+    
+    /**
+     * 删除存储对象及其波形索引（调用方需在 lockFor 的锁内确认没有其他记录引用该内容）
+     */
+    public boolean delete(File file) throws IOException {
+        Files.deleteIfExists(WaveformIndex.sidecarFor(file));
+        return evict(file);
+    }
+    
+    /**
+     * 只删除音频数据，保留波形索引（归档到冷层时使用，归档后仍可显示波形）
+     */
+    public boolean evict(File file) throws IOException {
+        Path path = file.toPath().toAbsolutePath();
+        verifier.forget(path);
+        return Files.deleteIfExists(path);
+    }
+    
+    /**
+     * 源文件旁有采集时生成的波形索引时一并存入
+     */
+    private static void copySidecar(File source, File stored) {
+        Path sidecar = WaveformIndex.sidecarFor(source);
+        Path target = WaveformIndex.sidecarFor(stored);
+        if (!Files.exists(sidecar) || Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.copy(sidecar, target);
+        } catch (IOException e) {
+            // 索引可由批量任务重建，复制失败不影响录音存储
+            log.error("复制波形索引失败: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 判断文件是否位于本存储中（旧版平铺存储的文件返回 false）
+     */
+    public boolean contains(File file) {
+        return file.toPath().toAbsolutePath().startsWith(root);
+    }
+    
+    /**
+     * 哈希对应的存储路径：<root>/ab/cd/<hash>.<ext>
+     */
+    public Path pathFor(String hash, String extension) {
+        return VoiceFiles.shard(root, VoiceFiles.objectName(hash, extension));
+    }
+    
+    public Path getRoot() {
+        return root;
+    }
+    
+    static MessageDigest newDigest() {
+        return VoiceFiles.newDigest();
+    }
+    
+    static String extensionOf(String fileName) {
+        return VoiceFiles.extensionOf(fileName);
+    }
+}
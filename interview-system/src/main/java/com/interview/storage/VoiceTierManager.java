@@ -0,0 +1,318 @@
+package com.interview.storage;
+
+import com.interview.config.AppConfig;
+import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.dao.InterviewRecordDao;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+import com.interview.util.AudioRecorder;
+import com.interview.util.DatabaseConnection;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 录音分层存储管理
+ * 
+ * 热层：VoiceStore 内容寻址目录，存放近期录音，直接播放
+ * 冷层：ColdStore（本地归档目录或对象存储），存放 gzip 压缩后的旧录音
+ * 
+ * - 后台定时任务把最近访问时间早于阈值的录音压缩上传到冷层，随后删除热层副本
+ * - 元数据始终保留在 interview_records 中，storage_tier 标记当前所在层
+ * - 访问冷层录音时自动解压回热层（rehydrate），并刷新访问时间
+ * - 归档读写按配置限速，检测到正在录音时暂停，避免影响实时采集
+ * 
+ * 同一内容可能被多条记录引用，因此以哈希为单位归档：只有所有引用记录都已过期才会下沉。
+ * 热层文件缺失或内容与哈希不一致、又没有冷层副本的内容标记为 MISSING，不再反复选中；重新上传录音后恢复为 HOT。
+ * 
+ * voice_file_path 是上传录音那台机器上的路径，归档任务只应在存放录音的那一台机器上启用（storage.tier.enabled）。
+ */
+public class VoiceTierManager {
+    
+    private static final Logger log = Log.get(VoiceTierManager.class);
+    
+    public static final String TIER_HOT = "HOT";
+    public static final String TIER_COLD = "COLD";
+    public static final String TIER_MISSING = "MISSING";
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long CAPTURE_POLL_MILLIS = 1000;
+    
+    private final VoiceStore hotStore;
+    private final ColdStore coldStore;
+    private final InterviewRecordDao recordDao;
+    
+    private int coldAfterDays = 90;
+    private long throttleBytesPerSecond = 8L * 1024 * 1024;
+    private int batchSize = 100;
+    private int compressionLevel = 6;
+    
+    private ScheduledExecutorService scheduler;
+    
+    public VoiceTierManager(VoiceStore hotStore, ColdStore coldStore, InterviewRecordDao recordDao) {
+        this.hotStore = hotStore;
+        this.coldStore = coldStore;
+        this.recordDao = recordDao;
+    }
+    
+    /**
+     * 按 config.properties 中的 storage.tier.* 配置创建
+     */
+    public static VoiceTierManager fromConfig(VoiceStore hotStore, InterviewRecordDao recordDao) {
+        String coldDir = AppConfig.getString("storage.tier.cold.dir", "voice_archive");
+        VoiceTierManager manager = new VoiceTierManager(hotStore, new FileSystemColdStore(coldDir), recordDao);
+        manager.setColdAfterDays(AppConfig.getInt("storage.tier.cold.after.days", 90));
+        manager.setThrottleBytesPerSecond(
+                AppConfig.getInt("storage.tier.throttle.mb.per.second", 8) * 1024L * 1024L);
+        manager.setBatchSize(AppConfig.getInt("storage.tier.batch.size", 100));
+        manager.setCompressionLevel(AppConfig.getInt("storage.tier.compression.level", 6));
+        return manager;
+    }
+    
+    /**
+     * 启动后台归档任务
+     * 
+     * @param intervalMinutes 两次运行的间隔（分钟）
+     */
+    public synchronized void start(long intervalMinutes) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "voice-tiering");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            // 后台线程使用管理员数据库用户（连接按线程保存，不影响界面线程的角色）
+            DatabaseConnection.setCurrentDbRole(DbUserRole.ADMIN);
+            try {
+                int archived = runOnce();
+                if (archived > 0) {
+                    log.info("录音归档完成，本轮下沉 {} 个文件到 {}", archived, coldStore.describe());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("录音归档任务失败: {}", e.getMessage());
+            } finally {
+                DatabaseConnection.closeCurrentConnection();
+            }
+        }, 1, Math.max(1, intervalMinutes), TimeUnit.MINUTES);
+    }
+    
+    /**
+     * 停止后台任务（正在归档的文件会在当前块结束后中断，临时文件会被清理）
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+    
+    /**
+     * 执行一轮归档
+     * 
+     * @return 本轮下沉到冷层的文件数
+     */
+    public int runOnce() throws SQLException, InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(coldAfterDays);
+        Map<String, String> candidates = recordDao.findArchiveCandidates(cutoff, batchSize);
+        IoThrottle throttle = new IoThrottle(throttleBytesPerSecond);
+        
+        int archived = 0;
+        for (Map.Entry<String, String> entry : candidates.entrySet()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            try {
+                if (archive(entry.getKey(), new File(entry.getValue()), cutoff, throttle)) {
+                    archived++;
+                }
+            } catch (IOException e) {
+                log.error("归档录音失败 ({}): {}", entry.getKey(), e.getMessage());
+            }
+        }
+        return archived;
+    }
+    
+    /**
+     * 归档单个内容：压缩上传 -> 标记冷层 -> 删除热层副本
+     */
+    boolean archive(String hash, File hotFile, LocalDateTime cutoff, IoThrottle throttle)
+            throws IOException, SQLException, InterruptedException {
+        String key = coldKey(hash, hotFile.getName());
+        
+        if (!coldStore.exists(key)) {
+            if (!hotFile.exists()) {
+                log.warn("归档跳过，热层文件不存在，标记为缺失: {}", hotFile.getAbsolutePath());
+                recordDao.markVoiceMissing(hash);
+                return false;
+            }
+            Path temp = Files.createTempFile(tempDir(), "archive-", ".gz");
+            try {
+                String actual = compress(hotFile.toPath(), temp, throttle);
+                if (!actual.equalsIgnoreCase(hash)) {
+                    log.warn("归档跳过，文件内容与记录哈希不一致，标记为缺失: {}", hotFile.getAbsolutePath());
+                    recordDao.markVoiceMissing(hash);
+                    return false;
+                }
+                coldStore.put(key, temp);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        
+        // 下沉前补建波形索引，归档后的录音不需要恢复也能显示波形
+        if (hotFile.exists() && "wav".equals(VoiceStore.extensionOf(hotFile.getName()))) {
+            try {
+                new WaveformIndexer(throttle).ensureIndexed(hotFile);
+            } catch (IOException e) {
+                log.error("生成波形索引失败: {}", e.getMessage());
+            }
+        }
+        
+        // 条件更新：期间有记录被访问或重新上传时不会标记，热层副本保留
+        if (recordDao.markVoiceArchived(hash, cutoff) == 0) {
+            return false;
+        }
+        hotStore.evict(hotFile);
+        return true;
+    }
+    
+    /**
+     * 从冷层恢复到热层
+     * 
+     * @param hash 内容哈希
+     * @param fileName 热层文件名（用于确定扩展名）
+     * @return 恢复后的热层文件，冷层不存在时返回 null
+     */
+    public File rehydrate(String hash, String fileName) throws IOException {
+        String key = coldKey(hash, fileName);
+        if (!coldStore.exists(key)) {
+            return null;
+        }
+        
+        Path temp = Files.createTempFile(tempDir(), "rehydrate-", ".part");
+        try {
+            MessageDigest digest = VoiceStore.newDigest();
+            long size;
+            try (ReadableByteChannel in = Channels.newChannel(new GZIPInputStream(coldStore.open(key), BUFFER_SIZE));
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                size = VoiceFiles.copy(in, out, digest);
+            }
+            String actual = HexFormat.of().formatHex(digest.digest());
+            if (!actual.equalsIgnoreCase(hash)) {
+                throw new IOException("冷层对象校验失败: " + key);
+            }
+            File restored = hotStore.commit(temp, hash, size, VoiceStore.extensionOf(fileName)).getFile();
+            
+            try {
+                recordDao.markVoiceRehydrated(hash);
+            } catch (SQLException e) {
+                // 无更新权限的角色（如考生）恢复时只保留热层副本，下一轮归档会重新处理
+                log.error("更新录音存储层失败: {}", e.getMessage());
+            }
+            return restored;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * 删除冷层对象（调用方需确认没有其他记录引用该内容）
+     */
+    public boolean deleteCold(String hash, String fileName) throws IOException {
+        return coldStore.delete(coldKey(hash, fileName));
+    }
+    
+    /**
+     * 冷层是否有该内容
+     */
+    public boolean isArchived(String hash, String fileName) throws IOException {
+        return coldStore.exists(coldKey(hash, fileName));
+    }
+    
+    /**
+     * 边读边计算哈希并压缩，按限速读取，录音进行中时暂停
+     */
+    private String compress(Path source, Path target, IoThrottle throttle) throws IOException, InterruptedException {
+        MessageDigest digest = VoiceStore.newDigest();
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new LeveledGZIPOutputStream(
+                     Files.newOutputStream(target, StandardOpenOption.WRITE), compressionLevel)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                waitForCaptureIdle();
+                throttle.acquire(read);
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    private void waitForCaptureIdle() throws InterruptedException {
+        while (AudioRecorder.isAnyRecording()) {
+            Thread.sleep(CAPTURE_POLL_MILLIS);
+        }
+    }
+    
+    private Path tempDir() throws IOException {
+        Path dir = hotStore.getRoot().resolve(".tmp");
+        Files.createDirectories(dir);
+        return dir;
+    }
+    
+    /**
+     * 冷层对象键：<hash>.<ext>.gz（与 Web 端共用 VoiceFiles 的布局）
+     */
+    static String coldKey(String hash, String fileName) {
+        return VoiceFiles.coldKey(hash, fileName);
+    }
+    
+    /**
+     * 可指定压缩级别的 GZIP 输出流
+     */
+    private static class LeveledGZIPOutputStream extends GZIPOutputStream {
+        LeveledGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+    }
+    
+    public ColdStore getColdStore() { return coldStore; }
+    
+    public int getColdAfterDays() { return coldAfterDays; }
+    public void setColdAfterDays(int coldAfterDays) { this.coldAfterDays = Math.max(1, coldAfterDays); }
+    
+    public long getThrottleBytesPerSecond() { return throttleBytesPerSecond; }
+    public void setThrottleBytesPerSecond(long throttleBytesPerSecond) { this.throttleBytesPerSecond = throttleBytesPerSecond; }
+    
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = Math.max(1, batchSize); }
+    
+    public int getCompressionLevel() { return compressionLevel; }
+    public void setCompressionLevel(int compressionLevel) { this.compressionLevel = Math.max(1, Math.min(9, compressionLevel)); }
+}
@@ -0,0 +1,143 @@
+package com.interview.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * WAV 文件头信息
+ * 解析 RIFF 块结构，定位 PCM 数据区，用于按时间偏移换算字节区间
+ */
+public class WavInfo {
+    
+    public static final int HEADER_SIZE = 44;
+    
+    private final int channels;
+    private final int sampleRate;
+    private final int byteRate;
+    private final int blockAlign;
+    private final int bitsPerSample;
+    private final long dataOffset;
+    private final long dataLength;
+    
+    public WavInfo(int channels, int sampleRate, int bitsPerSample, long dataOffset, long dataLength) {
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.bitsPerSample = bitsPerSample;
+        this.blockAlign = channels * bitsPerSample / 8;
+        this.byteRate = sampleRate * blockAlign;
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+    }
+    
+    /**
+     * 从文件通道读取 WAV 头（只读取头部几十个字节，不加载音频数据）
+     */
+    public static WavInfo read(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        ByteBuffer buf = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, buf, 0);
+        if (buf.getInt(0) != 0x46464952 || buf.getInt(8) != 0x45564157) { // "RIFF" / "WAVE"
+            throw new IOException("不是有效的 WAV 文件");
+        }
+        
+        int channels = 0;
+        int sampleRate = 0;
+        int bitsPerSample = 0;
+        long position = 12;
+        ByteBuffer chunkHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        
+        while (position + 8 <= fileSize) {
+            chunkHeader.clear();
+            readFully(channel, chunkHeader, position);
+            int chunkId = chunkHeader.getInt(0);
+            long chunkSize = chunkHeader.getInt(4) & 0xFFFFFFFFL;
+            long body = position + 8;
+            
+            if (chunkId == 0x20746D66) { // "fmt "
+                ByteBuffer fmt = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+                readFully(channel, fmt, body);
+                channels = fmt.getShort(2);
+                sampleRate = fmt.getInt(4);
+                bitsPerSample = fmt.getShort(14);
+            } else if (chunkId == 0x61746164) { // "data"
+                if (channels == 0) {
+                    throw new IOException("WAV 文件缺少 fmt 块");
+                }
+                // 录音进行中或异常中断时头部长度可能为 0 或不准确，以实际文件大小为准
+                long available = fileSize - body;
+                long length = (chunkSize == 0 || chunkSize > available) ? available : chunkSize;
+                return new WavInfo(channels, sampleRate, bitsPerSample, body, length);
+            }
+            // 块按偶数字节对齐
+            position = body + chunkSize + (chunkSize & 1);
+        }
+        throw new IOException("WAV 文件缺少 data 块");
+    }
+    
+    /**
+     * 将时间区间换算为文件中的字节区间（按采样帧对齐，并截断到数据区范围内）
+     * 
+     * @param startSeconds 起始秒
+     * @param durationSeconds 时长（秒）
+     * @return {文件偏移, 字节数}
+     */
+    public long[] byteRange(double startSeconds, double durationSeconds) {
+        long start = alignToFrame((long) (Math.max(0, startSeconds) * byteRate));
+        start = Math.min(start, dataLength);
+        long length = alignToFrame((long) (Math.max(0, durationSeconds) * byteRate));
+        length = Math.min(length, dataLength - start);
+        return new long[] { dataOffset + start, length };
+    }
+    
+    /**
+     * 生成只包含指定数据长度的标准 44 字节 PCM 头
+     */
+    public ByteBuffer headerFor(long pcmLength) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0x46464952);                  // "RIFF"
+        header.putInt((int) (36 + pcmLength));
+        header.putInt(0x45564157);                  // "WAVE"
+        header.putInt(0x20746D66);                  // "fmt "
+        header.putInt(16);
+        header.putShort((short) 1);                 // PCM
+        header.putShort((short) channels);
+        header.putInt(sampleRate);
+        header.putInt(byteRate);
+        header.putShort((short) blockAlign);
+        header.putShort((short) bitsPerSample);
+        header.putInt(0x61746164);                  // "data"
+        header.putInt((int) pcmLength);
+        header.flip();
+        return header;
+    }
+    
+    private long alignToFrame(long bytes) {
+        return blockAlign > 0 ? bytes - bytes % blockAlign : bytes;
+    }
+    
+    private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int read = channel.read(buf, position + buf.position());
+            if (read < 0) {
+                throw new IOException("WAV 文件头不完整");
+            }
+        }
+    }
+    
+    /**
+     * 音频总时长（秒）
+     */
+    public double getDurationSeconds() {
+        return byteRate > 0 ? (double) dataLength / byteRate : 0;
+    }
+    
+    public int getChannels() { return channels; }
+    public int getSampleRate() { return sampleRate; }
+    public int getByteRate() { return byteRate; }
+    public int getBlockAlign() { return blockAlign; }
+    public int getBitsPerSample() { return bitsPerSample; }
+    public long getDataOffset() { return dataOffset; }
+    public long getDataLength() { return dataLength; }
+}
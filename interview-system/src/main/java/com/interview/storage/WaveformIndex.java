@@ -0,0 +1,357 @@
+package com.interview.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 录音波形概览索引（峰值索引）
+ * 
+ * 按固定采样数分桶，记录每桶的最小/最大采样值，保存为与录音同名的 .peaks 旁路文件。
+ * 包含多级分辨率（默认每桶 256 / 4096 个采样），界面按显示宽度选择合适的级别，
+ * 一小时录音的粗粒度级别只有约 14000 个桶，无需解码 WAV 即可立即绘制完整波形。
+ * 
+ * 文件格式（小端）：
+ * magic "WFIX" | version(int) | sampleRate(int) | totalSamples(long) | levelCount(int)
+ * 每级：samplesPerBucket(int) | bucketCount(int) | (min(short), max(short)) * bucketCount
+ */
+public class WaveformIndex {
+    
+    public static final String SIDECAR_SUFFIX = ".peaks";
+    public static final int[] DEFAULT_LEVELS = { 256, 4096 };
+    
+    private static final int MAGIC = 0x58494657; // "WFIX"
+    private static final int VERSION = 1;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    
+    private final int sampleRate;
+    private final long totalSamples;
+    private final List<Level> levels;
+    
+    private WaveformIndex(int sampleRate, long totalSamples, List<Level> levels) {
+        this.sampleRate = sampleRate;
+        this.totalSamples = totalSamples;
+        this.levels = levels;
+    }
+    
+    /**
+     * 单级分辨率的峰值数据
+     */
+    public static class Level {
+        private final int samplesPerBucket;
+        private final short[] min;
+        private final short[] max;
+        
+        Level(int samplesPerBucket, short[] min, short[] max) {
+            this.samplesPerBucket = samplesPerBucket;
+            this.min = min;
+            this.max = max;
+        }
+        
+        public int getSamplesPerBucket() { return samplesPerBucket; }
+        public int getBucketCount() { return min.length; }
+        public short getMin(int bucket) { return min[bucket]; }
+        public short getMax(int bucket) { return max[bucket]; }
+        
+        /**
+         * 桶内峰值幅度（0 ~ 32768）
+         */
+        public int getPeak(int bucket) {
+            return Math.max(Math.abs((int) min[bucket]), Math.abs((int) max[bucket]));
+        }
+    }
+    
+    /**
+     * 增量构建器，录音时每读到一块 PCM 数据调用一次 accept
+     * 只支持 16 位有符号小端 PCM，多声道时取各声道的极值
+     */
+    public static class Builder {
+        private final int sampleRate;
+        private final int channels;
+        private final int finest;
+        private final int[] levelSizes;
+        
+        private short[] min = new short[1024];
+        private short[] max = new short[1024];
+        private int buckets;
+        
+        private int bucketFill;
+        private short curMin = Short.MAX_VALUE;
+        private short curMax = Short.MIN_VALUE;
+        private int frameChannel;
+        private long totalSamples;
+        private int pendingByte = -1;
+        
+        public Builder(int sampleRate, int channels) {
+            this(sampleRate, channels, DEFAULT_LEVELS);
+        }
+        
+        /**
+         * @param levelSizes 各级每桶采样数，从小到大，较粗的级别必须是最细级别的整数倍
+         */
+        public Builder(int sampleRate, int channels, int[] levelSizes) {
+            for (int size : levelSizes) {
+                if (size <= 0 || size % levelSizes[0] != 0) {
+                    throw new IllegalArgumentException("各级分桶大小必须是最细级别的整数倍");
+                }
+            }
+            this.sampleRate = sampleRate;
+            this.channels = Math.max(1, channels);
+            this.finest = levelSizes[0];
+            this.levelSizes = levelSizes.clone();
+        }
+        
+        /**
+         * 追加一块 16 位小端 PCM 数据（允许在采样中间断开）
+         */
+        public void accept(byte[] pcm, int offset, int length) {
+            int i = offset;
+            int end = offset + length;
+            if (pendingByte >= 0 && i < end) {
+                addSample((short) ((pcm[i] << 8) | pendingByte));
+                pendingByte = -1;
+                i++;
+            }
+            for (; i + 1 < end; i += 2) {
+                addSample((short) ((pcm[i + 1] << 8) | (pcm[i] & 0xFF)));
+            }
+            if (i < end) {
+                pendingByte = pcm[i] & 0xFF;
+            }
+        }
+        
+        public void accept(ByteBuffer pcm) {
+            pcm.order(ByteOrder.LITTLE_ENDIAN);
+            while (pcm.remaining() >= 2) {
+                addSample(pcm.getShort());
+            }
+        }
+        
+        private void addSample(short sample) {
+            if (sample < curMin) curMin = sample;
+            if (sample > curMax) curMax = sample;
+            if (++frameChannel < channels) {
+                return;
+            }
+            frameChannel = 0;
+            totalSamples++;
+            if (++bucketFill == finest) {
+                closeBucket();
+            }
+        }
+        
+        private void closeBucket() {
+            if (buckets == min.length) {
+                min = Arrays.copyOf(min, buckets * 2);
+                max = Arrays.copyOf(max, buckets * 2);
+            }
+            min[buckets] = curMin;
+            max[buckets] = curMax;
+            buckets++;
+            bucketFill = 0;
+            curMin = Short.MAX_VALUE;
+            curMax = Short.MIN_VALUE;
+        }
+        
+        /**
+         * 结束构建，粗粒度级别由最细级别合并得到
+         */
+        public WaveformIndex build() {
+            if (bucketFill > 0) {
+                closeBucket();
+            }
+            List<Level> levels = new ArrayList<>(levelSizes.length);
+            short[] fineMin = Arrays.copyOf(min, buckets);
+            short[] fineMax = Arrays.copyOf(max, buckets);
+            levels.add(new Level(finest, fineMin, fineMax));
+            
+            for (int l = 1; l < levelSizes.length; l++) {
+                int factor = levelSizes[l] / finest;
+                int count = (buckets + factor - 1) / factor;
+                short[] lmin = new short[count];
+                short[] lmax = new short[count];
+                for (int b = 0; b < count; b++) {
+                    short mn = Short.MAX_VALUE;
+                    short mx = Short.MIN_VALUE;
+                    int to = Math.min(buckets, (b + 1) * factor);
+                    for (int k = b * factor; k < to; k++) {
+                        if (fineMin[k] < mn) mn = fineMin[k];
+                        if (fineMax[k] > mx) mx = fineMax[k];
+                    }
+                    lmin[b] = mn;
+                    lmax[b] = mx;
+                }
+                levels.add(new Level(levelSizes[l], lmin, lmax));
+            }
+            return new WaveformIndex(sampleRate, totalSamples, levels);
+        }
+    }
+    
+    /**
+     * 扫描 WAV 文件生成索引（批量补建历史录音用）
+     * 
+     * @param throttle 读取限速，可为 null
+     */
+    public static WaveformIndex build(File wavFile, IoThrottle throttle) throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(wavFile.toPath(), StandardOpenOption.READ)) {
+            WavInfo info = WavInfo.read(channel);
+            if (info.getBitsPerSample() != 16) {
+                throw new IOException("仅支持 16 位 PCM 录音");
+            }
+            Builder builder = new Builder(info.getSampleRate(), info.getChannels());
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            long position = info.getDataOffset();
+            long end = position + info.getDataLength();
+            while (position < end) {
+                buffer.clear();
+                if (end - position < buffer.capacity()) {
+                    buffer.limit((int) (end - position));
+                }
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                if (throttle != null) {
+                    throttle.acquire(read);
+                }
+                position += read;
+                buffer.flip();
+                builder.accept(buffer);
+            }
+            return builder.build();
+        }
+    }
+    
+    /**
+     * 录音文件对应的旁路文件路径
+     */
+    public static Path sidecarFor(File audioFile) {
+        return audioFile.toPath().resolveSibling(audioFile.getName() + SIDECAR_SUFFIX);
+    }
+    
+    /**
+     * 读取旁路文件，不存在时返回 null
+     */
+    public static WaveformIndex read(Path sidecar) throws IOException {
+        if (!Files.isRegularFile(sidecar)) {
+            return null;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(sidecar)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.remaining() < 24 || buf.getInt() != MAGIC) {
+            throw new IOException("无效的波形索引文件: " + sidecar);
+        }
+        int version = buf.getInt();
+        if (version != VERSION) {
+            throw new IOException("不支持的波形索引版本: " + version);
+        }
+        int sampleRate = buf.getInt();
+        long totalSamples = buf.getLong();
+        int levelCount = buf.getInt();
+        List<Level> levels = new ArrayList<>(levelCount);
+        for (int l = 0; l < levelCount; l++) {
+            int samplesPerBucket = buf.getInt();
+            int count = buf.getInt();
+            short[] min = new short[count];
+            short[] max = new short[count];
+            for (int b = 0; b < count; b++) {
+                min[b] = buf.getShort();
+                max[b] = buf.getShort();
+            }
+            levels.add(new Level(samplesPerBucket, min, max));
+        }
+        return new WaveformIndex(sampleRate, totalSamples, levels);
+    }
+    
+    /**
+     * 写入旁路文件（先写临时文件再替换，读取方不会看到半个文件）
+     */
+    public void write(Path sidecar) throws IOException {
+        int size = 24;
+        for (Level level : levels) {
+            size += 8 + level.getBucketCount() * 4;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(sampleRate).putLong(totalSamples).putInt(levels.size());
+        for (Level level : levels) {
+            buf.putInt(level.samplesPerBucket).putInt(level.getBucketCount());
+            for (int b = 0; b < level.getBucketCount(); b++) {
+                buf.putShort(level.min[b]).putShort(level.max[b]);
+            }
+        }
+        Path temp = sidecar.resolveSibling(sidecar.getFileName() + ".part");
+        Files.write(temp, buf.array());
+        Files.move(temp, sidecar, StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    /**
+     * 选择适合显示宽度的级别：桶数不少于像素数的最粗级别
+     */
+    public Level levelFor(int pixelWidth) {
+        Level chosen = levels.get(0);
+        for (Level level : levels) {
+            if (level.getBucketCount() >= pixelWidth) {
+                chosen = level;
+            }
+        }
+        return chosen;
+    }
+    
+    /**
+     * 查找有声区间（用于跳转到说话位置）
+     * 
+     * @param thresholdRatio 判定为有声的峰值比例（相对于整段录音的最大峰值）
+     * @param minGapSeconds 短于该时长的静音不切分区间
+     * @return 区间列表，每项为 {起始秒, 结束秒}
+     */
+    public List<double[]> speechRegions(double thresholdRatio, double minGapSeconds) {
+        Level level = levels.get(0);
+        int loudest = 0;
+        for (int b = 0; b < level.getBucketCount(); b++) {
+            loudest = Math.max(loudest, level.getPeak(b));
+        }
+        List<double[]> regions = new ArrayList<>();
+        if (loudest == 0) {
+            return regions;
+        }
+        
+        double bucketSeconds = (double) level.samplesPerBucket / sampleRate;
+        int threshold = (int) (loudest * thresholdRatio);
+        int maxGap = (int) Math.ceil(minGapSeconds / bucketSeconds);
+        int start = -1;
+        int lastLoud = -1;
+        for (int b = 0; b < level.getBucketCount(); b++) {
+            if (level.getPeak(b) < threshold) {
+                continue;
+            }
+            if (start >= 0 && b - lastLoud > maxGap) {
+                regions.add(new double[] { start * bucketSeconds, (lastLoud + 1) * bucketSeconds });
+                start = -1;
+            }
+            if (start < 0) {
+                start = b;
+            }
+            lastLoud = b;
+        }
+        if (start >= 0) {
+            regions.add(new double[] { start * bucketSeconds, Math.min(getDurationSeconds(), (lastLoud + 1) * bucketSeconds) });
+        }
+        return regions;
+    }
+    
+    public double getDurationSeconds() {
+        return sampleRate > 0 ? (double) totalSamples / sampleRate : 0;
+    }
+    
+    public int getSampleRate() { return sampleRate; }
+    public long getTotalSamples() { return totalSamples; }
+    public List<Level> getLevels() { return levels; }
+}
@@ -0,0 +1,89 @@
+package com.interview.storage;
+
+import com.interview.log.Log;
+import com.interview.log.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 波形索引批量补建任务
+ * 
+ * 扫描录音目录，为没有 .peaks 旁路文件（或旁路文件比录音旧）的 WAV 生成索引。
+ * 新录音在采集时已经生成索引，本任务用于处理历史录音和外部上传的文件。
+ * 
+ * 用法: java -cp target/classes com.interview.storage.WaveformIndexer [录音目录] [限速MB/s]
+ */
+public class WaveformIndexer {
+    
+    private static final Logger log = Log.get(WaveformIndexer.class);
+    
+    private final IoThrottle throttle;
+    
+    public WaveformIndexer(IoThrottle throttle) {
+        this.throttle = throttle;
+    }
+    
+    /**
+     * 确保单个录音有最新的索引
+     * 
+     * @return 新生成索引时返回 true
+     */
+    public boolean ensureIndexed(File wavFile) throws IOException, InterruptedException {
+        Path sidecar = WaveformIndex.sidecarFor(wavFile);
+        if (Files.exists(sidecar)
+                && Files.getLastModifiedTime(sidecar).compareTo(Files.getLastModifiedTime(wavFile.toPath())) >= 0) {
+            return false;
+        }
+        WaveformIndex.build(wavFile, throttle).write(sidecar);
+        return true;
+    }
+    
+    /**
+     * 扫描目录补建索引
+     * 
+     * @return 新生成的索引数
+     */
+    public int indexDirectory(Path root) throws IOException, InterruptedException {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        List<Path> wavFiles;
+        try (Stream<Path> walk = Files.walk(root)) {
+            wavFiles = walk.filter(p -> p.getFileName().toString().toLowerCase().endsWith(".wav"))
+                    .filter(Files::isRegularFile)
+                    .collect(Collectors.toList());
+        }
+        
+        int indexed = 0;
+        for (Path wav : wavFiles) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            try {
+                if (ensureIndexed(wav.toFile())) {
+                    indexed++;
+                }
+            } catch (IOException e) {
+                log.error("生成波形索引失败 ({}): {}", wav, e.getMessage());
+            }
+        }
+        return indexed;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        String dir = args.length > 0 ? args[0] : "voice_records";
+        long mbPerSecond = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        WaveformIndexer indexer = new WaveformIndexer(new IoThrottle(mbPerSecond * 1024 * 1024));
+        
+        long start = System.nanoTime();
+        int indexed = indexer.indexDirectory(Path.of(dir));
+        System.out.printf("波形索引补建完成: %d 个文件, 耗时 %.1f 秒%n",
+                indexed, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,185 @@
+package com.interview.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV 流式读取（RFC 4180：逗号分隔，双引号包围的字段内可含逗号、换行和 "" 转义的引号）
+ * 
+ * 第一行为表头；按字符逐个解析，一条记录可以跨多个物理行，行号记录的是记录起始行。
+ */
+final class CsvRowReader implements RowReader {
+    
+    private final Reader reader;
+    private final List<String> header;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+    private long line = 1;
+    private boolean eof;
+    
+    CsvRowReader(Reader reader) throws IOException {
+        this.reader = reader;
+        List<String> first = readRecord();
+        if (first == null) {
+            throw new IOException("CSV 文件为空");
+        }
+        if (!first.isEmpty() && first.get(0).startsWith("\uFEFF")) {
+            first.set(0, first.get(0).substring(1));
+        }
+        header = first;
+    }
+    
+    List<String> header() {
+        return header;
+    }
+    
+    @Override
+    public Row next() throws IOException {
+        List<String> values;
+        long start;
+        do {
+            start = line;
+            values = readRecord();
+            if (values == null) {
+                return null;
+            }
+            // 跳过空行
+        } while (values.size() == 1 && values.get(0).isEmpty());
+        
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(header.size(), values.size()); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        String error = values.size() != header.size()
+                ? "字段数 " + values.size() + " 与表头字段数 " + header.size() + " 不一致" : null;
+        return new Row(start, fields, error, values);
+    }
+    
+    @Override
+    public String rejectHeader() {
+        List<String> columns = new ArrayList<>(header);
+        columns.add("error");
+        return toCsvLine(columns);
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public String formatRejected(Row row, String reason) {
+        List<String> columns = new ArrayList<>((List<String>) row.original);
+        // 字段数不对的行补齐到表头宽度，原因始终落在 error 列
+        while (columns.size() < header.size()) {
+            columns.add("");
+        }
+        columns.add("第 " + row.line + " 行: " + reason);
+        return toCsvLine(columns);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+    
+    /**
+     * 读取一条记录，文件结束返回 null
+     */
+    private List<String> readRecord() throws IOException {
+        if (!fill()) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean afterQuote = false;
+        while (fill()) {
+            char c = buffer[position++];
+            if (quoted) {
+                if (c == '"') {
+                    if (fill() && buffer[position] == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0 && !afterQuote) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && fill() && buffer[position] == '\n') {
+                    position++;
+                }
+                line++;
+                values.add(field.toString());
+                return values;
+            } else {
+                field.append(c);
+            }
+        }
+        // 最后一行没有换行符
+        values.add(field.toString());
+        return values;
+    }
+    
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        if (eof) {
+            return false;
+        }
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            eof = true;
+            return false;
+        }
+        return true;
+    }
+    
+    static String toCsvLine(List<String> values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendCsvField(sb, values.get(i));
+        }
+        return sb.toString();
+    }
+    
+    static void appendCsvField(StringBuilder sb, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            sb.append(value);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+}
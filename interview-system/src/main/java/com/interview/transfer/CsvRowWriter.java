@@ -0,0 +1,48 @@
+package com.interview.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * CSV 写入：UTF-8 带 BOM（Excel 直接打开不乱码），CRLF 换行，表头即列名，可被 QuestionImporter 重新导入
+ */
+final class CsvRowWriter implements RowWriter {
+    
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(1024);
+    
+    CsvRowWriter(Writer writer) {
+        this.writer = writer;
+    }
+    
+    @Override
+    public void columns(String[] columns) throws IOException {
+        writer.write('\uFEFF');
+        writer.write(CsvRowReader.toCsvLine(Arrays.asList(columns)));
+        writer.write("\r\n");
+    }
+    
+    @Override
+    public void row(Object[] values) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            CsvRowReader.appendCsvField(line, RowWriter.text(values[i]));
+        }
+        line.append("\r\n");
+        writer.append(line);
+    }
+    
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
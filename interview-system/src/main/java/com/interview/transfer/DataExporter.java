@@ -0,0 +1,100 @@
+package com.interview.transfer;
+
+import com.interview.dao.ExportDao;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.function.LongConsumer;
+
+/**
+ * 数据导出
+ * 
+ * ExportDao 用服务端游标逐批读取，RowWriter 逐行编码写入固定大小的缓冲区，
+ * 整个过程不保留已导出的行，内存占用与行数无关。
+ * 先写入同目录下的 .part 临时文件，成功后再改名，失败或中断时不会留下不完整的目标文件。
+ */
+public class DataExporter {
+    
+    // 每导出多少行回调一次进度
+    private static final int PROGRESS_INTERVAL = 10_000;
+    
+    private final ExportDao exportDao;
+    private int bufferSize = 256 * 1024;
+    private LongConsumer progressListener;
+    
+    public DataExporter(ExportDao exportDao) {
+        this.exportDao = exportDao;
+    }
+    
+    /**
+     * 写文件缓冲区大小（字节）
+     */
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = Math.max(8 * 1024, bufferSize);
+    }
+    
+    /**
+     * 进度回调，参数为已导出的行数（在导出线程上调用）
+     */
+    public void setProgressListener(LongConsumer progressListener) {
+        this.progressListener = progressListener;
+    }
+    
+    public ExportResult export(ExportDataset dataset, ExportFormat format, Path target)
+            throws IOException, SQLException {
+        long start = System.nanoTime();
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        long rows;
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), bufferSize);
+                 RowWriter writer = open(format, out)) {
+                long[] count = new long[1];
+                ExportDao.RowHandler handler = new ExportDao.RowHandler() {
+                    @Override
+                    public void columns(String[] columns) throws IOException {
+                        writer.columns(columns);
+                    }
+                    
+                    @Override
+                    public void row(Object[] values) throws IOException {
+                        writer.row(values);
+                        if (++count[0] % PROGRESS_INTERVAL == 0 && progressListener != null) {
+                            progressListener.accept(count[0]);
+                        }
+                    }
+                };
+                rows = switch (dataset) {
+                    case QUESTIONS -> exportDao.streamQuestions(handler);
+                    case INTERVIEW_RECORDS -> exportDao.streamInterviewRecords(handler);
+                    case EVALUATION_SCORES -> exportDao.streamEvaluationScores(handler);
+                };
+                writer.finish();
+            }
+            try {
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(part);
+        }
+        return new ExportResult(rows, Files.size(target), (System.nanoTime() - start) / 1_000_000, target);
+    }
+    
+    private RowWriter open(ExportFormat format, OutputStream out) {
+        return switch (format) {
+            case CSV -> new CsvRowWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+            case JSONL -> new JsonlRowWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+            case XLSX -> new XlsxRowWriter(out);
+        };
+    }
+}
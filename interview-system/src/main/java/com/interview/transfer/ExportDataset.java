@@ -0,0 +1,37 @@
+package com.interview.transfer;
+
+import com.interview.model.Permission;
+
+/**
+ * 可导出的数据集
+ */
+public enum ExportDataset {
+    QUESTIONS("题目", "questions", Permission.QUESTION_READ),
+    INTERVIEW_RECORDS("面试记录", "interview_records", Permission.VIEW_RECORDS),
+    EVALUATION_SCORES("评分（维度分数按列展开）", "evaluation_scores", Permission.VIEW_RECORDS);
+    
+    private final String displayName;
+    private final String fileName;
+    private final Permission requiredPermission;
+    
+    ExportDataset(String displayName, String fileName, Permission requiredPermission) {
+        this.displayName = displayName;
+        this.fileName = fileName;
+        this.requiredPermission = requiredPermission;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * 默认文件名（不含扩展名）
+     */
+    public String getFileName() {
+        return fileName;
+    }
+    
+    public Permission getRequiredPermission() {
+        return requiredPermission;
+    }
+}
@@ -0,0 +1,26 @@
+package com.interview.transfer;
+
+/**
+ * 导出文件格式
+ */
+public enum ExportFormat {
+    CSV("CSV", ".csv"),
+    JSONL("JSON Lines", ".jsonl"),
+    XLSX("Excel", ".xlsx");
+    
+    private final String displayName;
+    private final String extension;
+    
+    ExportFormat(String displayName, String extension) {
+        this.displayName = displayName;
+        this.extension = extension;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+}
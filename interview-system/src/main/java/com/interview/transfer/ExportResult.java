@@ -0,0 +1,49 @@
+package com.interview.transfer;
+
+import java.nio.file.Path;
+
+/**
+ * 导出结果
+ */
+public class ExportResult {
+    
+    private final long rows;
+    private final long bytes;
+    private final long elapsedMillis;
+    private final Path file;
+    
+    ExportResult(long rows, long bytes, long elapsedMillis, Path file) {
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedMillis = elapsedMillis;
+        this.file = file;
+    }
+    
+    public long getRows() {
+        return rows;
+    }
+    
+    public long getBytes() {
+        return bytes;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    public double getRowsPerSecond() {
+        return rows * 1000.0 / Math.max(1, elapsedMillis);
+    }
+    
+    /**
+     * 中文摘要
+     */
+    public String describe() {
+        return String.format("导出完成：%d 行，%.1f MB，耗时 %.1f 秒，%.0f 行/秒\n文件: %s",
+                rows, bytes / 1024.0 / 1024.0, elapsedMillis / 1000.0, getRowsPerSecond(), file);
+    }
+}
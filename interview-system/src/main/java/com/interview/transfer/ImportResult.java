@@ -0,0 +1,69 @@
+package com.interview.transfer;
+
+import java.nio.file.Path;
+
+/**
+ * 批量导入结果
+ */
+public class ImportResult {
+    
+    private final int imported;
+    private final int rejected;
+    private final long elapsedMillis;
+    private final boolean copyUsed;
+    private final Path errorFile;
+    
+    ImportResult(int imported, int rejected, long elapsedMillis, boolean copyUsed, Path errorFile) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+        this.copyUsed = copyUsed;
+        this.errorFile = errorFile;
+    }
+    
+    public int getImported() {
+        return imported;
+    }
+    
+    public int getRejected() {
+        return rejected;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    /**
+     * 是否走了 COPY（否则为批量 INSERT）
+     */
+    public boolean isCopyUsed() {
+        return copyUsed;
+    }
+    
+    /**
+     * 被拒绝行的错误文件，没有被拒绝的行时为 null
+     */
+    public Path getErrorFile() {
+        return errorFile;
+    }
+    
+    /**
+     * 吞吐量（读取的行数 / 秒，含解析、校验和写入）
+     */
+    public double getRowsPerSecond() {
+        return (imported + rejected) * 1000.0 / Math.max(1, elapsedMillis);
+    }
+    
+    /**
+     * 中文摘要
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("导入完成：成功 %d 条，拒绝 %d 条，耗时 %.1f 秒，%.0f 行/秒（%s）",
+                imported, rejected, elapsedMillis / 1000.0, getRowsPerSecond(), copyUsed ? "COPY" : "批量 INSERT"));
+        if (errorFile != null) {
+            sb.append("\n被拒绝的行已写入: ").append(errorFile);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.interview.transfer;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JSON Lines 流式读取：每行一个 JSON 对象，空行跳过
+ */
+final class JsonlRowReader implements RowReader {
+    
+    private final BufferedReader reader;
+    private long line;
+    
+    JsonlRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+    
+    @Override
+    public Row next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+            if (line == 1 && text.startsWith("\uFEFF")) {
+                text = text.substring(1);
+            }
+        } while (text.isBlank());
+        
+        try {
+            JSONObject json = new JSONObject(text);
+            Map<String, String> fields = new LinkedHashMap<>();
+            for (String key : json.keySet()) {
+                fields.put(key, json.isNull(key) ? null : String.valueOf(json.get(key)));
+            }
+            return new Row(line, fields, null, json);
+        } catch (JSONException e) {
+            return new Row(line, Map.of(), "JSON 格式错误: " + e.getMessage(), text);
+        }
+    }
+    
+    @Override
+    public String rejectHeader() {
+        return null;
+    }
+    
+    @Override
+    public String formatRejected(Row row, String reason) {
+        JSONObject json = row.original instanceof JSONObject object ? object : new JSONObject().put("_raw", row.original);
+        json.put("_error", "第 " + row.line + " 行: " + reason);
+        return json.toString();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
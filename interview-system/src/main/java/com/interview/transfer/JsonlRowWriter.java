@@ -0,0 +1,60 @@
+package com.interview.transfer;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * JSON Lines 写入：每行一个对象，数字和布尔值保持原类型，NULL 写为 null
+ */
+final class JsonlRowWriter implements RowWriter {
+    
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(1024);
+    private String[] keys;
+    
+    JsonlRowWriter(Writer writer) {
+        this.writer = writer;
+    }
+    
+    @Override
+    public void columns(String[] columns) {
+        keys = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            keys[i] = JSONObject.quote(columns[i]);
+        }
+    }
+    
+    @Override
+    public void row(Object[] values) throws IOException {
+        line.setLength(0);
+        line.append('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(keys[i]).append(':');
+            Object value = values[i];
+            if (value == null) {
+                line.append("null");
+            } else if (value instanceof Number || value instanceof Boolean) {
+                line.append(value);
+            } else {
+                line.append(JSONObject.quote(RowWriter.text(value)));
+            }
+        }
+        line.append("}\n");
+        writer.append(line);
+    }
+    
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
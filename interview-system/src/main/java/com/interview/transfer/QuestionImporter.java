@@ -0,0 +1,270 @@
+package com.interview.transfer;
+
+import com.interview.dao.QuestionDao;
+import com.interview.model.Question;
+import com.interview.model.Question.QuestionLevel;
+import com.interview.model.Question.QuestionType;
+import com.interview.model.Question.SpecializationType;
+import com.interview.transfer.RowReader.Row;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * 题目批量导入（CSV / JSON Lines）
+ * 
+ * 文件边读边校验边写入数据库，内存占用与文件大小无关：
+ * - 字段：title、content、answer、type、level、specialization、category（也接受中文列名）
+ * - 枚举字段接受枚举名（TECHNICAL）或显示名（技术题），不区分大小写
+ * - 校验失败的行不中断导入，写入错误文件（与原文件格式相同，多一列/字段说明原因），修正后可直接重新导入
+ * - 写入优先走 COPY（QuestionDao.copyInsert），连接不支持 COPY 或配置关闭时退回批量 INSERT；
+ *   整个文件在一个事务中写入，数据库出错时全部回滚
+ */
+public class QuestionImporter {
+    
+    // 每读取多少行回调一次进度
+    private static final int PROGRESS_INTERVAL = 1000;
+    
+    private static final Map<String, String> COLUMN_ALIASES = new HashMap<>();
+    
+    static {
+        COLUMN_ALIASES.put("标题", "title");
+        COLUMN_ALIASES.put("内容", "content");
+        COLUMN_ALIASES.put("题目内容", "content");
+        COLUMN_ALIASES.put("答案", "answer");
+        COLUMN_ALIASES.put("参考答案", "answer");
+        COLUMN_ALIASES.put("类型", "type");
+        COLUMN_ALIASES.put("题目类型", "type");
+        COLUMN_ALIASES.put("等级", "level");
+        COLUMN_ALIASES.put("难度", "level");
+        COLUMN_ALIASES.put("专精", "specialization");
+        COLUMN_ALIASES.put("专精类型", "specialization");
+        COLUMN_ALIASES.put("分类", "category");
+    }
+    
+    private final QuestionDao questionDao;
+    private boolean useCopy = true;
+    private int batchSize = 1000;
+    private LongConsumer progressListener;
+    
+    public QuestionImporter(QuestionDao questionDao) {
+        this.questionDao = questionDao;
+    }
+    
+    public void setUseCopy(boolean useCopy) {
+        this.useCopy = useCopy;
+    }
+    
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+    
+    /**
+     * 进度回调，参数为已读取的行数（在导入线程上调用）
+     */
+    public void setProgressListener(LongConsumer progressListener) {
+        this.progressListener = progressListener;
+    }
+    
+    /**
+     * 导入文件，按扩展名识别格式（.csv / .jsonl / .ndjson）
+     * 
+     * @param errorFile 被拒绝行的输出文件，没有被拒绝的行时不会保留
+     * @param createdBy 题目的创建者
+     */
+    public ImportResult importFile(Path input, Path errorFile, String createdBy) throws IOException, SQLException {
+        String name = input.getFileName().toString().toLowerCase(Locale.ROOT);
+        BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+        RowReader rows;
+        if (name.endsWith(".csv")) {
+            rows = new CsvRowReader(reader);
+        } else if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            rows = new JsonlRowReader(reader);
+        } else {
+            reader.close();
+            throw new IOException("不支持的文件格式，请使用 .csv 或 .jsonl 文件");
+        }
+        
+        long start = System.nanoTime();
+        boolean copy = useCopy && questionDao.supportsCopy();
+        ImportResult result;
+        try (RowReader source = rows;
+             BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8)) {
+            if (source.rejectHeader() != null) {
+                errors.write(source.rejectHeader());
+                errors.newLine();
+            }
+            ValidatingIterator questions = new ValidatingIterator(source, errors, createdBy);
+            int imported;
+            try {
+                imported = copy ? questionDao.copyInsert(questions) : questionDao.batchInsert(questions, batchSize);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            result = new ImportResult(imported, questions.rejected, elapsed, copy,
+                    questions.rejected > 0 ? errorFile : null);
+        }
+        // 错误文件关闭后才能删除
+        if (result.getErrorFile() == null) {
+            Files.deleteIfExists(errorFile);
+        }
+        return result;
+    }
+    
+    /**
+     * 把一行字段转换为题目
+     * 
+     * @throws IllegalArgumentException 字段不合法，消息为中文原因
+     */
+    static Question toQuestion(Map<String, String> rawFields, String createdBy) {
+        Map<String, String> fields = new HashMap<>();
+        for (Map.Entry<String, String> e : rawFields.entrySet()) {
+            String key = e.getKey().trim().toLowerCase(Locale.ROOT);
+            String value = e.getValue() != null ? e.getValue().trim() : null;
+            fields.put(COLUMN_ALIASES.getOrDefault(key, key), value == null || value.isEmpty() ? null : value);
+        }
+        
+        String title = required(fields, "title", "标题");
+        String content = required(fields, "content", "内容");
+        if (title.length() > 255) {
+            throw new IllegalArgumentException("标题超过 255 个字符");
+        }
+        String category = fields.get("category");
+        if (category != null && category.length() > 100) {
+            throw new IllegalArgumentException("分类超过 100 个字符");
+        }
+        QuestionType type = parseEnum(QuestionType.class, required(fields, "type", "类型"), "类型");
+        QuestionLevel level = parseEnum(QuestionLevel.class, required(fields, "level", "等级"), "等级");
+        SpecializationType specialization = fields.get("specialization") != null
+                ? parseEnum(SpecializationType.class, fields.get("specialization"), "专精类型")
+                : SpecializationType.NONE;
+        if (level == QuestionLevel.SPECIALIZATION_THREE && specialization == SpecializationType.NONE) {
+            throw new IllegalArgumentException("专精三等题目必须填写专精类型");
+        }
+        if (level != QuestionLevel.SPECIALIZATION_THREE && specialization != SpecializationType.NONE) {
+            throw new IllegalArgumentException("只有专精三等题目可以填写专精类型");
+        }
+        
+        Question question = new Question();
+        question.setTitle(title);
+        question.setContent(content);
+        question.setAnswer(fields.get("answer"));
+        question.setType(type);
+        question.setLevel(level);
+        question.setSpecialization(specialization);
+        question.setCategory(category);
+        question.setCreatedBy(createdBy);
+        question.setCreatedAt(LocalDateTime.now());
+        for (String value : new String[] { title, content, question.getAnswer(), category }) {
+            if (value != null && value.indexOf('\0') >= 0) {
+                throw new IllegalArgumentException("包含非法字符 \\0");
+            }
+        }
+        return question;
+    }
+    
+    private static String required(Map<String, String> fields, String key, String label) {
+        String value = fields.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException(label + "不能为空");
+        }
+        return value;
+    }
+    
+    private static <E extends Enum<E>> E parseEnum(Class<E> enumType, String value, String label) {
+        for (E constant : enumType.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value) || displayName(constant).equals(value)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException(label + "无效: " + value);
+    }
+    
+    private static String displayName(Enum<?> constant) {
+        if (constant instanceof QuestionType type) {
+            return type.getDisplayName();
+        }
+        if (constant instanceof QuestionLevel level) {
+            return level.getDisplayName();
+        }
+        if (constant instanceof SpecializationType specialization) {
+            return specialization.getDisplayName();
+        }
+        return constant.name();
+    }
+    
+    /**
+     * 边读边校验的题目流：不合法的行写入错误文件后跳过
+     */
+    private final class ValidatingIterator implements Iterator<Question> {
+        private final RowReader source;
+        private final BufferedWriter errors;
+        private final String createdBy;
+        private Question nextQuestion;
+        private long read;
+        int rejected;
+        
+        ValidatingIterator(RowReader source, BufferedWriter errors, String createdBy) {
+            this.source = source;
+            this.errors = errors;
+            this.createdBy = createdBy;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            try {
+                while (nextQuestion == null) {
+                    Row row = source.next();
+                    if (row == null) {
+                        return false;
+                    }
+                    if (++read % PROGRESS_INTERVAL == 0 && progressListener != null) {
+                        progressListener.accept(read);
+                    }
+                    if (row.parseError != null) {
+                        reject(row, row.parseError);
+                        continue;
+                    }
+                    try {
+                        nextQuestion = toQuestion(row.fields, createdBy);
+                    } catch (IllegalArgumentException e) {
+                        reject(row, e.getMessage());
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        @Override
+        public Question next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Question question = nextQuestion;
+            nextQuestion = null;
+            return question;
+        }
+        
+        private void reject(Row row, String reason) throws IOException {
+            rejected++;
+            errors.write(source.formatRejected(row, reason));
+            errors.newLine();
+        }
+    }
+}
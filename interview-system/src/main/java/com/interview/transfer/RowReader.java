@@ -0,0 +1,43 @@
+package com.interview.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 逐行读取导入文件（流式，不把整个文件读入内存）
+ */
+interface RowReader extends Closeable {
+    
+    /**
+     * 读取下一行，文件结束时返回 null
+     */
+    Row next() throws IOException;
+    
+    /**
+     * 错误文件的表头（没有表头的格式返回 null）
+     */
+    String rejectHeader();
+    
+    /**
+     * 被拒绝的行写入错误文件时的格式：保留原始字段并附上原因，修正后可以直接重新导入
+     */
+    String formatRejected(Row row, String reason);
+    
+    /**
+     * 导入文件中的一行
+     */
+    final class Row {
+        final long line;
+        final Map<String, String> fields;
+        final String parseError;
+        final Object original;
+        
+        Row(long line, Map<String, String> fields, String parseError, Object original) {
+            this.line = line;
+            this.fields = fields;
+            this.parseError = parseError;
+            this.original = original;
+        }
+    }
+}
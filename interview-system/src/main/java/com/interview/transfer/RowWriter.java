@@ -0,0 +1,36 @@
+package com.interview.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 导出文件的流式写入器，逐行写出，不缓存已写的行
+ */
+interface RowWriter extends Closeable {
+    
+    DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    void columns(String[] columns) throws IOException;
+    
+    void row(Object[] values) throws IOException;
+    
+    /**
+     * 写完所有行（补写文件尾），之后只能 close
+     */
+    void finish() throws IOException;
+    
+    /**
+     * 非数字/布尔值的文本形式，时间统一为 yyyy-MM-dd HH:mm:ss
+     */
+    static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().format(TIME_FORMAT);
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,177 @@
+package com.interview.transfer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * XLSX 流式写入（不依赖 POI）
+ * 
+ * 直接生成最小的 SpreadsheetML 包：工作表 XML 边写边压缩进 zip，字符串使用内联字符串（inlineStr），
+ * 不需要在内存中维护共享字符串表。单个工作表超过 Excel 的行数上限时自动续写到下一个工作表，
+ * workbook.xml 在最后写入，因此可以列出实际生成的工作表。
+ */
+final class XlsxRowWriter implements RowWriter {
+    
+    // Excel 单表行数上限（含表头）与单元格字符数上限
+    static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    private static final int MAX_CELL_CHARS = 32_767;
+    
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(1024);
+    private final int maxRowsPerSheet;
+    private String[] columns;
+    private int sheets;
+    private int rowInSheet;
+    
+    XlsxRowWriter(OutputStream out) {
+        this(out, MAX_ROWS_PER_SHEET);
+    }
+    
+    XlsxRowWriter(OutputStream out, int maxRowsPerSheet) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        this.maxRowsPerSheet = maxRowsPerSheet;
+    }
+    
+    @Override
+    public void columns(String[] columns) throws IOException {
+        this.columns = columns.clone();
+        startSheet();
+    }
+    
+    @Override
+    public void row(Object[] values) throws IOException {
+        if (rowInSheet >= maxRowsPerSheet) {
+            endSheet();
+            startSheet();
+        }
+        writeRow(values);
+    }
+    
+    @Override
+    public void finish() throws IOException {
+        endSheet();
+        
+        entry("[Content_Types].xml");
+        StringBuilder types = new StringBuilder("""
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+            <Default Extension="xml" ContentType="application/xml"/>\
+            <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>""");
+        for (int i = 1; i <= sheets; i++) {
+            types.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        writer.write(types.append("</Types>").toString());
+        
+        entry("_rels/.rels");
+        writer.write("""
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>\
+            </Relationships>""");
+        
+        entry("xl/workbook.xml");
+        StringBuilder workbook = new StringBuilder("""
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" \
+            xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships"><sheets>""");
+        for (int i = 1; i <= sheets; i++) {
+            workbook.append("<sheet name=\"Sheet").append(i).append("\" sheetId=\"").append(i)
+                    .append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        writer.write(workbook.append("</sheets></workbook>").toString());
+        
+        entry("xl/_rels/workbook.xml.rels");
+        StringBuilder rels = new StringBuilder("""
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">""");
+        for (int i = 1; i <= sheets; i++) {
+            rels.append("<Relationship Id=\"rId").append(i)
+                    .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet")
+                    .append(i).append(".xml\"/>");
+        }
+        writer.write(rels.append("</Relationships>").toString());
+        writer.flush();
+        zip.closeEntry();
+        zip.finish();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+    
+    private void startSheet() throws IOException {
+        sheets++;
+        rowInSheet = 0;
+        entry("xl/worksheets/sheet" + sheets + ".xml");
+        writer.write("""
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <worksheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">\
+            <sheetViews><sheetView workbookViewId="0"><pane ySplit="1" topLeftCell="A2" state="frozen"/></sheetView></sheetViews>\
+            <sheetData>""");
+        // 每个工作表都带表头
+        writeRow(columns);
+    }
+    
+    private void endSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+    }
+    
+    private void entry(String name) throws IOException {
+        // 先把字符缓冲写进当前条目再切换（没有打开的条目时 closeEntry 不做任何事）
+        writer.flush();
+        zip.closeEntry();
+        zip.putNextEntry(new ZipEntry(name));
+    }
+    
+    private void writeRow(Object[] values) throws IOException {
+        rowInSheet++;
+        line.setLength(0);
+        line.append("<row r=\"").append(rowInSheet).append("\">");
+        for (Object value : values) {
+            if (value == null) {
+                line.append("<c/>");
+            } else if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+                line.append("<c><v>").append(number).append("</v></c>");
+            } else if (value instanceof Boolean bool) {
+                line.append("<c t=\"b\"><v>").append(bool ? 1 : 0).append("</v></c>");
+            } else {
+                line.append("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                appendXml(line, RowWriter.text(value));
+                line.append("</t></is></c>");
+            }
+        }
+        line.append("</row>");
+        writer.append(line);
+    }
+    
+    /**
+     * XML 转义，去掉 XML 1.0 不允许的控制字符，并按 Excel 单元格上限截断
+     */
+    private static void appendXml(StringBuilder sb, String text) {
+        int length = Math.min(text.length(), MAX_CELL_CHARS);
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> sb.append("&amp;");
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '"' -> sb.append("&quot;");
+                default -> {
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package com.interview.util;
 
+import com.interview.jfr.RecordingEvent;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+import com.interview.metrics.Counter;
+import com.interview.metrics.MetricsRegistry;
+import com.interview.metrics.Timer;
+import com.interview.storage.WaveformIndex;
 import javafx.application.Platform;
 
 import javax.sound.sampled.*;
 import java.io.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 音频录制工具类
@@ -12,6 +20,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class AudioRecorder {
     
+    private static final Logger log = Log.get(AudioRecorder.class);
+    
     // 音频格式：16kHz, 16bit, 单声道, 有符号, 小端
     private static final AudioFormat FORMAT = new AudioFormat(
             AudioFormat.Encoding.PCM_SIGNED,
@@ -23,6 +33,21 @@ public class AudioRecorder {
             false   // 小端
     );
     
+    // 进程内正在进行的录音数，后台 I/O 任务据此让路
+    private static final AtomicInteger ACTIVE_RECORDINGS = new AtomicInteger();
+    
+    // 指标：读取不及时导致麦克风缓冲区写满（音频可能丢失）、每块数据写入耗时、写入字节数
+    private static final Counter OVERRUNS = MetricsRegistry.global().counter(
+            "audio_overruns_total", "麦克风缓冲区写满（读取不及时，音频可能丢失）的次数");
+    private static final Timer WRITE_LATENCY = MetricsRegistry.global().timer(
+            "audio_write_seconds", "录音数据块写入文件及波形索引的耗时");
+    private static final Counter RECORDED_BYTES = MetricsRegistry.global().counter(
+            "audio_recorded_bytes_total", "写入录音文件的音频字节数");
+    
+    static {
+        MetricsRegistry.global().gauge("audio_active_recordings", "正在进行的录音数", ACTIVE_RECORDINGS::get);
+    }
+    
     private TargetDataLine microphone;
     private AtomicBoolean isRecording;
     private File outputFile;
@@ -61,6 +86,9 @@ public class AudioRecorder {
         }
         
         recordingThread = new Thread(() -> {
+            boolean counted = false;
+            RecordingEvent event = new RecordingEvent();
+            event.file = outputFile.getName();
             try {
                 // 获取麦克风
                 DataLine.Info info = new DataLine.Info(TargetDataLine.class, FORMAT);
@@ -76,8 +104,11 @@ public class AudioRecorder {
                 microphone = (TargetDataLine) AudioSystem.getLine(info);
                 microphone.open(FORMAT);
                 microphone.start();
+                event.begin();
                 
                 isRecording.set(true);
+                ACTIVE_RECORDINGS.incrementAndGet();
+                counted = true;
                 
                 Platform.runLater(() -> {
                     if (callback != null) {
@@ -99,9 +130,23 @@ public class AudioRecorder {
                     int bytesRead;
                     long totalBytes = 0;
                     
+                    // 边录边生成波形峰值索引，结束后写入旁路文件
+                    WaveformIndex.Builder peaks = new WaveformIndex.Builder(
+                            (int) FORMAT.getSampleRate(), FORMAT.getChannels());
+                    
+                    int lineBufferSize = microphone.getBufferSize();
                     while (isRecording.get() && (bytesRead = audioStream.read(buffer, 0, buffer.length)) != -1) {
+                        if (microphone.available() >= lineBufferSize) {
+                            OVERRUNS.increment();
+                            event.overruns++;
+                        }
+                        long writeStart = System.nanoTime();
                         bos.write(buffer, 0, bytesRead);
                         totalBytes += bytesRead;
+                        peaks.accept(buffer, 0, bytesRead);
+                        WRITE_LATENCY.recordSince(writeStart);
+                        RECORDED_BYTES.add(bytesRead);
+                        event.audioBytes += bytesRead;
                         
                         // 计算音量幅值用于UI显示
                         double amplitude = calculateAmplitude(buffer, bytesRead);
@@ -115,6 +160,7 @@ public class AudioRecorder {
                     // 更新WAV文件头
                     bos.flush();
                     updateWavHeader(outputFile, totalBytes);
+                    writePeaks(peaks);
                 }
                 
                 microphone.stop();
@@ -127,6 +173,7 @@ public class AudioRecorder {
                 });
                 
             } catch (Exception e) {
+                event.failed = true;
                 Platform.runLater(() -> {
                     if (callback != null) {
                         callback.onRecordingError("录音错误: " + e.getMessage());
@@ -134,6 +181,10 @@ public class AudioRecorder {
                 });
             } finally {
                 isRecording.set(false);
+                if (counted) {
+                    ACTIVE_RECORDINGS.decrementAndGet();
+                    event.commit();
+                }
             }
         });
         
@@ -166,6 +217,13 @@ public class AudioRecorder {
         return isRecording.get();
     }
     
+    /**
+     * 进程内是否有任何录音正在进行
+     */
+    public static boolean isAnyRecording() {
+        return ACTIVE_RECORDINGS.get() > 0;
+    }
+    
     /**
      * 计算音频幅值（用于音量显示）
      */
@@ -187,6 +245,17 @@ public class AudioRecorder {
         return Math.min(average / 32768.0, 1.0);
     }
     
+    /**
+     * 写入波形索引（失败不影响录音本身，可由批量任务补建）
+     */
+    private void writePeaks(WaveformIndex.Builder peaks) {
+        try {
+            peaks.build().write(WaveformIndex.sidecarFor(outputFile));
+        } catch (IOException e) {
+            log.error("写入波形索引失败: {}", e.getMessage());
+        }
+    }
+    
     /**
      * 写入WAV文件头（占位符）
      */
@@ -1,26 +1,44 @@
 package com.interview.util;
 
+import com.interview.config.AppConfig;
 import com.interview.config.DatabaseConfig;
 import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.db.ConnectionPool;
+import com.interview.db.ReplicaRouter;
+import com.interview.log.Log;
+import com.interview.log.Logger;
 import com.interview.model.Role;
 import com.interview.model.User;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 /**
  * 数据库连接工具类
  * 负责管理数据库连接，支持按角色分配不同的数据库用户
  * 支持 SSL/HTTPS 连接
+ * 
+ * 物理连接由 ConnectionPool 复用：DAO 关闭连接时连接回到池中，连接上缓存的预备语句随之保留
+ * 
+ * 配置了只读副本（db.replica.hosts）时，只读 DAO 方法通过 getReadConnection 取连接，
+ * 由 ReplicaRouter 按复制延迟和本客户端最近的写操作决定读副本还是主库
  */
 public class DatabaseConnection {
     
+    private static final Logger log = Log.get(DatabaseConnection.class);
+    
     // 线程本地存储，用于存储当前线程的数据库连接和角色
     private static final ThreadLocal<Connection> connectionHolder = new ThreadLocal<>();
     private static final ThreadLocal<DbUserRole> roleHolder = new ThreadLocal<>();
     
+    // 只读副本路由，未配置副本时为 null
+    private static volatile ReplicaRouter replicaRouter;
+    private static volatile boolean replicaRouterInitialized;
+    
     /**
      * 设置当前线程的数据库用户角色
      * @param role 数据库用户角色
@@ -72,20 +90,8 @@ public class DatabaseConnection {
                 return existingConn;
             }
             
-            // 创建新的 SSL 连接
-            Connection conn;
-            if (DatabaseConfig.isSslEnabled()) {
-                // 使用带 SSL 的 URL
-                String secureUrl = DatabaseConfig.getSecureUrl(dbRole);
-                conn = DriverManager.getConnection(secureUrl);
-            } else {
-                // 回退到普通连接（仅用于开发/测试）
-                Properties props = new Properties();
-                props.setProperty("user", DatabaseConfig.getDbUsername(dbRole));
-                props.setProperty("password", DatabaseConfig.getDbPassword(dbRole));
-                conn = DriverManager.getConnection(DatabaseConfig.getCurrentUrl(), props);
-            }
-            
+            // 从连接池借出（池中没有空闲连接时新建 SSL 连接）
+            Connection conn = ConnectionPool.getInstance(DatabaseConnection::openConnection).borrow(dbRole);
             connectionHolder.set(conn);
             return conn;
             
@@ -94,6 +100,122 @@ public class DatabaseConnection {
         }
     }
     
+    /**
+     * 获取只读查询的连接：浏览、检索、报表、导出等不修改数据的 DAO 方法使用
+     * 
+     * 当前线程已持有连接（如事务中）时返回同一连接；否则由副本路由决定，
+     * 未配置副本、副本不可用或延迟过大、本客户端刚写入过时使用主库。
+     * 返回的副本连接不放入线程连接，调用方关闭即归还。
+     */
+    public static Connection getReadConnection() throws SQLException {
+        Connection existingConn = connectionHolder.get();
+        if (existingConn != null && !existingConn.isClosed()) {
+            return existingConn;
+        }
+        ReplicaRouter router = getReplicaRouter();
+        if (router != null) {
+            Connection replica = router.route(getCurrentDbRole());
+            if (replica != null) {
+                return replica;
+            }
+        }
+        return getConnection();
+    }
+    
+    /**
+     * 获取独立的只读连接：不使用当前线程持有的连接，也不放入线程连接
+     * 
+     * 用于需要自行控制事务的长时间读取（如导出时关闭自动提交使用游标），
+     * 避免在调用方的事务连接上提交或回滚。优先使用副本，否则从主库连接池借出，调用方关闭即归还。
+     */
+    public static Connection getDedicatedReadConnection() throws SQLException {
+        DbUserRole role = getCurrentDbRole();
+        ReplicaRouter router = getReplicaRouter();
+        if (router != null) {
+            Connection replica = router.route(role);
+            if (replica != null) {
+                return replica;
+            }
+        }
+        return ConnectionPool.getInstance(DatabaseConnection::openConnection).borrow(role);
+    }
+    
+    /**
+     * 只读副本路由（未配置副本时返回 null）
+     */
+    public static ReplicaRouter getReplicaRouter() {
+        if (!replicaRouterInitialized) {
+            synchronized (DatabaseConnection.class) {
+                if (!replicaRouterInitialized) {
+                    replicaRouter = createReplicaRouter();
+                    replicaRouterInitialized = true;
+                }
+            }
+        }
+        return replicaRouter;
+    }
+    
+    private static ReplicaRouter createReplicaRouter() {
+        List<String> hosts = DatabaseConfig.getReplicaHosts();
+        if (hosts.isEmpty()) {
+            return null;
+        }
+        List<ConnectionPool> pools = new ArrayList<>();
+        for (String entry : hosts) {
+            int colon = entry.lastIndexOf(':');
+            String host = entry.substring(0, colon);
+            int port = Integer.parseInt(entry.substring(colon + 1));
+            pools.add(new ConnectionPool(role -> openConnection(role, host, port), true,
+                    AppConfig.getInt("db.pool.max.idle", 4),
+                    AppConfig.getInt("db.pool.validate.idle.seconds", 30),
+                    AppConfig.getInt("db.statement.cache.size", 64)));
+        }
+        return new ReplicaRouter(ConnectionPool.getInstance(DatabaseConnection::openConnection), pools, hosts,
+                DatabaseConfig.getReplicaMaxLagSeconds(),
+                AppConfig.getInt("db.replica.check.seconds", 5),
+                AppConfig.getInt("db.replica.sticky.seconds", 5));
+    }
+    
+    /**
+     * 打开一个独立的数据库连接（不放入线程连接，由调用方负责关闭）
+     * 用于需要长期保持会话状态的场景，如 LISTEN
+     */
+    public static Connection openConnection(DbUserRole dbRole) throws SQLException {
+        return openConnection(dbRole, DatabaseConfig.getPgHost(), DatabaseConfig.getPgPort());
+    }
+    
+    /**
+     * 打开到指定主机（主库或只读副本）的独立连接
+     */
+    public static Connection openConnection(DbUserRole dbRole, String host, int port) throws SQLException {
+        Properties props = driverProperties();
+        if (DatabaseConfig.isSslEnabled()) {
+            // 使用带 SSL 的 URL
+            String secureUrl = DatabaseConfig.getSecureUrl(dbRole, host, port);
+            return DriverManager.getConnection(secureUrl, props);
+        }
+        // 回退到普通连接（仅用于开发/测试）
+        props.setProperty("user", DatabaseConfig.getDbUsername(dbRole));
+        props.setProperty("password", DatabaseConfig.getDbPassword(dbRole));
+        return DriverManager.getConnection(DatabaseConfig.getUrl(host, port), props);
+    }
+    
+    /**
+     * 驱动的预备语句设置
+     * 
+     * prepareThreshold：同一语句执行多少次后改用服务端命名语句（0 表示不使用）；
+     * preparedStatementCacheQueries / SizeMiB：驱动在每个连接上缓存的已解析查询数量和大小上限
+     */
+    private static Properties driverProperties() {
+        Properties props = new Properties();
+        props.setProperty("prepareThreshold", String.valueOf(AppConfig.getInt("db.prepare.threshold", 5)));
+        props.setProperty("preparedStatementCacheQueries",
+                String.valueOf(AppConfig.getInt("db.driver.statement.cache.queries", 256)));
+        props.setProperty("preparedStatementCacheSizeMiB",
+                String.valueOf(AppConfig.getInt("db.driver.statement.cache.mib", 5)));
+        return props;
+    }
+    
     /**
      * 为指定应用用户获取连接
      * @param user 应用用户，若为 null 则使用 candidate 角色
@@ -113,11 +235,11 @@ public class DatabaseConnection {
         try (Connection conn = getConnection(dbRole)) {
             boolean valid = conn != null && !conn.isClosed();
             if (valid) {
-                System.out.println("数据库连接测试成功 (角色: " + dbRole.getDisplayName() + ")");
+                log.info("数据库连接测试成功 (角色: {})", dbRole.getDisplayName());
             }
             return valid;
         } catch (SQLException e) {
-            System.err.println("数据库连接测试失败 (角色: " + dbRole.getDisplayName() + "): " + e.getMessage());
+            log.error("数据库连接测试失败 (角色: {}): {}", dbRole.getDisplayName(), e.getMessage());
             return false;
         }
     }
@@ -126,7 +248,7 @@ public class DatabaseConnection {
      * 测试所有角色的数据库连接
      */
     public static boolean testAllConnections() {
-        System.out.println("\n========== 测试数据库连接 ==========");
+        log.info("测试数据库连接...");
         boolean allSuccess = true;
         
         for (DbUserRole role : DbUserRole.values()) {
@@ -136,7 +258,6 @@ public class DatabaseConnection {
             }
         }
         
-        System.out.println("==================================\n");
         return allSuccess;
     }
     
@@ -151,7 +272,7 @@ public class DatabaseConnection {
                     conn.close();
                 }
             } catch (SQLException e) {
-                System.err.println("关闭数据库连接失败: " + e.getMessage());
+                log.error("关闭数据库连接失败: {}", e.getMessage());
             } finally {
                 connectionHolder.remove();
             }
@@ -166,6 +287,20 @@ public class DatabaseConnection {
         roleHolder.remove();
     }
     
+    /**
+     * 关闭连接池（含只读副本）中的空闲连接（应用退出时调用）
+     */
+    public static void shutdownPool() {
+        ConnectionPool pool = ConnectionPool.current();
+        if (pool != null) {
+            pool.shutdown();
+        }
+        ReplicaRouter router = replicaRouter;
+        if (router != null) {
+            router.shutdown();
+        }
+    }
+    
     /**
      * 开始事务
      */
@@ -3,221 +3,166 @@ package com.interview.util;
 import com.interview.config.AppConfig;
 import com.interview.config.DatabaseConfig;
 import com.interview.config.DatabaseConfig.DbUserRole;
-import com.interview.dao.EvaluationScoreDao;
-import com.interview.dao.InterviewRecordDao;
 import com.interview.dao.LLMConfigDao;
 import com.interview.dao.QuestionDao;
 import com.interview.dao.UserDao;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+import com.interview.migration.SchemaMigrator;
 import com.interview.model.LLMConfig;
 import com.interview.model.Role;
 import com.interview.model.User;
 import org.mindrot.jbcrypt.BCrypt;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * 数据库初始化类
  * 负责创建数据库表结构和初始数据（PostgreSQL 版本）
+ * 表结构由 db/migration/ 下的版本化脚本维护，见 SchemaMigrator
  * 支持 SSL/HTTPS 连接和角色权限控制
  */
 public class DatabaseInitializer {
     
+    private static final Logger log = Log.get(DatabaseInitializer.class);
+    
     private final UserDao userDao;
     private final QuestionDao questionDao;
-    private final InterviewRecordDao recordDao;
-    private final EvaluationScoreDao scoreDao;
     private final LLMConfigDao llmConfigDao;
     
+    // 默认管理员和示例账号（密码为初始密码，登录后应修改）
+    private static final List<SampleAccount> SAMPLE_ACCOUNTS = List.of(
+            new SampleAccount("默认管理员", "admin123",
+                    new User("admin", null, "系统管理员", "admin@interview.com", Role.ADMIN)),
+            new SampleAccount("示例考生", "candidate123",
+                    new User("candidate", null, "示例考生", "candidate@interview.com", Role.CANDIDATE)),
+            new SampleAccount("示例出题人", "setter123",
+                    new User("setter", null, "示例出题人", "setter@interview.com", Role.QUESTION_CREATOR)),
+            new SampleAccount("示例考官", "judge123",
+                    new User("judge", null, "示例考官", "judge@interview.com", Role.EXAMINER)));
+    
     public DatabaseInitializer() {
         this.userDao = new UserDao();
         this.questionDao = new QuestionDao();
-        this.recordDao = new InterviewRecordDao();
-        this.scoreDao = new EvaluationScoreDao();
         this.llmConfigDao = new LLMConfigDao();
     }
     
     /**
      * 初始化数据库
      * 创建表结构和初始管理员账号
-     * 使用管理员角色执行初始化
+     * 使用管理员角色在当前线程依次执行；应用启动时由 StartupOrchestrator 并行执行各步骤
      */
     public void initialize() throws SQLException {
-        System.out.println("正在初始化 PostgreSQL 数据库...");
-        System.out.println("SSL/HTTPS 连接: " + (DatabaseConfig.isSslEnabled() ? "已启用" : "未启用"));
+        log.info("正在初始化 PostgreSQL 数据库...");
+        log.info("SSL/HTTPS 连接: {}", DatabaseConfig.isSslEnabled() ? "已启用" : "未启用");
         
         // 使用管理员角色进行初始化
         DatabaseConnection.setCurrentDbRole(DbUserRole.ADMIN);
         
-        // 创建用户表
-        userDao.createTable();
-        System.out.println("用户表创建完成");
-        
-        // 创建题目表
-        questionDao.createTable();
-        System.out.println("题目表创建完成");
-        
-        // 创建面试记录表
-        recordDao.createTable();
-        System.out.println("面试记录表创建完成");
+        // 执行未执行的迁移脚本（结构已是最新时不执行任何 DDL）
+        migrateSchema();
         
-        // 创建评分记录表
-        scoreDao.createTable();
-        System.out.println("评分记录表创建完成");
-        
-        // 创建LLM配置表
-        llmConfigDao.createTable();
-        System.out.println("LLM配置表创建完成");
+        // 检测三元组索引，并为其他途径写入的题目补建全文检索列
+        prepareSearch();
         
         // 创建默认LLM配置
         createDefaultLLMConfig();
         
-        // 创建初始管理员账号（如果不存在）
-        createDefaultAdmin();
-        
-        // 创建示例考生账号
-        createSampleCandidate();
-        
-        // 创建示例出题人账号
-        createSampleSetter();
-        
-        // 创建示例考官账号
-        createSampleJudge();
+        // 创建初始管理员账号和示例账号（如果不存在）
+        createSampleAccounts(Runnable::run);
         
-        System.out.println("数据库初始化完成");
+        log.info("数据库初始化完成");
         
         // 测试所有角色连接
         testAllRoleConnections();
     }
     
     /**
-     * 创建默认管理员账号
-     * 默认账号: admin / admin123
-     */
-    private void createDefaultAdmin() {
-        try {
-            // 使用管理员角色
-            DatabaseConnection.setCurrentDbRole(DbUserRole.ADMIN);
-            
-            // 检查是否已有管理员账号
-            if (userDao.existsByUsername("admin")) {
-                System.out.println("管理员账号已存在");
-                return;
-            }
-            
-            // 创建管理员账号
-            String passwordHash = BCrypt.hashpw("admin123", BCrypt.gensalt(12));
-            User admin = new User("admin", passwordHash, "系统管理员", 
-                                   "admin@interview.com", Role.ADMIN);
-            
-            if (userDao.insert(admin)) {
-                System.out.println("默认管理员账号创建成功");
-                System.out.println("  用户名: admin");
-                System.out.println("  密码: admin123");
-                System.out.println("  请及时修改默认密码！");
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("创建默认管理员账号失败: " + e.getMessage());
-        }
-    }
-    
-    /**
-     * 创建示例考生账号
-     * 默认账号: candidate / candidate123
+     * 在一个管理员连接上执行数据库迁移
+     * 脚本中的角色名占位符取配置中的各角色数据库用户名
      */
-    private void createSampleCandidate() {
-        try {
-            DatabaseConnection.setCurrentDbRole(DbUserRole.ADMIN);
-            
-            // 检查是否已存在
-            if (userDao.existsByUsername("candidate")) {
-                return;
-            }
-            
-            // 创建考生账号
-            String passwordHash = BCrypt.hashpw("candidate123", BCrypt.gensalt(12));
-            User candidate = new User("candidate", passwordHash, "示例考生", 
-                                      "candidate@interview.com", Role.CANDIDATE);
-            
-            if (userDao.insert(candidate)) {
-                System.out.println("示例考生账号创建成功");
-                System.out.println("  用户名: candidate");
-                System.out.println("  密码: candidate123");
+    public void migrateSchema() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(Map.of(
+                "candidate", DatabaseConfig.getDbUsername(DbUserRole.CANDIDATE),
+                "test_setter", DatabaseConfig.getDbUsername(DbUserRole.TEST_SETTER),
+                "judge", DatabaseConfig.getDbUsername(DbUserRole.JUDGE)));
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            int applied = migrator.migrate(conn);
+            if (applied > 0) {
+                log.info("数据库结构迁移完成，执行了 {} 个脚本", applied);
+            } else {
+                log.info("数据库结构已是最新版本");
             }
-            
-        } catch (SQLException e) {
-            System.err.println("创建示例考生账号失败: " + e.getMessage());
         }
     }
     
     /**
-     * 创建示例出题人账号
-     * 默认账号: setter / setter123
+     * 创建默认管理员账号和示例账号
+     * 一次查询已存在的账号，只为缺少的账号计算 BCrypt 哈希（每个约 250 ms），哈希在 executor 中并行计算
      */
-    private void createSampleSetter() {
+    public void createSampleAccounts(Executor executor) {
         try {
             DatabaseConnection.setCurrentDbRole(DbUserRole.ADMIN);
             
-            // 检查是否已存在
-            if (userDao.existsByUsername("setter")) {
-                return;
+            List<String> usernames = new ArrayList<>();
+            for (SampleAccount account : SAMPLE_ACCOUNTS) {
+                usernames.add(account.user.getUsername());
             }
-            
-            // 创建出题人账号
-            String passwordHash = BCrypt.hashpw("setter123", BCrypt.gensalt(12));
-            User setter = new User("setter", passwordHash, "示例出题人", 
-                                   "setter@interview.com", Role.QUESTION_CREATOR);
-            
-            if (userDao.insert(setter)) {
-                System.out.println("示例出题人账号创建成功");
-                System.out.println("  用户名: setter");
-                System.out.println("  密码: setter123");
+            Set<String> existing = userDao.findExistingUsernames(usernames);
+            if (existing.contains("admin")) {
+                log.info("管理员账号已存在");
             }
             
-        } catch (SQLException e) {
-            System.err.println("创建示例出题人账号失败: " + e.getMessage());
-        }
-    }
-    
-    /**
-     * 创建示例考官账号
-     * 默认账号: judge / judge123
-     */
-    private void createSampleJudge() {
-        try {
-            DatabaseConnection.setCurrentDbRole(DbUserRole.ADMIN);
-            
-            // 检查是否已存在
-            if (userDao.existsByUsername("judge")) {
-                return;
+            Map<SampleAccount, CompletableFuture<String>> hashes = new LinkedHashMap<>();
+            for (SampleAccount account : SAMPLE_ACCOUNTS) {
+                if (!existing.contains(account.user.getUsername())) {
+                    hashes.put(account, CompletableFuture.supplyAsync(
+                            () -> BCrypt.hashpw(account.password, BCrypt.gensalt(12)), executor));
+                }
             }
             
-            // 创建考官账号
-            String passwordHash = BCrypt.hashpw("judge123", BCrypt.gensalt(12));
-            User judge = new User("judge", passwordHash, "示例考官", 
-                                  "judge@interview.com", Role.EXAMINER);
-            
-            if (userDao.insert(judge)) {
-                System.out.println("示例考官账号创建成功");
-                System.out.println("  用户名: judge");
-                System.out.println("  密码: judge123");
+            for (Map.Entry<SampleAccount, CompletableFuture<String>> entry : hashes.entrySet()) {
+                SampleAccount account = entry.getKey();
+                User user = account.user;
+                try {
+                    User created = new User(user.getUsername(), entry.getValue().join(), user.getRealName(),
+                                            user.getEmail(), user.getRole());
+                    if (userDao.insert(created)) {
+                        log.info("{}账号创建成功，用户名: {}，密码: {}", account.label, user.getUsername(),
+                                account.password);
+                        if (user.getRole() == Role.ADMIN) {
+                            log.warn("请及时修改默认密码！");
+                        }
+                    }
+                } catch (SQLException e) {
+                    log.error("创建{}账号失败: {}", account.label, e.getMessage());
+                }
             }
             
         } catch (SQLException e) {
-            System.err.println("创建示例考官账号失败: " + e.getMessage());
+            log.error("检查默认账号失败: {}", e.getMessage());
         }
     }
     
     /**
      * 创建默认LLM配置
      */
-    private void createDefaultLLMConfig() {
+    public void createDefaultLLMConfig() {
         try {
             DatabaseConnection.setCurrentDbRole(DbUserRole.ADMIN);
             
             // 检查是否已有配置
             if (llmConfigDao.findDefault() != null) {
-                System.out.println("LLM配置已存在");
+                log.info("LLM配置已存在");
                 return;
             }
             
@@ -232,11 +177,27 @@ public class DatabaseInitializer {
             config.setTimeout(60);
             
             if (llmConfigDao.insert(config)) {
-                System.out.println("默认LLM配置创建成功（请配置API Key）");
+                log.info("默认LLM配置创建成功（请配置API Key）");
             }
             
         } catch (Exception e) {
-            System.err.println("创建默认LLM配置失败: " + e.getMessage());
+            log.error("创建默认LLM配置失败: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 检测三元组索引，并为其他途径（如 Web 端）写入的题目补建全文检索列
+     */
+    public void prepareSearch() {
+        try {
+            DatabaseConnection.setCurrentDbRole(DbUserRole.ADMIN);
+            questionDao.detectTrigramIndexes();
+            int backfilled = questionDao.backfillSearchVectors();
+            if (backfilled > 0) {
+                log.info("已为 {} 道题目补建全文检索数据", backfilled);
+            }
+        } catch (SQLException e) {
+            log.error("补建全文检索数据失败: {}", e.getMessage());
         }
     }
     
@@ -244,7 +205,7 @@ public class DatabaseInitializer {
      * 测试所有角色数据库连接
      */
     private void testAllRoleConnections() {
-        System.out.println("\n正在测试各角色数据库连接...");
+        log.info("正在测试各角色数据库连接...");
         DatabaseConnection.testAllConnections();
     }
     
@@ -266,7 +227,7 @@ public class DatabaseInitializer {
             return DatabaseConnection.testConnection(DbUserRole.ADMIN);
             
         } catch (Exception e) {
-            System.err.println("数据库连接测试失败: " + e.getMessage());
+            log.error("数据库连接测试失败: {}", e.getMessage());
             return false;
         }
     }
@@ -277,4 +238,16 @@ public class DatabaseInitializer {
     public static boolean testConnection(DbUserRole role) {
         return DatabaseConnection.testConnection(role);
     }
+    
+    private static class SampleAccount {
+        private final String label;
+        private final String password;
+        private final User user;
+        
+        SampleAccount(String label, String password, User user) {
+            this.label = label;
+            this.password = password;
+            this.user = user;
+        }
+    }
 }
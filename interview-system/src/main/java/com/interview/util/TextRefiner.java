@@ -0,0 +1,437 @@
+package com.interview.util;
+
+import com.interview.config.AppConfig;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 转写文本精修器
+ * 基于 Aho-Corasick 自动机一次扫描去除语气词/口头禅，可选折叠口吃式重复
+ *
+ * 匹配规则：
+ * - 多个词重叠时取最左、最长的一个（如同时配置"那个"和"那个啥"，优先删除"那个啥"）
+ * 
+ * 折叠重复默认关闭：汉语的叠词（"看看看"、"研究研究"、"讨论讨论"）与口吃在文本上无法区分，
+ * 开启后按以下规则处理，仅作用于汉字：
+ * - 单字连续出现三次及以上折叠为一次（"我我我" -> "我"），两次保留（"谢谢"、"看看"）
+ * - 2~N 字短语紧邻出现三次及以上折叠为一次（"就是就是就是" -> "就是"），两次保留（"研究研究"）
+ *
+ * 自动机构建后只读，可在多线程间共享；每个线程复用自己的缓冲区。
+ */
+public class TextRefiner {
+    
+    /**
+     * 默认语气词词典
+     */
+    public static final List<String> DEFAULT_FILLERS = List.of(
+            "嗯", "啊", "呃", "额", "唔", "哦", "噢", "诶", "欸",
+            "那个", "这个这个", "就是说", "然后呢", "怎么说呢", "对吧对吧"
+    );
+    
+    private static final int ROOT = 0;
+    private static final int DEFAULT_MAX_REPEAT_UNIT = 4;
+    
+    // 自动机（扁平数组表示）
+    private final int[] fail;           // 失配指针
+    private final int[] depth;          // 状态深度（即当前匹配前缀长度）
+    private final int[] matchLen;       // 以该状态结尾的最长词长度（含后缀链），0 表示无匹配
+    private final boolean[] hasChildren;
+    
+    // 转移表：开放寻址哈希，key = (state << 16) | ch
+    private final long[] edgeKeys;
+    private final int[] edgeValues;
+    private final int edgeMask;
+    
+    private final int maxPatternLength;
+    private final int patternCount;
+    private final boolean collapseRepeats;
+    private final int maxRepeatUnit;
+    
+    private final ThreadLocal<Scratch> scratch;
+    
+    /**
+     * 使用默认词典创建
+     */
+    public TextRefiner() {
+        this(DEFAULT_FILLERS, false, DEFAULT_MAX_REPEAT_UNIT);
+    }
+    
+    /**
+     * @param fillers 需要删除的语气词/口头禅
+     * @param collapseRepeats 是否折叠重复字词
+     * @param maxRepeatUnit 折叠的最长重复短语长度
+     */
+    public TextRefiner(Collection<String> fillers, boolean collapseRepeats, int maxRepeatUnit) {
+        this.collapseRepeats = collapseRepeats;
+        this.maxRepeatUnit = Math.max(1, maxRepeatUnit);
+        
+        // 1. 构建字典树
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        List<Integer> terminals = new ArrayList<>();
+        children.add(new HashMap<>());
+        depths.add(0);
+        terminals.add(0);
+        
+        int maxLen = 0;
+        int count = 0;
+        int edgeCount = 0;
+        Set<String> unique = new LinkedHashSet<>();
+        if (fillers != null) {
+            for (String filler : fillers) {
+                if (filler != null && !filler.isEmpty()) {
+                    unique.add(filler);
+                }
+            }
+        }
+        for (String pattern : unique) {
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new HashMap<>());
+                    depths.add(depths.get(state) + 1);
+                    terminals.add(0);
+                    children.get(state).put(c, next);
+                    edgeCount++;
+                }
+                state = next;
+            }
+            terminals.set(state, pattern.length());
+            maxLen = Math.max(maxLen, pattern.length());
+            count++;
+        }
+        
+        int stateCount = children.size();
+        this.fail = new int[stateCount];
+        this.depth = new int[stateCount];
+        this.matchLen = new int[stateCount];
+        this.hasChildren = new boolean[stateCount];
+        this.maxPatternLength = maxLen;
+        this.patternCount = count;
+        
+        int capacity = Integer.highestOneBit(Math.max(4, edgeCount * 2 - 1)) << 1;
+        this.edgeKeys = new long[capacity];
+        this.edgeValues = new int[capacity];
+        this.edgeMask = capacity - 1;
+        Arrays.fill(edgeKeys, -1L);
+        
+        for (int s = 0; s < stateCount; s++) {
+            depth[s] = depths.get(s);
+            hasChildren[s] = !children.get(s).isEmpty();
+            for (Map.Entry<Character, Integer> e : children.get(s).entrySet()) {
+                putEdge(s, e.getKey(), e.getValue());
+            }
+        }
+        
+        // 2. BFS 计算失配指针和后缀匹配长度
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : children.get(ROOT).values()) {
+            fail[child] = ROOT;
+            matchLen[child] = terminals.get(child);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            for (Map.Entry<Character, Integer> e : children.get(s).entrySet()) {
+                char c = e.getKey();
+                int child = e.getValue();
+                int f = fail[s];
+                while (f != ROOT && child(f, c) < 0) {
+                    f = fail[f];
+                }
+                int target = child(f, c);
+                fail[child] = (target >= 0 && target != child) ? target : ROOT;
+                matchLen[child] = terminals.get(child) > 0 ? terminals.get(child) : matchLen[fail[child]];
+                queue.add(child);
+            }
+        }
+        
+        final int pendingSize = Math.max(1, maxLen);
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(pendingSize));
+    }
+    
+    /**
+     * 根据 config.properties 创建精修器
+     *
+     * text.refine.fillers          额外的语气词（逗号分隔），追加到默认词典
+     * text.refine.collapse.repeats 是否折叠重复字词（默认 false）
+     * text.refine.max.repeat.unit  折叠的最长重复短语长度（默认 4）
+     */
+    public static TextRefiner fromConfig() {
+        List<String> fillers = new ArrayList<>(DEFAULT_FILLERS);
+        String extra = AppConfig.getString("text.refine.fillers", "");
+        if (extra != null && !extra.isBlank()) {
+            for (String word : extra.split("[,，]")) {
+                String trimmed = word.trim();
+                if (!trimmed.isEmpty()) {
+                    fillers.add(trimmed);
+                }
+            }
+        }
+        boolean collapse = AppConfig.getBoolean("text.refine.collapse.repeats", false);
+        int maxUnit = AppConfig.getInt("text.refine.max.repeat.unit", DEFAULT_MAX_REPEAT_UNIT);
+        return new TextRefiner(fillers, collapse, maxUnit);
+    }
+    
+    /**
+     * 精修文本
+     *
+     * @param rawText 原始转写文本
+     * @return 去除语气词、折叠重复并去除首尾空白后的文本
+     */
+    public String refine(CharSequence rawText) {
+        if (rawText == null) {
+            return "";
+        }
+        Scratch s = scratch.get();
+        s.out.setLength(0);
+        refine(rawText, s.out);
+        String result = s.out.toString().trim();
+        // 避免单次超长文本让线程长期持有大缓冲区
+        if (s.out.capacity() > (1 << 20)) {
+            s.out = new StringBuilder(1024);
+        }
+        return result;
+    }
+    
+    /**
+     * 精修文本并追加到调用方提供的缓冲区（不做 trim）
+     */
+    public void refine(CharSequence rawText, StringBuilder out) {
+        Scratch s = scratch.get();
+        s.reset();
+        int length = rawText.length();
+        for (int i = 0; i < length; i++) {
+            feed(s, rawText.charAt(i), out);
+        }
+        finish(s, out);
+    }
+    
+    /**
+     * 处理一个输入字符
+     */
+    private void feed(Scratch s, char c, StringBuilder out) {
+        while (true) {
+            int next = child(s.state, c);
+            if (next >= 0) {
+                s.state = next;
+                s.pending[s.pendingLen++] = c;
+                int len = matchLen[next];
+                if (len > 0) {
+                    int start = s.pendingLen - len;
+                    // 最左优先，其次最长
+                    if (s.candidateEnd < 0 || start <= s.candidateEnd - s.candidateLen) {
+                        s.candidateEnd = s.pendingLen;
+                        s.candidateLen = len;
+                    }
+                }
+                if (!hasChildren[next] && s.candidateEnd >= 0) {
+                    commitCandidate(s, out);
+                }
+                return;
+            }
+            
+            if (s.candidateEnd >= 0) {
+                int f = fail[s.state];
+                if (s.state == ROOT || s.pendingLen - depth[f] > s.candidateEnd - s.candidateLen) {
+                    // 回退后的匹配都从候选起点之后开始，确认候选匹配后重新处理其后的字符
+                    commitCandidate(s, out);
+                    continue;
+                }
+                // 较短的后缀仍可能从候选起点或更左处延长出更长的匹配（如 "ab" 失配后的 "bc"），先回退
+            } else if (s.state == ROOT) {
+                emit(s, c, out);
+                return;
+            }
+            
+            // 沿失配指针回退，移出匹配窗口的字符可以安全输出（都在候选匹配之前）
+            int f = fail[s.state];
+            int drop = depth[s.state] - depth[f];
+            for (int i = 0; i < drop; i++) {
+                emit(s, s.pending[i], out);
+            }
+            System.arraycopy(s.pending, drop, s.pending, 0, s.pendingLen - drop);
+            s.pendingLen -= drop;
+            s.state = f;
+            if (s.candidateEnd >= 0) {
+                s.candidateEnd -= drop;
+            }
+        }
+    }
+    
+    /**
+     * 删除候选匹配，输出其前面的字符，并重新处理其后的字符
+     */
+    private void commitCandidate(Scratch s, StringBuilder out) {
+        int end = s.candidateEnd;
+        int start = end - s.candidateLen;
+        for (int i = 0; i < start; i++) {
+            emit(s, s.pending[i], out);
+        }
+        // 递归处理时 pending 会被覆盖，先拷贝出来
+        char[] tail = Arrays.copyOfRange(s.pending, end, s.pendingLen);
+        
+        s.state = ROOT;
+        s.pendingLen = 0;
+        s.candidateEnd = -1;
+        s.candidateLen = 0;
+        
+        for (char t : tail) {
+            feed(s, t, out);
+        }
+    }
+    
+    /**
+     * 输入结束：处理剩余的候选匹配并输出缓冲字符
+     */
+    private void finish(Scratch s, StringBuilder out) {
+        while (s.candidateEnd >= 0) {
+            commitCandidate(s, out);
+        }
+        // 没有候选匹配时，缓冲区内不存在任何完整匹配
+        for (int i = 0; i < s.pendingLen; i++) {
+            emit(s, s.pending[i], out);
+        }
+        s.pendingLen = 0;
+        s.state = ROOT;
+    }
+    
+    /**
+     * 输出字符，同时折叠重复
+     */
+    private void emit(Scratch s, char c, StringBuilder out) {
+        if (!collapseRepeats || !isHan(c)) {
+            s.collapsedChar = 0;
+            out.append(c);
+            return;
+        }
+        
+        int len = out.length();
+        // 单字：三连及以上折叠为一个
+        if (s.collapsedChar == c && len > 0 && out.charAt(len - 1) == c) {
+            return;
+        }
+        if (len >= 2 && out.charAt(len - 1) == c && out.charAt(len - 2) == c) {
+            out.setLength(len - 1);
+            s.collapsedChar = c;
+            return;
+        }
+        s.collapsedChar = 0;
+        out.append(c);
+        len++;
+        
+        // 短语：紧邻出现三次及以上折叠为一个，两次保留
+        for (int unit = 2; unit <= maxRepeatUnit && unit * 2 <= len; unit++) {
+            if (!isRepeatedTail(out, len, unit)) {
+                continue;
+            }
+            if (s.collapsedEnd == len - unit && s.collapsedUnit == unit) {
+                // 已折叠短语的又一次重复
+                out.setLength(len - unit);
+                return;
+            }
+            if (unit * 3 <= len && isRepeatedTail(out, len - unit, unit)) {
+                out.setLength(len - 2 * unit);
+                s.collapsedEnd = len - 2 * unit;
+                s.collapsedUnit = unit;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * out 中 len 之前的最后两段 unit 字是否相同
+     */
+    private static boolean isRepeatedTail(StringBuilder out, int len, int unit) {
+        int second = len - unit;
+        int first = second - unit;
+        for (int i = 0; i < unit; i++) {
+            char c = out.charAt(second + i);
+            if (c != out.charAt(first + i) || !isHan(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean isHan(char c) {
+        return c >= '一' && c <= '鿿' || c >= '㐀' && c <= '䶿';
+    }
+    
+    private void putEdge(int state, char c, int target) {
+        long key = ((long) state << 16) | c;
+        int slot = hash(key) & edgeMask;
+        while (edgeKeys[slot] != -1L) {
+            slot = (slot + 1) & edgeMask;
+        }
+        edgeKeys[slot] = key;
+        edgeValues[slot] = target;
+    }
+    
+    private int child(int state, char c) {
+        long key = ((long) state << 16) | c;
+        int slot = hash(key) & edgeMask;
+        long k;
+        while ((k = edgeKeys[slot]) != -1L) {
+            if (k == key) {
+                return edgeValues[slot];
+            }
+            slot = (slot + 1) & edgeMask;
+        }
+        return -1;
+    }
+    
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+    
+    public int getPatternCount() {
+        return patternCount;
+    }
+    
+    public int getMaxPatternLength() {
+        return maxPatternLength;
+    }
+    
+    /**
+     * 每线程复用的扫描状态
+     */
+    private static final class Scratch {
+        final char[] pending;
+        StringBuilder out = new StringBuilder(1024);
+        int pendingLen;
+        int state;
+        int candidateEnd;
+        int candidateLen;
+        char collapsedChar;
+        // 最近一次折叠的短语在输出中的结束位置和长度，后续紧邻的同一短语直接丢弃
+        int collapsedEnd = -1;
+        int collapsedUnit;
+        
+        Scratch(int maxPatternLength) {
+            this.pending = new char[maxPatternLength];
+        }
+        
+        void reset() {
+            pendingLen = 0;
+            state = ROOT;
+            candidateEnd = -1;
+            candidateLen = 0;
+            collapsedChar = 0;
+            collapsedEnd = -1;
+            collapsedUnit = 0;
+        }
+    }
+}
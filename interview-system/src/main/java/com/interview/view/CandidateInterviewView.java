@@ -1,6 +1,7 @@
 package com.interview.view;
 
-import com.interview.model.InterviewRecord;
+import com.interview.dao.Page;
+import com.interview.model.InterviewRecordSummary;
 import com.interview.service.InterviewRecordService;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Insets;
@@ -12,7 +13,6 @@ import javafx.scene.text.FontWeight;
 import javafx.stage.FileChooser;
 
 import java.io.File;
-import java.util.List;
 
 /**
  * 考生面试视图（JavaFX）
@@ -21,7 +21,11 @@ public class CandidateInterviewView extends BorderPane {
     
     private final InterviewRecordService recordService;
     
-    private TableView<InterviewRecord> recordTable;
+    private TableView<InterviewRecordSummary> recordTable;
+    private Button loadMoreBtn;
+    
+    // 下一页游标，已加载全部时为 null
+    private Page.Cursor nextCursor;
     private Label statusLabel;
     
     public CandidateInterviewView(InterviewRecordService recordService) {
@@ -73,31 +77,31 @@ public class CandidateInterviewView extends BorderPane {
         
         recordTable = new TableView<>();
         
-        TableColumn<InterviewRecord, String> idCol = new TableColumn<>("ID");
+        TableColumn<InterviewRecordSummary, String> idCol = new TableColumn<>("ID");
         idCol.setCellValueFactory(cell -> 
             new SimpleStringProperty(String.valueOf(cell.getValue().getId())));
         idCol.setPrefWidth(50);
         
-        TableColumn<InterviewRecord, String> timeCol = new TableColumn<>("面试时间");
+        TableColumn<InterviewRecordSummary, String> timeCol = new TableColumn<>("面试时间");
         timeCol.setCellValueFactory(cell -> {
             var date = cell.getValue().getInterviewTime();
             return new SimpleStringProperty(date != null ? date.toLocalDate().toString() : "-");
         });
         timeCol.setPrefWidth(120);
         
-        TableColumn<InterviewRecord, String> statusCol = new TableColumn<>("状态");
+        TableColumn<InterviewRecordSummary, String> statusCol = new TableColumn<>("状态");
         statusCol.setCellValueFactory(cell -> 
             new SimpleStringProperty(cell.getValue().getStatusDisplayName()));
         statusCol.setPrefWidth(100);
         
-        TableColumn<InterviewRecord, String> voiceCol = new TableColumn<>("语音文件");
+        TableColumn<InterviewRecordSummary, String> voiceCol = new TableColumn<>("语音文件");
         voiceCol.setCellValueFactory(cell -> {
             String name = cell.getValue().getVoiceFileName();
             return new SimpleStringProperty(name != null ? name : "未上传");
         });
         voiceCol.setPrefWidth(200);
         
-        TableColumn<InterviewRecord, String> createdCol = new TableColumn<>("创建时间");
+        TableColumn<InterviewRecordSummary, String> createdCol = new TableColumn<>("创建时间");
         createdCol.setCellValueFactory(cell -> {
             var date = cell.getValue().getCreatedAt();
             return new SimpleStringProperty(date != null ? date.toLocalDate().toString() : "-");
@@ -106,7 +110,11 @@ public class CandidateInterviewView extends BorderPane {
         
         recordTable.getColumns().addAll(idCol, timeCol, statusCol, voiceCol, createdCol);
         
-        panel.getChildren().addAll(titleLabel, recordTable);
+        loadMoreBtn = new Button("加载更多");
+        loadMoreBtn.setOnAction(e -> loadMoreRecords());
+        loadMoreBtn.setVisible(false);
+        
+        panel.getChildren().addAll(titleLabel, recordTable, loadMoreBtn);
         VBox.setVgrow(recordTable, Priority.ALWAYS);
         
         return panel;
@@ -140,9 +148,21 @@ public class CandidateInterviewView extends BorderPane {
     }
     
     private void loadMyRecords() {
-        List<InterviewRecord> records = recordService.getMyRecords();
         recordTable.getItems().clear();
-        recordTable.getItems().addAll(records);
+        nextCursor = null;
+        appendPage(recordService.getMyRecordPage(null));
+    }
+    
+    private void loadMoreRecords() {
+        if (nextCursor != null) {
+            appendPage(recordService.getMyRecordPage(nextCursor));
+        }
+    }
+    
+    private void appendPage(Page<InterviewRecordSummary> page) {
+        recordTable.getItems().addAll(page.getItems());
+        nextCursor = page.getNextCursor();
+        loadMoreBtn.setVisible(page.hasMore());
     }
     
     private void startNewInterview() {
@@ -162,7 +182,7 @@ public class CandidateInterviewView extends BorderPane {
     }
     
     private void uploadVoiceFile() {
-        InterviewRecord selected = recordTable.getSelectionModel().getSelectedItem();
+        InterviewRecordSummary selected = recordTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             showAlert("提示", "请先选择要上传语音的面试记录", Alert.AlertType.WARNING);
             return;
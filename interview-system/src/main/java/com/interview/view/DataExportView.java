@@ -0,0 +1,149 @@
+package com.interview.view;
+
+import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.service.AuthService;
+import com.interview.service.ExportService;
+import com.interview.transfer.ExportDataset;
+import com.interview.transfer.ExportFormat;
+import com.interview.util.DatabaseConnection;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+import java.time.LocalDate;
+
+/**
+ * 数据导出界面
+ * 题目、面试记录、评分导出为 CSV / JSON Lines / Excel，导出在后台线程进行
+ */
+public class DataExportView extends BorderPane {
+    
+    private final ExportService exportService;
+    
+    private ComboBox<ExportDataset> datasetComboBox;
+    private ComboBox<ExportFormat> formatComboBox;
+    private Button exportBtn;
+    private Label progressLabel;
+    private TextArea logArea;
+    
+    public DataExportView(AuthService authService) {
+        this.exportService = new ExportService(authService);
+        
+        setPadding(new Insets(10));
+        setStyle("-fx-background-color: white;");
+        
+        initComponents();
+    }
+    
+    private void initComponents() {
+        Label titleLabel = new Label("数据导出");
+        titleLabel.setFont(Font.font("Microsoft YaHei", FontWeight.BOLD, 20));
+        setTop(titleLabel);
+        
+        datasetComboBox = new ComboBox<>();
+        for (ExportDataset dataset : ExportDataset.values()) {
+            if (exportService.canExport(dataset)) {
+                datasetComboBox.getItems().add(dataset);
+            }
+        }
+        datasetComboBox.setConverter(new javafx.util.StringConverter<>() {
+            @Override
+            public String toString(ExportDataset dataset) {
+                return dataset == null ? "" : dataset.getDisplayName();
+            }
+            
+            @Override
+            public ExportDataset fromString(String string) {
+                return null;
+            }
+        });
+        datasetComboBox.getSelectionModel().selectFirst();
+        datasetComboBox.setPrefWidth(240);
+        
+        formatComboBox = new ComboBox<>();
+        formatComboBox.getItems().addAll(ExportFormat.values());
+        formatComboBox.setConverter(new javafx.util.StringConverter<>() {
+            @Override
+            public String toString(ExportFormat format) {
+                return format == null ? "" : format.getDisplayName() + " (" + format.getExtension() + ")";
+            }
+            
+            @Override
+            public ExportFormat fromString(String string) {
+                return null;
+            }
+        });
+        formatComboBox.setValue(ExportFormat.CSV);
+        formatComboBox.setPrefWidth(240);
+        
+        exportBtn = new Button("📤 导出");
+        exportBtn.setPrefWidth(120);
+        exportBtn.setStyle("-fx-background-color: #4682b4; -fx-text-fill: white; -fx-font-weight: bold;");
+        exportBtn.setOnAction(e -> export());
+        
+        progressLabel = new Label();
+        
+        GridPane form = new GridPane();
+        form.setHgap(10);
+        form.setVgap(10);
+        form.setPadding(new Insets(15, 0, 15, 0));
+        form.addRow(0, new Label("数据集:"), datasetComboBox);
+        form.addRow(1, new Label("格式:"), formatComboBox);
+        form.addRow(2, exportBtn, progressLabel);
+        
+        logArea = new TextArea();
+        logArea.setEditable(false);
+        logArea.setWrapText(true);
+        logArea.setText("导出使用数据库游标分批读取，百万行数据也不会占用大量内存。\n"
+                + "题目导出的 CSV / JSON Lines 文件可以在题目管理中重新批量导入。\n");
+        VBox.setVgrow(logArea, Priority.ALWAYS);
+        
+        VBox center = new VBox(10, form, new Label("导出日志:"), logArea);
+        setCenter(center);
+    }
+    
+    private void export() {
+        ExportDataset dataset = datasetComboBox.getValue();
+        ExportFormat format = formatComboBox.getValue();
+        if (dataset == null || format == null) {
+            return;
+        }
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("导出" + dataset.getDisplayName());
+        fileChooser.setInitialFileName(dataset.getFileName() + "_" + LocalDate.now() + format.getExtension());
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter(format.getDisplayName(), "*" + format.getExtension())
+        );
+        File file = fileChooser.showSaveDialog(getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        exportBtn.setDisable(true);
+        progressLabel.setText("导出中...");
+        // 导出线程使用与界面线程相同的数据库角色
+        DbUserRole dbRole = DatabaseConnection.getCurrentDbRole();
+        Thread worker = new Thread(() -> {
+            DatabaseConnection.setCurrentDbRole(dbRole);
+            try {
+                String msg = exportService.export(dataset, format, file, rows ->
+                        Platform.runLater(() -> progressLabel.setText("已导出 " + rows + " 行")));
+                Platform.runLater(() -> {
+                    exportBtn.setDisable(false);
+                    progressLabel.setText("");
+                    logArea.appendText("\n[" + dataset.getDisplayName() + "] " + msg + "\n");
+                });
+            } finally {
+                DatabaseConnection.closeCurrentConnection();
+            }
+        }, "data-export");
+        worker.setDaemon(true);
+        worker.start();
+    }
+}
@@ -1,6 +1,7 @@
 package com.interview.view;
 
 import com.interview.llm.LLMManager;
+import com.interview.db.DbExecutor;
 import com.interview.model.*;
 import com.interview.service.AuthService;
 import com.interview.service.EvaluationService;
@@ -44,6 +45,8 @@ public class EvaluationView extends BorderPane {
     
     private InterviewRecord selectedRecord;
     private InterviewAnalysisResult currentAiResult;
+    // 连续刷新时只采用最后一次加载的结果
+    private final FxAsync.Latest recordRequest = new FxAsync.Latest();
     
     public EvaluationView(AuthService authService) {
         this.evaluationService = new EvaluationService(authService);
@@ -308,9 +311,10 @@ public class EvaluationView extends BorderPane {
      * 加载面试记录
      */
     private void loadInterviewRecords() {
-        var records = recordService.getAllRecords();
-        recordTable.getItems().clear();
-        recordTable.getItems().addAll(records);
+        recordRequest.onFx(DbExecutor.supply(recordService::getAllRecords), records -> {
+            recordTable.getItems().clear();
+            recordTable.getItems().addAll(records);
+        });
     }
     
     /**
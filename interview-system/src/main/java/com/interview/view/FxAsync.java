@@ -0,0 +1,94 @@
+package com.interview.view;
+
+import com.interview.log.Log;
+import com.interview.log.Logger;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * 把后台任务（DbExecutor 等）的结果交回 JavaFX 线程
+ * 
+ * 回调总是在 JavaFX 线程中执行，可以直接修改界面控件；CompletionException 会先解包，
+ * 回调收到的是任务中抛出的原始异常。被取消的任务不回调。
+ */
+public final class FxAsync {
+    
+    private static final Logger log = Log.get(FxAsync.class);
+    
+    private FxAsync() {
+    }
+    
+    /**
+     * 任务完成后在 JavaFX 线程中执行 onSuccess 或 onError（onError 为 null 时只记录日志）
+     */
+    public static <T> void onFx(CompletableFuture<T> future, Consumer<? super T> onSuccess,
+                                Consumer<Throwable> onError) {
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            Throwable cause = unwrap(error);
+            if (cause instanceof CancellationException) {
+                return;
+            }
+            if (cause == null) {
+                onSuccess.accept(result);
+            } else if (onError != null) {
+                onError.accept(cause);
+            } else {
+                log.warn("后台任务失败: {}", cause.getMessage());
+            }
+        }));
+    }
+    
+    /**
+     * 任务完成后在 JavaFX 线程中执行 onSuccess，失败时只记录日志
+     */
+    public static <T> void onFx(CompletableFuture<T> future, Consumer<? super T> onSuccess) {
+        onFx(future, onSuccess, null);
+    }
+    
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+    
+    /**
+     * 同一界面区域的最近一次请求
+     * 
+     * 刷新按钮连续点击、翻页和重新加载交错时，后台查询完成的顺序不确定；
+     * 只有最后提交的请求的结果会交给回调，较早的结果直接丢弃，不会覆盖新数据。
+     * 只在 JavaFX 线程中使用。
+     */
+    public static final class Latest {
+        
+        private long generation;
+        
+        public <T> void onFx(CompletableFuture<T> future, Consumer<? super T> onSuccess,
+                             Consumer<Throwable> onError) {
+            long current = ++generation;
+            FxAsync.onFx(future, result -> {
+                if (current == generation) {
+                    onSuccess.accept(result);
+                }
+            }, error -> {
+                if (current != generation) {
+                    return;
+                }
+                if (onError != null) {
+                    onError.accept(error);
+                } else {
+                    log.warn("后台任务失败: {}", error.getMessage());
+                }
+            });
+        }
+        
+        public <T> void onFx(CompletableFuture<T> future, Consumer<? super T> onSuccess) {
+            onFx(future, onSuccess, null);
+        }
+    }
+}
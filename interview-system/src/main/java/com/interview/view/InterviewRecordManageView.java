@@ -1,8 +1,11 @@
 package com.interview.view;
 
+import com.interview.dao.Page;
 import com.interview.model.InterviewRecord;
 import com.interview.model.InterviewRecord.InterviewStatus;
+import com.interview.model.InterviewRecordSummary;
 import com.interview.service.InterviewRecordService;
+import com.interview.storage.WaveformIndex;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -11,7 +14,6 @@ import javafx.scene.layout.*;
 
 import java.awt.Desktop;
 import java.io.File;
-import java.util.List;
 
 /**
  * 面试记录管理视图（JavaFX）
@@ -21,8 +23,16 @@ public class InterviewRecordManageView extends BorderPane {
     private final InterviewRecordService recordService;
     private final boolean canViewAll;
     
-    private TableView<InterviewRecord> recordTable;
+    // 片段播放时长（秒）
+    private static final int SEGMENT_SECONDS = 60;
+    
+    private TableView<InterviewRecordSummary> recordTable;
+    private Button loadMoreBtn;
+    
+    // 下一页游标，已加载全部时为 null
+    private Page.Cursor nextCursor;
     private TextArea detailArea;
+    private WaveformView waveformView;
     
     public InterviewRecordManageView(InterviewRecordService recordService, boolean canViewAll) {
         this.recordService = recordService;
@@ -68,18 +78,18 @@ public class InterviewRecordManageView extends BorderPane {
         recordTable = new TableView<>();
         recordTable.getStyleClass().add("table-view");
         
-        TableColumn<InterviewRecord, String> idCol = new TableColumn<>("ID");
+        TableColumn<InterviewRecordSummary, String> idCol = new TableColumn<>("ID");
         idCol.setCellValueFactory(cell -> 
             new SimpleStringProperty(String.valueOf(cell.getValue().getId())));
         idCol.setPrefWidth(50);
         
         if (canViewAll) {
-            TableColumn<InterviewRecord, String> candidateCol = new TableColumn<>("考生");
+            TableColumn<InterviewRecordSummary, String> candidateCol = new TableColumn<>("考生");
             candidateCol.setCellValueFactory(cell -> 
                 new SimpleStringProperty(cell.getValue().getCandidateUsername()));
             candidateCol.setPrefWidth(100);
             
-            TableColumn<InterviewRecord, String> examinerCol = new TableColumn<>("考官");
+            TableColumn<InterviewRecordSummary, String> examinerCol = new TableColumn<>("考官");
             examinerCol.setCellValueFactory(cell -> {
                 String examiner = cell.getValue().getExaminerUsername();
                 return new SimpleStringProperty(examiner != null ? examiner : "-");
@@ -88,7 +98,7 @@ public class InterviewRecordManageView extends BorderPane {
             
             recordTable.getColumns().addAll(idCol, candidateCol, examinerCol);
         } else {
-            TableColumn<InterviewRecord, String> timeCol = new TableColumn<>("面试时间");
+            TableColumn<InterviewRecordSummary, String> timeCol = new TableColumn<>("面试时间");
             timeCol.setCellValueFactory(cell -> {
                 var date = cell.getValue().getInterviewTime();
                 return new SimpleStringProperty(date != null ? date.toLocalDate().toString() : "-");
@@ -98,12 +108,12 @@ public class InterviewRecordManageView extends BorderPane {
             recordTable.getColumns().addAll(idCol, timeCol);
         }
         
-        TableColumn<InterviewRecord, String> statusCol = new TableColumn<>("状态");
+        TableColumn<InterviewRecordSummary, String> statusCol = new TableColumn<>("状态");
         statusCol.setCellValueFactory(cell -> 
             new SimpleStringProperty(cell.getValue().getStatusDisplayName()));
         statusCol.setPrefWidth(100);
         
-        TableColumn<InterviewRecord, String> voiceCol = new TableColumn<>("语音");
+        TableColumn<InterviewRecordSummary, String> voiceCol = new TableColumn<>("语音");
         voiceCol.setCellValueFactory(cell -> {
             String name = cell.getValue().getVoiceFileName();
             return new SimpleStringProperty(name != null ? "有" : "无");
@@ -123,13 +133,22 @@ public class InterviewRecordManageView extends BorderPane {
         Button refreshBtn = new Button("🔄 刷新");
         refreshBtn.getStyleClass().addAll("button", "button-secondary", "button-small");
         refreshBtn.setOnAction(e -> loadRecords());
-        buttonBox.getChildren().add(refreshBtn);
+        
+        loadMoreBtn = new Button("⬇️ 加载更多");
+        loadMoreBtn.getStyleClass().addAll("button", "button-secondary", "button-small");
+        loadMoreBtn.setOnAction(e -> loadMoreRecords());
+        loadMoreBtn.setVisible(false);
+        buttonBox.getChildren().addAll(refreshBtn, loadMoreBtn);
         
         if (canViewAll) {
             Button playBtn = new Button("▶️ 播放语音");
             playBtn.getStyleClass().addAll("button", "button-secondary", "button-small");
             playBtn.setOnAction(e -> playVoiceFile());
             
+            Button segmentBtn = new Button("⏩ 播放片段");
+            segmentBtn.getStyleClass().addAll("button", "button-secondary", "button-small");
+            segmentBtn.setOnAction(e -> playVoiceSegment());
+            
             Button statusBtn = new Button("📋 更新状态");
             statusBtn.getStyleClass().addAll("button", "button-secondary", "button-small");
             statusBtn.setOnAction(e -> updateStatus());
@@ -142,12 +161,16 @@ public class InterviewRecordManageView extends BorderPane {
             deleteBtn.getStyleClass().addAll("button", "button-danger", "button-small");
             deleteBtn.setOnAction(e -> deleteRecord());
             
-            buttonBox.getChildren().addAll(playBtn, statusBtn, notesBtn, deleteBtn);
+            buttonBox.getChildren().addAll(playBtn, segmentBtn, statusBtn, notesBtn, deleteBtn);
         } else {
             Button playBtn = new Button("▶️ 播放语音");
             playBtn.getStyleClass().addAll("button", "button-secondary", "button-small");
             playBtn.setOnAction(e -> playVoiceFile());
-            buttonBox.getChildren().add(playBtn);
+            
+            Button segmentBtn = new Button("⏩ 播放片段");
+            segmentBtn.getStyleClass().addAll("button", "button-secondary", "button-small");
+            segmentBtn.setOnAction(e -> playVoiceSegment());
+            buttonBox.getChildren().addAll(playBtn, segmentBtn);
         }
         
         panel.getChildren().addAll(titleLabel, recordTable, buttonBox);
@@ -169,21 +192,52 @@ public class InterviewRecordManageView extends BorderPane {
         detailArea.setText("请选择一条记录查看详情...");
         detailArea.getStyleClass().add("text-area");
         
-        panel.getChildren().addAll(titleLabel, detailArea);
+        // 波形概览：点击任意位置从该处播放
+        waveformView = new WaveformView();
+        waveformView.setOnSeek(seconds -> {
+            InterviewRecordSummary selected = recordTable.getSelectionModel().getSelectedItem();
+            if (selected != null) {
+                playSegmentFrom(selected, seconds);
+            }
+        });
+        
+        panel.getChildren().addAll(titleLabel, detailArea, waveformView);
         VBox.setVgrow(detailArea, Priority.ALWAYS);
         
         return panel;
     }
     
     private void loadRecords() {
-        List<InterviewRecord> records = canViewAll ? 
-            recordService.getAllRecords() : recordService.getMyRecords();
         recordTable.getItems().clear();
-        recordTable.getItems().addAll(records);
+        nextCursor = null;
+        appendPage(fetchPage(null));
+    }
+    
+    private void loadMoreRecords() {
+        if (nextCursor != null) {
+            appendPage(fetchPage(nextCursor));
+        }
     }
     
-    private void showRecordDetail(InterviewRecord record) {
+    private Page<InterviewRecordSummary> fetchPage(Page.Cursor after) {
+        return canViewAll ? recordService.getRecordPage(after) : recordService.getMyRecordPage(after);
+    }
+    
+    private void appendPage(Page<InterviewRecordSummary> page) {
+        recordTable.getItems().addAll(page.getItems());
+        nextCursor = page.getNextCursor();
+        loadMoreBtn.setVisible(page.hasMore());
+    }
+    
+    private void showRecordDetail(InterviewRecordSummary summary) {
+        if (summary == null) {
+            return;
+        }
+        // 列表只有摘要，评价、语音文件信息在选中时加载
+        InterviewRecord record = recordService.getRecordDetail(summary.getId());
         if (record == null) {
+            detailArea.setText("记录不存在或无权查看");
+            waveformView.setIndex(null);
             return;
         }
         
@@ -207,6 +261,19 @@ public class InterviewRecordManageView extends BorderPane {
             sb.append("\n【语音文件】\n");
             sb.append("文件名: ").append(record.getVoiceFileName()).append("\n");
             sb.append("文件大小: ").append(record.getFormattedFileSize()).append("\n");
+            if (record.isArchived()) {
+                sb.append("存储位置: 冷存储（已压缩归档，播放时自动恢复）\n");
+                sb.append("归档时间: ").append(record.getArchivedAt() != null ? 
+                    record.getArchivedAt() : "-").append("\n");
+            }
+        }
+        
+        WaveformIndex waveform = record.getVoiceFileName() != null ? 
+            recordService.getWaveform(record.getId()) : null;
+        waveformView.setIndex(waveform);
+        if (waveform != null) {
+            sb.append("有声片段: ").append(waveformView.getSpeechRegions().size())
+              .append(" 段（点击下方波形可从对应位置播放）\n");
         }
         
         if (record.getNotes() != null && !record.getNotes().isEmpty()) {
@@ -218,7 +285,7 @@ public class InterviewRecordManageView extends BorderPane {
     }
     
     private void playVoiceFile() {
-        InterviewRecord selected = recordTable.getSelectionModel().getSelectedItem();
+        InterviewRecordSummary selected = recordTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             showAlert("提示", "请先选择一条记录", Alert.AlertType.WARNING);
             return;
@@ -237,10 +304,58 @@ public class InterviewRecordManageView extends BorderPane {
         }
     }
     
+    /**
+     * 从指定分钟开始播放一段录音（只导出该时间段，长录音无需整体打开）
+     */
+    private void playVoiceSegment() {
+        InterviewRecordSummary selected = recordTable.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            showAlert("提示", "请先选择一条记录", Alert.AlertType.WARNING);
+            return;
+        }
+        
+        double totalSeconds = recordService.getVoiceDurationSeconds(selected.getId());
+        if (totalSeconds <= 0) {
+            showAlert("提示", "该记录没有可播放的 WAV 语音文件", Alert.AlertType.WARNING);
+            return;
+        }
+        
+        TextInputDialog dialog = new TextInputDialog("0");
+        dialog.setTitle("播放片段");
+        dialog.setHeaderText(String.format("录音总时长 %d 分 %d 秒", (int) totalSeconds / 60, (int) totalSeconds % 60));
+        dialog.setContentText("从第几分钟开始（播放 " + SEGMENT_SECONDS + " 秒）:");
+        
+        dialog.showAndWait().ifPresent(input -> {
+            double startMinute;
+            try {
+                startMinute = Double.parseDouble(input.trim());
+            } catch (NumberFormatException ex) {
+                showAlert("提示", "请输入有效的分钟数", Alert.AlertType.WARNING);
+                return;
+            }
+            
+            playSegmentFrom(selected, startMinute * 60);
+        });
+    }
+    
+    private void playSegmentFrom(InterviewRecordSummary record, double startSeconds) {
+        File segment = recordService.exportVoiceSegment(record.getId(), startSeconds, SEGMENT_SECONDS);
+        if (segment == null) {
+            showAlert("错误", "导出语音片段失败", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        try {
+            Desktop.getDesktop().open(segment);
+        } catch (Exception e) {
+            showAlert("错误", "无法打开语音文件: " + e.getMessage(), Alert.AlertType.ERROR);
+        }
+    }
+    
     private void updateStatus() {
         if (!canViewAll) return;
         
-        InterviewRecord selected = recordTable.getSelectionModel().getSelectedItem();
+        InterviewRecordSummary selected = recordTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             showAlert("提示", "请先选择一条记录", Alert.AlertType.WARNING);
             return;
@@ -263,7 +378,7 @@ public class InterviewRecordManageView extends BorderPane {
     private void addNotes() {
         if (!canViewAll) return;
         
-        InterviewRecord selected = recordTable.getSelectionModel().getSelectedItem();
+        InterviewRecordSummary selected = recordTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             showAlert("提示", "请先选择一条记录", Alert.AlertType.WARNING);
             return;
@@ -288,7 +403,7 @@ public class InterviewRecordManageView extends BorderPane {
     private void deleteRecord() {
         if (!canViewAll) return;
         
-        InterviewRecord selected = recordTable.getSelectionModel().getSelectedItem();
+        InterviewRecordSummary selected = recordTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             showAlert("提示", "请先选择一条记录", Alert.AlertType.WARNING);
             return;
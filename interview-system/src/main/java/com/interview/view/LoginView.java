@@ -2,11 +2,15 @@ package com.interview.view;
 
 import com.interview.JavaFXApp;
 import com.interview.service.AuthService;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * 登录界面（JavaFX）
  * 应用新 CSS 设计
@@ -18,6 +22,9 @@ public class LoginView extends VBox {
     private TextField usernameField;
     private PasswordField passwordField;
     private Label messageLabel;
+    private Label statusLabel;
+    private Button loginButton;
+    private Button registerButton;
     
     public LoginView(AuthService authService) {
         this.authService = authService;
@@ -70,16 +77,22 @@ public class LoginView extends VBox {
         messageLabel.getStyleClass().add("label-danger");
         messageLabel.setVisible(false);
         
+        // 启动状态（数据库尚未就绪时显示）
+        statusLabel = new Label();
+        statusLabel.getStyleClass().add("caption-label");
+        statusLabel.setVisible(false);
+        statusLabel.setManaged(false);
+        
         // 按钮容器
         HBox buttonBox = new HBox(15);
         buttonBox.setAlignment(Pos.CENTER);
         
-        Button loginButton = new Button("登录");
+        loginButton = new Button("登录");
         loginButton.setPrefWidth(130);
         loginButton.getStyleClass().addAll("button", "button-large");
         loginButton.setOnAction(e -> performLogin());
         
-        Button registerButton = new Button("注册账号");
+        registerButton = new Button("注册账号");
         registerButton.setPrefWidth(130);
         registerButton.getStyleClass().addAll("button", "button-secondary", "button-large");
         registerButton.setOnAction(e -> showRegisterDialog());
@@ -109,6 +122,7 @@ public class LoginView extends VBox {
             new Separator(),
             formBox,
             messageLabel,
+            statusLabel,
             buttonBox,
             new Separator(),
             tipBox
@@ -118,7 +132,37 @@ public class LoginView extends VBox {
         getChildren().add(loginCard);
     }
     
+    /**
+     * 数据库尚未就绪时禁用登录和注册，就绪后自动恢复；初始化失败时显示原因
+     */
+    public void waitForStartup(CompletableFuture<?> ready) {
+        if (ready == null || (ready.isDone() && !ready.isCompletedExceptionally())) {
+            return;
+        }
+        setStartupPending(true, "正在连接数据库，请稍候...");
+        ready.whenComplete((v, e) -> Platform.runLater(() -> {
+            if (e == null) {
+                setStartupPending(false, null);
+            } else {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                setStartupPending(true, null);
+                showError("数据库初始化失败: " + cause.getMessage());
+            }
+        }));
+    }
+    
+    private void setStartupPending(boolean pending, String status) {
+        loginButton.setDisable(pending);
+        registerButton.setDisable(pending);
+        statusLabel.setText(status);
+        statusLabel.setVisible(status != null);
+        statusLabel.setManaged(status != null);
+    }
+    
     private void performLogin() {
+        if (loginButton.isDisabled()) {
+            return;
+        }
         String username = usernameField.getText().trim();
         String password = passwordField.getText();
         
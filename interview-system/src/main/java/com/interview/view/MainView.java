@@ -107,8 +107,10 @@ public class MainView extends BorderPane {
                 addTab("📝 面试记录", new InterviewRecordManageView(recordService, true));
                 addTab("📊 面试评分", new EvaluationView(authService));
                 addTab("📈 评测报告", new ReportView(authService));
+                addTab("📤 数据导出", new DataExportView(authService));
                 addTab("⚙️ API配置", new LLMConfigView(authService));
                 addTab("👥 用户管理", new UserManageView(userService));
+                addTab("🐢 SQL 统计", new SqlStatsView());
             }
             case EXAMINER -> {
                 addTab("📚 题目浏览", new QuestionBrowseView(questionService));
@@ -116,6 +118,7 @@ public class MainView extends BorderPane {
                 addTab("🎤 面试控制", new InterviewControlView(controlService, questionService));
                 addTab("📝 面试记录", new InterviewRecordManageView(recordService, true));
                 addTab("📊 面试评分", new EvaluationView(authService));
+                addTab("📤 数据导出", new DataExportView(authService));
             }
             case QUESTION_CREATOR -> {
                 addTab("📚 题目浏览", new QuestionBrowseView(questionService));
@@ -1,8 +1,11 @@
 package com.interview.view;
 
+import com.interview.dao.Page;
+import com.interview.db.DbExecutor;
 import com.interview.model.Question;
 import com.interview.model.Question.QuestionLevel;
 import com.interview.model.Question.QuestionType;
+import com.interview.model.QuestionSummary;
 import com.interview.service.QuestionService;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Insets;
@@ -20,7 +23,7 @@ public class QuestionBrowseView extends BorderPane {
     
     private final QuestionService questionService;
     
-    private TableView<Question> questionTable;
+    private TableView<QuestionSummary> questionTable;
     private TextArea contentArea;
     private TextArea answerArea;
     
@@ -30,6 +33,12 @@ public class QuestionBrowseView extends BorderPane {
     private ComboBox<String> difficultyComboBox;
     private ComboBox<String> categoryComboBox;
     private Label countLabel;
+    private Button loadMoreBtn;
+    
+    // 下一页游标，显示检索结果时为 null
+    private Page.Cursor nextCursor;
+    // 首页加载、“加载更多”和检索共用，只采用最后一次请求的结果
+    private final FxAsync.Latest pageRequest = new FxAsync.Latest();
     
     public QuestionBrowseView(QuestionService questionService) {
         this.questionService = questionService;
@@ -122,6 +131,16 @@ public class QuestionBrowseView extends BorderPane {
         resetBtn.getStyleClass().addAll("button", "button-secondary", "button-small");
         resetBtn.setOnAction(e -> resetSearch());
         
+        // 本地索引检索不访问数据库，输入和切换筛选条件时直接刷新结果
+        if (questionService.isInstantSearch()) {
+            keywordField.textProperty().addListener((obs, oldVal, newVal) -> searchQuestions());
+            typeComboBox.setOnAction(e -> searchQuestions());
+            difficultyComboBox.setOnAction(e -> searchQuestions());
+            categoryComboBox.setOnAction(e -> searchQuestions());
+        } else {
+            keywordField.setOnAction(e -> searchQuestions());
+        }
+        
         searchCard.getChildren().addAll(
             keywordField,
             typeComboBox,
@@ -149,28 +168,28 @@ public class QuestionBrowseView extends BorderPane {
         questionTable.getStyleClass().add("table-view");
         questionTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         
-        TableColumn<Question, String> idCol = new TableColumn<>("ID");
+        TableColumn<QuestionSummary, String> idCol = new TableColumn<>("ID");
         idCol.setCellValueFactory(cell -> 
             new SimpleStringProperty(String.valueOf(cell.getValue().getId())));
         idCol.setPrefWidth(50);
         idCol.setStyle("-fx-alignment: CENTER;");
         
-        TableColumn<Question, String> titleCol = new TableColumn<>("标题");
+        TableColumn<QuestionSummary, String> titleCol = new TableColumn<>("标题");
         titleCol.setCellValueFactory(cell -> 
             new SimpleStringProperty(cell.getValue().getTitle()));
         titleCol.setPrefWidth(200);
         
-        TableColumn<Question, String> typeCol = new TableColumn<>("类型");
+        TableColumn<QuestionSummary, String> typeCol = new TableColumn<>("类型");
         typeCol.setCellValueFactory(cell -> 
             new SimpleStringProperty(cell.getValue().getTypeDisplayName()));
         typeCol.setPrefWidth(90);
         
-        TableColumn<Question, String> diffCol = new TableColumn<>("难度");
+        TableColumn<QuestionSummary, String> diffCol = new TableColumn<>("难度");
         diffCol.setCellValueFactory(cell -> 
             new SimpleStringProperty(cell.getValue().getLevelDisplayName()));
         diffCol.setPrefWidth(80);
         
-        TableColumn<Question, String> catCol = new TableColumn<>("分类");
+        TableColumn<QuestionSummary, String> catCol = new TableColumn<>("分类");
         catCol.setCellValueFactory(cell -> {
             String cat = cell.getValue().getCategory();
             return new SimpleStringProperty(cat != null ? cat : "-");
@@ -183,7 +202,12 @@ public class QuestionBrowseView extends BorderPane {
         questionTable.getSelectionModel().selectedItemProperty().addListener(
             (obs, oldVal, newVal) -> showQuestionDetail(newVal));
         
-        panel.getChildren().addAll(titleLabel, questionTable);
+        loadMoreBtn = new Button("⬇️ 加载更多");
+        loadMoreBtn.getStyleClass().addAll("button", "button-secondary", "button-small");
+        loadMoreBtn.setOnAction(e -> loadMoreQuestions());
+        loadMoreBtn.setVisible(false);
+        
+        panel.getChildren().addAll(titleLabel, questionTable, loadMoreBtn);
         VBox.setVgrow(questionTable, Priority.ALWAYS);
         
         return panel;
@@ -225,13 +249,31 @@ public class QuestionBrowseView extends BorderPane {
     }
     
     private void loadQuestions() {
-        List<Question> questions = questionService.getAllQuestions();
-        updateTable(questions);
+        countLabel.setText("加载中...");
+        pageRequest.onFx(DbExecutor.supply(() -> questionService.getQuestionPage(null)), page -> {
+            questionTable.getItems().clear();
+            appendPage(page);
+        });
+    }
+    
+    private void loadMoreQuestions() {
+        if (nextCursor != null) {
+            Page.Cursor cursor = nextCursor;
+            pageRequest.onFx(DbExecutor.supply(() -> questionService.getQuestionPage(cursor)), this::appendPage);
+        }
+    }
+    
+    private void appendPage(Page<QuestionSummary> page) {
+        questionTable.getItems().addAll(page.getItems());
+        nextCursor = page.getNextCursor();
+        loadMoreBtn.setVisible(page.hasMore());
+        countLabel.setText("已加载 " + questionTable.getItems().size() + " 条记录"
+                + (page.hasMore() ? "，还有更多" : ""));
     }
     
     private void loadCategories() {
-        List<String> categories = questionService.getAllCategories();
-        categoryComboBox.getItems().addAll(categories);
+        FxAsync.onFx(DbExecutor.supply(questionService::getAllCategories),
+                categories -> categoryComboBox.getItems().addAll(categories));
     }
     
     private void searchQuestions() {
@@ -243,8 +285,9 @@ public class QuestionBrowseView extends BorderPane {
         String category = categoryComboBox.getSelectionModel().getSelectedIndex() > 0 ? 
             categoryComboBox.getValue() : null;
         
-        List<Question> questions = questionService.searchQuestions(keyword, type, level, category);
-        updateTable(questions);
+        // 边输入边检索时旧请求可能晚于新请求返回，只显示最后一次检索的结果
+        pageRequest.onFx(DbExecutor.supply(() -> questionService.searchQuestions(keyword, type, level, category)),
+                this::updateTable);
     }
     
     private void resetSearch() {
@@ -256,12 +299,21 @@ public class QuestionBrowseView extends BorderPane {
     }
     
     private void updateTable(List<Question> questions) {
+        nextCursor = null;
+        loadMoreBtn.setVisible(false);
         questionTable.getItems().clear();
-        questionTable.getItems().addAll(questions);
+        for (Question question : questions) {
+            questionTable.getItems().add(QuestionSummary.of(question));
+        }
         countLabel.setText("共 " + questions.size() + " 条记录");
     }
     
-    private void showQuestionDetail(Question question) {
+    private void showQuestionDetail(QuestionSummary summary) {
+        if (summary == null) {
+            return;
+        }
+        // 列表只有摘要，题目内容和参考答案在选中时加载
+        Question question = questionService.getQuestionById(summary.getId());
         if (question != null) {
             contentArea.setText(question.getContent());
             answerArea.setText(question.getAnswer() != null ? question.getAnswer() : "暂无参考答案");
@@ -284,6 +284,13 @@ public class QuestionEditDialog extends Dialog<Boolean> {
         }
         
         if (result.contains("成功")) {
+            if (result.contains("疑似重复")) {
+                Alert alert = new Alert(Alert.AlertType.WARNING);
+                alert.setTitle("⚠️ 疑似重复");
+                alert.setHeaderText(null);
+                alert.setContentText(result + "\n\n可在题目管理中使用「查重报告」核对并删除重复题目。");
+                alert.showAndWait();
+            }
             return true;
         } else {
             showError(result, null);
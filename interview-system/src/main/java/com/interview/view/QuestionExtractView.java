@@ -1,8 +1,11 @@
 package com.interview.view;
 
+import com.interview.extract.AssembledPaper;
+import com.interview.extract.PaperSpec;
 import com.interview.model.Question;
 import com.interview.model.Question.QuestionLevel;
 import com.interview.model.Question.QuestionType;
+import com.interview.model.Question.SpecializationType;
 import com.interview.service.QuestionService;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -30,14 +33,28 @@ public class QuestionExtractView extends BorderPane {
     private ComboBox<String> categoryComboBox;
     private TextArea resultArea;
     
+    // 按规则组卷
+    private TextField candidateField;
+    private Spinner<Integer> basicSpinner;
+    private Spinner<Integer> intermediateSpinner;
+    private Spinner<Integer> advancedSpinner;
+    private Spinner<Integer> specializationSpinner;
+    private ComboBox<SpecializationType> specializationComboBox;
+    private Spinner<Integer> minCategoriesSpinner;
+    private Spinner<Integer> excludeDaysSpinner;
+    
     public QuestionExtractView(QuestionService questionService) {
         this.questionService = questionService;
         
         setPadding(new Insets(10));
         setStyle("-fx-background-color: white;");
         
-        // 左侧设置面板
-        setLeft(createSettingsPanel());
+        // 左侧设置面板（随机抽取 + 按规则组卷）
+        VBox settings = new VBox(10, createSettingsPanel(), createPaperPanel());
+        ScrollPane settingsScroll = new ScrollPane(settings);
+        settingsScroll.setFitToWidth(true);
+        settingsScroll.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        setLeft(settingsScroll);
         
         // 中心结果面板
         setCenter(createResultPanel());
@@ -107,6 +124,76 @@ public class QuestionExtractView extends BorderPane {
         return panel;
     }
     
+    private VBox createPaperPanel() {
+        VBox panel = new VBox(10);
+        panel.setPadding(new Insets(10));
+        panel.setPrefWidth(250);
+        panel.setStyle("-fx-background-color: #f8f9fa; -fx-border-color: #dee2e6; -fx-border-radius: 5px;");
+        
+        Label titleLabel = new Label("按规则组卷");
+        titleLabel.setFont(Font.font("Microsoft YaHei", FontWeight.BOLD, 16));
+        
+        Label candidateLabel = new Label("考生用户名（可选）:");
+        candidateField = new TextField();
+        candidateField.setPromptText("填写后排除该考生见过的题目");
+        candidateField.setPrefWidth(200);
+        
+        basicSpinner = new Spinner<>(0, 50, 2);
+        intermediateSpinner = new Spinner<>(0, 50, 3);
+        advancedSpinner = new Spinner<>(0, 50, 1);
+        specializationSpinner = new Spinner<>(0, 50, 1);
+        specializationComboBox = new ComboBox<>();
+        for (SpecializationType spec : SpecializationType.values()) {
+            if (spec != SpecializationType.NONE) {
+                specializationComboBox.getItems().add(spec);
+            }
+        }
+        specializationComboBox.setValue(SpecializationType.ALGORITHM);
+        specializationComboBox.setPrefWidth(200);
+        specializationComboBox.setConverter(new javafx.util.StringConverter<>() {
+            @Override
+            public String toString(SpecializationType spec) {
+                return spec == null ? "" : spec.getDisplayName();
+            }
+            
+            @Override
+            public SpecializationType fromString(String string) {
+                return null;
+            }
+        });
+        minCategoriesSpinner = new Spinner<>(0, 20, 4);
+        excludeDaysSpinner = new Spinner<>(0, 3650, 365);
+        excludeDaysSpinner.setEditable(true);
+        
+        GridPane quotaGrid = new GridPane();
+        quotaGrid.setHgap(8);
+        quotaGrid.setVgap(6);
+        quotaGrid.addRow(0, new Label(QuestionLevel.BASIC.getDisplayName() + ":"), basicSpinner);
+        quotaGrid.addRow(1, new Label(QuestionLevel.INTERMEDIATE.getDisplayName() + ":"), intermediateSpinner);
+        quotaGrid.addRow(2, new Label(QuestionLevel.ADVANCED.getDisplayName() + ":"), advancedSpinner);
+        quotaGrid.addRow(3, new Label(QuestionLevel.SPECIALIZATION_THREE.getDisplayName() + ":"), specializationSpinner);
+        quotaGrid.addRow(4, new Label("最少分类数:"), minCategoriesSpinner);
+        quotaGrid.addRow(5, new Label("排除天数:"), excludeDaysSpinner);
+        
+        Button assembleBtn = new Button("按规则组卷");
+        assembleBtn.setPrefWidth(200);
+        assembleBtn.setPrefHeight(40);
+        assembleBtn.setStyle("-fx-background-color: #2e8b57; -fx-text-fill: white; -fx-font-weight: bold; -fx-font-size: 14px;");
+        assembleBtn.setOnAction(e -> assemblePaper());
+        
+        panel.getChildren().addAll(
+            titleLabel,
+            new Separator(),
+            candidateLabel, candidateField,
+            quotaGrid,
+            new Label("专精方向:"), specializationComboBox,
+            new Separator(),
+            assembleBtn
+        );
+        
+        return panel;
+    }
+    
     private VBox createResultPanel() {
         VBox panel = new VBox(10);
         panel.setPadding(new Insets(0, 0, 0, 10));
@@ -153,40 +240,74 @@ public class QuestionExtractView extends BorderPane {
         if (questions.isEmpty()) {
             resultArea.setText("未能抽取到符合条件的题目，请调整筛选条件后重试。");
         } else {
-            StringBuilder sb = new StringBuilder();
-            sb.append("================================\n");
-            sb.append("       面试题目抽取结果\n");
-            sb.append("================================\n\n");
-            sb.append("抽取数量: ").append(questions.size()).append(" 题\n");
-            sb.append("抽取时间: ").append(java.time.LocalDateTime.now()).append("\n\n");
-            
+            StringBuilder header = new StringBuilder();
             if (type != null) {
-                sb.append("题目类型: ").append(type.getDisplayName()).append("\n");
+                header.append("题目类型: ").append(type.getDisplayName()).append("\n");
             }
             if (questionLevel != null) {
-                sb.append("难度等级: ").append(questionLevel.getDisplayName()).append("\n");
+                header.append("难度等级: ").append(questionLevel.getDisplayName()).append("\n");
             }
             if (category != null) {
-                sb.append("分类筛选: ").append(category).append("\n");
+                header.append("分类筛选: ").append(category).append("\n");
             }
-            sb.append("\n================================\n\n");
-            
-            int i = 1;
-            for (Question q : questions) {
-                sb.append("【题目 ").append(i++).append("】\n");
-                sb.append("标题: ").append(q.getTitle()).append("\n");
-                sb.append("类型: ").append(q.getTypeDisplayName()).append("\n");
-                sb.append("等级: ").append(q.getLevelDisplayName()).append("\n\n");
-                sb.append("内容:\n").append(q.getContent()).append("\n\n");
-                if (q.getAnswer() != null && !q.getAnswer().isEmpty()) {
-                    sb.append("参考答案:\n").append(q.getAnswer()).append("\n");
-                }
-                sb.append("\n--------------------------------\n\n");
+            showQuestions("面试题目抽取结果", header.toString(), questions);
+        }
+    }
+    
+    private void assemblePaper() {
+        PaperSpec spec = new PaperSpec()
+                .addQuota(QuestionLevel.BASIC, null, basicSpinner.getValue())
+                .addQuota(QuestionLevel.INTERMEDIATE, null, intermediateSpinner.getValue())
+                .addQuota(QuestionLevel.ADVANCED, null, advancedSpinner.getValue())
+                .addQuota(QuestionLevel.SPECIALIZATION_THREE, specializationComboBox.getValue(),
+                        specializationSpinner.getValue());
+        spec.setMinCategories(minCategoriesSpinner.getValue());
+        spec.setExcludeSeenDays(excludeDaysSpinner.getValue());
+        String candidate = candidateField.getText() == null ? "" : candidateField.getText().trim();
+        
+        AssembledPaper paper = questionService.assemblePaper(spec, candidate.isEmpty() ? null : candidate);
+        if (!paper.isSuccess()) {
+            showAlert("组卷失败", paper.getMessage(), Alert.AlertType.WARNING);
+            return;
+        }
+        
+        StringBuilder header = new StringBuilder();
+        header.append("组卷规则: ").append(spec.describe()).append("\n");
+        if (!candidate.isEmpty()) {
+            header.append("考生: ").append(candidate).append("\n");
+        }
+        if (paper.getRecord() != null) {
+            header.append("抽取记录: #").append(paper.getRecord().getId()).append("\n");
+        }
+        header.append(paper.getMessage()).append("\n");
+        showQuestions("面试试卷", header.toString(), paper.getQuestions());
+    }
+    
+    private void showQuestions(String title, String header, List<Question> questions) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("================================\n");
+        sb.append("       ").append(title).append("\n");
+        sb.append("================================\n\n");
+        sb.append("抽取数量: ").append(questions.size()).append(" 题\n");
+        sb.append("抽取时间: ").append(java.time.LocalDateTime.now()).append("\n\n");
+        sb.append(header);
+        sb.append("\n================================\n\n");
+        
+        int i = 1;
+        for (Question q : questions) {
+            sb.append("【题目 ").append(i++).append("】\n");
+            sb.append("标题: ").append(q.getTitle()).append("\n");
+            sb.append("类型: ").append(q.getTypeDisplayName()).append("\n");
+            sb.append("等级: ").append(q.getLevelDisplayName()).append("\n\n");
+            sb.append("内容:\n").append(q.getContent()).append("\n\n");
+            if (q.getAnswer() != null && !q.getAnswer().isEmpty()) {
+                sb.append("参考答案:\n").append(q.getAnswer()).append("\n");
             }
-            
-            resultArea.setText(sb.toString());
-            resultArea.positionCaret(0);
+            sb.append("\n--------------------------------\n\n");
         }
+        
+        resultArea.setText(sb.toString());
+        resultArea.positionCaret(0);
     }
     
     private void exportResult() {
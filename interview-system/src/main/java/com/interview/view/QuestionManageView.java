@@ -1,14 +1,25 @@
 package com.interview.view;
 
+import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.dao.Page;
+import com.interview.db.DbExecutor;
 import com.interview.model.Question;
+import com.interview.model.QuestionSummary;
+import com.interview.search.NearDuplicateIndex.DuplicateGroup;
 import com.interview.service.QuestionService;
+import com.interview.util.DatabaseConnection;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
 
+import java.io.File;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 题目管理视图（JavaFX）
@@ -18,7 +29,14 @@ public class QuestionManageView extends BorderPane {
     
     private final QuestionService questionService;
     
-    private TableView<Question> questionTable;
+    private TableView<QuestionSummary> questionTable;
+    private Label countLabel;
+    private Button loadMoreBtn;
+    
+    // 下一页游标，已加载全部时为 null
+    private Page.Cursor nextCursor;
+    // 首页加载和“加载更多”共用，只采用最后一次请求的结果
+    private final FxAsync.Latest pageRequest = new FxAsync.Latest();
     
     public QuestionManageView(QuestionService questionService) {
         this.questionService = questionService;
@@ -69,6 +87,14 @@ public class QuestionManageView extends BorderPane {
         deleteBtn.getStyleClass().addAll("button", "button-danger", "button-small");
         deleteBtn.setOnAction(e -> deleteQuestion());
         
+        Button dedupeBtn = new Button("🔍 查重报告");
+        dedupeBtn.getStyleClass().addAll("button", "button-small");
+        dedupeBtn.setOnAction(e -> showDuplicateReport());
+        
+        Button importBtn = new Button("📥 批量导入");
+        importBtn.getStyleClass().addAll("button", "button-small");
+        importBtn.setOnAction(e -> importQuestions(importBtn));
+        
         Region btnSpacer = new Region();
         HBox.setHgrow(btnSpacer, Priority.ALWAYS);
         
@@ -76,7 +102,7 @@ public class QuestionManageView extends BorderPane {
         refreshBtn.getStyleClass().addAll("button", "button-secondary", "button-small");
         refreshBtn.setOnAction(e -> loadQuestions());
         
-        buttonCard.getChildren().addAll(addBtn, editBtn, deleteBtn, btnSpacer, refreshBtn);
+        buttonCard.getChildren().addAll(addBtn, editBtn, deleteBtn, dedupeBtn, importBtn, btnSpacer, refreshBtn);
         
         panel.getChildren().addAll(titleBox, buttonCard);
         
@@ -92,35 +118,35 @@ public class QuestionManageView extends BorderPane {
         questionTable.getStyleClass().add("table-view");
         questionTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         
-        TableColumn<Question, String> idCol = new TableColumn<>("ID");
+        TableColumn<QuestionSummary, String> idCol = new TableColumn<>("ID");
         idCol.setCellValueFactory(cell -> 
             new SimpleStringProperty(String.valueOf(cell.getValue().getId())));
         idCol.setPrefWidth(50);
         idCol.setStyle("-fx-alignment: CENTER;");
         
-        TableColumn<Question, String> titleCol = new TableColumn<>("标题");
+        TableColumn<QuestionSummary, String> titleCol = new TableColumn<>("标题");
         titleCol.setCellValueFactory(cell -> 
             new SimpleStringProperty(cell.getValue().getTitle()));
         titleCol.setPrefWidth(250);
         
-        TableColumn<Question, String> typeCol = new TableColumn<>("类型");
+        TableColumn<QuestionSummary, String> typeCol = new TableColumn<>("类型");
         typeCol.setCellValueFactory(cell -> 
             new SimpleStringProperty(cell.getValue().getTypeDisplayName()));
         typeCol.setPrefWidth(100);
         
-        TableColumn<Question, String> diffCol = new TableColumn<>("难度");
+        TableColumn<QuestionSummary, String> diffCol = new TableColumn<>("难度");
         diffCol.setCellValueFactory(cell -> 
             new SimpleStringProperty(cell.getValue().getLevelDisplayName()));
         diffCol.setPrefWidth(90);
         
-        TableColumn<Question, String> catCol = new TableColumn<>("分类");
+        TableColumn<QuestionSummary, String> catCol = new TableColumn<>("分类");
         catCol.setCellValueFactory(cell -> {
             String cat = cell.getValue().getCategory();
             return new SimpleStringProperty(cat != null ? cat : "-");
         });
         catCol.setPrefWidth(120);
         
-        TableColumn<Question, String> creatorCol = new TableColumn<>("创建者");
+        TableColumn<QuestionSummary, String> creatorCol = new TableColumn<>("创建者");
         creatorCol.setCellValueFactory(cell -> {
             String creator = cell.getValue().getCreatedBy();
             return new SimpleStringProperty(creator != null ? creator : "-");
@@ -129,16 +155,44 @@ public class QuestionManageView extends BorderPane {
         
         questionTable.getColumns().addAll(idCol, titleCol, typeCol, diffCol, catCol, creatorCol);
         
-        panel.getChildren().add(questionTable);
+        countLabel = new Label();
+        countLabel.getStyleClass().add("text-secondary");
+        
+        loadMoreBtn = new Button("⬇️ 加载更多");
+        loadMoreBtn.getStyleClass().addAll("button", "button-secondary", "button-small");
+        loadMoreBtn.setOnAction(e -> loadMoreQuestions());
+        loadMoreBtn.setVisible(false);
+        
+        HBox footer = new HBox(10, countLabel, loadMoreBtn);
+        footer.setAlignment(Pos.CENTER_LEFT);
+        
+        panel.getChildren().addAll(questionTable, footer);
         VBox.setVgrow(questionTable, Priority.ALWAYS);
         
         return panel;
     }
     
     private void loadQuestions() {
-        List<Question> questions = questionService.getAllQuestions();
-        questionTable.getItems().clear();
-        questionTable.getItems().addAll(questions);
+        countLabel.setText("加载中...");
+        pageRequest.onFx(DbExecutor.supply(() -> questionService.getQuestionPage(null)), page -> {
+            questionTable.getItems().clear();
+            appendPage(page);
+        });
+    }
+    
+    private void loadMoreQuestions() {
+        if (nextCursor != null) {
+            Page.Cursor cursor = nextCursor;
+            pageRequest.onFx(DbExecutor.supply(() -> questionService.getQuestionPage(cursor)), this::appendPage);
+        }
+    }
+    
+    private void appendPage(Page<QuestionSummary> page) {
+        questionTable.getItems().addAll(page.getItems());
+        nextCursor = page.getNextCursor();
+        loadMoreBtn.setVisible(page.hasMore());
+        countLabel.setText("已加载 " + questionTable.getItems().size() + " 道题目"
+                + (page.hasMore() ? "，还有更多" : ""));
     }
     
     private void showAddDialog() {
@@ -152,11 +206,18 @@ public class QuestionManageView extends BorderPane {
     }
     
     private void showEditDialog() {
-        Question selected = questionTable.getSelectionModel().getSelectedItem();
-        if (selected == null) {
+        QuestionSummary summary = questionTable.getSelectionModel().getSelectedItem();
+        if (summary == null) {
             showAlert("⚠️ 提示", "请先选择要编辑的题目", Alert.AlertType.WARNING);
             return;
         }
+        // 列表只有摘要，编辑前加载完整题目
+        Question selected = questionService.getQuestionById(summary.getId());
+        if (selected == null) {
+            showAlert("❌ 错误", "题目不存在或已被删除", Alert.AlertType.ERROR);
+            loadQuestions();
+            return;
+        }
         
         QuestionEditDialog dialog = new QuestionEditDialog(questionService, selected);
         dialog.getDialogPane().getStyleClass().add("dialog-pane");
@@ -168,7 +229,7 @@ public class QuestionManageView extends BorderPane {
     }
     
     private void deleteQuestion() {
-        Question selected = questionTable.getSelectionModel().getSelectedItem();
+        QuestionSummary selected = questionTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             showAlert("⚠️ 提示", "请先选择要删除的题目", Alert.AlertType.WARNING);
             return;
@@ -193,6 +254,94 @@ public class QuestionManageView extends BorderPane {
         });
     }
     
+    private void importQuestions(Button importBtn) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("选择题目文件");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("CSV / JSON Lines", "*.csv", "*.jsonl", "*.ndjson"),
+            new FileChooser.ExtensionFilter("所有文件", "*.*")
+        );
+        File file = fileChooser.showOpenDialog(getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        importBtn.setDisable(true);
+        importBtn.setText("📥 导入中...");
+        // 导入线程使用与界面线程相同的数据库角色
+        DbUserRole dbRole = DatabaseConnection.getCurrentDbRole();
+        Thread worker = new Thread(() -> {
+            DatabaseConnection.setCurrentDbRole(dbRole);
+            try {
+                String msg = questionService.importQuestions(file, rows ->
+                        Platform.runLater(() -> importBtn.setText("📥 已读取 " + rows + " 行")));
+                Platform.runLater(() -> {
+                    importBtn.setDisable(false);
+                    importBtn.setText("📥 批量导入");
+                    showAlert(
+                        msg.startsWith("导入完成") ? "✅ 导入完成" : "❌ 错误",
+                        msg,
+                        msg.startsWith("导入完成") ? Alert.AlertType.INFORMATION : Alert.AlertType.ERROR
+                    );
+                    loadQuestions();
+                });
+            } finally {
+                DatabaseConnection.closeCurrentConnection();
+            }
+        }, "question-import");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    private void showDuplicateReport() {
+        List<DuplicateGroup> groups = questionService.findDuplicateGroups();
+        if (groups.isEmpty()) {
+            showAlert("✅ 查重完成", "未发现近似重复的题目", Alert.AlertType.INFORMATION);
+            return;
+        }
+        
+        Map<Integer, QuestionSummary> byId = new HashMap<>();
+        for (QuestionSummary q : questionTable.getItems()) {
+            byId.put(q.getId(), q);
+        }
+        int total = 0;
+        StringBuilder sb = new StringBuilder();
+        int index = 1;
+        for (DuplicateGroup group : groups) {
+            total += group.getQuestionIds().size();
+            sb.append("【第 ").append(index++).append(" 组】")
+                    .append(group.getQuestionIds().size()).append(" 道题，最高相似度 ")
+                    .append(Math.round(group.getMaxSimilarity() * 100)).append("%\n");
+            for (int id : group.getQuestionIds()) {
+                // 列表是分页加载的，不在已加载页里的题目单独读取
+                QuestionSummary q = byId.computeIfAbsent(id, key -> {
+                    Question question = questionService.getQuestionById(key);
+                    return question != null ? QuestionSummary.of(question) : null;
+                });
+                sb.append("  #").append(id).append("  ")
+                        .append(q != null ? q.getTitle() : "(题目不存在)");
+                if (q != null && q.getCreatedBy() != null) {
+                    sb.append("  [").append(q.getCreatedBy()).append("]");
+                }
+                sb.append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        TextArea reportArea = new TextArea(sb.toString());
+        reportArea.setEditable(false);
+        reportArea.setWrapText(true);
+        reportArea.setPrefSize(640, 420);
+        
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("🔍 查重报告");
+        alert.setHeaderText("发现 " + groups.size() + " 组近似重复题目，共 " + total + " 道");
+        alert.getDialogPane().setContent(reportArea);
+        alert.getDialogPane().getStyleClass().add("dialog-pane");
+        alert.setResizable(true);
+        alert.showAndWait();
+    }
+    
     private void showAlert(String title, String content, Alert.AlertType type) {
         Alert alert = new Alert(type);
         alert.setTitle(title);
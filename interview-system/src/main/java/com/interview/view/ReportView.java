@@ -1,5 +1,6 @@
 package com.interview.view;
 
+import com.interview.db.DbExecutor;
 import com.interview.model.*;
 import com.interview.service.AuthService;
 import com.interview.service.EvaluationService;
@@ -34,6 +35,8 @@ public class ReportView extends BorderPane {
     private TableView<InterviewRecord> recordTable;
     private Label selectedRecordLabel;
     private Button generateReportBtn;
+    // 连续刷新时只采用最后一次加载的结果
+    private final FxAsync.Latest recordRequest = new FxAsync.Latest();
     
     public ReportView(AuthService authService) {
         this.evaluationService = new EvaluationService(authService);
@@ -230,9 +233,10 @@ public class ReportView extends BorderPane {
      * 加载面试记录
      */
     private void loadInterviewRecords() {
-        var records = recordService.getAllRecords();
-        recordTable.getItems().clear();
-        recordTable.getItems().addAll(records);
+        recordRequest.onFx(DbExecutor.supply(recordService::getAllRecords), records -> {
+            recordTable.getItems().clear();
+            recordTable.getItems().addAll(records);
+        });
     }
     
     /**
@@ -277,18 +281,32 @@ public class ReportView extends BorderPane {
         
         confirm.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                // 调用服务生成报告
-                EvaluationReport report = evaluationService.generateReport(selected.getId(), selected);
-                if (report != null) {
-                    setReport(report);
-                    showAlert("成功", "评测报告生成完成！", Alert.AlertType.INFORMATION);
-                } else {
-                    showAlert("错误", "生成报告失败，请确保已有评分数据", Alert.AlertType.ERROR);
-                }
+                // 在后台读取评分并生成报告，完成前禁用按钮
+                generateReportBtn.setDisable(true);
+                generateReportBtn.setText("🔄 生成中...");
+                FxAsync.onFx(DbExecutor.supply(() -> evaluationService.generateReport(selected.getId(), selected)),
+                    report -> {
+                        resetGenerateButton();
+                        if (report != null) {
+                            setReport(report);
+                            showAlert("成功", "评测报告生成完成！", Alert.AlertType.INFORMATION);
+                        } else {
+                            showAlert("错误", "生成报告失败，请确保已有评分数据", Alert.AlertType.ERROR);
+                        }
+                    },
+                    error -> {
+                        resetGenerateButton();
+                        showAlert("错误", "生成报告失败: " + error.getMessage(), Alert.AlertType.ERROR);
+                    });
             }
         });
     }
     
+    private void resetGenerateButton() {
+        generateReportBtn.setText("📊 生成评测报告");
+        generateReportBtn.setDisable(recordTable.getSelectionModel().getSelectedItem() == null);
+    }
+    
     /**
      * 加载已有报告
      */
@@ -0,0 +1,170 @@
+package com.interview.view;
+
+import com.interview.db.ConnectionPool;
+import com.interview.db.QueryStats;
+import com.interview.db.QueryStats.Shape;
+import com.interview.db.QueryStats.SlowQuery;
+import com.interview.db.StatementCache;
+import com.interview.metrics.LatencyHistogram;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Function;
+
+/**
+ * SQL 统计界面（管理员）
+ * 按语句形状列出执行次数、耗时百分位、返回行数和数据量，以及最近的慢查询；统计可导出为 JSON
+ */
+public class SqlStatsView extends BorderPane {
+    
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("MM-dd HH:mm:ss");
+    
+    private TableView<Shape> shapeTable;
+    private TableView<SlowQuery> slowTable;
+    private TextArea sqlArea;
+    private Label summaryLabel;
+    
+    public SqlStatsView() {
+        setPadding(new Insets(10));
+        setStyle("-fx-background-color: white;");
+        
+        initComponents();
+        refresh();
+    }
+    
+    private void initComponents() {
+        Label titleLabel = new Label("SQL 统计");
+        titleLabel.setFont(Font.font("Microsoft YaHei", FontWeight.BOLD, 20));
+        
+        Button refreshBtn = new Button("🔄 刷新");
+        refreshBtn.setOnAction(e -> refresh());
+        Button resetBtn = new Button("🧹 清零");
+        resetBtn.setOnAction(e -> {
+            QueryStats.reset();
+            StatementCache.resetStats();
+            refresh();
+        });
+        Button dumpBtn = new Button("💾 导出 JSON");
+        dumpBtn.setOnAction(e -> dumpJson());
+        
+        summaryLabel = new Label();
+        HBox header = new HBox(10, titleLabel, refreshBtn, resetBtn, dumpBtn, summaryLabel);
+        header.setAlignment(Pos.CENTER_LEFT);
+        header.setPadding(new Insets(0, 0, 10, 0));
+        setTop(header);
+        
+        shapeTable = new TableView<>();
+        shapeTable.getColumns().add(column("来源", Shape::getSource, 180));
+        shapeTable.getColumns().add(column("次数", s -> String.valueOf(s.getLatency().getCount()), 70));
+        shapeTable.getColumns().add(column("失败", s -> String.valueOf(s.getErrors()), 50));
+        shapeTable.getColumns().add(column("总耗时(ms)", s -> millis(s.getLatency().getTotalMillis()), 90));
+        shapeTable.getColumns().add(column("平均", s -> millis(s.getLatency().getMeanMillis()), 70));
+        shapeTable.getColumns().add(column("P50", s -> millis(s.getLatency().percentileMillis(0.50)), 70));
+        shapeTable.getColumns().add(column("P95", s -> millis(s.getLatency().percentileMillis(0.95)), 70));
+        shapeTable.getColumns().add(column("P99", s -> millis(s.getLatency().percentileMillis(0.99)), 70));
+        shapeTable.getColumns().add(column("最大", s -> millis(s.getLatency().getMaxMillis()), 70));
+        shapeTable.getColumns().add(column("行/次", s -> perExecution(s.getRows(), s.getLatency()), 60));
+        shapeTable.getColumns().add(column("数据量", s -> bytes(s.getBytes()), 80));
+        shapeTable.getColumns().add(column("SQL", Shape::getSql, 400));
+        shapeTable.getSelectionModel().selectedItemProperty().addListener(
+            (obs, oldVal, newVal) -> sqlArea.setText(newVal == null ? "" : newVal.getSql()));
+        
+        slowTable = new TableView<>();
+        slowTable.getColumns().add(column("时间", q -> q.getTime().format(TIME_FORMAT), 110));
+        slowTable.getColumns().add(column("耗时(ms)", q -> millis(q.getMillis()), 80));
+        slowTable.getColumns().add(column("来源", SlowQuery::getSource, 180));
+        slowTable.getColumns().add(column("参数类型", SlowQuery::getParams, 160));
+        slowTable.getColumns().add(column("SQL", SlowQuery::getSql, 400));
+        slowTable.getSelectionModel().selectedItemProperty().addListener(
+            (obs, oldVal, newVal) -> sqlArea.setText(newVal == null ? "" : newVal.getSql()));
+        
+        sqlArea = new TextArea();
+        sqlArea.setEditable(false);
+        sqlArea.setWrapText(true);
+        sqlArea.setPrefRowCount(4);
+        
+        Label slowLabel = new Label(String.format("最近的慢查询（超过 %.0f ms，只记录参数类型）:",
+                QueryStats.getSlowThresholdMillis()));
+        VBox center = new VBox(8, new Label("按语句形状汇总（按总耗时排序，耗时单位 ms）:"), shapeTable,
+                slowLabel, slowTable, new Label("选中语句:"), sqlArea);
+        VBox.setVgrow(shapeTable, Priority.ALWAYS);
+        VBox.setVgrow(slowTable, Priority.SOMETIMES);
+        setCenter(center);
+    }
+    
+    private static <T> TableColumn<T, String> column(String title, Function<T, String> value, double width) {
+        TableColumn<T, String> col = new TableColumn<>(title);
+        col.setCellValueFactory(cell -> new SimpleStringProperty(value.apply(cell.getValue())));
+        col.setPrefWidth(width);
+        return col;
+    }
+    
+    private void refresh() {
+        shapeTable.getItems().setAll(QueryStats.getShapes());
+        slowTable.getItems().setAll(QueryStats.getSlowQueries());
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("语句缓存命中率 %.1f%%", StatementCache.getHitRate() * 100));
+        ConnectionPool pool = ConnectionPool.current();
+        if (pool != null) {
+            summary.append(String.format("  物理连接: 新建 %d / 复用 %d", pool.getOpened(), pool.getReused()));
+        }
+        if (!QueryStats.isEnabled()) {
+            summary.append("  （统计已关闭：db.stats.enabled=false）");
+        }
+        summaryLabel.setText(summary.toString());
+    }
+    
+    private void dumpJson() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("导出 SQL 统计");
+        fileChooser.setInitialFileName("sql_stats_" + LocalDate.now() + ".json");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("JSON", "*.json"));
+        File file = fileChooser.showSaveDialog(getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        try {
+            QueryStats.dump(file.toPath());
+            showAlert("✅ 导出完成", "已导出到 " + file.getAbsolutePath(), Alert.AlertType.INFORMATION);
+        } catch (Exception e) {
+            showAlert("❌ 错误", "导出失败: " + e.getMessage(), Alert.AlertType.ERROR);
+        }
+    }
+    
+    private static String millis(double value) {
+        return String.format("%.2f", value);
+    }
+    
+    private static String perExecution(long total, LatencyHistogram latency) {
+        long count = latency.getCount();
+        return count == 0 ? "-" : String.format("%.1f", (double) total / count);
+    }
+    
+    private static String bytes(long value) {
+        if (value < 1024) {
+            return value + " B";
+        }
+        if (value < 1024 * 1024) {
+            return String.format("%.1f KB", value / 1024.0);
+        }
+        return String.format("%.1f MB", value / 1024.0 / 1024.0);
+    }
+    
+    private void showAlert(String title, String content, Alert.AlertType type) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.getDialogPane().getStyleClass().add("dialog-pane");
+        alert.showAndWait();
+    }
+}
@@ -1,5 +1,6 @@
 package com.interview.view;
 
+import com.interview.dao.Page;
 import com.interview.model.User;
 import com.interview.service.UserService;
 import javafx.beans.property.SimpleStringProperty;
@@ -8,8 +9,6 @@ import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
-import java.util.List;
-
 /**
  * 用户管理视图（JavaFX）
  * 应用新 CSS 设计
@@ -19,6 +18,11 @@ public class UserManageView extends BorderPane {
     private final UserService userService;
     
     private TableView<User> userTable;
+    private Label countLabel;
+    private Button loadMoreBtn;
+    
+    // 下一页游标，已加载全部时为 null
+    private Page.Cursor nextCursor;
     
     public UserManageView(UserService userService) {
         this.userService = userService;
@@ -142,16 +146,41 @@ public class UserManageView extends BorderPane {
             roleCol, statusCol, createdCol
         );
         
-        panel.getChildren().add(userTable);
+        countLabel = new Label();
+        countLabel.getStyleClass().add("text-secondary");
+        
+        loadMoreBtn = new Button("⬇️ 加载更多");
+        loadMoreBtn.getStyleClass().addAll("button", "button-secondary", "button-small");
+        loadMoreBtn.setOnAction(e -> loadMoreUsers());
+        loadMoreBtn.setVisible(false);
+        
+        HBox footer = new HBox(10, countLabel, loadMoreBtn);
+        footer.setAlignment(Pos.CENTER_LEFT);
+        
+        panel.getChildren().addAll(userTable, footer);
         VBox.setVgrow(userTable, Priority.ALWAYS);
         
         return panel;
     }
     
     private void loadUsers() {
-        List<User> users = userService.getAllUsers();
         userTable.getItems().clear();
-        userTable.getItems().addAll(users);
+        nextCursor = null;
+        appendPage(userService.getUserPage(null));
+    }
+    
+    private void loadMoreUsers() {
+        if (nextCursor != null) {
+            appendPage(userService.getUserPage(nextCursor));
+        }
+    }
+    
+    private void appendPage(Page<User> page) {
+        userTable.getItems().addAll(page.getItems());
+        nextCursor = page.getNextCursor();
+        loadMoreBtn.setVisible(page.hasMore());
+        countLabel.setText("已加载 " + userTable.getItems().size() + " 个用户"
+                + (page.hasMore() ? "，还有更多" : ""));
     }
     
     private void showEditDialog() {
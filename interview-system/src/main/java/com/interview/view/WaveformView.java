@@ -0,0 +1,113 @@
+package com.interview.view;
+
+import com.interview.storage.WaveformIndex;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+/**
+ * 录音波形概览控件
+ * 基于预生成的峰值索引绘制，不读取音频数据；有声区间以浅色背景标出，点击任意位置回调对应秒数
+ */
+public class WaveformView extends Pane {
+    
+    private static final Color WAVE_COLOR = Color.web("#3b82f6");
+    private static final Color SPEECH_COLOR = Color.web("#3b82f6", 0.12);
+    private static final Color AXIS_COLOR = Color.web("#cbd5e1");
+    
+    private final Canvas canvas = new Canvas();
+    private WaveformIndex index;
+    private List<double[]> speechRegions = List.of();
+    private DoubleConsumer onSeek;
+    
+    public WaveformView() {
+        getChildren().add(canvas);
+        setMinHeight(80);
+        setPrefHeight(100);
+        
+        canvas.widthProperty().bind(widthProperty());
+        canvas.heightProperty().bind(heightProperty());
+        canvas.widthProperty().addListener((obs, o, n) -> draw());
+        canvas.heightProperty().addListener((obs, o, n) -> draw());
+        
+        canvas.setOnMouseClicked(e -> {
+            if (index != null && onSeek != null && canvas.getWidth() > 0) {
+                onSeek.accept(e.getX() / canvas.getWidth() * index.getDurationSeconds());
+            }
+        });
+    }
+    
+    /**
+     * 设置要显示的波形，传入 null 清空
+     */
+    public void setIndex(WaveformIndex index) {
+        this.index = index;
+        this.speechRegions = index != null ? index.speechRegions(0.1, 1.0) : List.of();
+        draw();
+    }
+    
+    /**
+     * 点击波形时的回调，参数为点击位置对应的秒数
+     */
+    public void setOnSeek(DoubleConsumer onSeek) {
+        this.onSeek = onSeek;
+    }
+    
+    public List<double[]> getSpeechRegions() {
+        return speechRegions;
+    }
+    
+    private void draw() {
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.clearRect(0, 0, width, height);
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        
+        double mid = height / 2;
+        g.setStroke(AXIS_COLOR);
+        g.strokeLine(0, mid, width, mid);
+        if (index == null || index.getDurationSeconds() <= 0) {
+            return;
+        }
+        
+        double duration = index.getDurationSeconds();
+        g.setFill(SPEECH_COLOR);
+        for (double[] region : speechRegions) {
+            double x0 = region[0] / duration * width;
+            double x1 = region[1] / duration * width;
+            g.fillRect(x0, 0, Math.max(1, x1 - x0), height);
+        }
+        
+        // 每个像素列取对应桶区间的极值
+        int pixels = (int) width;
+        WaveformIndex.Level level = index.levelFor(pixels);
+        int buckets = level.getBucketCount();
+        if (buckets == 0) {
+            return;
+        }
+        g.setStroke(WAVE_COLOR);
+        for (int x = 0; x < pixels; x++) {
+            int from = (int) ((long) x * buckets / pixels);
+            int to = Math.max(from + 1, (int) ((long) (x + 1) * buckets / pixels));
+            int min = Short.MAX_VALUE;
+            int max = Short.MIN_VALUE;
+            for (int b = from; b < to && b < buckets; b++) {
+                min = Math.min(min, level.getMin(b));
+                max = Math.max(max, level.getMax(b));
+            }
+            if (min > max) {
+                continue;
+            }
+            double y0 = mid - max / 32768.0 * mid;
+            double y1 = mid - min / 32768.0 * mid;
+            g.strokeLine(x + 0.5, y0, x + 0.5, Math.max(y1, y0 + 1));
+        }
+    }
+}
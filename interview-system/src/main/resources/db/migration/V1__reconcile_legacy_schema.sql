@@ -0,0 +1,50 @@
+-- =============================================
+-- V1 兼容旧版 database.sql 建的表
+-- 新库上所有条件都不成立，本脚本不做任何改动
+-- =============================================
+
+-- 旧版题目表使用 difficulty 列、没有 level / specialization，题型 CHECK 也不包含新增的题型
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'questions' AND column_name = 'difficulty')
+       AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_schema = current_schema() AND table_name = 'questions' AND column_name = 'level') THEN
+        ALTER TABLE questions ADD COLUMN level VARCHAR(30);
+        ALTER TABLE questions ADD COLUMN IF NOT EXISTS specialization VARCHAR(30) DEFAULT 'NONE';
+        UPDATE questions SET level = CASE difficulty
+                                         WHEN 'EASY' THEN 'BASIC'
+                                         WHEN 'MEDIUM' THEN 'INTERMEDIATE'
+                                         ELSE 'ADVANCED'
+                                     END;
+        ALTER TABLE questions ALTER COLUMN level SET NOT NULL;
+        -- difficulty 保留给 Web 端读取，桌面端写入时不再填写
+        ALTER TABLE questions ALTER COLUMN difficulty DROP NOT NULL;
+        ALTER TABLE questions DROP CONSTRAINT IF EXISTS questions_type_check;
+        DROP INDEX IF EXISTS idx_questions_difficulty;
+    END IF;
+END $$;
+
+-- 旧版评分表按 (interview_id, dimension) 一行一个维度，与当前的评分 + 维度分数两张表不兼容，
+-- 改名保留原数据，由 V2 重新建表
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'evaluation_scores' AND column_name = 'interview_id')
+       AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_schema = current_schema() AND table_name = 'evaluation_scores'
+                         AND column_name = 'interview_record_id') THEN
+        -- 旧程序在旧表上建过的维度分数表外键指向旧评分表，一并改名
+        IF to_regclass('evaluation_dimension_scores') IS NOT NULL THEN
+            ALTER TABLE evaluation_dimension_scores RENAME TO evaluation_dimension_scores_legacy;
+            ALTER TABLE evaluation_dimension_scores_legacy
+                RENAME CONSTRAINT evaluation_dimension_scores_pkey TO evaluation_dimension_scores_legacy_pkey;
+            ALTER SEQUENCE IF EXISTS evaluation_dimension_scores_id_seq RENAME TO evaluation_dimension_scores_legacy_id_seq;
+            DROP INDEX IF EXISTS idx_dimension_scores_score;
+        END IF;
+        ALTER TABLE evaluation_scores RENAME TO evaluation_scores_legacy;
+        ALTER TABLE evaluation_scores_legacy RENAME CONSTRAINT evaluation_scores_pkey TO evaluation_scores_legacy_pkey;
+        ALTER SEQUENCE IF EXISTS evaluation_scores_id_seq RENAME TO evaluation_scores_legacy_id_seq;
+        DROP INDEX IF EXISTS idx_eval_interview;
+    END IF;
+END $$;
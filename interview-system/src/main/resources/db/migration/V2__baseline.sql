@@ -0,0 +1,158 @@
+-- =============================================
+-- V2 基线表结构
+-- 与此前各 DAO 的 createTable 一致；已有的表只补充缺少的列和索引
+-- =============================================
+
+-- 用户表
+CREATE TABLE IF NOT EXISTS users (
+    id SERIAL PRIMARY KEY,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    real_name VARCHAR(100),
+    email VARCHAR(100),
+    role VARCHAR(20) NOT NULL,
+    active BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_login TIMESTAMP
+);
+
+-- 题目表
+CREATE TABLE IF NOT EXISTS questions (
+    id SERIAL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    content TEXT NOT NULL,
+    answer TEXT,
+    type VARCHAR(50) NOT NULL,
+    level VARCHAR(30) NOT NULL,
+    specialization VARCHAR(30) DEFAULT 'NONE',
+    category VARCHAR(100),
+    created_by VARCHAR(50),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    active BOOLEAN DEFAULT TRUE,
+    search_vector TSVECTOR
+);
+ALTER TABLE questions ADD COLUMN IF NOT EXISTS specialization VARCHAR(30) DEFAULT 'NONE';
+ALTER TABLE questions ADD COLUMN IF NOT EXISTS search_vector TSVECTOR;
+CREATE INDEX IF NOT EXISTS idx_questions_search ON questions USING GIN(search_vector);
+-- 其他途径（如 Web 端 JPA）写入的题目没有 search_vector，检索时单独取出复核
+CREATE INDEX IF NOT EXISTS idx_questions_search_pending ON questions(id) WHERE search_vector IS NULL;
+-- 抽题采样只读取 id 和分层字段，覆盖索引可以走 index-only scan
+CREATE INDEX IF NOT EXISTS idx_questions_strata ON questions(type, level, specialization, category, id) WHERE active = TRUE;
+
+-- pg_trgm 三元组索引：需要扩展权限，不可用时单字检索退化为顺序扫描的 ILIKE
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION WHEN OTHERS THEN
+    RAISE NOTICE 'pg_trgm 不可用，单字检索将使用顺序扫描: %', SQLERRM;
+END $$;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX IF NOT EXISTS idx_questions_title_trgm ON questions USING GIN(title gin_trgm_ops);
+        CREATE INDEX IF NOT EXISTS idx_questions_content_trgm ON questions USING GIN(content gin_trgm_ops);
+    END IF;
+END $$;
+
+-- 面试记录表
+CREATE TABLE IF NOT EXISTS interview_records (
+    id SERIAL PRIMARY KEY,
+    candidate_username VARCHAR(50) NOT NULL,
+    examiner_username VARCHAR(50),
+    interview_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    status VARCHAR(20) NOT NULL DEFAULT 'SCHEDULED',
+    voice_file_path VARCHAR(500),
+    voice_file_name VARCHAR(255),
+    voice_file_size BIGINT,
+    voice_file_hash VARCHAR(64),
+    storage_tier VARCHAR(10) DEFAULT 'HOT',
+    archived_at TIMESTAMP,
+    voice_accessed_at TIMESTAMP,
+    notes TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    transcribed_text TEXT,
+    refined_text TEXT,
+    ai_analysis_result TEXT,
+    ai_raw_response TEXT,
+    ai_analysis_time TIMESTAMP,
+    is_recording BOOLEAN DEFAULT FALSE,
+    recording_start_time TIMESTAMP,
+    recording_duration BIGINT,
+    question_ids TEXT
+);
+-- 旧表缺少的语音识别、AI 分析、内容寻址存储和分层存储字段
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS voice_file_hash VARCHAR(64);
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS storage_tier VARCHAR(10) DEFAULT 'HOT';
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS archived_at TIMESTAMP;
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS voice_accessed_at TIMESTAMP;
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS transcribed_text TEXT;
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS refined_text TEXT;
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS ai_analysis_result TEXT;
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS ai_raw_response TEXT;
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS ai_analysis_time TIMESTAMP;
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS is_recording BOOLEAN DEFAULT FALSE;
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS recording_start_time TIMESTAMP;
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS recording_duration BIGINT;
+ALTER TABLE interview_records ADD COLUMN IF NOT EXISTS question_ids TEXT;
+CREATE INDEX IF NOT EXISTS idx_interview_voice_hash ON interview_records(voice_file_hash);
+
+-- 评分记录表
+CREATE TABLE IF NOT EXISTS evaluation_scores (
+    id SERIAL PRIMARY KEY,
+    interview_record_id INTEGER NOT NULL,
+    candidate_username VARCHAR(50) NOT NULL,
+    evaluator_username VARCHAR(50),
+    score_type VARCHAR(20) NOT NULL,
+    comments TEXT,
+    reasoning TEXT,
+    suggestions TEXT,
+    scored_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    submitted BOOLEAN DEFAULT FALSE
+);
+
+-- 维度分数表
+CREATE TABLE IF NOT EXISTS evaluation_dimension_scores (
+    id SERIAL PRIMARY KEY,
+    evaluation_score_id INTEGER NOT NULL REFERENCES evaluation_scores(id) ON DELETE CASCADE,
+    dimension_name VARCHAR(50) NOT NULL,
+    score INTEGER NOT NULL
+);
+
+-- 大模型配置表
+CREATE TABLE IF NOT EXISTS llm_configs (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    provider VARCHAR(50) NOT NULL,
+    model_name VARCHAR(100) NOT NULL,
+    api_key VARCHAR(500) NOT NULL,
+    api_endpoint VARCHAR(500) NOT NULL,
+    is_default BOOLEAN DEFAULT FALSE,
+    enabled BOOLEAN DEFAULT TRUE,
+    timeout INTEGER DEFAULT 60,
+    params TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 题目抽取记录表
+CREATE TABLE IF NOT EXISTS question_extract_records (
+    id SERIAL PRIMARY KEY,
+    extracted_by VARCHAR(50),
+    candidate_username VARCHAR(50),
+    extract_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    question_count INTEGER,
+    filter_criteria TEXT,
+    question_ids INTEGER[],
+    notes TEXT
+);
+CREATE INDEX IF NOT EXISTS idx_extract_records_candidate ON question_extract_records(candidate_username, extract_time);
+
+-- 题目曝光次数
+CREATE TABLE IF NOT EXISTS question_exposure (
+    question_id INTEGER PRIMARY KEY,
+    exposure_count BIGINT NOT NULL DEFAULT 0,
+    last_exposed TIMESTAMP
+);
@@ -0,0 +1,33 @@
+-- =============================================
+-- V3 热点查询索引
+-- =============================================
+
+-- 键集分页的时间列必须非空，否则 NULL 行会在 (时间列, id) 行值比较中被漏掉
+UPDATE users SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE users ALTER COLUMN created_at SET NOT NULL;
+UPDATE questions SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE questions ALTER COLUMN created_at SET NOT NULL;
+UPDATE interview_records SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE interview_records ALTER COLUMN created_at SET NOT NULL;
+UPDATE evaluation_scores SET scored_at = CURRENT_TIMESTAMP WHERE scored_at IS NULL;
+ALTER TABLE evaluation_scores ALTER COLUMN scored_at SET NOT NULL;
+
+-- 列表按 (时间列 DESC, id DESC) 键集分页，考生只看自己的记录和评分
+CREATE INDEX IF NOT EXISTS idx_users_created ON users(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_questions_created ON questions(created_at DESC, id DESC) WHERE active = TRUE;
+CREATE INDEX IF NOT EXISTS idx_interview_created ON interview_records(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_interview_candidate_created ON interview_records(candidate_username, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_eval_scores_candidate ON evaluation_scores(candidate_username, scored_at DESC, id DESC);
+
+-- 按面试记录查评分（findByInterviewRecordId / findHumanScoreByInterview / findAIScoreByInterview）
+CREATE INDEX IF NOT EXISTS idx_eval_scores_record_type ON evaluation_scores(interview_record_id, score_type);
+-- 批量加载维度分数（evaluation_score_id = ANY），外键列本身没有索引
+CREATE INDEX IF NOT EXISTS idx_dimension_scores_score ON evaluation_dimension_scores(evaluation_score_id);
+-- 考官查看自己负责的面试（findByExaminer）
+CREATE INDEX IF NOT EXISTS idx_interview_examiner_created ON interview_records(examiner_username, created_at DESC);
+
+-- 旧版 database.sql 留下的冗余索引：username 已有唯一约束索引，
+-- candidate_username / type 分别是 idx_interview_candidate_created / idx_questions_strata 的前缀
+DROP INDEX IF EXISTS idx_users_username;
+DROP INDEX IF EXISTS idx_interview_candidate;
+DROP INDEX IF EXISTS idx_questions_type;
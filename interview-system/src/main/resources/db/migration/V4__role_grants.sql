@@ -0,0 +1,42 @@
+-- =============================================
+-- V4 数据库角色权限
+-- ${candidate} / ${test_setter} / ${judge} 由 SchemaMigrator 替换为配置中的数据库用户名，
+-- 角色尚未创建（见 database.sql）时跳过
+-- =============================================
+
+DO $$
+BEGIN
+    -- 考生：只读题目，创建面试记录并上传录音，提交评分。
+    -- 表级授权无法限定"自己的记录"，UPDATE 只授予录音上传 / 恢复 / 录音状态写入的列，
+    -- 不能修改状态、备注、AI 分析结果等其他列；记录归属由应用层检查
+    IF EXISTS (SELECT 1 FROM pg_roles WHERE rolname = '${candidate}') THEN
+        GRANT USAGE ON SCHEMA public TO "${candidate}";
+        GRANT SELECT ON questions TO "${candidate}";
+        GRANT SELECT, INSERT ON interview_records TO "${candidate}";
+        GRANT UPDATE (voice_file_path, voice_file_name, voice_file_size, voice_file_hash, storage_tier,
+            archived_at, voice_accessed_at, is_recording, updated_at) ON interview_records TO "${candidate}";
+        GRANT SELECT, INSERT ON evaluation_scores, evaluation_dimension_scores TO "${candidate}";
+        GRANT USAGE, SELECT ON SEQUENCE interview_records_id_seq, evaluation_scores_id_seq,
+            evaluation_dimension_scores_id_seq TO "${candidate}";
+    END IF;
+
+    -- 出题人：完全控制题目表，只读面试记录和评分
+    IF EXISTS (SELECT 1 FROM pg_roles WHERE rolname = '${test_setter}') THEN
+        GRANT USAGE ON SCHEMA public TO "${test_setter}";
+        GRANT SELECT, INSERT, UPDATE, DELETE ON questions TO "${test_setter}";
+        GRANT SELECT ON interview_records, evaluation_scores, evaluation_dimension_scores TO "${test_setter}";
+        GRANT USAGE, SELECT ON SEQUENCE questions_id_seq TO "${test_setter}";
+    END IF;
+
+    -- 考官：只读题目，管理面试记录和评分，抽题并记录曝光次数，读取大模型配置做 AI 分析
+    IF EXISTS (SELECT 1 FROM pg_roles WHERE rolname = '${judge}') THEN
+        GRANT USAGE ON SCHEMA public TO "${judge}";
+        GRANT SELECT ON questions, llm_configs TO "${judge}";
+        GRANT SELECT, INSERT, UPDATE ON interview_records, evaluation_scores TO "${judge}";
+        GRANT SELECT, INSERT, DELETE ON evaluation_dimension_scores TO "${judge}";
+        GRANT SELECT, INSERT ON question_extract_records TO "${judge}";
+        GRANT SELECT, INSERT, UPDATE ON question_exposure TO "${judge}";
+        GRANT USAGE, SELECT ON SEQUENCE interview_records_id_seq, evaluation_scores_id_seq,
+            evaluation_dimension_scores_id_seq, question_extract_records_id_seq TO "${judge}";
+    END IF;
+END $$;
@@ -0,0 +1,43 @@
+-- =============================================
+-- V5 题目变更通知
+-- 修改 questions 的语句提交后 NOTIFY question_changes，各客户端的题目目录缓存据此同步。
+-- 语句级触发器 + 过渡表：批量导入一条 COPY 只发一条通知，
+-- 内容为逗号分隔的题目 id，超过 500 行时为 "*"（通知内容上限 8000 字节）
+-- =============================================
+
+CREATE OR REPLACE FUNCTION notify_question_changes() RETURNS trigger AS $$
+DECLARE
+    changed_count INTEGER;
+    changed_ids TEXT;
+BEGIN
+    SELECT COUNT(*), string_agg(id::text, ',')
+    INTO changed_count, changed_ids
+    FROM (SELECT id FROM changed_rows LIMIT 501) c;
+
+    IF changed_count > 500 THEN
+        PERFORM pg_notify('question_changes', '*');
+    ELSIF changed_count > 0 THEN
+        PERFORM pg_notify('question_changes', changed_ids);
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- 过渡表不能用于多事件触发器，三种操作分别建触发器
+DROP TRIGGER IF EXISTS questions_notify_insert ON questions;
+CREATE TRIGGER questions_notify_insert
+    AFTER INSERT ON questions
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_question_changes();
+
+DROP TRIGGER IF EXISTS questions_notify_update ON questions;
+CREATE TRIGGER questions_notify_update
+    AFTER UPDATE ON questions
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_question_changes();
+
+DROP TRIGGER IF EXISTS questions_notify_delete ON questions;
+CREATE TRIGGER questions_notify_delete
+    AFTER DELETE ON questions
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_question_changes();
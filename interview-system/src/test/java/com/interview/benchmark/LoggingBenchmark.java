@@ -0,0 +1,121 @@
+package com.interview.benchmark;
+
+import com.interview.log.Level;
+import com.interview.log.Log;
+import com.interview.log.Logger;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * 日志记录路径开销基准测试
+ * 
+ * 对比每次调用在记录线程上的耗时（纳秒 / 次）：
+ * - 空循环（基线）
+ * - 级别未启用的 debug 调用，模板 + 参数（级别判断在拼接之前；int / long 参数仍会装箱）
+ * - 级别未启用，先用 isDebugEnabled 判断（参数为基本类型的热点路径的写法）
+ * - 级别未启用的 debug 调用，但参数先用 + 拼接（拼接照常发生，说明为什么要用 {} 模板）
+ * - 级别已启用、异步写出的 info 调用（只放入环形缓冲；输出目标关闭，不计控制台 I/O）
+ * - 原来的写法：拼接后同步 println（输出到丢弃数据的流，实际写控制台只会更慢）
+ * 
+ * 异步一项同时输出因缓冲已满被丢弃的条数（记录速度持续超过后台格式化速度时才会丢弃）。
+ * 
+ * 运行（先执行 mvn test-compile）：java -cp target/test-classes:target/classes:<依赖> com.interview.benchmark.LoggingBenchmark [每轮调用次数]
+ */
+public class LoggingBenchmark {
+    
+    private static final int ROUNDS = 7;
+    
+    @FunctionalInterface
+    private interface Case {
+        long run(int iterations);
+    }
+    
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        
+        Properties properties = new Properties();
+        properties.setProperty("log.level", "INFO");
+        properties.setProperty("log.console", "false");
+        Log.configure(properties);
+        Logger log = Log.get(LoggingBenchmark.class);
+        PrintStream nullOut = new PrintStream(OutputStream.nullOutputStream(), true);
+        
+        System.out.printf("每轮 %d 次调用，共 %d 轮，取中位数%n%n", iterations, ROUNDS);
+        System.out.printf("%-36s %10s%n", "场景", "ns/次");
+        
+        measure("空循环（基线）", iterations, n -> {
+            long sink = 0;
+            for (int i = 0; i < n; i++) {
+                sink += i;
+            }
+            return sink;
+        });
+        measure("debug 未启用，模板 + 参数", iterations, n -> {
+            long sink = 0;
+            for (int i = 0; i < n; i++) {
+                log.debug("响应 {} 字符，耗时 {} ms", i, sink);
+                sink += i;
+            }
+            return sink;
+        });
+        measure("debug 未启用，isDebugEnabled 判断", iterations, n -> {
+            long sink = 0;
+            for (int i = 0; i < n; i++) {
+                if (log.isDebugEnabled()) {
+                    log.debug("响应 {} 字符，耗时 {} ms", i, sink);
+                }
+                sink += i;
+            }
+            return sink;
+        });
+        measure("debug 未启用，参数先拼接", iterations, n -> {
+            long sink = 0;
+            for (int i = 0; i < n; i++) {
+                log.debug("响应 " + i + " 字符，耗时 " + sink + " ms");
+                sink += i;
+            }
+            return sink;
+        });
+        long droppedBefore = Log.getDropped();
+        measure("info 已启用，异步写出", iterations, n -> {
+            long sink = 0;
+            for (int i = 0; i < n; i++) {
+                log.info("响应 {} 字符，耗时 {} ms", i, sink);
+                sink += i;
+            }
+            return sink;
+        });
+        Log.flush();
+        long dropped = Log.getDropped() - droppedBefore;
+        measure("拼接后同步 println（原写法）", iterations, n -> {
+            long sink = 0;
+            for (int i = 0; i < n; i++) {
+                nullOut.println("[LLMManager] 响应 " + i + " 字符，耗时 " + sink + " ms");
+                sink += i;
+            }
+            return sink;
+        });
+        
+        System.out.printf("%n异步写出时因缓冲已满丢弃: %d 条（含预热共记录 %d 条）%n", dropped,
+                (long) iterations * (ROUNDS + 1));
+        Log.setLevel("", Level.OFF);
+        Log.shutdown();
+    }
+    
+    private static void measure(String name, int iterations, Case benchmark) {
+        // 预热，让 JIT 编译循环和日志调用
+        benchmark.run(iterations);
+        double[] nanosPerCall = new double[ROUNDS];
+        long sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            sink += benchmark.run(iterations);
+            nanosPerCall[round] = (double) (System.nanoTime() - start) / iterations;
+        }
+        Arrays.sort(nanosPerCall);
+        System.out.printf("%-36s %10.2f%s%n", name, nanosPerCall[ROUNDS / 2], sink == 42 ? " " : "");
+    }
+}
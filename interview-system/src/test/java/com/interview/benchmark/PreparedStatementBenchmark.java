@@ -0,0 +1,166 @@
+package com.interview.benchmark;
+
+import com.interview.config.AppConfig;
+import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.dao.QuestionDao;
+import com.interview.db.ConnectionPool;
+import com.interview.db.StatementCache;
+import com.interview.model.Question.QuestionLevel;
+import com.interview.model.Question.QuestionType;
+import com.interview.util.DatabaseConnection;
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 连接复用与预备语句缓存基准测试
+ * 
+ * 在 config.properties 配置的数据库上（只读）反复执行题目 DAO 的常用查询，对比：
+ * - 每次新建连接（原来的行为）
+ * - 连接池，不缓存语句，prepareThreshold=0（每次都由服务端解析、规划）
+ * - 连接池 + 语句缓存，prepareThreshold=5（驱动默认值）
+ * - 连接池 + 语句缓存，prepareThreshold=1（第一次执行就使用服务端命名语句）
+ * 
+ * 输出每个查询的中位数 / P95 延迟、客户端语句缓存命中率，以及 pg_prepared_statements 中
+ * 服务端命名语句使用通用计划（不再规划）的比例（PostgreSQL 14 起提供 generic_plans / custom_plans）。
+ * 
+ * 运行（先执行 mvn test-compile）：java -cp target/test-classes:target/classes:<依赖> com.interview.benchmark.PreparedStatementBenchmark [每个查询执行次数]
+ */
+public class PreparedStatementBenchmark {
+    
+    private static final int WARMUP = 20;
+    
+    @FunctionalInterface
+    private interface Query {
+        void run(int i) throws SQLException;
+    }
+    
+    private static class Mode {
+        final String name;
+        final boolean pooled;
+        final int statementCacheSize;
+        final int prepareThreshold;
+        
+        Mode(String name, boolean pooled, int statementCacheSize, int prepareThreshold) {
+            this.name = name;
+            this.pooled = pooled;
+            this.statementCacheSize = statementCacheSize;
+            this.prepareThreshold = prepareThreshold;
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        AppConfig.applyDatabaseConfig();
+        DatabaseConnection.setCurrentDbRole(DbUserRole.ADMIN);
+        
+        QuestionDao dao = new QuestionDao();
+        List<Integer> ids = new ArrayList<>();
+        dao.scanActiveIds((id, type, level, specialization, category) -> ids.add(id));
+        DatabaseConnection.closeCurrentConnection();
+        if (ids.isEmpty()) {
+            System.err.println("题库为空，请先导入题目");
+            return;
+        }
+        System.out.printf("题库规模: %d 题，每个查询执行 %d 次%n", ids.size(), rounds);
+        
+        Random random = new Random(42);
+        int[] sample = new int[rounds + WARMUP];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = ids.get(random.nextInt(ids.size()));
+        }
+        String[] keywords = { "哈希表", "算法 复杂度", "数据库", "死锁", "系统 设计 缓存" };
+        QuestionType[] types = QuestionType.values();
+        
+        Map<String, Query> queries = new LinkedHashMap<>();
+        queries.put("findById", i -> dao.findById(sample[i]));
+        queries.put("findSummaryPage", i -> dao.findSummaryPage(null, 100));
+        queries.put("searchRanked", i -> dao.searchRanked(keywords[i % keywords.length], null, null, null, null, 50));
+        queries.put("searchRanked+过滤", i -> dao.searchRanked(keywords[i % keywords.length],
+                types[i % types.length], QuestionLevel.BASIC, null, null, 50));
+        queries.put("findByIds(20)", i -> dao.findByIds(Arrays.copyOfRange(sample, i, i + 20)));
+        
+        Mode[] modes = {
+            new Mode("每次新建连接", false, 0, 5),
+            new Mode("连接池, 无语句缓存, threshold=0", true, 0, 0),
+            new Mode("连接池 + 语句缓存, threshold=5", true, 64, 5),
+            new Mode("连接池 + 语句缓存, threshold=1", true, 64, 1),
+        };
+        
+        for (Mode mode : modes) {
+            ConnectionPool pool = new ConnectionPool(role -> {
+                Connection conn = DatabaseConnection.openConnection(role);
+                conn.unwrap(PGConnection.class).setPrepareThreshold(mode.prepareThreshold);
+                return conn;
+            }, mode.pooled, 1, 30, mode.statementCacheSize);
+            ConnectionPool.install(pool);
+            StatementCache.resetStats();
+            
+            System.out.printf("%n== %s ==%n", mode.name);
+            System.out.printf("%-20s %12s %12s%n", "查询", "中位数(ms)", "P95(ms)");
+            for (Map.Entry<String, Query> query : queries.entrySet()) {
+                double[] latency = measure(query.getValue(), rounds, sample.length - 20);
+                System.out.printf("%-20s %12.3f %12.3f%n", query.getKey(), latency[0], latency[1]);
+            }
+            System.out.printf("物理连接: 新建 %d, 复用 %d; 语句缓存命中率 %.1f%% (命中 %d / 未命中 %d)%n",
+                    pool.getOpened(), pool.getReused(), StatementCache.getHitRate() * 100,
+                    StatementCache.getHits(), StatementCache.getMisses());
+            if (mode.pooled) {
+                printServerPlans();
+            }
+        }
+        ConnectionPool.install(null);
+    }
+    
+    /**
+     * @return { 中位数, P95 }（毫秒）
+     */
+    private static double[] measure(Query query, int rounds, int maxIndex) throws SQLException {
+        for (int i = 0; i < WARMUP; i++) {
+            query.run(i % maxIndex);
+        }
+        double[] samples = new double[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            query.run(i % maxIndex);
+            samples[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(samples);
+        return new double[] { samples[rounds / 2], samples[Math.min(rounds - 1, (int) (rounds * 0.95))] };
+    }
+    
+    /**
+     * 统计池中连接（单线程测试，总是同一个物理连接）上的服务端命名语句
+     */
+    private static void printServerPlans() {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*), COALESCE(SUM(generic_plans), 0), "
+                    + "COALESCE(SUM(custom_plans), 0) FROM pg_prepared_statements")) {
+                rs.next();
+                long generic = rs.getLong(2);
+                long custom = rs.getLong(3);
+                System.out.printf("服务端命名语句 %d 条; 通用计划 %d 次, 定制计划 %d 次, 计划复用率 %.1f%%%n",
+                        rs.getLong(1), generic, custom,
+                        generic + custom == 0 ? 0.0 : generic * 100.0 / (generic + custom));
+            } catch (SQLException e) {
+                // PostgreSQL 14 之前没有 generic_plans / custom_plans 列
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pg_prepared_statements")) {
+                    rs.next();
+                    System.out.printf("服务端命名语句 %d 条（服务器版本低于 14，无计划复用统计）%n", rs.getLong(1));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("读取 pg_prepared_statements 失败: " + e.getMessage());
+        }
+    }
+}
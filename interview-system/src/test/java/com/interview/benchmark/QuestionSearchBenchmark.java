@@ -0,0 +1,283 @@
+package com.interview.benchmark;
+
+import com.interview.config.AppConfig;
+import com.interview.config.DatabaseConfig.DbUserRole;
+import com.interview.dao.QuestionDao;
+import com.interview.model.Question;
+import com.interview.model.Question.QuestionLevel;
+import com.interview.model.Question.QuestionType;
+import com.interview.search.InMemoryQuestionIndex;
+import com.interview.search.SearchTokenizer;
+import com.interview.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * 题库检索基准测试
+ * 生成合成题库，对比子串扫描（ILIKE 的等价实现）与倒排索引检索的延迟
+ * 
+ * 运行（先执行 mvn test-compile）：java -cp target/test-classes:target/classes:<依赖> com.interview.benchmark.QuestionSearchBenchmark [题目数] [--db]
+ * --db：同时在 config.properties 配置的数据库中建临时 schema 和同名 questions 表，对比旧的 ILIKE 查询与
+ *       QuestionDao.searchRanked（tsvector/GIN + pg_trgm）的延迟，并核对两者的命中数（结束后删除临时 schema）
+ */
+public class QuestionSearchBenchmark {
+    
+    private static final String[] TOPICS = {
+        "数据结构", "算法", "操作系统", "计算机网络", "数据库", "编译原理", "分布式系统", "机器学习",
+        "计算机组成", "软件工程", "并发编程", "密码学", "图形学", "体系结构", "信息检索", "形式语言"
+    };
+    private static final String[] PHRASES = {
+        "请解释", "分析时间复杂度", "给出实现思路", "比较优缺点", "举例说明", "如何优化", "设计一个方案",
+        "描述工作原理", "推导公式", "证明正确性", "讨论适用场景", "写出伪代码", "说明边界条件"
+    };
+    private static final String[] TERMS = {
+        "哈希表", "红黑树", "快速排序", "动态规划", "进程调度", "虚拟内存", "死锁", "三次握手", "拥塞控制",
+        "事务隔离", "索引", "B+树", "词法分析", "一致性哈希", "梯度下降", "缓存一致性", "TCP", "HashMap",
+        "Raft", "Paxos", "LRU", "MVCC", "RPC", "GC", "SIMD", "Kubernetes", "Bloom Filter", "Dijkstra"
+    };
+    private static final String[] QUERIES = {
+        "哈希表", "红黑树", "虚拟内存 死锁", "一致性哈希", "raft", "hashmap", "bloom filter", "事务隔离",
+        "动态规划", "拥塞控制", "分析时间复杂度", "MVCC", "树", "kube", "b+树",
+        // 英文单词中间的片段
+        "map", "netes", "axo", "哈希表 map"
+    };
+    
+    private static final int ROUNDS = 20;
+    
+    public static void main(String[] args) throws Exception {
+        int count = 100_000;
+        boolean db = false;
+        for (String arg : args) {
+            if ("--db".equals(arg)) {
+                db = true;
+            } else {
+                count = Integer.parseInt(arg);
+            }
+        }
+        
+        List<Question> corpus = generate(count, new Random(42));
+        System.out.printf("题库规模: %d 题%n", corpus.size());
+        
+        long start = System.nanoTime();
+        InMemoryQuestionIndex index = new InMemoryQuestionIndex();
+        index.rebuild(corpus);
+        System.out.printf("内存索引构建: %.0f ms, 词项 %d 个, 倒排表 %.1f MB%n", (System.nanoTime() - start) / 1e6,
+                index.termCount(), index.postingBytes() / 1024.0 / 1024.0);
+        
+        // 增量更新：修改中间一道题再改回
+        Question sample = corpus.get(corpus.size() / 2);
+        start = System.nanoTime();
+        index.put(sample);
+        index.remove(sample.getId());
+        index.put(sample);
+        System.out.printf("增量更新（更新 + 删除 + 新增）: %.2f ms%n%n", (System.nanoTime() - start) / 1e6);
+        
+        System.out.printf("%-16s %8s %14s %14s %14s%n", "关键词", "命中数", "子串扫描(ms)", "索引全量(ms)", "索引前500(ms)");
+        for (String query : QUERIES) {
+            int[] hits = new int[2];
+            double scanMs = measure(() -> hits[0] = scan(corpus, query).size());
+            double indexMs = measure(() -> hits[1] = index.search(query, null, null, null, null, 0).size());
+            double topMs = measure(() -> index.search(query, null, null, null, null, 500));
+            if (hits[0] != hits[1]) {
+                System.err.printf("结果数不一致: %s 扫描=%d 索引=%d%n", query, hits[0], hits[1]);
+            }
+            System.out.printf("%-16s %8d %14.3f %14.3f %14.3f%n", query, hits[1], scanMs, indexMs, topMs);
+        }
+        
+        if (db) {
+            benchmarkDatabase(corpus);
+        }
+    }
+    
+    /**
+     * 与旧 ILIKE '%kw%' 等价的线性扫描
+     */
+    private static List<Question> scan(List<Question> corpus, String keyword) {
+        String[] terms = keyword.toLowerCase(Locale.ROOT).trim().split("\\s+");
+        List<Question> result = new ArrayList<>();
+        for (Question q : corpus) {
+            String title = q.getTitle().toLowerCase(Locale.ROOT);
+            String content = q.getContent().toLowerCase(Locale.ROOT);
+            String answer = q.getAnswer().toLowerCase(Locale.ROOT);
+            boolean all = true;
+            for (String term : terms) {
+                if (!title.contains(term) && !content.contains(term) && !answer.contains(term)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) {
+                result.add(q);
+            }
+        }
+        return result;
+    }
+    
+    private static void benchmarkDatabase(List<Question> corpus) throws SQLException {
+        AppConfig.applyDatabaseConfig();
+        DatabaseConnection.setCurrentDbRole(DbUserRole.ADMIN);
+        String schema = "questions_search_bench";
+        QuestionDao dao = new QuestionDao();
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            boolean trigram;
+            try (ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')")) {
+                trigram = rs.next() && rs.getBoolean(1);
+            }
+            stmt.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            stmt.execute("CREATE SCHEMA " + schema);
+            // 题目表建在临时 schema 中，DAO 的 SQL 原样执行；扩展函数仍从 public 解析
+            stmt.execute("SET search_path = " + schema + ", public");
+            stmt.execute("""
+                CREATE TABLE questions (
+                    id INTEGER PRIMARY KEY, title VARCHAR(255) NOT NULL, content TEXT NOT NULL, answer TEXT,
+                    type VARCHAR(50), level VARCHAR(50), specialization VARCHAR(50), category VARCHAR(100),
+                    created_by VARCHAR(50), created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, active BOOLEAN DEFAULT TRUE, search_vector TSVECTOR
+                )
+                """);
+            
+            long start = System.nanoTime();
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO questions (id, title, content, type, level, "
+                    + "search_vector) VALUES (?, ?, ?, ?, ?, "
+                    + "setweight(to_tsvector('simple', ?), 'A') || setweight(to_tsvector('simple', ?), 'B'))")) {
+                int n = 0;
+                for (Question q : corpus) {
+                    ps.setInt(1, q.getId());
+                    ps.setString(2, q.getTitle());
+                    ps.setString(3, q.getContent());
+                    ps.setString(4, q.getType().name());
+                    ps.setString(5, q.getLevel().name());
+                    ps.setString(6, SearchTokenizer.toDocumentText(q.getTitle()));
+                    ps.setString(7, SearchTokenizer.toDocumentText(q.getContent()));
+                    ps.addBatch();
+                    if (++n % 1000 == 0) {
+                        ps.executeBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+            stmt.execute("CREATE INDEX ON questions USING GIN(search_vector)");
+            stmt.execute("CREATE INDEX ON questions(id) WHERE search_vector IS NULL");
+            if (trigram) {
+                stmt.execute("CREATE INDEX ON questions USING GIN(title gin_trgm_ops)");
+                stmt.execute("CREATE INDEX ON questions USING GIN(content gin_trgm_ops)");
+            }
+            stmt.execute("ANALYZE questions");
+            System.out.printf("%n数据库装载 + 建索引: %.1f s（pg_trgm %s）%n", (System.nanoTime() - start) / 1e9,
+                    trigram ? "可用" : "不可用");
+            
+            System.out.printf("%-16s %8s %14s %14s %14s%n", "关键词", "命中数", "ILIKE(ms)", "DAO全量(ms)", "DAO前500(ms)");
+            for (String query : QUERIES) {
+                int[] hits = new int[2];
+                double ilikeMs = measure(() -> hits[0] = ilike(conn, query));
+                double daoMs = measure(() -> hits[1] = search(dao, conn, query, 0));
+                double topMs = measure(() -> search(dao, conn, query, 500));
+                if (hits[0] != hits[1]) {
+                    System.err.printf("结果数不一致: %s ILIKE=%d DAO=%d%n", query, hits[0], hits[1]);
+                }
+                System.out.printf("%-16s %8d %14.3f %14.3f %14.3f%n", query, hits[1], ilikeMs, daoMs, topMs);
+            }
+        } finally {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            }
+        }
+    }
+    
+    /**
+     * 改造前的检索：每个关键词在标题或正文中 ILIKE 子串匹配，按创建时间排序
+     */
+    private static int ilike(Connection conn, String keyword) {
+        String[] terms = keyword.trim().split("\\s+");
+        StringBuilder sql = new StringBuilder("SELECT * FROM questions WHERE active = TRUE");
+        String[] params = new String[terms.length * 2];
+        for (int i = 0; i < terms.length; i++) {
+            sql.append(" AND (title ILIKE ? OR content ILIKE ?)");
+            params[2 * i] = "%" + terms[i] + "%";
+            params[2 * i + 1] = params[2 * i];
+        }
+        return count(conn, sql.append(" ORDER BY created_at DESC").toString(), params);
+    }
+    
+    private static int search(QuestionDao dao, Connection conn, String keyword, int limit) {
+        try {
+            return dao.searchRanked(conn, keyword, null, null, null, null, limit).size();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static int count(Connection conn, String sql, String... params) {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setString(i + 1, params[i]);
+            }
+            int n = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    n++;
+                }
+            }
+            return n;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static double measure(Supplier<?> task) {
+        for (int i = 0; i < 10; i++) {
+            task.get();
+        }
+        double[] samples = new double[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            task.get();
+            samples[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(samples);
+        return samples[ROUNDS / 2];
+    }
+    
+    private static double measure(Runnable task) {
+        return measure(() -> {
+            task.run();
+            return null;
+        });
+    }
+    
+    private static List<Question> generate(int count, Random random) {
+        QuestionType[] types = QuestionType.values();
+        QuestionLevel[] levels = { QuestionLevel.BASIC, QuestionLevel.INTERMEDIATE, QuestionLevel.ADVANCED };
+        List<Question> corpus = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String topic = TOPICS[random.nextInt(TOPICS.length)];
+            String term = TERMS[random.nextInt(TERMS.length)];
+            StringBuilder content = new StringBuilder();
+            int sentences = 3 + random.nextInt(6);
+            for (int s = 0; s < sentences; s++) {
+                content.append(PHRASES[random.nextInt(PHRASES.length)])
+                       .append(TERMS[random.nextInt(TERMS.length)])
+                       .append("在").append(TOPICS[random.nextInt(TOPICS.length)])
+                       .append("中的作用。");
+            }
+            Question q = new Question(topic + "：" + term + "相关问题 #" + i, content.toString(), "",
+                    types[random.nextInt(types.length)], levels[random.nextInt(levels.length)], topic);
+            q.setId(i);
+            corpus.add(q);
+        }
+        return corpus;
+    }
+}
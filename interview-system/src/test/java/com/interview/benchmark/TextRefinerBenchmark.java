@@ -0,0 +1,104 @@
+package com.interview.benchmark;
+
+import com.interview.util.TextRefiner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 转写文本精修基准测试
+ * 对比逐词 String.replace 与 Aho-Corasick 单次扫描在长转写文本、大词典下的耗时
+ *
+ * 运行（先执行 mvn test-compile）：java -cp target/test-classes:target/classes:<依赖> com.interview.benchmark.TextRefinerBenchmark [分钟数] [词典大小]
+ */
+public class TextRefinerBenchmark {
+    
+    // 中文口语 ASR 输出约每分钟 250~300 字
+    private static final int CHARS_PER_MINUTE = 300;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURE_ROUNDS = 200;
+    
+    public static void main(String[] args) {
+        int minutes = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int patternCount = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        
+        Random random = new Random(42);
+        List<String> patterns = buildPatterns(patternCount, random);
+        String transcript = buildTranscript(minutes * CHARS_PER_MINUTE, patterns, random);
+        
+        TextRefiner refiner = new TextRefiner(patterns, true, 4);
+        
+        System.out.printf("转写长度: %d 字 (%d 分钟), 词典: %d 个词%n",
+                transcript.length(), minutes, refiner.getPatternCount());
+        
+        double replaceMs = measure(() -> replaceAll(transcript, patterns));
+        double refinerMs = measure(() -> refiner.refine(transcript));
+        
+        System.out.printf("String.replace 链: %8.3f ms/次%n", replaceMs);
+        System.out.printf("TextRefiner     : %8.3f ms/次 (%.1f MB/s)%n",
+                refinerMs, transcript.length() * 2 / 1024.0 / 1024.0 / (refinerMs / 1000.0));
+        System.out.printf("加速比: %.1fx%n", replaceMs / refinerMs);
+    }
+    
+    private static double measure(Runnable task) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURE_ROUNDS;
+    }
+    
+    private static String replaceAll(String text, List<String> patterns) {
+        String result = text;
+        for (String pattern : patterns) {
+            result = result.replace(pattern, "");
+        }
+        return result.trim();
+    }
+    
+    /**
+     * 默认词典 + 随机生成的 2~4 字口头禅
+     */
+    private static List<String> buildPatterns(int count, Random random) {
+        List<String> patterns = new ArrayList<>(TextRefiner.DEFAULT_FILLERS);
+        while (patterns.size() < count) {
+            int length = 2 + random.nextInt(3);
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                sb.append(randomHan(random));
+            }
+            patterns.add(sb.toString());
+        }
+        return patterns;
+    }
+    
+    /**
+     * 随机汉字正文，约 8% 位置插入语气词，约 2% 位置插入口吃式重复
+     */
+    private static String buildTranscript(int length, List<String> patterns, Random random) {
+        StringBuilder sb = new StringBuilder(length + 64);
+        while (sb.length() < length) {
+            int roll = random.nextInt(100);
+            if (roll < 8) {
+                sb.append(patterns.get(random.nextInt(patterns.size())));
+            } else if (roll < 10) {
+                char c = randomHan(random);
+                sb.append(c).append(c).append(c);
+            } else if (roll < 15) {
+                sb.append('，');
+            } else {
+                sb.append(randomHan(random));
+            }
+        }
+        return sb.toString();
+    }
+    
+    private static char randomHan(Random random) {
+        // 常用字区间
+        return (char) ('一' + random.nextInt(3500));
+    }
+}
@@ -0,0 +1,87 @@
+package com.interview.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 键集分页的条件拼接、参数绑定和结果读取（语句与结果集用代理模拟）
+ */
+class KeysetTest {
+    
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 3, 1, 9, 30);
+    
+    @Test
+    void buildsRowValueCondition() {
+        assertEquals("", Keyset.after(null, "created_at"));
+        assertEquals(" AND (created_at, id) < (?, ?)", Keyset.after(new Page.Cursor(T0, 7), "created_at"));
+        assertEquals(" ORDER BY extract_time DESC, id DESC LIMIT ?", Keyset.orderBy("extract_time"));
+    }
+    
+    @Test
+    void bindsCursorAndLimitPlusOne() throws SQLException {
+        List<String> calls = new ArrayList<>();
+        
+        Keyset.bind(statement(calls), 3, new Page.Cursor(T0, 7), 20);
+        assertEquals(List.of("setTimestamp 3 " + Timestamp.valueOf(T0), "setInt 4 7", "setInt 5 21"), calls);
+        
+        calls.clear();
+        Keyset.bind(statement(calls), 1, null, 20);
+        assertEquals(List.of("setInt 1 21"), calls);
+    }
+    
+    @Test
+    void readsOnePageAndCursorOfLastItem() throws SQLException {
+        Page<Integer> page = Keyset.read(rows(5, 4, 3), 2, rs -> rs.getInt("id"), id -> new Page.Cursor(T0, id));
+        
+        assertEquals(List.of(5, 4), page.getItems());
+        assertTrue(page.hasMore());
+        assertEquals(4, page.getNextCursor().getId());
+    }
+    
+    @Test
+    void lastPageHasNoCursor() throws SQLException {
+        Page<Integer> page = Keyset.read(rows(2, 1), 2, rs -> rs.getInt("id"), id -> new Page.Cursor(T0, id));
+        
+        assertEquals(List.of(2, 1), page.getItems());
+        assertFalse(page.hasMore());
+        assertNull(page.getNextCursor());
+        
+        assertTrue(Keyset.read(rows(), 2, rs -> rs.getInt("id"), id -> new Page.Cursor(T0, id)).getItems().isEmpty());
+    }
+    
+    private static PreparedStatement statement(List<String> calls) {
+        return (PreparedStatement) Proxy.newProxyInstance(KeysetTest.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (p, method, args) -> {
+                    calls.add(method.getName() + " " + args[0] + " " + args[1]);
+                    return null;
+                });
+    }
+    
+    private static ResultSet rows(Integer... ids) {
+        Iterator<Integer> iterator = List.of(ids).iterator();
+        int[] current = new int[1];
+        return (ResultSet) Proxy.newProxyInstance(KeysetTest.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, (p, method, args) -> switch (method.getName()) {
+                    case "next" -> {
+                        boolean more = iterator.hasNext();
+                        if (more) {
+                            current[0] = iterator.next();
+                        }
+                        yield more;
+                    }
+                    case "getInt" -> current[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,221 @@
+package com.interview.dao;
+
+import com.interview.model.Question;
+import com.interview.search.SearchTokenizer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 题库全文检索在真实 PostgreSQL 上的命中结果：与 ILIKE '%关键词%' 子串匹配保持一致，
+ * 包括只是英文单词一部分的关键词（"SQL" 之于 "PostgreSQL"）和中英文混合的关键词
+ * 
+ * 默认用 Testcontainers 启动 PostgreSQL，没有 Docker 时跳过；
+ * 也可以用 -Dtest.postgres.url（及 test.postgres.user / test.postgres.password）指向已有实例，测试在其中新建临时数据库。
+ */
+class QuestionSearchPostgresTest {
+    
+    private static final String[][] QUESTIONS = {
+        { "PostgreSQL 的 MVCC", "解释多版本并发控制如何实现快照隔离" },
+        { "MySQL索引优化", "联合索引的最左前缀原则" },
+        { "MySQL 索引下推", "说明 ICP 的作用" },
+        { "SQLite 的适用场景", "嵌入式数据库与客户端服务器数据库的区别" },
+        { "HashMap 原理", "哈希冲突与扩容" },
+        { "Map 接口", "常用实现类有哪些" },
+        { "TreeMap 与红黑树", "有序映射的实现" },
+        { "Java 基础", "JVM 内存模型与垃圾回收" },
+        { "分布式数据库PostgreSQL集群", "主从复制与故障切换" },
+        { "Oracle 体系结构", "实例与数据库的关系" },
+        { "树的遍历", "前序、中序、后序遍历" },
+    };
+    private static final String[] QUERIES = {
+        "SQL", "sql", "Map", "map", "jav", "JVM", "gre", "SQL索引", "MySQL 索引", "sql 索引", "数据库Postgre",
+        "数据库PostgreSQL集群", "QL的", "树", "红黑树", "Tree 红黑", "PostgreSQL 的", "c++", "不存在的题目",
+    };
+    
+    private static PostgreSQLContainer<?> container;
+    private static String adminUrl;
+    private static String user;
+    private static String password;
+    private static String database;
+    private static Connection conn;
+    
+    private final QuestionDao dao = new QuestionDao();
+    
+    @BeforeAll
+    static void createDatabase() throws SQLException {
+        adminUrl = System.getProperty("test.postgres.url");
+        if (adminUrl != null) {
+            user = System.getProperty("test.postgres.user", "postgres");
+            password = System.getProperty("test.postgres.password", "");
+        } else {
+            Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                    "没有 Docker，也没有指定 test.postgres.url，跳过 PostgreSQL 集成测试");
+            container = new PostgreSQLContainer<>("postgres:14-alpine");
+            container.start();
+            adminUrl = container.getJdbcUrl();
+            user = container.getUsername();
+            password = container.getPassword();
+        }
+        
+        database = "search_test_" + ProcessHandle.current().pid();
+        try (Connection admin = DriverManager.getConnection(adminUrl, user, password);
+             Statement stmt = admin.createStatement()) {
+            stmt.execute("DROP DATABASE IF EXISTS " + database);
+            stmt.execute("CREATE DATABASE " + database);
+        }
+        conn = DriverManager.getConnection(urlOf(database), user, password);
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE questions (
+                    id SERIAL PRIMARY KEY,
+                    title VARCHAR(255) NOT NULL,
+                    content TEXT NOT NULL,
+                    answer TEXT,
+                    type VARCHAR(50) NOT NULL DEFAULT 'TECHNICAL',
+                    level VARCHAR(50) NOT NULL DEFAULT 'BASIC',
+                    specialization VARCHAR(50) DEFAULT 'NONE',
+                    category VARCHAR(100),
+                    created_by VARCHAR(50),
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    active BOOLEAN DEFAULT TRUE,
+                    search_vector TSVECTOR
+                )
+                """);
+            stmt.execute("CREATE INDEX ON questions USING GIN(search_vector)");
+            stmt.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            stmt.execute("CREATE INDEX ON questions USING GIN(title gin_trgm_ops)");
+            stmt.execute("CREATE INDEX ON questions USING GIN(content gin_trgm_ops)");
+        }
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO questions (title, content, search_vector) "
+                + "VALUES (?, ?, setweight(to_tsvector('simple', ?), 'A') || setweight(to_tsvector('simple', ?), 'B'))")) {
+            for (String[] q : QUESTIONS) {
+                ps.setString(1, q[0]);
+                ps.setString(2, q[1]);
+                ps.setString(3, SearchTokenizer.toDocumentText(q[0]));
+                ps.setString(4, SearchTokenizer.toDocumentText(q[1]));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (Statement stmt = conn.createStatement()) {
+            // 其他途径写入、尚未生成 search_vector 的题目
+            stmt.execute("INSERT INTO questions (title, content) VALUES ('NoSQL 数据模型', '文档型与列族型存储')");
+            // 停用的题目不参与检索
+            stmt.execute("INSERT INTO questions (title, content, active, search_vector) "
+                    + "VALUES ('停用的 SQL 题', '内容', FALSE, to_tsvector('simple', 'sql'))");
+        }
+    }
+    
+    @AfterAll
+    static void dropDatabase() throws SQLException {
+        if (conn != null) {
+            conn.close();
+            try (Connection admin = DriverManager.getConnection(adminUrl, user, password);
+                 Statement stmt = admin.createStatement()) {
+                stmt.execute("DROP DATABASE IF EXISTS " + database);
+            }
+        }
+        if (container != null) {
+            container.stop();
+        }
+    }
+    
+    @Test
+    void matchesSubstringsInsideLatinWords() throws SQLException {
+        assertEquals(Set.of("PostgreSQL 的 MVCC", "MySQL索引优化", "MySQL 索引下推", "SQLite 的适用场景",
+                "分布式数据库PostgreSQL集群", "NoSQL 数据模型"), titles("SQL"));
+        assertEquals(Set.of("HashMap 原理", "Map 接口", "TreeMap 与红黑树"), titles("map"));
+        assertEquals(Set.of("Java 基础"), titles("jav"));
+    }
+    
+    @Test
+    void matchesMixedLatinAndChineseKeywords() throws SQLException {
+        // 中英文之间没有空白时按原文相邻匹配
+        assertEquals(Set.of("MySQL索引优化"), titles("SQL索引"));
+        assertEquals(Set.of("分布式数据库PostgreSQL集群"), titles("数据库Postgre"));
+        // 以空白分隔的关键词分别匹配
+        assertEquals(Set.of("MySQL索引优化", "MySQL 索引下推"), titles("sql 索引"));
+        assertEquals(Set.of("TreeMap 与红黑树"), titles("Tree 红黑"));
+    }
+    
+    @Test
+    void agreesWithIlikeForEveryQuery() throws SQLException {
+        for (String query : QUERIES) {
+            assertEquals(ilikeIds(query), ids(dao.searchRanked(conn, query, null, null, null, null, 0)), query);
+        }
+    }
+    
+    @Test
+    void ranksWholeWordMatchesFirst() throws SQLException {
+        List<Question> results = dao.searchRanked(conn, "map", null, null, null, null, 0);
+        
+        assertEquals("Map 接口", results.get(0).getTitle());
+        assertEquals(1, dao.searchRanked(conn, "map", null, null, null, null, 1).size());
+    }
+    
+    private Set<String> titles(String keyword) throws SQLException {
+        Set<String> titles = new TreeSet<>();
+        for (Question q : dao.searchRanked(conn, keyword, null, null, null, null, 0)) {
+            titles.add(q.getTitle());
+        }
+        return titles;
+    }
+    
+    private static Set<Integer> ids(List<Question> questions) {
+        Set<Integer> ids = new TreeSet<>();
+        for (Question q : questions) {
+            ids.add(q.getId());
+        }
+        return ids;
+    }
+    
+    /**
+     * 原来的检索方式：每个关键词都要在标题或正文中以子串出现
+     */
+    private static Set<Integer> ilikeIds(String keyword) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT id FROM questions WHERE active");
+        String[] terms = keyword.trim().split("\\s+");
+        for (int i = 0; i < terms.length; i++) {
+            sql.append(" AND (title ILIKE ? OR content ILIKE ?)");
+        }
+        Set<Integer> ids = new TreeSet<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < terms.length; i++) {
+                String pattern = "%" + terms[i].replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+                ps.setString(2 * i + 1, pattern);
+                ps.setString(2 * i + 2, pattern);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+    
+    private static String urlOf(String db) {
+        int query = adminUrl.indexOf('?');
+        String base = query < 0 ? adminUrl : adminUrl.substring(0, query);
+        String params = query < 0 ? "" : adminUrl.substring(query);
+        return base.substring(0, base.lastIndexOf('/') + 1) + db + params;
+    }
+}
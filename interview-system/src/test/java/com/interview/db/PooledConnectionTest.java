@@ -0,0 +1,96 @@
+package com.interview.db;
+
+import com.interview.config.DatabaseConfig.DbUserRole;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 读写语句的判断与归还时的会话状态恢复
+ */
+class PooledConnectionTest {
+    
+    @Test
+    void recognizesPlainReads() {
+        assertTrue(PooledConnection.isReadOnlySql("SELECT * FROM questions WHERE id = ?"));
+        assertTrue(PooledConnection.isReadOnlySql("  (select id from a) union (select id from b)"));
+        assertTrue(PooledConnection.isReadOnlySql("WITH recent AS (SELECT * FROM t) SELECT * FROM recent"));
+        assertTrue(PooledConnection.isReadOnlySql("SHOW search_path"));
+        assertTrue(PooledConnection.isReadOnlySql("/* 报表 */ SELECT count(*) FROM t -- 统计\n"));
+    }
+    
+    @Test
+    void treatsDataModifyingCteAsWrite() {
+        assertFalse(PooledConnection.isReadOnlySql(
+                "WITH moved AS (DELETE FROM queue WHERE id = ? RETURNING *) SELECT * FROM moved"));
+        assertFalse(PooledConnection.isReadOnlySql(
+                "WITH s AS (SELECT 1) INSERT INTO t (a) SELECT * FROM s RETURNING id"));
+        assertFalse(PooledConnection.isReadOnlySql("with x as (update t set a = 1 returning a) select a from x"));
+    }
+    
+    @Test
+    void treatsLockingReadsAsWrite() {
+        assertFalse(PooledConnection.isReadOnlySql("SELECT * FROM t WHERE id = ? FOR UPDATE"));
+        assertFalse(PooledConnection.isReadOnlySql("SELECT * FROM t FOR NO KEY UPDATE SKIP LOCKED"));
+        assertFalse(PooledConnection.isReadOnlySql("SELECT * FROM t FOR SHARE"));
+        assertFalse(PooledConnection.isReadOnlySql("SELECT * FROM t FOR KEY SHARE"));
+        assertFalse(PooledConnection.isReadOnlySql("SELECT * INTO copy FROM t"));
+    }
+    
+    @Test
+    void ignoresKeywordsInsideLiteralsAndComments() {
+        assertTrue(PooledConnection.isReadOnlySql("SELECT * FROM logs WHERE action = 'UPDATE' OR note = 'it''s FOR UPDATE'"));
+        assertTrue(PooledConnection.isReadOnlySql("SELECT \"delete\" FROM t -- for update\n"));
+        assertTrue(PooledConnection.isReadOnlySql("SELECT /* insert */ 1"));
+        assertTrue(PooledConnection.isReadOnlySql("SELECT share FROM stocks"));
+    }
+    
+    @Test
+    void treatsOtherStatementsAsWrite() {
+        assertFalse(PooledConnection.isReadOnlySql("UPDATE t SET a = 1"));
+        assertFalse(PooledConnection.isReadOnlySql("  insert into t values (1)"));
+        assertFalse(PooledConnection.isReadOnlySql("CALL refresh()"));
+        assertFalse(PooledConnection.isReadOnlySql(""));
+    }
+    
+    @Test
+    void restoresReadOnlyAndIsolationOnRelease() throws Exception {
+        Map<String, Object> state = new HashMap<>(Map.of("autoCommit", true, "readOnly", false,
+                "isolation", Connection.TRANSACTION_READ_COMMITTED));
+        PooledConnection pooled = new PooledConnection(null, DbUserRole.ADMIN, fakeConnection(state), 0);
+        
+        Connection lease = pooled.lease();
+        lease.setReadOnly(true);
+        lease.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        lease.setAutoCommit(false);
+        
+        assertTrue(pooled.reset());
+        assertEquals(true, state.get("autoCommit"));
+        assertEquals(false, state.get("readOnly"));
+        assertEquals(Connection.TRANSACTION_READ_COMMITTED, state.get("isolation"));
+        assertEquals(true, state.get("rolledBack"));
+    }
+    
+    /**
+     * 只记录自动提交、只读和隔离级别的物理连接
+     */
+    private static Connection fakeConnection(Map<String, Object> state) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "getAutoCommit" -> state.get("autoCommit");
+                    case "setAutoCommit" -> state.put("autoCommit", args[0]);
+                    case "isReadOnly" -> state.get("readOnly");
+                    case "setReadOnly" -> state.put("readOnly", args[0]);
+                    case "getTransactionIsolation" -> state.get("isolation");
+                    case "setTransactionIsolation" -> state.put("isolation", args[0]);
+                    case "rollback" -> state.put("rolledBack", true);
+                    case "isClosed" -> false;
+                    default -> null;
+                });
+    }
+}
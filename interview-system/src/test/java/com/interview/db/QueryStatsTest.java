@@ -0,0 +1,48 @@
+package com.interview.db;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 语句形状归一化：相同形状、不同常量的语句合并统计
+ */
+class QueryStatsTest {
+    
+    @Test
+    void replacesLiteralsWithPlaceholders() {
+        assertEquals("SELECT * FROM users WHERE id = ? AND name = ?",
+                QueryStats.normalize("SELECT * FROM users WHERE id = 42 AND name = 'O''Brien'"));
+        assertEquals("SELECT ? * price FROM items WHERE note = ?",
+                QueryStats.normalize("SELECT 3.14 * price FROM items WHERE note = '含 ''引号'' 的文本'"));
+    }
+    
+    @Test
+    void keepsDigitsInsideIdentifiers() {
+        assertEquals("SELECT col1, t2.x FROM table_2 t2", QueryStats.normalize("SELECT col1, t2.x FROM table_2 t2"));
+        assertEquals("SELECT $1", QueryStats.normalize("SELECT $1"));
+    }
+    
+    @Test
+    void collapsesWhitespaceAndTrailingSemicolon() {
+        assertEquals("SELECT a FROM t WHERE b = ?",
+                QueryStats.normalize("\n  SELECT a\n\tFROM   t\n  WHERE b = ?  ;  "));
+    }
+    
+    @Test
+    void mergesPlaceholderLists() {
+        String expected = "SELECT * FROM questions WHERE id IN (?...)";
+        
+        assertEquals(expected, QueryStats.normalize("SELECT * FROM questions WHERE id IN (1, 2, 3)"));
+        assertEquals(expected, QueryStats.normalize("SELECT * FROM questions WHERE id IN (?,?,?,?)"));
+        assertEquals(expected, QueryStats.normalize("SELECT * FROM questions WHERE id IN (7 , 'x')"));
+        assertEquals("SELECT * FROM questions WHERE id IN (?)",
+                QueryStats.normalize("SELECT * FROM questions WHERE id IN (9)"));
+    }
+    
+    @Test
+    void sameShapeForDifferentConstants() {
+        assertEquals(QueryStats.normalize("UPDATE questions SET active = false WHERE id = 1"),
+                QueryStats.normalize("UPDATE questions  SET active = false WHERE id = 20817"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.interview.extract;
+
+import com.interview.extract.PaperSpec.Quota;
+import com.interview.extract.QuestionSampler.Snapshot;
+import com.interview.extract.QuestionSampler.StratumKey;
+import com.interview.model.Question.QuestionLevel;
+import com.interview.model.Question.QuestionType;
+import com.interview.model.Question.SpecializationType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 组卷在分层快照上的求解：配额、排除、分类覆盖与回溯（不访问数据库）
+ */
+class PaperAssemblerTest {
+    
+    @Test
+    void fillsEveryQuotaFromMatchingStrata() throws PaperAssemblyException {
+        Snapshot snapshot = snapshot(
+                stratum("TECHNICAL", "BASIC", "Java", 1, 10),
+                stratum("ALGORITHM", "BASIC", "算法", 11, 20),
+                stratum("TECHNICAL", "ADVANCED", "Java", 21, 30));
+        PaperSpec spec = new PaperSpec()
+                .addQuota(QuestionLevel.BASIC, SpecializationType.NONE, 4)
+                .addQuota(QuestionLevel.ADVANCED, SpecializationType.NONE, 2);
+        
+        for (int seed = 0; seed < 50; seed++) {
+            int[] ids = PaperAssembler.assemble(snapshot, spec, Set.of(), null, new Random(seed));
+            
+            assertEquals(6, ids.length);
+            assertEquals(6, Arrays.stream(ids).distinct().count(), "不能抽到重复题目");
+            // 按配额顺序排列
+            assertTrue(Arrays.stream(ids, 0, 4).allMatch(id -> id <= 20));
+            assertTrue(Arrays.stream(ids, 4, 6).allMatch(id -> id > 20));
+        }
+    }
+    
+    @Test
+    void neverPicksExcludedQuestions() throws PaperAssemblyException {
+        Snapshot snapshot = snapshot(stratum("TECHNICAL", "BASIC", "Java", 1, 6));
+        PaperSpec spec = new PaperSpec().addQuota(QuestionLevel.BASIC, SpecializationType.NONE, 3);
+        
+        for (int seed = 0; seed < 50; seed++) {
+            int[] ids = PaperAssembler.assemble(snapshot, spec, Set.of(1, 2, 3), null, new Random(seed));
+            assertEquals(Set.of(4, 5, 6), toSet(ids));
+        }
+    }
+    
+    @Test
+    void reportsShortageAfterExclusion() {
+        Snapshot snapshot = snapshot(stratum("TECHNICAL", "BASIC", "Java", 1, 5));
+        PaperSpec spec = new PaperSpec().addQuota(QuestionLevel.BASIC, SpecializationType.NONE, 4);
+        
+        PaperAssemblyException e = assertThrows(PaperAssemblyException.class,
+                () -> PaperAssembler.assemble(snapshot, spec, Set.of(1, 2), null, new Random(1)));
+        assertTrue(e.getMessage().contains("可用题目不足"), e.getMessage());
+        assertTrue(e.getMessage().contains("可用 3 道"), e.getMessage());
+    }
+    
+    @Test
+    void coversRequiredNumberOfCategories() throws PaperAssemblyException {
+        // 大部分题目集中在 Java 分类，均匀抽取时很少同时覆盖三个分类
+        Snapshot snapshot = snapshot(
+                stratum("TECHNICAL", "BASIC", "Java", 1, 100),
+                stratum("TECHNICAL", "BASIC", "网络", 101, 101),
+                stratum("TECHNICAL", "BASIC", "数据库", 201, 201));
+        PaperSpec spec = new PaperSpec().addQuota(QuestionLevel.BASIC, SpecializationType.NONE, 3);
+        spec.setMinCategories(3);
+        
+        for (int seed = 0; seed < 50; seed++) {
+            Set<Integer> ids = toSet(PaperAssembler.assemble(snapshot, spec, Set.of(), null, new Random(seed)));
+            assertTrue(ids.contains(101) && ids.contains(201), ids.toString());
+        }
+    }
+    
+    @Test
+    void sharesStratumCapacityBetweenOverlappingQuotas() throws PaperAssemblyException {
+        // "初级·Java" 只能从 Java 分层抽，"初级" 必须让出唯一的 Java 题目
+        Snapshot snapshot = snapshot(
+                stratum("TECHNICAL", "BASIC", "Java", 1, 1),
+                stratum("TECHNICAL", "BASIC", "网络", 2, 2));
+        PaperSpec spec = new PaperSpec()
+                .addQuota(QuestionLevel.BASIC, SpecializationType.NONE, 1)
+                .addQuota(new Quota(QuestionLevel.BASIC, SpecializationType.NONE, null, "Java", 1));
+        
+        for (int seed = 0; seed < 20; seed++) {
+            assertArrayEquals(new int[] { 2, 1 }, PaperAssembler.assemble(snapshot, spec, Set.of(), null, new Random(seed)));
+        }
+    }
+    
+    @Test
+    void backtracksWhenEarlyChoiceBlocksCategoryCoverage() throws PaperAssemblyException {
+        // 技术题按容量加权时多半先选网络分类，而第二条配额只能选网络分类，需要回溯改选 Java 才能覆盖两个分类
+        Snapshot snapshot = snapshot(
+                stratum("TECHNICAL", "BASIC", "Java", 1, 1),
+                stratum("TECHNICAL", "BASIC", "网络", 101, 200),
+                stratum("ALGORITHM", "BASIC", "网络", 201, 201));
+        PaperSpec spec = new PaperSpec()
+                .addQuota(new Quota(QuestionLevel.BASIC, SpecializationType.NONE, QuestionType.TECHNICAL, null, 1))
+                .addQuota(new Quota(QuestionLevel.BASIC, SpecializationType.NONE, null, "网络", 1));
+        spec.setMinCategories(2);
+        
+        for (int seed = 0; seed < 50; seed++) {
+            int[] ids = PaperAssembler.assemble(snapshot, spec, Set.of(), null, new Random(seed));
+            assertEquals(1, ids[0]);
+            assertTrue(ids[1] > 100, String.valueOf(ids[1]));
+        }
+    }
+    
+    @Test
+    void reportsUnsatisfiableCombination() {
+        // 每条配额单独看都够，但两条配额共用仅有的两道题
+        Snapshot snapshot = snapshot(
+                stratum("TECHNICAL", "BASIC", "Java", 1, 1),
+                stratum("TECHNICAL", "BASIC", "网络", 2, 2));
+        PaperSpec spec = new PaperSpec()
+                .addQuota(QuestionLevel.BASIC, SpecializationType.NONE, 2)
+                .addQuota(new Quota(QuestionLevel.BASIC, SpecializationType.NONE, null, "Java", 1));
+        
+        PaperAssemblyException e = assertThrows(PaperAssemblyException.class,
+                () -> PaperAssembler.assemble(snapshot, spec, Set.of(), null, new Random(1)));
+        assertTrue(e.getMessage().contains("没有满足全部条件的题目组合"), e.getMessage());
+    }
+    
+    @Test
+    void rejectsUnreachableCategoryCount() {
+        Snapshot snapshot = snapshot(stratum("TECHNICAL", "BASIC", "Java", 1, 10));
+        PaperSpec spec = new PaperSpec().addQuota(QuestionLevel.BASIC, SpecializationType.NONE, 3);
+        spec.setMinCategories(2);
+        
+        PaperAssemblyException e = assertThrows(PaperAssemblyException.class,
+                () -> PaperAssembler.assemble(snapshot, spec, Set.of(), null, new Random(1)));
+        assertTrue(e.getMessage().contains("无法覆盖 2 个分类"), e.getMessage());
+    }
+    
+    @Test
+    void rejectsEmptySpec() {
+        Snapshot snapshot = snapshot(stratum("TECHNICAL", "BASIC", "Java", 1, 10));
+        
+        assertThrows(PaperAssemblyException.class,
+                () -> PaperAssembler.assemble(snapshot, new PaperSpec(), Set.of(), null, new Random(1)));
+    }
+    
+    private static Map.Entry<StratumKey, int[]> stratum(String type, String level, String category, int from, int to) {
+        return Map.entry(new StratumKey(type, level, "NONE", category), IntStream.rangeClosed(from, to).toArray());
+    }
+    
+    @SafeVarargs
+    private static Snapshot snapshot(Map.Entry<StratumKey, int[]>... strata) {
+        Map<StratumKey, int[]> map = new LinkedHashMap<>();
+        for (Map.Entry<StratumKey, int[]> e : strata) {
+            map.put(e.getKey(), e.getValue());
+        }
+        return new Snapshot(map, System.currentTimeMillis());
+    }
+    
+    private static Set<Integer> toSet(int[] ids) {
+        Set<Integer> set = new HashSet<>();
+        for (int id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,221 @@
+package com.interview.migration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 迁移脚本在真实 PostgreSQL 上的集成测试：空库、旧版 database.sql 建的库、重复执行、脚本被修改
+ * 
+ * 默认用 Testcontainers 启动 PostgreSQL，没有 Docker 时跳过。
+ * 也可以用 -Dtest.postgres.url=jdbc:postgresql://host:port/postgres（以及 test.postgres.user /
+ * test.postgres.password）指向已有的实例；每个测试在其中新建一个临时数据库，结束后删除。
+ */
+class SchemaMigratorPostgresTest {
+    
+    private static final Map<String, String> ROLES = Map.of(
+            "candidate", "candidate", "test_setter", "test_setter", "judge", "judge");
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    
+    private static PostgreSQLContainer<?> container;
+    private static String adminUrl;
+    private static String user;
+    private static String password;
+    
+    private String database;
+    private Connection conn;
+    
+    @BeforeAll
+    static void startPostgres() throws SQLException {
+        adminUrl = System.getProperty("test.postgres.url");
+        if (adminUrl != null) {
+            user = System.getProperty("test.postgres.user", "postgres");
+            password = System.getProperty("test.postgres.password", "");
+        } else {
+            Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                    "没有 Docker，也没有指定 test.postgres.url，跳过 PostgreSQL 集成测试");
+            container = new PostgreSQLContainer<>("postgres:14-alpine");
+            container.start();
+            adminUrl = container.getJdbcUrl();
+            user = container.getUsername();
+            password = container.getPassword();
+        }
+        
+        // 角色是集群级对象，与 database.sql 中创建的同名
+        try (Connection admin = DriverManager.getConnection(adminUrl, user, password);
+             Statement stmt = admin.createStatement()) {
+            for (String role : new String[] { "candidate", "test_setter", "judge", "admin_user" }) {
+                stmt.execute("DO $$ BEGIN IF NOT EXISTS (SELECT 1 FROM pg_roles WHERE rolname = '" + role
+                        + "') THEN CREATE ROLE " + role + "; END IF; END $$");
+            }
+        }
+    }
+    
+    @AfterAll
+    static void stopPostgres() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+    
+    @BeforeEach
+    void createDatabase() throws SQLException {
+        database = "migration_test_" + ProcessHandle.current().pid() + "_" + DATABASES.incrementAndGet();
+        try (Connection admin = DriverManager.getConnection(adminUrl, user, password);
+             Statement stmt = admin.createStatement()) {
+            stmt.execute("CREATE DATABASE " + database);
+        }
+        conn = DriverManager.getConnection(urlOf(database), user, password);
+    }
+    
+    @AfterEach
+    void dropDatabase() throws SQLException {
+        if (conn != null) {
+            conn.close();
+        }
+        try (Connection admin = DriverManager.getConnection(adminUrl, user, password);
+             Statement stmt = admin.createStatement()) {
+            stmt.execute("DROP DATABASE IF EXISTS " + database);
+        }
+    }
+    
+    @Test
+    void migratesEmptyDatabase() throws SQLException {
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), new SchemaMigrator(ROLES).migrate(conn));
+        
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), queryInt("SELECT COUNT(*) FROM schema_version"));
+        for (String table : new String[] { "users", "questions", "interview_records", "evaluation_scores",
+                "evaluation_dimension_scores", "llm_configs", "question_extract_records", "question_exposure" }) {
+            assertTrue(queryBoolean("SELECT to_regclass('" + table + "') IS NOT NULL"), table);
+        }
+        assertTrue(queryBoolean("SELECT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'questions_notify_insert')"));
+        assertCandidateGrants();
+    }
+    
+    @Test
+    void secondRunExecutesNothing() throws SQLException {
+        new SchemaMigrator(ROLES).migrate(conn);
+        
+        assertEquals(0, new SchemaMigrator(ROLES).migrate(conn));
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), queryInt("SELECT COUNT(*) FROM schema_version"));
+    }
+    
+    @Test
+    void migratesLegacyDatabase() throws SQLException, IOException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(resource("legacy/database.sql"));
+            stmt.execute("""
+                INSERT INTO users (username, password_hash, role) VALUES ('old_admin', 'x', 'ADMIN');
+                INSERT INTO questions (title, content, type, difficulty)
+                VALUES ('简单题', '内容', 'TECHNICAL', 'EASY'), ('难题', '内容', 'ALGORITHM', 'EXPERT');
+                INSERT INTO interview_records (candidate_username, voice_file_path) VALUES ('c1', '/old/a.wav');
+                INSERT INTO evaluation_scores (interview_id, dimension, ai_score) VALUES (1, '沟通', 80);
+                """);
+        }
+        
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), new SchemaMigrator(ROLES).migrate(conn));
+        
+        // 旧题目的 difficulty 映射到 level；新程序写入时不填 difficulty，可以使用新增的题型
+        assertEquals("BASIC", queryString("SELECT level FROM questions WHERE title = '简单题'"));
+        assertEquals("ADVANCED", queryString("SELECT level FROM questions WHERE title = '难题'"));
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO questions (title, content, type, level) VALUES ('新题', '内容', 'RESEARCH', 'BASIC')");
+        }
+        assertFalse(queryBoolean("SELECT to_regclass('idx_questions_difficulty') IS NOT NULL"));
+        
+        // 旧评分表改名保留，新评分表按当前结构重建
+        assertEquals(1, queryInt("SELECT COUNT(*) FROM evaluation_scores_legacy"));
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM evaluation_scores"));
+        assertTrue(queryBoolean("""
+            SELECT EXISTS (SELECT 1 FROM information_schema.columns
+                           WHERE table_name = 'evaluation_scores' AND column_name = 'interview_record_id')
+            """));
+        
+        // 旧记录补齐新增列的默认值
+        assertEquals("HOT", queryString("SELECT storage_tier FROM interview_records WHERE candidate_username = 'c1'"));
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM interview_records WHERE created_at IS NULL"));
+        assertCandidateGrants();
+        
+        assertEquals(0, new SchemaMigrator(ROLES).migrate(conn));
+    }
+    
+    @Test
+    void rejectsScriptModifiedAfterItWasApplied() throws SQLException {
+        new SchemaMigrator(ROLES).migrate(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE schema_version SET checksum = repeat('0', 64) WHERE version = 2");
+        }
+        
+        SQLException e = assertThrows(SQLException.class, () -> new SchemaMigrator(ROLES).migrate(conn));
+        assertTrue(e.getMessage().contains("V2__baseline.sql"), e.getMessage());
+    }
+    
+    /**
+     * 考生只能更新录音相关的列
+     */
+    private void assertCandidateGrants() throws SQLException {
+        assertTrue(queryBoolean(
+                "SELECT has_column_privilege('candidate', 'interview_records', 'voice_file_path', 'UPDATE')"));
+        assertFalse(queryBoolean(
+                "SELECT has_column_privilege('candidate', 'interview_records', 'status', 'UPDATE')"));
+        assertFalse(queryBoolean(
+                "SELECT has_column_privilege('candidate', 'interview_records', 'ai_analysis_result', 'UPDATE')"));
+        assertTrue(queryBoolean("SELECT has_table_privilege('candidate', 'interview_records', 'INSERT')"));
+    }
+    
+    private boolean queryBoolean(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getBoolean(1);
+        }
+    }
+    
+    private int queryInt(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+    
+    private String queryString(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+    
+    private static String resource(String name) throws IOException {
+        try (InputStream is = SchemaMigratorPostgresTest.class.getClassLoader().getResourceAsStream(name)) {
+            assertNotNull(is, name);
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    /**
+     * 把管理库 URL 中的数据库名换成测试库
+     */
+    private static String urlOf(String db) {
+        int query = adminUrl.indexOf('?');
+        String base = query < 0 ? adminUrl : adminUrl.substring(0, query);
+        String params = query < 0 ? "" : adminUrl.substring(query);
+        return base.substring(0, base.lastIndexOf('/') + 1) + db + params;
+    }
+}
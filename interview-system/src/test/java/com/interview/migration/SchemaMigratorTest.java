@@ -0,0 +1,153 @@
+package com.interview.migration;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SchemaMigrator 的占位符替换和已执行版本校验（不需要数据库，连接用代理模拟）
+ */
+class SchemaMigratorTest {
+    
+    private static final Map<String, String> ROLES = Map.of(
+            "candidate", "candidate", "test_setter", "test_setter", "judge", "judge");
+    
+    @Test
+    void resolvesPlaceholders() {
+        SchemaMigrator migrator = new SchemaMigrator(List.of(), Map.of("candidate", "exam_user"));
+        
+        assertEquals("GRANT SELECT ON questions TO \"exam_user\"; -- exam_user",
+                migrator.resolvePlaceholders("GRANT SELECT ON questions TO \"${candidate}\"; -- ${candidate}"));
+        assertEquals("SELECT '$1' AS x", migrator.resolvePlaceholders("SELECT '$1' AS x"));
+    }
+    
+    @Test
+    void rejectsUnknownPlaceholder() {
+        SchemaMigrator migrator = new SchemaMigrator(List.of(), Map.of("candidate", "candidate"));
+        
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> migrator.resolvePlaceholders("GRANT SELECT ON questions TO ${judge}"));
+        assertTrue(e.getMessage().contains("${judge}"));
+    }
+    
+    @Test
+    void rejectsPlaceholderValueThatIsNotIdentifier() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SchemaMigrator(List.of(), Map.of("candidate", "x\"; DROP TABLE users; --")));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SchemaMigrator(List.of(), Map.of("candidate", "")));
+    }
+    
+    @Test
+    void resolvesEveryPlaceholderInShippedScripts() throws Exception {
+        SchemaMigrator migrator = new SchemaMigrator(ROLES);
+        for (Migration migration : SchemaMigrator.MIGRATIONS) {
+            assertFalse(migrator.resolvePlaceholders(migration.getSql()).contains("${"), migration.getScript());
+        }
+    }
+    
+    @Test
+    void shippedVersionsAreAscendingAndUnique() {
+        int previous = 0;
+        for (Migration migration : SchemaMigrator.MIGRATIONS) {
+            assertTrue(migration.getVersion() > previous, migration.getScript());
+            assertTrue(migration.getScript().startsWith("V" + migration.getVersion() + "__"), migration.getScript());
+            previous = migration.getVersion();
+        }
+    }
+    
+    @Test
+    void rejectsModifiedScript() throws Exception {
+        Migration v1 = SchemaMigrator.MIGRATIONS.get(0);
+        FakeConnection conn = new FakeConnection(Map.of(v1.getVersion(), "0".repeat(64)));
+        
+        SQLException e = assertThrows(SQLException.class,
+                () -> new SchemaMigrator(List.of(v1), ROLES).migrate(conn.proxy()));
+        assertTrue(e.getMessage().contains(v1.getScript()));
+        assertTrue(e.getMessage().contains("校验和不一致"));
+        assertTrue(conn.executed.isEmpty(), "校验失败时不能执行任何语句");
+    }
+    
+    @Test
+    void skipsEverythingWhenAllVersionsApplied() throws Exception {
+        Migration v1 = SchemaMigrator.MIGRATIONS.get(0);
+        Migration v2 = SchemaMigrator.MIGRATIONS.get(1);
+        // 数据库中记录的校验和带 CHAR(64) 的尾随空格也视为一致
+        FakeConnection conn = new FakeConnection(Map.of(
+                v1.getVersion(), v1.getChecksum(), v2.getVersion(), v2.getChecksum() + "  "));
+        
+        assertEquals(0, new SchemaMigrator(List.of(v1, v2), ROLES).migrate(conn.proxy()));
+        assertTrue(conn.executed.isEmpty(), "结构已是最新时不能执行 DDL");
+    }
+    
+    /**
+     * 只支持 findPending 用到的两条查询：schema_version 是否存在、已执行的版本和校验和；
+     * 其他 execute 调用记录下来供断言
+     */
+    private static class FakeConnection {
+        
+        private final Map<Integer, String> applied;
+        private final List<String> executed = new ArrayList<>();
+        
+        FakeConnection(Map<Integer, String> applied) {
+            this.applied = applied;
+        }
+        
+        Connection proxy() {
+            Statement statement = (Statement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { Statement.class }, (p, method, args) -> switch (method.getName()) {
+                        case "executeQuery" -> query((String) args[0]);
+                        case "execute", "executeUpdate" -> {
+                            executed.add((String) args[0]);
+                            yield method.getReturnType() == boolean.class ? (Object) false : (Object) 0;
+                        }
+                        case "close" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { Connection.class }, (p, method, args) -> switch (method.getName()) {
+                        case "createStatement" -> statement;
+                        case "getAutoCommit" -> true;
+                        case "setAutoCommit", "commit", "rollback", "close" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+        
+        private ResultSet query(String sql) {
+            if (sql.contains("to_regclass('schema_version')")) {
+                return rows(List.of(Map.of(1, true)));
+            }
+            if (sql.contains("FROM schema_version")) {
+                List<Map<?, ?>> rows = new ArrayList<>();
+                applied.forEach((version, checksum) -> rows.add(Map.of("version", version, "checksum", checksum)));
+                return rows(rows);
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+        
+        private static ResultSet rows(List<Map<?, ?>> rows) {
+            Iterator<Map<?, ?>> iterator = rows.iterator();
+            Object[] current = new Object[1];
+            return (ResultSet) Proxy.newProxyInstance(FakeConnection.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, (p, method, args) -> switch (method.getName()) {
+                        case "next" -> {
+                            current[0] = iterator.hasNext() ? iterator.next() : null;
+                            yield current[0] != null;
+                        }
+                        case "getBoolean", "getInt", "getString" -> ((Map<?, ?>) current[0]).get(args[0]);
+                        case "close" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
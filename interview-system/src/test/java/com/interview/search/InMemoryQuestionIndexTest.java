@@ -0,0 +1,115 @@
+package com.interview.search;
+
+import com.interview.model.Question;
+import com.interview.model.Question.QuestionLevel;
+import com.interview.model.Question.QuestionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 进程内倒排索引的命中结果与子串匹配一致，包括英文单词中间的片段
+ */
+class InMemoryQuestionIndexTest {
+    
+    private final InMemoryQuestionIndex index = new InMemoryQuestionIndex();
+    
+    @Test
+    void findsFragmentsInsideLatinWords() {
+        index.rebuild(List.of(
+                question(1, "PostgreSQL 的 MVCC", "快照隔离"),
+                question(2, "MySQL索引优化", "最左前缀原则"),
+                question(3, "HashMap 原理", "哈希冲突与扩容"),
+                question(4, "Map 接口", "常用实现类"),
+                question(5, "Java 基础", "JVM 内存模型"),
+                question(6, "Oracle 体系结构", "实例与数据库")));
+        
+        assertEquals(Set.of(1, 2), ids("SQL"));
+        assertEquals(Set.of(3, 4), ids("map"));
+        assertEquals(Set.of(5), ids("jav"));
+        assertEquals(Set.of(1, 2, 3), ids("s"));
+        assertEquals(Set.of(2), ids("SQL索引"));
+        assertEquals(Set.of(), ids("SQL 接口"));
+    }
+    
+    @Test
+    void keepsFragmentsUpToDateWithIncrementalChanges() {
+        index.rebuild(List.of(question(1, "Redis 持久化", "RDB 与 AOF")));
+        assertEquals(Set.of(), ids("sql"));
+        
+        index.put(question(2, "PostgreSQL 复制", "流复制"));
+        assertEquals(Set.of(2), ids("sql"));
+        
+        index.remove(2);
+        assertEquals(Set.of(), ids("sql"));
+    }
+    
+    @Test
+    void matchesNaiveSubstringScan() {
+        String[] words = { "HashMap", "TreeMap", "PostgreSQL", "MySQL", "SQLite", "Kubernetes", "Java", "JavaScript",
+            "数据库", "索引", "红黑树", "哈希", "B+树", "c++", "map", "sql" };
+        Random random = new Random(7);
+        List<Question> questions = new ArrayList<>();
+        for (int id = 1; id <= 300; id++) {
+            questions.add(question(id, sentence(words, random, 3), sentence(words, random, 6)));
+        }
+        index.rebuild(questions);
+        
+        for (int i = 0; i < 500; i++) {
+            String word = words[random.nextInt(words.length)];
+            int from = random.nextInt(word.length());
+            String keyword = word.substring(from, from + 1 + random.nextInt(word.length() - from));
+            if (random.nextBoolean()) {
+                keyword += " " + words[random.nextInt(words.length)].substring(1);
+            }
+            assertEquals(scan(questions, keyword), ids(keyword), keyword);
+        }
+    }
+    
+    private Set<Integer> ids(String keyword) {
+        Set<Integer> ids = new TreeSet<>();
+        for (Question q : index.search(keyword, null, null, null, null, 0)) {
+            ids.add(q.getId());
+        }
+        return ids;
+    }
+    
+    private static Set<Integer> scan(List<Question> questions, String keyword) {
+        Set<Integer> ids = new TreeSet<>();
+        String[] terms = keyword.toLowerCase(Locale.ROOT).trim().split("\\s+");
+        for (Question q : questions) {
+            String text = (q.getTitle() + "\n" + q.getContent()).toLowerCase(Locale.ROOT);
+            boolean all = true;
+            for (String term : terms) {
+                all &= text.contains(term);
+            }
+            if (all) {
+                ids.add(q.getId());
+            }
+        }
+        return ids;
+    }
+    
+    private static String sentence(String[] words, Random random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            // 单词之间随机用空格、标点或直接相连
+            sb.append(words[random.nextInt(words.length)]).append(new String[] { " ", "，", "" }[random.nextInt(3)]);
+        }
+        return sb.toString();
+    }
+    
+    private static Question question(int id, String title, String content) {
+        Question question = new Question(title, content, "", QuestionType.TECHNICAL, QuestionLevel.BASIC, "数据库");
+        question.setId(id);
+        question.setActive(true);
+        return question;
+    }
+}
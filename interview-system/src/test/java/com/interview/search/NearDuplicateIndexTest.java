@@ -0,0 +1,108 @@
+package com.interview.search;
+
+import com.interview.model.Question;
+import com.interview.search.NearDuplicateIndex.DuplicateGroup;
+import com.interview.search.NearDuplicateIndex.Match;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MinHash 签名与近似重复索引
+ */
+class NearDuplicateIndexTest {
+    
+    private static final String HASH_MAP = "请解释 HashMap 的实现原理，包括哈希冲突的处理方式、扩容时机与扩容过程，"
+            + "以及在多线程环境下直接使用 HashMap 可能出现的问题和对应的解决方案。";
+    private static final String HASH_MAP_EDITED = "请解释 HashMap 的实现原理，包括哈希冲突的处理方式、扩容时机与扩容过程，"
+            + "以及在多线程环境下直接使用 HashMap 可能出现的问题和对应的解决办法。";
+    private static final String TCP = "描述 TCP 三次握手和四次挥手的过程，说明为什么建立连接需要三次握手，"
+            + "TIME_WAIT 状态存在的意义，以及拥塞控制中慢启动和拥塞避免的区别。";
+    private static final String RAFT = "设计一个基于 Raft 的分布式键值存储，说明领导者选举、日志复制和成员变更的流程，"
+            + "并分析网络分区时系统的可用性与一致性。";
+    
+    @Test
+    void signatureIsDeterministicAcrossInstances() {
+        assertArrayEquals(new MinHash(60).signature(TCP), new MinHash(60).signature(TCP));
+        assertEquals(1.0, MinHash.similarity(new MinHash(60).signature(TCP), new MinHash(60).signature(TCP)));
+    }
+    
+    @Test
+    void signatureOfTextWithoutTokensIsNull() {
+        MinHash minHash = new MinHash(60);
+        
+        assertNull(minHash.signature(""));
+        assertNull(minHash.signature("，。！？   "));
+    }
+    
+    @Test
+    void similarityTracksTextOverlap() {
+        MinHash minHash = new MinHash(NearDuplicateIndex.BANDS * NearDuplicateIndex.ROWS);
+        
+        assertTrue(MinHash.similarity(minHash.signature(HASH_MAP), minHash.signature(HASH_MAP_EDITED)) > 0.8);
+        assertTrue(MinHash.similarity(minHash.signature(HASH_MAP), minHash.signature(TCP)) < 0.2);
+    }
+    
+    @Test
+    void findsNearDuplicateButNotUnrelatedQuestion() {
+        NearDuplicateIndex index = new NearDuplicateIndex(0.8);
+        index.rebuild(List.of(question(1, "HashMap 原理", HASH_MAP), question(2, "TCP 连接", TCP),
+                question(3, "分布式存储", RAFT)));
+        
+        List<Match> matches = index.findSimilar(question(null, "HashMap 原理", HASH_MAP_EDITED), 10);
+        assertEquals(1, matches.size());
+        assertEquals(1, matches.get(0).getQuestionId());
+        assertTrue(matches.get(0).getSimilarity() >= 0.8);
+        
+        // 不把题目自身当作重复
+        assertTrue(index.findSimilar(question(1, "HashMap 原理", HASH_MAP), 10).isEmpty());
+        assertTrue(index.findSimilar(question(null, "题目", "完全不同的内容，关于编译原理中的语法分析"), 10).isEmpty());
+    }
+    
+    @Test
+    void maintainsIndexIncrementally() {
+        NearDuplicateIndex index = new NearDuplicateIndex(0.8);
+        index.put(question(1, "HashMap 原理", HASH_MAP));
+        index.put(question(2, "TCP 连接", TCP));
+        assertEquals(2, index.size());
+        
+        Question probe = question(null, "HashMap 原理", HASH_MAP_EDITED);
+        index.remove(1);
+        assertTrue(index.findSimilar(probe, 10).isEmpty());
+        
+        index.put(question(4, "HashMap 原理", HASH_MAP));
+        assertEquals(4, index.findSimilar(probe, 10).get(0).getQuestionId());
+        
+        // 停用的题目移出索引
+        Question disabled = question(4, "HashMap 原理", HASH_MAP);
+        disabled.setActive(false);
+        index.put(disabled);
+        assertEquals(1, index.size());
+        assertTrue(index.findSimilar(probe, 10).isEmpty());
+    }
+    
+    @Test
+    void groupsTransitiveDuplicates() {
+        NearDuplicateIndex index = new NearDuplicateIndex(0.8);
+        index.rebuild(List.of(question(5, "HashMap 原理", HASH_MAP), question(2, "HashMap 原理", HASH_MAP_EDITED),
+                question(9, "HashMap 原理", HASH_MAP), question(3, "TCP 连接", TCP),
+                question(7, "TCP 连接", TCP), question(4, "分布式存储", RAFT)));
+        
+        List<DuplicateGroup> groups = index.findGroups();
+        assertEquals(2, groups.size());
+        assertEquals(List.of(2, 5, 9), groups.get(0).getQuestionIds());
+        assertEquals(List.of(3, 7), groups.get(1).getQuestionIds());
+        assertEquals(1.0, groups.get(1).getMaxSimilarity());
+    }
+    
+    private static Question question(Integer id, String title, String content) {
+        Question question = new Question();
+        question.setId(id);
+        question.setTitle(title);
+        question.setContent(content);
+        question.setActive(true);
+        return question;
+    }
+}
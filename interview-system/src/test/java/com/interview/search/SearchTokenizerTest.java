@@ -0,0 +1,47 @@
+package com.interview.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 检索分词与 tsquery 构造：英文片段只在确定了单词边界时写入过滤条件
+ */
+class SearchTokenizerTest {
+    
+    @Test
+    void tokenizesLatinWordsAndChineseBigrams() {
+        assertEquals(List.of("postgresql", "数据", "据库", "索", "b"), SearchTokenizer.tokenize("PostgreSQL数据库，索 B"));
+        assertEquals("hashmap 原理", SearchTokenizer.toDocumentText("HashMap 原理"));
+    }
+    
+    @Test
+    void leavesLatinFragmentsOutOfFilter() {
+        // "SQL" 可能出现在 "PostgreSQL" 中间，"Java基础" 的 "java" 左侧同样没有边界
+        assertNull(SearchTokenizer.toTsQuery("SQL"));
+        assertNull(SearchTokenizer.toTsQuery("sql map"));
+        assertEquals("(基础 <-> 础题)", SearchTokenizer.toTsQuery("Java基础题"));
+    }
+    
+    @Test
+    void usesPrefixOrWholeWordWhenBoundaryIsKnown() {
+        assertEquals("数据 & postgre:*", SearchTokenizer.toTsQuery("数据Postgre"));
+        assertEquals("哈希 & map & 表格", SearchTokenizer.toTsQuery("哈希Map表格"));
+        assertEquals("sql:*", SearchTokenizer.toTsQuery("#SQL"));
+    }
+    
+    @Test
+    void skipsSingleChineseCharacters() {
+        assertNull(SearchTokenizer.toTsQuery("树"));
+        assertEquals("索引", SearchTokenizer.toTsQuery("树 索引"));
+    }
+    
+    @Test
+    void rankQueryKeepsFragmentsAsPrefixes() {
+        assertEquals("sql:*", SearchTokenizer.toRankQuery("SQL"));
+        assertEquals("java:* & (基础 <-> 础题)", SearchTokenizer.toRankQuery("Java基础题"));
+        assertNull(SearchTokenizer.toRankQuery("树"));
+    }
+}
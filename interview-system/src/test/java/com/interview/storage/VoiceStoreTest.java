@@ -0,0 +1,93 @@
+package com.interview.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 内容寻址存储的写入摘要与读取校验
+ */
+class VoiceStoreTest {
+    
+    @Test
+    void storesUnderHashOfContent(@TempDir Path dir) throws Exception {
+        byte[] data = new byte[200_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        Path source = dir.resolve("a.WAV");
+        Files.write(source, data);
+        String expected = HexFormat.of().formatHex(VoiceFiles.newDigest().digest(data));
+        
+        VoiceStore store = new VoiceStore(dir.resolve("store"), 0);
+        VoiceStore.StoredVoice stored = store.store(source.toFile());
+        
+        assertEquals(expected, stored.getHash());
+        assertEquals(data.length, stored.getSize());
+        assertEquals(store.pathFor(expected, "wav"), stored.getFile().toPath());
+        assertArrayEquals(data, Files.readAllBytes(stored.getFile().toPath()));
+        assertFalse(stored.isDeduplicated());
+        assertTrue(store.store(source.toFile()).isDeduplicated());
+    }
+    
+    @Test
+    void detectsCorruptionOnEveryReadWithoutCache(@TempDir Path dir) throws IOException {
+        VoiceStore store = new VoiceStore(dir.resolve("store"), 0);
+        File file = storeText(store, dir, "原始录音内容");
+        String hash = VoiceFiles.hashOf(file.toPath());
+        
+        assertTrue(store.verify(file, hash));
+        corruptInPlace(file.toPath());
+        assertFalse(store.verify(file, hash));
+    }
+    
+    @Test
+    void rehashesAfterCachedResultExpires(@TempDir Path dir) throws Exception {
+        VoiceStore store = new VoiceStore(dir.resolve("store"), 50);
+        File file = storeText(store, dir, "原始录音内容");
+        String hash = VoiceFiles.hashOf(file.toPath());
+        assertTrue(store.verify(file, hash));
+        
+        // 大小和修改时间都不变的损坏在有效期内沿用上次的结果，过期后被发现
+        corruptInPlace(file.toPath());
+        Thread.sleep(100);
+        assertFalse(store.verify(file, hash));
+    }
+    
+    @Test
+    void rehashesWhenSizeChanges(@TempDir Path dir) throws IOException {
+        VoiceStore store = new VoiceStore(dir.resolve("store"), 60_000);
+        File file = storeText(store, dir, "原始录音内容");
+        String hash = VoiceFiles.hashOf(file.toPath());
+        assertTrue(store.verify(file, hash));
+        
+        Files.writeString(file.toPath(), "被截断");
+        assertFalse(store.verify(file, hash));
+        assertFalse(store.verify(new File(dir.toFile(), "missing.wav"), hash));
+    }
+    
+    private static File storeText(VoiceStore store, Path dir, String text) throws IOException {
+        Path source = dir.resolve("source.wav");
+        Files.writeString(source, text);
+        return store.store(source.toFile()).getFile();
+    }
+    
+    /**
+     * 改写一个字节并恢复修改时间
+     */
+    private static void corruptInPlace(Path file) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(file);
+        byte[] data = Files.readAllBytes(file);
+        data[0] ^= 1;
+        Files.write(file, data);
+        Files.setLastModifiedTime(file, modified);
+    }
+}
@@ -0,0 +1,90 @@
+package com.interview.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WavInfo 的头部解析与时间区间换算
+ */
+class WavInfoTest {
+    
+    // 11025 Hz 双声道 16 位：每帧 4 字节，每秒 44100 字节
+    private final WavInfo stereo = new WavInfo(2, 11025, 16, WavInfo.HEADER_SIZE, 441_000);
+    
+    @Test
+    void convertsSecondsToFileOffsets() {
+        assertArrayEquals(new long[] { 44, 44_100 }, stereo.byteRange(0, 1));
+        assertArrayEquals(new long[] { 44 + 88_200, 22_048 }, stereo.byteRange(2, 0.5));
+    }
+    
+    @Test
+    void alignsToSampleFrames() {
+        // 0.1 秒 = 4410 字节，向下对齐到 4 字节的帧
+        long[] range = stereo.byteRange(0.1, 0.1);
+        
+        assertEquals(44 + 4408, range[0]);
+        assertEquals(4408, range[1]);
+        assertEquals(0, (range[0] - 44) % stereo.getBlockAlign());
+    }
+    
+    @Test
+    void clampsToDataRegion() {
+        assertArrayEquals(new long[] { 44, 44_100 }, stereo.byteRange(-3, 1));
+        assertArrayEquals(new long[] { 44 + 396_900, 44_100 }, stereo.byteRange(9, 5));
+        assertArrayEquals(new long[] { 44 + 441_000, 0 }, stereo.byteRange(20, 1));
+        assertArrayEquals(new long[] { 44, 0 }, stereo.byteRange(0, -1));
+    }
+    
+    @Test
+    void readsHeaderWrittenByHeaderFor(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("a.wav");
+        byte[] pcm = new byte[8000];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(new WavInfo(1, 8000, 16, 0, 0).headerFor(pcm.length));
+            channel.write(ByteBuffer.wrap(pcm));
+        }
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WavInfo info = WavInfo.read(channel);
+            assertEquals(1, info.getChannels());
+            assertEquals(8000, info.getSampleRate());
+            assertEquals(16, info.getBitsPerSample());
+            assertEquals(WavInfo.HEADER_SIZE, info.getDataOffset());
+            assertEquals(pcm.length, info.getDataLength());
+            assertEquals(0.5, info.getDurationSeconds(), 1e-9);
+        }
+    }
+    
+    @Test
+    void usesFileSizeWhenDataLengthIsMissing(@TempDir Path dir) throws IOException {
+        // 录音中断时头部的 data 长度仍为 0
+        Path file = dir.resolve("b.wav");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(new WavInfo(1, 8000, 16, 0, 0).headerFor(0));
+            channel.write(ByteBuffer.wrap(new byte[1600]));
+        }
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(1600, WavInfo.read(channel).getDataLength());
+        }
+    }
+    
+    @Test
+    void rejectsNonWavFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("c.wav");
+        Files.write(file, "not a wave file at all".getBytes());
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThrows(IOException.class, () -> WavInfo.read(channel));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.interview.transfer;
+
+import com.interview.model.Question;
+import com.interview.model.Question.QuestionLevel;
+import com.interview.model.Question.QuestionType;
+import com.interview.model.Question.SpecializationType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 导入行到题目的转换与校验
+ */
+class QuestionImporterTest {
+    
+    @Test
+    void convertsRowWithEnumNames() {
+        Question question = QuestionImporter.toQuestion(Map.of(
+                "title", "  两数之和 ", "content", "给定数组和目标值……", "answer", "哈希表",
+                "type", "algorithm", "level", "BASIC", "category", "数组"), "setter");
+        
+        assertEquals("两数之和", question.getTitle());
+        assertEquals("哈希表", question.getAnswer());
+        assertEquals(QuestionType.ALGORITHM, question.getType());
+        assertEquals(QuestionLevel.BASIC, question.getLevel());
+        assertEquals(SpecializationType.NONE, question.getSpecialization());
+        assertEquals("数组", question.getCategory());
+        assertEquals("setter", question.getCreatedBy());
+        assertNotNull(question.getCreatedAt());
+    }
+    
+    @Test
+    void acceptsChineseColumnsAndDisplayNames() {
+        Question question = QuestionImporter.toQuestion(Map.of(
+                "标题", "缓存设计", "题目内容", "设计一个多级缓存", "题目类型", "系统设计题",
+                "难度", "专精三等", "专精类型", "系统设计", "参考答案", ""), "setter");
+        
+        assertEquals("缓存设计", question.getTitle());
+        assertEquals(QuestionType.SYSTEM_DESIGN, question.getType());
+        assertEquals(QuestionLevel.SPECIALIZATION_THREE, question.getLevel());
+        assertEquals(SpecializationType.SYSTEM_DESIGN, question.getSpecialization());
+        // 空值按未填写处理
+        assertNull(question.getAnswer());
+        assertNull(question.getCategory());
+    }
+    
+    @Test
+    void rejectsMissingRequiredField() {
+        assertEquals("内容不能为空", reject(Map.of("title", "t", "content", "  ", "type", "TECHNICAL", "level", "BASIC")));
+        assertEquals("等级不能为空", reject(Map.of("title", "t", "content", "c", "type", "TECHNICAL")));
+    }
+    
+    @Test
+    void rejectsUnknownEnumValue() {
+        assertEquals("类型无效: 编程题", reject(Map.of("title", "t", "content", "c", "type", "编程题", "level", "BASIC")));
+    }
+    
+    @Test
+    void checksSpecializationAgainstLevel() {
+        assertEquals("专精三等题目必须填写专精类型",
+                reject(Map.of("title", "t", "content", "c", "type", "TECHNICAL", "level", "SPECIALIZATION_THREE")));
+        assertEquals("只有专精三等题目可以填写专精类型",
+                reject(Map.of("title", "t", "content", "c", "type", "TECHNICAL", "level", "BASIC",
+                        "specialization", "RESEARCH")));
+    }
+    
+    @Test
+    void checksLengthsAndNulCharacter() {
+        Map<String, String> row = new HashMap<>(Map.of("content", "c", "type", "TECHNICAL", "level", "BASIC"));
+        row.put("title", "x".repeat(256));
+        assertEquals("标题超过 255 个字符", reject(row));
+        
+        row.put("title", "t");
+        row.put("category", "x".repeat(101));
+        assertEquals("分类超过 100 个字符", reject(row));
+        
+        row.remove("category");
+        row.put("content", "a\0b");
+        assertEquals("包含非法字符 \\0", reject(row));
+    }
+    
+    private static String reject(Map<String, String> row) {
+        return assertThrows(IllegalArgumentException.class, () -> QuestionImporter.toQuestion(row, "setter"))
+                .getMessage();
+    }
+}
@@ -0,0 +1,142 @@
+package com.interview.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TextRefiner 的匹配规则（最左最长）与重复折叠
+ */
+class TextRefinerTest {
+    
+    @Test
+    void removesDefaultFillers() {
+        TextRefiner refiner = new TextRefiner();
+        
+        assertEquals("，我觉得这个方案可行", refiner.refine("嗯，我觉得呃这个方案可行啊"));
+        assertEquals("", refiner.refine(null));
+        assertEquals("", refiner.refine("  嗯  "));
+    }
+    
+    @Test
+    void prefersLongestMatchAtSameStart() {
+        TextRefiner refiner = new TextRefiner(List.of("那个", "那个啥"), false, 4);
+        
+        assertEquals("我说", refiner.refine("我那个啥说"));
+        assertEquals("我说", refiner.refine("我那个说"));
+        assertEquals("我那说", refiner.refine("我那说"));
+    }
+    
+    @Test
+    void prefersLeftmostMatchOverLongerLaterMatch() {
+        TextRefiner refiner = new TextRefiner(List.of("ab", "bcd"), false, 4);
+        
+        assertEquals("cd", refiner.refine("abcd"));
+        assertEquals("x", refiner.refine("xbcd"));
+    }
+    
+    @Test
+    void findsShorterMatchAfterLongerPrefixFails() {
+        TextRefiner refiner = new TextRefiner(List.of("abcd", "bc"), false, 4);
+        
+        assertEquals("ae", refiner.refine("abce"));
+        assertEquals("", refiner.refine("abcd"));
+        assertEquals("aab", refiner.refine("aabcdab"));
+    }
+    
+    @Test
+    void doesNotJoinTextAroundRemovedWord() {
+        // 删除"嗯"后前后文字拼成"那个"，但不再次删除
+        TextRefiner refiner = new TextRefiner(List.of("嗯", "那个"), false, 4);
+        
+        assertEquals("那个", refiner.refine("那嗯个"));
+    }
+    
+    @Test
+    void matchesNaiveLeftmostLongestScan() {
+        Random random = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            List<String> patterns = new ArrayList<>();
+            for (int i = 0, n = 1 + random.nextInt(6); i < n; i++) {
+                patterns.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            String text = randomText(random, random.nextInt(40));
+            
+            String expected = naiveRefine(text, patterns);
+            assertEquals(expected, new TextRefiner(patterns, false, 4).refine(text),
+                    "词典 " + patterns + "，文本 " + text);
+        }
+    }
+    
+    @Test
+    void collapsesRepeatedCharactersAndPhrases() {
+        TextRefiner refiner = new TextRefiner(List.of(), true, 4);
+        
+        assertEquals("我觉得", refiner.refine("我我我觉得"));
+        assertEquals("谢谢大家", refiner.refine("谢谢大家"));
+        assertEquals("就是这样", refiner.refine("就是就是就是这样"));
+        assertEquals("就是这样", refiner.refine("就是就是就是就是就是这样"));
+        assertEquals("那么我们开始", refiner.refine("那么我们那么我们那么我们开始"));
+        // 只折叠汉字
+        assertEquals("aaa 111", refiner.refine("aaa 111"));
+    }
+    
+    @Test
+    void keepsPhraseRepeatedTwice() {
+        TextRefiner refiner = new TextRefiner(List.of(), true, 4);
+        
+        assertEquals("我们研究研究再说", refiner.refine("我们研究研究再说"));
+        assertEquals("大家讨论讨论", refiner.refine("大家讨论讨论"));
+        assertEquals("讨论讨论，就是", refiner.refine("讨论讨论，就是就是就是"));
+    }
+    
+    @Test
+    void keepsReduplicationByDefault() {
+        TextRefiner refiner = new TextRefiner();
+        
+        assertEquals("看看看这道题", refiner.refine("嗯看看看这道题"));
+        assertEquals("研究研究", refiner.refine("研究研究"));
+        assertEquals("讨论讨论吧", refiner.refine("讨论讨论吧"));
+    }
+    
+    @Test
+    void keepsRepeatsWhenCollapseDisabled() {
+        TextRefiner refiner = new TextRefiner(List.of(), false, 4);
+        
+        assertEquals("我我我就是就是", refiner.refine("我我我就是就是"));
+    }
+    
+    /**
+     * 参考实现：从左到右，每个位置取以该位置开始的最长词删除
+     */
+    private static String naiveRefine(String text, List<String> patterns) {
+        StringBuilder out = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            int longest = 0;
+            for (String pattern : patterns) {
+                if (pattern.length() > longest && text.startsWith(pattern, i)) {
+                    longest = pattern.length();
+                }
+            }
+            if (longest > 0) {
+                i += longest;
+            } else {
+                out.append(text.charAt(i++));
+            }
+        }
+        return out.toString().trim();
+    }
+    
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(3)));
+        }
+        return sb.toString();
+    }
+}
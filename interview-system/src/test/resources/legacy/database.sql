@@ -0,0 +1,110 @@
+-- 旧版 database.sql 的建表、授权和索引部分（版本化迁移之前），
+-- 供 SchemaMigratorPostgresTest 构造旧库；角色由测试创建
+
+-- =============================================
+-- 2. 用户表
+-- =============================================
+CREATE TABLE IF NOT EXISTS users (
+    id SERIAL PRIMARY KEY,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    real_name VARCHAR(100),
+    email VARCHAR(100),
+    role VARCHAR(20) NOT NULL CHECK (role IN ('ADMIN', 'EXAMINER', 'QUESTION_CREATOR', 'CANDIDATE')),
+    active BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_login TIMESTAMP
+);
+
+-- =============================================
+-- 3. 题目表
+-- =============================================
+CREATE TABLE IF NOT EXISTS questions (
+    id SERIAL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    content TEXT NOT NULL,
+    answer TEXT,
+    type VARCHAR(50) NOT NULL CHECK (type IN ('TECHNICAL', 'BEHAVIORAL', 'SCENARIO', 'ALGORITHM', 'SYSTEM_DESIGN', 'OTHER')),
+    difficulty VARCHAR(20) NOT NULL CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD', 'EXPERT')),
+    category VARCHAR(100),
+    created_by VARCHAR(50),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    active BOOLEAN DEFAULT TRUE
+);
+
+-- =============================================
+-- 4. 面试记录表（支持语音文件存储）
+-- =============================================
+CREATE TABLE IF NOT EXISTS interview_records (
+    id SERIAL PRIMARY KEY,
+    candidate_username VARCHAR(50) NOT NULL,
+    examiner_username VARCHAR(50),
+    interview_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    status VARCHAR(20) NOT NULL DEFAULT 'SCHEDULED' CHECK (status IN ('SCHEDULED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED')),
+    voice_file_path VARCHAR(500),
+    voice_file_name VARCHAR(255),
+    voice_file_size BIGINT,
+    notes TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- =============================================
+-- 5. 评分明细表
+-- =============================================
+CREATE TABLE IF NOT EXISTS evaluation_scores (
+    id SERIAL PRIMARY KEY,
+    interview_id INTEGER REFERENCES interview_records(id) ON DELETE CASCADE,
+    dimension VARCHAR(50) NOT NULL,
+    ai_score INTEGER CHECK (ai_score >= 0 AND ai_score <= 100),
+    human_score INTEGER CHECK (human_score >= 0 AND human_score <= 100),
+    final_score INTEGER CHECK (final_score >= 0 AND final_score <= 100),
+    ai_comment TEXT,
+    human_comment TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- =============================================
+-- 6. 配置角色权限
+-- =============================================
+
+-- 考生权限：只读访问题目，可查看和创建自己的面试记录
+GRANT USAGE ON SCHEMA public TO candidate;
+GRANT SELECT ON questions TO candidate;
+GRANT SELECT, INSERT ON interview_records TO candidate;
+GRANT SELECT, INSERT ON evaluation_scores TO candidate;
+GRANT USAGE, SELECT ON SEQUENCE interview_records_id_seq TO candidate;
+GRANT USAGE, SELECT ON SEQUENCE evaluation_scores_id_seq TO candidate;
+
+-- 出题人权限：完全控制题目表
+GRANT USAGE ON SCHEMA public TO test_setter;
+GRANT SELECT, INSERT, UPDATE, DELETE ON questions TO test_setter;
+GRANT SELECT ON interview_records TO test_setter;
+GRANT SELECT ON evaluation_scores TO test_setter;
+GRANT USAGE, SELECT ON SEQUENCE questions_id_seq TO test_setter;
+
+-- 考官权限：查看题目、完全控制面试记录和评分
+GRANT USAGE ON SCHEMA public TO judge;
+GRANT SELECT ON questions TO judge;
+GRANT SELECT, INSERT, UPDATE ON interview_records TO judge;
+GRANT SELECT, INSERT, UPDATE ON evaluation_scores TO judge;
+GRANT USAGE, SELECT ON SEQUENCE interview_records_id_seq TO judge;
+GRANT USAGE, SELECT ON SEQUENCE evaluation_scores_id_seq TO judge;
+
+-- 管理员权限：完整权限
+GRANT ALL PRIVILEGES ON ALL TABLES IN SCHEMA public TO admin_user;
+GRANT ALL PRIVILEGES ON ALL SEQUENCES IN SCHEMA public TO admin_user;
+
+-- =============================================
+-- 7. 创建索引优化查询
+-- =============================================
+CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
+CREATE INDEX IF NOT EXISTS idx_users_role ON users(role);
+CREATE INDEX IF NOT EXISTS idx_questions_type ON questions(type);
+CREATE INDEX IF NOT EXISTS idx_questions_difficulty ON questions(difficulty);
+CREATE INDEX IF NOT EXISTS idx_questions_category ON questions(category);
+CREATE INDEX IF NOT EXISTS idx_interview_candidate ON interview_records(candidate_username);
+CREATE INDEX IF NOT EXISTS idx_interview_status ON interview_records(status);
+CREATE INDEX IF NOT EXISTS idx_eval_interview ON evaluation_scores(interview_id);
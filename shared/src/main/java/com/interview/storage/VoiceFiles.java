@@ -0,0 +1,173 @@
+package com.interview.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内容寻址语音文件的目录布局、摘要计算与读取校验
+ * - 热层：<root>/ab/cd/<hash>.<ext>
+ * - 冷层：对象键 <hash>.<ext>.gz，按同样的两级分片存放
+ *
+ * 位于各模块之外的共用源码目录，读写录音存储目录的模块都编译这一份源码（见 pom 中的 build-helper 配置），
+ * 布局或校验规则只在这里修改。只依赖 JDK，不引用任何模块的日志或配置。
+ */
+public final class VoiceFiles {
+
+    public static final String DIGEST_ALGORITHM = "SHA-256";
+    public static final String COLD_SUFFIX = ".gz";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // 摘要计算复用的直接缓冲区
+    private static final ThreadLocal<ByteBuffer> BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private VoiceFiles() {
+    }
+
+    /**
+     * 两级分片路径：<root>/ab/cd/<name>
+     */
+    public static Path shard(Path root, String name) {
+        return root.resolve(name.substring(0, 2)).resolve(name.substring(2, 4)).resolve(name);
+    }
+
+    /**
+     * 热层文件名：<hash>.<ext>，没有扩展名时只有哈希
+     */
+    public static String objectName(String hash, String extension) {
+        return extension.isEmpty() ? hash : hash + "." + extension;
+    }
+
+    /**
+     * 冷层对象键：<hash>.<ext>.gz
+     *
+     * @param fileName 热层文件名（用于确定扩展名）
+     */
+    public static String coldKey(String hash, String fileName) {
+        return objectName(hash, extensionOf(fileName)) + COLD_SUFFIX;
+    }
+
+    /**
+     * 小写扩展名，没有扩展名时返回空串
+     */
+    public static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot <= 0 || dot == fileName.length() - 1) {
+            return "";
+        }
+        return fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM 不支持 " + DIGEST_ALGORITHM, e);
+        }
+    }
+
+    /**
+     * 计算文件的 SHA-256
+     */
+    public static String hashOf(Path path) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            copy(channel, null, digest);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 边复制边计算摘要，数据只读一遍
+     *
+     * @param out 目标通道，为 null 时只计算摘要
+     * @return 复制的字节数
+     */
+    public static long copy(ReadableByteChannel in, WritableByteChannel out, MessageDigest digest) throws IOException {
+        ByteBuffer buffer = BUFFER.get();
+        buffer.clear();
+        long total = 0;
+        while (in.read(buffer) != -1) {
+            buffer.flip();
+            total += buffer.remaining();
+            digest.update(buffer.duplicate());
+            while (out != null && buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        }
+        return total;
+    }
+
+    /**
+     * 读取时的内容校验
+     *
+     * 每次完整计算 SHA-256 的代价与文件大小成正比，而播放器拖动进度时会对同一文件连续发出多个区间读取。
+     * 因此校验通过后记录文件的大小、修改时间和校验时刻，有效期内两者未变的读取跳过计算。
+     * 这是尽力而为的快速路径：大小和修改时间都不变的损坏（介质位翻转、保留修改时间的原地改写）
+     * 在有效期内发现不了，过期后的第一次读取会重新完整计算；有效期为 0 时每次读取都完整计算。
+     */
+    public static final class Verifier {
+
+        private final long maxAgeMillis;
+        private final Map<Path, Stamp> verified = new ConcurrentHashMap<>();
+
+        /**
+         * @param maxAgeMillis 校验结果的有效期（毫秒），0 表示不缓存
+         */
+        public Verifier(long maxAgeMillis) {
+            this.maxAgeMillis = Math.max(0, maxAgeMillis);
+        }
+
+        /**
+         * 校验文件内容与记录的哈希是否一致（文件不存在时返回 false）
+         */
+        public boolean verify(Path file, String expectedHash) throws IOException {
+            Path path = file.toAbsolutePath();
+            if (!Files.exists(path)) {
+                verified.remove(path);
+                return false;
+            }
+            long size = Files.size(path);
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            long now = System.currentTimeMillis();
+            Stamp stamp = verified.get(path);
+            if (stamp != null && stamp.size == size && stamp.modified == modified
+                    && now - stamp.verifiedAt < maxAgeMillis) {
+                return true;
+            }
+
+            if (!hashOf(path).equalsIgnoreCase(expectedHash)) {
+                verified.remove(path);
+                return false;
+            }
+            if (maxAgeMillis > 0) {
+                verified.put(path, new Stamp(size, modified, now));
+            }
+            return true;
+        }
+
+        /**
+         * 文件被删除或替换时清除缓存的校验结果
+         */
+        public void forget(Path file) {
+            verified.remove(file.toAbsolutePath());
+        }
+
+        private record Stamp(long size, long modified, long verifiedAt) {
+        }
+    }
+}